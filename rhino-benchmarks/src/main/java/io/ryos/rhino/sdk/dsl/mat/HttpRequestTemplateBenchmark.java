@@ -0,0 +1,172 @@
+/*
+ * Copyright 2020 Ryos.io.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ryos.rhino.sdk.dsl.mat;
+
+import static io.ryos.rhino.sdk.dsl.MaterializableDslItem.http;
+import static org.asynchttpclient.Dsl.delete;
+import static org.asynchttpclient.Dsl.get;
+import static org.asynchttpclient.Dsl.head;
+import static org.asynchttpclient.Dsl.options;
+import static org.asynchttpclient.Dsl.post;
+import static org.asynchttpclient.Dsl.put;
+
+import io.ryos.rhino.sdk.SimulationConfig;
+import io.ryos.rhino.sdk.data.UserSession;
+import io.ryos.rhino.sdk.data.UserSessionImpl;
+import io.ryos.rhino.sdk.dsl.HttpDsl;
+import io.ryos.rhino.sdk.users.data.UserImpl;
+import io.ryos.rhino.sdk.utils.Environment;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.commons.lang3.NotImplementedException;
+import org.asynchttpclient.Request;
+import org.asynchttpclient.RequestBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares building the requests from the compiled {@link HttpRequestTemplate} with building them
+ * from the DSL functions on every call, as the {@link HttpDslMaterializer} did before the
+ * templates. Run with the GC profiler to compare the allocation per request:
+ *
+ * <pre>
+ *   mvn -Pbenchmarks -DskipTests package
+ *   java -jar rhino-benchmarks/target/benchmarks.jar HttpRequestTemplateBenchmark -prof gc
+ * </pre>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpRequestTemplateBenchmark {
+
+  private UserSession session;
+  private HttpDsl dsl;
+  private HttpRequestTemplate template;
+
+  @Setup
+  public void setUp() {
+    SimulationConfig.newInstance("classpath:///rhino.properties", Environment.DEV,
+        HttpRequestTemplateBenchmark.class);
+    session = new UserSessionImpl(new UserImpl("user", UUID.randomUUID().toString(), "", ""));
+    dsl = http("Request")
+        .header("Accept", "application/json")
+        .header("X-Api-Key", "key")
+        .header("X-Client", "rhino")
+        .queryParam("limit", "100")
+        .queryParam("fields", List.of("id", "name", "size"))
+        .endpoint("http://localhost/resources")
+        .get();
+    template = HttpRequestTemplate.compile(dsl);
+  }
+
+  @Benchmark
+  public Request template() {
+    return template.newRequest(session).build();
+  }
+
+  @Benchmark
+  public Request perCall() {
+    return buildHttpRequest(dsl, session).build();
+  }
+
+  /**
+   * The request building of the {@link HttpDslMaterializer} prior to the templates, without the
+   * authorization and debug output, which the benchmarked DSL does not use.
+   * <p>
+   */
+  private static RequestBuilder buildHttpRequest(final HttpDsl httpSpec,
+      final UserSession userSession) {
+    var endpoint = httpSpec.getEndpoint().apply(userSession);
+
+    RequestBuilder builder;
+    switch (httpSpec.getMethod()) {
+      case GET:
+        builder = get(endpoint);
+        break;
+      case HEAD:
+        builder = head(endpoint);
+        break;
+      case OPTIONS:
+        builder = options(endpoint);
+        break;
+      case DELETE:
+        builder = delete(endpoint);
+        break;
+      case PUT:
+        builder = put(endpoint);
+        if (httpSpec.getUploadContent() != null || httpSpec.getLazyStringPayload() != null) {
+          builder.setBody(Optional.ofNullable(httpSpec.getUploadContent()).map(Supplier::get)
+              .orElseGet(() -> httpSpec.getLazyStringPayload().apply(userSession)));
+        }
+        break;
+      case POST:
+        builder = post(endpoint);
+        if (httpSpec.getUploadContent() != null || httpSpec.getLazyStringPayload() != null) {
+          builder.setBody(Optional.ofNullable(httpSpec.getUploadContent()).map(Supplier::get)
+              .orElseGet(() -> httpSpec.getLazyStringPayload().apply(userSession)));
+        }
+        break;
+      default:
+        throw new NotImplementedException("Not implemented: " + httpSpec.getMethod());
+    }
+
+    for (var f : httpSpec.getHeaders()) {
+      var headerEntry = f.apply(userSession);
+      builder = builder.addHeader(headerEntry.getKey(), headerEntry.getValue());
+    }
+
+    for (var f : httpSpec.getQueryParameters()) {
+      var paramEntry = f.apply(userSession);
+      builder = builder
+          .addQueryParam(paramEntry.getKey(), String.join(",", paramEntry.getValue()));
+    }
+
+    for (var f : httpSpec.getFormParameters()) {
+      var paramEntry = f.apply(userSession);
+      builder = builder
+          .addFormParam(paramEntry.getKey(), String.join(",", paramEntry.getValue()));
+    }
+    return builder;
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(HttpRequestTemplateBenchmark.class.getSimpleName())
+        .addProfiler("gc")
+        .build()).run();
+  }
+}
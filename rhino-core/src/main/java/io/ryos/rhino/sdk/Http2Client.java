@@ -0,0 +1,605 @@
+/*
+ * Copyright 2018 Ryos.io.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ryos.rhino.sdk;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.ryos.rhino.sdk.io.RandomContent;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpClient.Version;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.net.http.HttpResponse.ResponseInfo;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.asynchttpclient.AsyncHandler;
+import org.asynchttpclient.AsyncHandler.State;
+import org.asynchttpclient.HttpResponseBodyPart;
+import org.asynchttpclient.HttpResponseStatus;
+import org.asynchttpclient.Request;
+import org.asynchttpclient.request.body.Body.BodyState;
+import org.asynchttpclient.request.body.generator.BodyGenerator;
+import org.asynchttpclient.request.body.generator.FeedListener;
+import org.asynchttpclient.request.body.generator.FeedableBodyGenerator;
+import org.asynchttpclient.uri.Uri;
+
+/**
+ * HTTP/2 client singleton, which multiplexes the requests as streams over a few connections.
+ * HTTPS endpoints negotiate h2 with ALPN, cleartext endpoints upgrade to h2c.
+ * <p>
+ *
+ * The client is built on the HTTP client of the JDK, while the requests are built and the
+ * responses are handled the same way as in HTTP/1.1 mode, i.e the {@link AsyncHandler} of the
+ * request is driven with the status, headers and body parts of the response. The client keeps
+ * {@code http2.connections} connections per endpoint, each of which carries at most {@code
+ * http2.maxConcurrentStreams} streams at once, and the requests beyond wait for a free stream.
+ * <p>
+ *
+ * The JDK client does not expose connection events, so the connection phases of the streams
+ * consist of time to first byte and download.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public enum Http2Client {
+  INSTANCE;
+
+  private static final String PROTOCOL_NAME = "HTTP";
+  private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length",
+      "expect", "host", "upgrade");
+
+  private final Lane[] lanes;
+  private final int maxConcurrentStreams;
+  private final ConcurrentLinkedQueue<Consumer<Lane>> pending = new ConcurrentLinkedQueue<>();
+
+  Http2Client() {
+    this.maxConcurrentStreams = SimulationConfig.getHttp2MaxConcurrentStreams();
+    this.lanes = new Lane[SimulationConfig.getHttp2Connections()];
+    for (int i = 0; i < lanes.length; i++) {
+      // Every client keeps a connection per endpoint, so the lanes are separate clients.
+      lanes[i] = new Lane(java.net.http.HttpClient.newBuilder()
+          .version(Version.HTTP_2)
+          .followRedirects(Redirect.NEVER)
+          .connectTimeout(Duration.ofMillis(SimulationConfig.getHttpConnectTimeout()))
+          .build());
+    }
+  }
+
+  /**
+   * Executes the request, and passes the response to the handler.
+   * <p>
+   *
+   * @param request Request to execute.
+   * @param handler Handler of the response.
+   * @param <T> Type of the result of the handler.
+   * @return {@link CompletableFuture} of the result of the handler.
+   */
+  public <T> CompletableFuture<T> executeRequest(final Request request,
+      final AsyncHandler<T> handler) {
+    var result = new CompletableFuture<T>();
+    HttpRequest httpRequest;
+    try {
+      httpRequest = toHttpRequest(request);
+    } catch (RuntimeException e) {
+      handler.onThrowable(e);
+      result.completeExceptionally(e);
+      return result;
+    }
+
+    pending.add(lane -> send(lane, request, httpRequest, handler, result));
+    dispatch();
+    return result;
+  }
+
+  private <T> void send(final Lane lane, final Request request, final HttpRequest httpRequest,
+      final AsyncHandler<T> handler, final CompletableFuture<T> result) {
+    if (handler instanceof RequestStartListener) {
+      ((RequestStartListener) handler).onRequestStart();
+    }
+    lane.client.sendAsync(httpRequest, bodyHandler(request.getUri(), handler))
+        .whenComplete((response, error) -> {
+          release(lane);
+          if (error != null) {
+            var cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+            handler.onThrowable(cause);
+            result.completeExceptionally(cause);
+            return;
+          }
+          try {
+            result.complete(handler.onCompleted());
+          } catch (Exception e) {
+            handler.onThrowable(e);
+            result.completeExceptionally(e);
+          }
+        });
+  }
+
+  /**
+   * Hands the pending requests over to the lanes with a free stream. A request, that is added
+   * while all streams are busy, is dispatched as soon as one of the streams is released.
+   * <p>
+   */
+  private void dispatch() {
+    while (!pending.isEmpty()) {
+      var lane = acquire();
+      if (lane == null) {
+        return;
+      }
+      var task = pending.poll();
+      if (task == null) {
+        release(lane);
+        return;
+      }
+      task.accept(lane);
+    }
+  }
+
+  private Lane acquire() {
+    while (true) {
+      Lane leastBusy = null;
+      var leastStreams = maxConcurrentStreams;
+      for (var lane : lanes) {
+        var streams = lane.streams.get();
+        if (streams < leastStreams) {
+          leastBusy = lane;
+          leastStreams = streams;
+        }
+      }
+      if (leastBusy == null) {
+        return null;
+      }
+      if (leastBusy.streams.compareAndSet(leastStreams, leastStreams + 1)) {
+        return leastBusy;
+      }
+    }
+  }
+
+  private void release(final Lane lane) {
+    lane.streams.decrementAndGet();
+    dispatch();
+  }
+
+  private static HttpRequest toHttpRequest(final Request request) {
+    var builder = HttpRequest.newBuilder(URI.create(request.getUrl()))
+        .timeout(Duration.ofMillis(SimulationConfig.getHttpRequestTimeout()));
+
+    for (var header : request.getHeaders()) {
+      if (!RESTRICTED_HEADERS.contains(header.getKey().toLowerCase())) {
+        builder.header(header.getKey(), header.getValue());
+      }
+    }
+
+    var formParams = request.getFormParams();
+    if (formParams != null && !formParams.isEmpty()
+        && !request.getHeaders().contains(HttpHeaderNames.CONTENT_TYPE)) {
+      builder.header(HttpHeaderNames.CONTENT_TYPE.toString(),
+          HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED.toString());
+    }
+    return builder.method(request.getMethod(), bodyOf(request)).build();
+  }
+
+  private static BodyPublisher bodyOf(final Request request) {
+    if (request.getStringData() != null) {
+      var charset = request.getCharset() != null ? request.getCharset() : StandardCharsets.UTF_8;
+      return BodyPublishers.ofString(request.getStringData(), charset);
+    }
+    if (request.getByteData() != null) {
+      return BodyPublishers.ofByteArray(request.getByteData());
+    }
+    if (request.getByteBufferData() != null) {
+      var data = request.getByteBufferData();
+      return BodyPublishers.fromPublisher(ChunkPublisher.of(data), data.remaining());
+    }
+    if (request.getBodyGenerator() != null) {
+      var generator = request.getBodyGenerator();
+      var contentLength = generator instanceof RandomContent
+          ? ((RandomContent) generator).getLength()
+          : -1L;
+      return contentLength >= 0
+          ? BodyPublishers.fromPublisher(ChunkPublisher.of(generator), contentLength)
+          : BodyPublishers.fromPublisher(ChunkPublisher.of(generator));
+    }
+    if (request.getFile() != null) {
+      try {
+        return BodyPublishers.ofFile(request.getFile().toPath());
+      } catch (FileNotFoundException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    if (request.getStreamData() != null) {
+      var stream = request.getStreamData();
+      return BodyPublishers.ofInputStream(() -> stream);
+    }
+    if (request.getFormParams() != null && !request.getFormParams().isEmpty()) {
+      return BodyPublishers.ofString(request.getFormParams().stream()
+          .map(param -> URLEncoder.encode(param.getName(), StandardCharsets.UTF_8) + "="
+              + URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8))
+          .collect(Collectors.joining("&")));
+    }
+    return BodyPublishers.noBody();
+  }
+
+  private static <T> BodyHandler<Void> bodyHandler(final Uri uri, final AsyncHandler<T> handler) {
+    return responseInfo -> {
+      try {
+        var state = handler.onStatusReceived(new Status(uri, responseInfo));
+        if (state == State.CONTINUE) {
+          var headers = new DefaultHttpHeaders();
+          responseInfo.headers().map().forEach((name, values) -> {
+            // HTTP/2 pseudo-headers are not HTTP/1.1 header names.
+            if (!name.startsWith(":")) {
+              headers.add(name, values);
+            }
+          });
+          state = handler.onHeadersReceived(headers);
+        }
+        if (state != State.CONTINUE) {
+          return BodySubscribers.discarding();
+        }
+      } catch (Exception e) {
+        throw new CompletionException(e);
+      }
+      return BodySubscribers.fromSubscriber(new BodyPartSubscriber(handler));
+    };
+  }
+
+  /**
+   * Connection to an endpoint and the number of streams in use on it.
+   * <p>
+   */
+  private static final class Lane {
+
+    private final java.net.http.HttpClient client;
+    private final AtomicInteger streams = new AtomicInteger();
+
+    private Lane(final java.net.http.HttpClient client) {
+      this.client = client;
+    }
+  }
+
+  /**
+   * Passes the body of the response to the handler as the chunks arrive.
+   * <p>
+   */
+  private static final class BodyPartSubscriber implements Flow.Subscriber<List<ByteBuffer>> {
+
+    private final AsyncHandler<?> handler;
+    private Flow.Subscription subscription;
+
+    private BodyPartSubscriber(final AsyncHandler<?> handler) {
+      this.handler = handler;
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(final List<ByteBuffer> buffers) {
+      try {
+        for (var buffer : buffers) {
+          if (handler.onBodyPartReceived(new BodyPart(buffer)) != State.CONTINUE) {
+            subscription.cancel();
+            return;
+          }
+        }
+      } catch (Exception e) {
+        subscription.cancel();
+        throw new CompletionException(e);
+      }
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+      // The failure completes the response future, which passes it to the handler.
+    }
+
+    @Override
+    public void onComplete() {
+      // The completion of the response future completes the handler.
+    }
+  }
+
+  /**
+   * Listener of the handlers, which are notified as the request is handed over to a stream. The JDK
+   * client has no counterpart of {@link AsyncHandler#onRequestSend}, so the handlers, which start
+   * their measurement as the request is sent, implement it.
+   * <p>
+   */
+  public interface RequestStartListener {
+
+    /**
+     * Called as the request is handed over to a stream of the client.
+     * <p>
+     */
+    void onRequestStart();
+  }
+
+  /**
+   * Source of the chunks of a subscription to the {@link ChunkPublisher}.
+   * <p>
+   */
+  private interface ChunkSource {
+
+    /**
+     * Returns the next chunk of the body.
+     * <p>
+     *
+     * @return Next chunk, {@link ChunkPublisher#SUSPENDED} if the body waits for more content, or
+     *     {@code null} at the end of the body.
+     */
+    ByteBuffer next();
+  }
+
+  /**
+   * Publishes the body in chunks as they are requested, so that the content, e.g of a shared
+   * payload or a generated body, is neither copied nor held in memory as a whole.
+   * <p>
+   */
+  private static final class ChunkPublisher implements Flow.Publisher<ByteBuffer> {
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+    private static final ByteBuffer SUSPENDED = ByteBuffer.allocate(0);
+
+    private final Function<FeedListener, ChunkSource> sources;
+
+    /**
+     * Creates a new publisher.
+     * <p>
+     *
+     * @param sources Factory of the chunk source of a subscription. The listener passed resumes
+     *     the subscription, once a suspended body is fed with more content.
+     */
+    private ChunkPublisher(final Function<FeedListener, ChunkSource> sources) {
+      this.sources = sources;
+    }
+
+    private static ChunkPublisher of(final ByteBuffer data) {
+      return new ChunkPublisher(listener -> {
+        var remaining = data.duplicate();
+        return () -> {
+          if (!remaining.hasRemaining()) {
+            return null;
+          }
+          var chunk = remaining.slice();
+          chunk.limit(Math.min(CHUNK_SIZE, chunk.remaining()));
+          remaining.position(remaining.position() + chunk.remaining());
+          return chunk;
+        };
+      });
+    }
+
+    private static ChunkPublisher of(final BodyGenerator bodyGenerator) {
+      return new ChunkPublisher(listener -> {
+        // A feedable body suspends till it is fed, and its listener resumes the subscription.
+        var feedable = bodyGenerator instanceof FeedableBodyGenerator;
+        if (feedable) {
+          ((FeedableBodyGenerator) bodyGenerator).setListener(listener);
+        }
+        var body = bodyGenerator.createBody();
+        var stopped = new boolean[1];
+        return () -> {
+          while (!stopped[0]) {
+            var chunk = Unpooled.buffer(CHUNK_SIZE, CHUNK_SIZE);
+            BodyState state;
+            try {
+              state = body.transferTo(chunk);
+              stopped[0] = state == BodyState.STOP;
+              if (stopped[0]) {
+                body.close();
+              }
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+            if (chunk.isReadable()) {
+              return chunk.nioBuffer();
+            }
+            if (state == BodyState.SUSPEND) {
+              if (!feedable) {
+                throw new IllegalStateException("Body is suspended, but it cannot be resumed: "
+                    + bodyGenerator.getClass().getName());
+              }
+              return SUSPENDED;
+            }
+          }
+          return null;
+        };
+      });
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+      var subscription = new ChunkSubscription(subscriber);
+      subscription.source = sources.apply(subscription);
+      subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Subscription, which emits the chunks as long as there is demand, and the body is not
+     * suspended. The signals are serialized by the monitor of the subscription, so a body fed while
+     * the chunks are emitted resumes the subscription, once the emitting thread is done.
+     * <p>
+     */
+    private static final class ChunkSubscription implements Flow.Subscription, FeedListener {
+
+      private final Flow.Subscriber<? super ByteBuffer> subscriber;
+      private ChunkSource source;
+      private long demand;
+      private boolean done;
+
+      private ChunkSubscription(final Flow.Subscriber<? super ByteBuffer> subscriber) {
+        this.subscriber = subscriber;
+      }
+
+      @Override
+      public synchronized void request(final long n) {
+        if (n <= 0) {
+          fail(new IllegalArgumentException("Demand must be positive: " + n));
+          return;
+        }
+        demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+        emit();
+      }
+
+      @Override
+      public synchronized void cancel() {
+        done = true;
+      }
+
+      @Override
+      public synchronized void onContentAdded() {
+        emit();
+      }
+
+      @Override
+      public synchronized void onError(final Throwable t) {
+        fail(t);
+      }
+
+      private void emit() {
+        try {
+          while (demand > 0 && !done) {
+            var chunk = source.next();
+            if (chunk == null) {
+              done = true;
+              subscriber.onComplete();
+              return;
+            }
+            if (chunk == SUSPENDED) {
+              return;
+            }
+            demand--;
+            subscriber.onNext(chunk);
+          }
+        } catch (RuntimeException e) {
+          fail(e);
+        }
+      }
+
+      private void fail(final Throwable t) {
+        if (!done) {
+          done = true;
+          subscriber.onError(t);
+        }
+      }
+    }
+  }
+
+  private static final class BodyPart extends HttpResponseBodyPart {
+
+    private final ByteBuffer buffer;
+
+    private BodyPart(final ByteBuffer buffer) {
+      super(false);
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int length() {
+      return buffer.remaining();
+    }
+
+    @Override
+    public byte[] getBodyPartBytes() {
+      var bytes = new byte[buffer.remaining()];
+      buffer.duplicate().get(bytes);
+      return bytes;
+    }
+
+    @Override
+    public ByteBuffer getBodyByteBuffer() {
+      return buffer.duplicate();
+    }
+  }
+
+  private static final class Status extends HttpResponseStatus {
+
+    private final ResponseInfo responseInfo;
+
+    private Status(final Uri uri, final ResponseInfo responseInfo) {
+      super(uri);
+      this.responseInfo = responseInfo;
+    }
+
+    @Override
+    public int getStatusCode() {
+      return responseInfo.statusCode();
+    }
+
+    @Override
+    public String getStatusText() {
+      return "";
+    }
+
+    @Override
+    public String getProtocolName() {
+      return PROTOCOL_NAME;
+    }
+
+    @Override
+    public int getProtocolMajorVersion() {
+      return responseInfo.version() == Version.HTTP_2 ? 2 : 1;
+    }
+
+    @Override
+    public int getProtocolMinorVersion() {
+      return responseInfo.version() == Version.HTTP_2 ? 0 : 1;
+    }
+
+    @Override
+    public String getProtocolText() {
+      return PROTOCOL_NAME + "/" + getProtocolMajorVersion() + "." + getProtocolMinorVersion();
+    }
+
+    @Override
+    public SocketAddress getRemoteAddress() {
+      return null;
+    }
+
+    @Override
+    public SocketAddress getLocalAddress() {
+      return null;
+    }
+  }
+}
@@ -1,11 +1,40 @@
 package io.ryos.rhino.sdk;
 
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.util.NettyRuntime;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.asynchttpclient.AsyncHandler;
 import org.asynchttpclient.AsyncHttpClient;
+import org.asynchttpclient.DefaultAsyncHttpClient;
 import org.asynchttpclient.Dsl;
-import org.asynchttpclient.filter.ThrottleRequestFilter;
+import org.asynchttpclient.RequestBuilder;
 
 /**
- * HttpClient singleton instance.
+ * HttpClient singleton instance. The client consists of {@code http.shards} shards, each of which
+ * has its own event loop, connection pool and throttle, so that connection reuse, pool lookups and
+ * throttling of a virtual user, which is pinned to a shard, never cross cores.
+ * <p>
+ *
+ * The throttle of a shard never blocks, since the requests are executed, as well as completed, on
+ * the event loop of the shard. A request, that exceeds the connections of the shard, is queued
+ * and sent as one of the requests in flight completes. A shard has still at least two event loop
+ * threads, so that a slow callback on one of them does not stall all connections of the shard.
+ * <p>
+ *
+ * The network resources of the client, i.e event loop threads, transport, buffer allocator,
+ * socket options and connection pool lifetimes, are configured in the configuration or with
+ * {@link io.ryos.rhino.sdk.annotations.HttpClientConfig}. The native epoll transport is used on
+ * Linux, if it is available.
  *
  * @author Erhan Bagdemir
  * @since 2.0.0
@@ -14,25 +43,304 @@ public enum HttpClient {
 
   INSTANCE;
 
-  private AsyncHttpClient client;
+  private static final String SHARD_THREAD_POOL_NAME = "rhino-http-shard-";
+  private static final String LB = "\n";
+  private static final int MIN_IO_THREADS_PER_SHARD = 2;
+
+  private final Shard[] shards;
+  private final int ioThreadsPerShard;
+  private final boolean nativeTransport;
+  private final boolean soReusePort;
+  private final ByteBufAllocator allocator;
 
   HttpClient() {
+    var shardCount = SimulationConfig.getHttpClientShards();
+    var maxConnections = SimulationConfig.getMaxConnections();
+    var ioThreads = SimulationConfig.getHttpIoThreads();
+
+    // The threads are split across the shards, but a shard has at least two of them.
+    this.ioThreadsPerShard = shardCount > 1
+        ? Math.max(MIN_IO_THREADS_PER_SHARD, ioThreads / shardCount)
+        : ioThreads;
+    this.nativeTransport = SimulationConfig.isHttpNativeTransport() && Epoll.isAvailable();
+    this.soReusePort = SimulationConfig.isHttpSoReusePort() && nativeTransport;
+    this.allocator = SimulationConfig.isHttpPooledAllocator()
+        ? PooledByteBufAllocator.DEFAULT
+        : UnpooledByteBufAllocator.DEFAULT;
 
-    var httpClientConfig = Dsl.config()
-        .setKeepAlive(true)
-        .setMaxConnections(SimulationConfig.getMaxConnections())
-        .setMaxConnectionsPerHost(SimulationConfig.getMaxConnections())
-        .setConnectTimeout(SimulationConfig.getHttpConnectTimeout())
-        .setHandshakeTimeout(SimulationConfig.getHttpHandshakeTimeout())
-        .setReadTimeout(SimulationConfig.getHttpReadTimeout())
-        .setRequestTimeout(SimulationConfig.getHttpRequestTimeout())
-        .addRequestFilter(new ThrottleRequestFilter(SimulationConfig.getMaxConnections()))
-        .build();
+    this.shards = new Shard[shardCount];
+    for (int i = 0; i < shardCount; i++) {
+      // The connections are split across the shards, the first ones take the remainder.
+      var shardConnections = Math.max(1,
+          maxConnections / shardCount + (i < maxConnections % shardCount ? 1 : 0));
 
-    this.client = Dsl.asyncHttpClient(httpClientConfig);
+      var httpClientConfig = Dsl.config()
+          .setKeepAlive(true)
+          .setMaxConnections(shardConnections)
+          .setMaxConnectionsPerHost(shardConnections)
+          .setConnectTimeout(SimulationConfig.getHttpConnectTimeout())
+          .setHandshakeTimeout(SimulationConfig.getHttpHandshakeTimeout())
+          .setReadTimeout(SimulationConfig.getHttpReadTimeout())
+          .setRequestTimeout(SimulationConfig.getHttpRequestTimeout())
+          .setConnectionTtl(SimulationConfig.getHttpConnectionTtl())
+          .setPooledConnectionIdleTimeout(SimulationConfig.getHttpPooledConnectionIdleTimeout())
+          .setTcpNoDelay(SimulationConfig.isHttpTcpNoDelay())
+          .setSoReuseAddress(SimulationConfig.isHttpSoReuseAddress())
+          .setUseNativeTransport(nativeTransport)
+          .setAllocator(allocator);
+      if (ioThreadsPerShard > 0) {
+        httpClientConfig.setIoThreadsCount(ioThreadsPerShard);
+      }
+      if (soReusePort) {
+        httpClientConfig.addChannelOption(EpollChannelOption.SO_REUSEPORT, true);
+      }
+      if (shardCount > 1) {
+        httpClientConfig.setThreadPoolName(SHARD_THREAD_POOL_NAME + i);
+      }
+
+      shards[i] = new Shard(i, shardConnections, Dsl.asyncHttpClient(httpClientConfig.build()));
+    }
   }
 
+  /**
+   * Returns the client of the first shard.
+   * <p>
+   *
+   * @return {@link AsyncHttpClient} of the first shard.
+   */
   public AsyncHttpClient getClient() {
-    return client;
+    return shards[0].getClient();
+  }
+
+  /**
+   * Returns the shard the user is pinned to.
+   * <p>
+   *
+   * @param userId Id of the user.
+   * @return {@link Shard} of the user.
+   */
+  public Shard shardOf(final String userId) {
+    if (shards.length == 1 || userId == null) {
+      return shards[0];
+    }
+    return shards[Math.floorMod(userId.hashCode(), shards.length)];
+  }
+
+  public List<Shard> getShards() {
+    return List.of(shards);
+  }
+
+  /**
+   * Returns the event loops of the shards.
+   * <p>
+   *
+   * @return Event loops of the shards, which expose them.
+   */
+  public List<EventLoopGroup> getEventLoopGroups() {
+    var eventLoopGroups = new ArrayList<EventLoopGroup>(shards.length);
+    for (var shard : shards) {
+      if (shard.getClient() instanceof DefaultAsyncHttpClient) {
+        eventLoopGroups.add(((DefaultAsyncHttpClient) shard.getClient()).getEventLoopGroup());
+      }
+    }
+    return eventLoopGroups;
+  }
+
+  /**
+   * Returns the effective configuration of the client, that is printed out as the simulation
+   * starts.
+   * <p>
+   *
+   * @return Configuration report.
+   */
+  public String getConfigurationReport() {
+    var config = shards[0].getClient().getConfig();
+    var maxConnections = 0;
+    for (var shard : shards) {
+      maxConnections += shard.getMaxConnections();
+    }
+
+    return "HTTP client configuration:" + LB
+        + "> shards : " + shards.length + LB
+        + "> io threads per shard : " + (config.getIoThreadsCount() > 0
+        ? String.valueOf(config.getIoThreadsCount())
+        : NettyRuntime.availableProcessors() * 2 + " (default)") + LB
+        + "> transport : " + (nativeTransport ? "epoll" : "nio") + LB
+        + "> allocator : " + (allocator == PooledByteBufAllocator.DEFAULT ? "pooled" : "unpooled")
+        + LB
+        + "> max connections : " + maxConnections + LB
+        + "> tcpNoDelay : " + config.isTcpNoDelay() + LB
+        + "> soReuseAddress : " + config.isSoReuseAddress() + LB
+        + "> soReusePort : " + soReusePort + LB
+        + "> connection ttl : " + config.getConnectionTtl() + " ms" + LB
+        + "> pooled connection idle timeout : " + config.getPooledConnectionIdleTimeout() + " ms"
+        + LB
+        + "> connect / read / request timeout : " + config.getConnectTimeout() + " / "
+        + config.getReadTimeout() + " / " + config.getRequestTimeout() + " ms";
+  }
+
+  /**
+   * Closes the clients of all shards.
+   * <p>
+   *
+   * @throws IOException if a client cannot be closed.
+   */
+  public void close() throws IOException {
+    IOException failure = null;
+    for (var shard : shards) {
+      try {
+        shard.getClient().close();
+      } catch (IOException e) {
+        failure = e;
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Shard of the client, which keeps track of its requests in flight, and admits at most max
+   * connections of them at once. The requests beyond are queued without blocking the caller.
+   * <p>
+   *
+   * @since 2.3.3
+   */
+  public static final class Shard {
+
+    private final int index;
+    private final int maxConnections;
+    private final AsyncHttpClient client;
+    private final ConcurrentLinkedQueue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    Shard(final int index, final int maxConnections, final AsyncHttpClient client) {
+      this.index = index;
+      this.maxConnections = maxConnections;
+      this.client = client;
+    }
+
+    /**
+     * Executes the request on the client of the shard as soon as one of its connections is free.
+     * <p>
+     *
+     * @param requestBuilder Request to execute.
+     * @param handler Handler of the response.
+     * @param <T> Type of the result of the handler.
+     * @return {@link CompletableFuture} of the result of the handler.
+     */
+    public <T> CompletableFuture<T> executeRequest(final RequestBuilder requestBuilder,
+        final AsyncHandler<T> handler) {
+      var result = new CompletableFuture<T>();
+      Runnable task = () -> send(requestBuilder, handler, result);
+      pending.add(task);
+      // A request, that is cancelled while it is waiting for a connection, leaves the queue.
+      result.whenComplete((response, error) -> {
+        if (result.isCancelled()) {
+          pending.remove(task);
+        }
+      });
+      dispatch();
+      return result;
+    }
+
+    private <T> void send(final RequestBuilder requestBuilder, final AsyncHandler<T> handler,
+        final CompletableFuture<T> result) {
+      if (result.isDone()) {
+        release();
+        return;
+      }
+
+      peakInFlight.accumulateAndGet(inFlight.get(), Math::max);
+      CompletableFuture<T> future;
+      try {
+        future = client.executeRequest(requestBuilder, handler).toCompletableFuture();
+      } catch (RuntimeException e) {
+        release();
+        result.completeExceptionally(e);
+        return;
+      }
+      future.whenComplete((response, error) -> {
+        release();
+        if (error != null) {
+          result.completeExceptionally(error);
+        } else {
+          result.complete(response);
+        }
+      });
+    }
+
+    /**
+     * Hands the pending requests over to the client, as long as the shard has free connections. A
+     * request, that is added while all connections are busy, is sent as soon as one of the
+     * requests in flight completes.
+     * <p>
+     */
+    private void dispatch() {
+      while (!pending.isEmpty()) {
+        if (!acquire()) {
+          return;
+        }
+        var task = pending.poll();
+        if (task == null) {
+          inFlight.decrementAndGet();
+          // A request might have been added after the check above.
+          if (pending.isEmpty()) {
+            return;
+          }
+          continue;
+        }
+        task.run();
+      }
+    }
+
+    private boolean acquire() {
+      while (true) {
+        var current = inFlight.get();
+        if (current >= maxConnections) {
+          return false;
+        }
+        if (inFlight.compareAndSet(current, current + 1)) {
+          return true;
+        }
+      }
+    }
+
+    private void release() {
+      inFlight.decrementAndGet();
+      dispatch();
+    }
+
+    /**
+     * Returns the peak utilisation of the shard since the previous call, i.e the peak number of
+     * requests in flight in percent of the connections of the shard.
+     * <p>
+     *
+     * @return Peak utilisation in percent.
+     */
+    public long getAndResetPeakUtilisation() {
+      return peakInFlight.getAndSet(inFlight.get()) * 100L / maxConnections;
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    public int getMaxConnections() {
+      return maxConnections;
+    }
+
+    public int getInFlight() {
+      return inFlight.get();
+    }
+
+    public int getPending() {
+      return pending.size();
+    }
+
+    public AsyncHttpClient getClient() {
+      return client;
+    }
   }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018 Ryos.io.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ryos.rhino.sdk;
+
+/**
+ * HTTP protocol, the requests of the HTTP DSL are sent with. The protocol is configured per
+ * simulation with {@code http.protocol}, and can be overridden per DSL item.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public enum HttpProtocol {
+
+  /**
+   * HTTP/1.1 with keep-alive, i.e a request occupies a connection till its response is received.
+   */
+  HTTP_1_1,
+
+  /**
+   * HTTP/2, which multiplexes the requests as streams over a few connections. HTTPS endpoints
+   * negotiate h2 with ALPN, cleartext endpoints upgrade to h2c. Endpoints, which do not support
+   * HTTP/2, fall back to HTTP/1.1.
+   */
+  HTTP_2;
+
+  /**
+   * Parses the protocol, whereas {@code h2}, {@code h2c} and {@code http2} denote HTTP/2, and
+   * {@code http1.1} denotes HTTP/1.1.
+   * <p>
+   *
+   * @param value Protocol name, case insensitive.
+   * @return {@link HttpProtocol} instance.
+   */
+  public static HttpProtocol of(final String value) {
+    switch (value.trim().toLowerCase()) {
+      case "h2":
+      case "h2c":
+      case "http2":
+      case "http_2":
+        return HTTP_2;
+      case "http1.1":
+      case "http/1.1":
+      case "http_1_1":
+        return HTTP_1_1;
+      default:
+        throw new IllegalArgumentException("Unknown HTTP protocol: " + value);
+    }
+  }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2018 Ryos.io.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ryos.rhino.sdk;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Load profile is an ordered list of {@link LoadStage}s which shape the arrival rate of the
+ * simulation, e.g ramp up to 500 RPS in two minutes, hold it for ten minutes, spike to 2000 RPS
+ * for thirty seconds, then step down. The injection ends once the last stage completes.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @see io.ryos.rhino.sdk.annotations.LoadProfile
+ * @since 2.3.3
+ */
+public class LoadProfile {
+
+  private static final String RAMP_UP_STAGE = "ramp-up";
+  private static final String STEADY_STAGE = "steady";
+
+  private final long startRps;
+  private final List<LoadStage> stages;
+  private final Segment[] segments;
+
+  private LoadProfile(final long startRps, final List<LoadStage> stages) {
+    Validate.isTrue(startRps >= 0, "StartRps must not be negative.");
+    Validate.notEmpty(stages, "Load profile must have at least one stage.");
+
+    this.startRps = startRps;
+    this.stages = Collections.unmodifiableList(new ArrayList<>(stages));
+    this.segments = resolve(startRps, this.stages);
+  }
+
+  /**
+   * Creates a new builder for load profiles starting with the rate given.
+   * <p>
+   *
+   * @param startRps Rate at the beginning of the first stage.
+   * @return {@link Builder} instance.
+   */
+  public static Builder startingAt(final long startRps) {
+    return new Builder(startRps);
+  }
+
+  /**
+   * Converts the ramp-up information into a profile, which ramps up from start RPS to target RPS
+   * and holds the target RPS till the simulation ends.
+   * <p>
+   *
+   * @param rampupInfo Ramp-up information.
+   * @return {@link LoadProfile} instance.
+   */
+  public static LoadProfile of(final RampupInfo rampupInfo) {
+    return startingAt(rampupInfo.getStartRps())
+        .ramp(RAMP_UP_STAGE, rampupInfo.getTargetRps(), rampupInfo.getDuration(),
+            rampupInfo.getCurve())
+        .hold(STEADY_STAGE)
+        .build();
+  }
+
+  private static Segment[] resolve(final long startRps, final List<LoadStage> stages) {
+    var resolved = new Segment[stages.size()];
+    var offset = 0L;
+    var rate = (double) startRps;
+
+    for (int i = 0; i < stages.size(); i++) {
+      var stage = stages.get(i);
+      if (stage.getDuration() == null && i < stages.size() - 1) {
+        throw new IllegalArgumentException("Only the last stage may be unbounded: "
+            + stage.getName());
+      }
+
+      var end = stage.getDuration() == null
+          ? Long.MAX_VALUE
+          : saturatedAdd(offset, stage.getDuration().toNanos());
+
+      switch (stage.getType()) {
+        case RAMP:
+          resolved[i] = new Segment(stage, offset, end, rate, stage.getTargetRps());
+          rate = stage.getTargetRps();
+          break;
+        case HOLD:
+          resolved[i] = new Segment(stage, offset, end, rate, rate);
+          break;
+        case SPIKE:
+          resolved[i] = new Segment(stage, offset, end, stage.getTargetRps(),
+              stage.getTargetRps());
+          break;
+        case STEP:
+          resolved[i] = new Segment(stage, offset, end, stage.getTargetRps(),
+              stage.getTargetRps());
+          rate = stage.getTargetRps();
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown stage type: " + stage.getType());
+      }
+      offset = end;
+    }
+    return resolved;
+  }
+
+  private static long saturatedAdd(final long a, final long b) {
+    var sum = a + b;
+    return sum < 0 ? Long.MAX_VALUE : sum;
+  }
+
+  private Segment segmentAt(final long elapsedNanos) {
+    for (var segment : segments) {
+      if (elapsedNanos < segment.end) {
+        return segment;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the stage active at the time elapsed since the injection started.
+   * <p>
+   *
+   * @param elapsedNanos Time elapsed since the injection started in nanos.
+   * @return Active {@link LoadStage}, or {@code null} if the profile is completed.
+   */
+  public LoadStage stageAt(final long elapsedNanos) {
+    var segment = segmentAt(elapsedNanos);
+    return segment != null ? segment.stage : null;
+  }
+
+  /**
+   * Returns the target arrival rate in requests per second at the time elapsed since the
+   * injection started.
+   * <p>
+   *
+   * @param elapsedNanos Time elapsed since the injection started in nanos.
+   * @return Arrival rate in requests per second, or zero if the profile is completed.
+   */
+  public double rateAt(final long elapsedNanos) {
+    var segment = segmentAt(Math.max(elapsedNanos, 0L));
+    return segment != null ? segment.rateAt(Math.max(elapsedNanos, 0L)) : 0d;
+  }
+
+  /**
+   * Computes the point in time of the arrival following the one at the time given, so that the
+   * integral of the rate between both arrivals is a single arrival. Linear ramps are solved
+   * exactly, which also covers ramps starting from zero, exponential ramps are approximated by
+   * sampling the rate in the middle of the interval. If the rate is zero, i.e the stage pauses the
+   * load, the next arrival is the end of the stage.
+   * <p>
+   *
+   * @param arrivalNanos Time of the previous arrival relative to the injection start.
+   * @return Time of the next arrival relative to the injection start.
+   */
+  public long nextArrival(final long arrivalNanos) {
+    var segment = segmentAt(arrivalNanos);
+    if (segment == null) {
+      return Long.MAX_VALUE;
+    }
+    return arrivalNanos + segment.intervalAt(arrivalNanos);
+  }
+
+  /**
+   * Checks whether all stages have been completed at the time given.
+   * <p>
+   *
+   * @param elapsedNanos Time elapsed since the injection started in nanos.
+   * @return {@code true} if the profile is completed.
+   */
+  public boolean isCompleted(final long elapsedNanos) {
+    return elapsedNanos >= segments[segments.length - 1].end;
+  }
+
+  public long getStartRps() {
+    return startRps;
+  }
+
+  public List<LoadStage> getStages() {
+    return stages;
+  }
+
+  private static class Segment {
+
+    private static final double NANOS_PER_SEC = 1_000_000_000d;
+
+    private final LoadStage stage;
+    private final long start;
+    private final long end;
+    private final double fromRps;
+    private final double toRps;
+
+    private Segment(final LoadStage stage, final long start, final long end,
+        final double fromRps, final double toRps) {
+      this.stage = stage;
+      this.start = start;
+      this.end = end;
+      this.fromRps = fromRps;
+      this.toRps = toRps;
+    }
+
+    private double rateAt(final long elapsedNanos) {
+      if (fromRps == toRps || end == Long.MAX_VALUE) {
+        return toRps;
+      }
+
+      var progress = (double) (elapsedNanos - start) / (end - start);
+      if (stage.getCurve() == RampupCurve.EXPONENTIAL && fromRps > 0) {
+        return fromRps * Math.pow(toRps / fromRps, progress);
+      }
+      return fromRps + (toRps - fromRps) * progress;
+    }
+
+    private long intervalAt(final long elapsedNanos) {
+      var remaining = end - elapsedNanos;
+      var rate = rateAt(elapsedNanos);
+
+      double interval;
+      if (fromRps != toRps && end != Long.MAX_VALUE && stage.getCurve() == RampupCurve.LINEAR) {
+        // Solves rate * t + slope * t^2 / 2 = 1 for the inter-arrival time t in seconds.
+        var slope = (toRps - fromRps) / ((end - start) / NANOS_PER_SEC);
+        var discriminant = rate * rate + 2 * slope;
+        if (discriminant < 0) {
+          return remaining;
+        }
+        interval = (Math.sqrt(discriminant) - rate) / slope;
+      } else {
+        if (rate <= 0) {
+          return remaining;
+        }
+        interval = 1d / rate;
+        var midRate = rateAt(Math.min(elapsedNanos + Math.round(interval * NANOS_PER_SEC / 2),
+            end - 1));
+        interval = midRate > 0 ? 1d / midRate : interval;
+      }
+      return Math.max(1L, Math.min(Math.round(interval * NANOS_PER_SEC), remaining));
+    }
+  }
+
+  /**
+   * Builder for {@link LoadProfile}.
+   * <p>
+   */
+  public static class Builder {
+
+    private final long startRps;
+    private final List<LoadStage> stages = new ArrayList<>();
+
+    private Builder(final long startRps) {
+      this.startRps = startRps;
+    }
+
+    public Builder ramp(final String name, final long targetRps, final Duration duration) {
+      return stage(LoadStage.ramp(name, targetRps, duration));
+    }
+
+    public Builder ramp(final String name, final long targetRps, final Duration duration,
+        final RampupCurve curve) {
+      return stage(LoadStage.ramp(name, targetRps, duration, curve));
+    }
+
+    public Builder hold(final String name, final Duration duration) {
+      return stage(LoadStage.hold(name, duration));
+    }
+
+    public Builder hold(final String name) {
+      return stage(LoadStage.hold(name));
+    }
+
+    public Builder spike(final String name, final long targetRps, final Duration duration) {
+      return stage(LoadStage.spike(name, targetRps, duration));
+    }
+
+    public Builder step(final String name, final long targetRps, final Duration duration) {
+      return stage(LoadStage.step(name, targetRps, duration));
+    }
+
+    public Builder stage(final LoadStage stage) {
+      stages.add(Validate.notNull(stage, "Stage must not be null."));
+      return this;
+    }
+
+    public LoadProfile build() {
+      return new LoadProfile(startRps, stages);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "LoadProfile{" +
+        "startRps=" + startRps +
+        ", stages=" + stages +
+        '}';
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2018 Ryos.io.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ryos.rhino.sdk;
+
+import java.time.Duration;
+import java.util.Objects;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A single stage of a {@link LoadProfile}. Stages are executed in the order they are defined in
+ * the profile, and every stage shapes the arrival rate for its duration.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @see LoadProfile
+ * @since 2.3.3
+ */
+public class LoadStage {
+
+  /**
+   * Type of the stage.
+   * <p>
+   */
+  public enum Type {
+
+    /**
+     * Changes the rate from the rate of the previous stage to the target rate.
+     */
+    RAMP,
+
+    /**
+     * Keeps the rate of the previous stage.
+     */
+    HOLD,
+
+    /**
+     * Jumps to the target rate for the duration of the stage. The stage following the spike
+     * continues with the rate before the spike.
+     */
+    SPIKE,
+
+    /**
+     * Jumps to the target rate, which is kept by the following stages.
+     */
+    STEP
+  }
+
+  private final String name;
+  private final Type type;
+  private final long targetRps;
+  private final Duration duration;
+  private final RampupCurve curve;
+
+  private LoadStage(final String name, final Type type, final long targetRps,
+      final Duration duration, final RampupCurve curve) {
+    this.name = Validate.notEmpty(name, "Stage name must not be empty.");
+    this.type = Objects.requireNonNull(type);
+    this.duration = duration;
+    this.curve = Objects.requireNonNull(curve);
+    this.targetRps = targetRps;
+
+    if (type != Type.HOLD && targetRps < 0) {
+      throw new IllegalArgumentException("TargetRps must not be negative: " + name);
+    }
+    if (duration != null && duration.isNegative()) {
+      throw new IllegalArgumentException("Duration must not be negative: " + name);
+    }
+  }
+
+  public static LoadStage of(final String name, final Type type, final long targetRps,
+      final Duration duration, final RampupCurve curve) {
+    return new LoadStage(name, type, targetRps, duration, curve);
+  }
+
+  public static LoadStage ramp(final String name, final long targetRps,
+      final Duration duration) {
+    return new LoadStage(name, Type.RAMP, targetRps, duration, RampupCurve.LINEAR);
+  }
+
+  public static LoadStage ramp(final String name, final long targetRps,
+      final Duration duration, final RampupCurve curve) {
+    return new LoadStage(name, Type.RAMP, targetRps, duration, curve);
+  }
+
+  /**
+   * Hold stage which keeps the rate of the previous stage till the simulation ends.
+   * <p>
+   *
+   * @param name Name of the stage.
+   * @return {@link LoadStage} instance.
+   */
+  public static LoadStage hold(final String name) {
+    return new LoadStage(name, Type.HOLD, -1, null, RampupCurve.LINEAR);
+  }
+
+  public static LoadStage hold(final String name, final Duration duration) {
+    return new LoadStage(name, Type.HOLD, -1, Objects.requireNonNull(duration),
+        RampupCurve.LINEAR);
+  }
+
+  public static LoadStage spike(final String name, final long targetRps,
+      final Duration duration) {
+    return new LoadStage(name, Type.SPIKE, targetRps, Objects.requireNonNull(duration),
+        RampupCurve.LINEAR);
+  }
+
+  public static LoadStage step(final String name, final long targetRps,
+      final Duration duration) {
+    return new LoadStage(name, Type.STEP, targetRps, Objects.requireNonNull(duration),
+        RampupCurve.LINEAR);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public long getTargetRps() {
+    return targetRps;
+  }
+
+  /**
+   * Duration of the stage, or {@code null} if the stage lasts till the simulation ends.
+   * <p>
+   *
+   * @return Duration of the stage.
+   */
+  public Duration getDuration() {
+    return duration;
+  }
+
+  public RampupCurve getCurve() {
+    return curve;
+  }
+
+  @Override
+  public String toString() {
+    return "LoadStage{" +
+        "name='" + name + '\'' +
+        ", type=" + type +
+        ", targetRps=" + targetRps +
+        ", duration=" + duration +
+        '}';
+  }
+}
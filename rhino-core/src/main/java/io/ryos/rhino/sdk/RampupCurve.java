@@ -0,0 +1,38 @@
+/*
+ * Copyright 2018 Ryos.io.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ryos.rhino.sdk;
+
+/**
+ * The shape of the curve which is followed while the arrival rate climbs from the start RPS to
+ * the target RPS during the ramp-up phase.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public enum RampupCurve {
+
+  /**
+   * The rate grows by the same amount of requests every second.
+   */
+  LINEAR,
+
+  /**
+   * The rate grows by the same factor every second.
+   */
+  EXPONENTIAL
+}
@@ -6,17 +6,26 @@ public class RampupInfo {
   private long startRps;
   private long targetRps;
   private Duration duration;
-  private static final RampupInfo NONE = new RampupInfo(-1, -1, Duration.ZERO);
+  private RampupCurve curve;
+  private static final RampupInfo NONE = new RampupInfo(-1, -1, Duration.ZERO,
+      RampupCurve.LINEAR);
 
-  private RampupInfo(final long startRps, final long targetRps, final Duration duration) {
+  private RampupInfo(final long startRps, final long targetRps, final Duration duration,
+      final RampupCurve curve) {
     this.startRps = startRps;
     this.targetRps = targetRps;
     this.duration = duration;
+    this.curve = curve;
   }
 
   public static RampupInfo ofDefault(final long startRps, final long targetRps,
       final Duration duration) {
-    return new RampupInfo(startRps, targetRps, duration);
+    return new RampupInfo(startRps, targetRps, duration, RampupCurve.LINEAR);
+  }
+
+  public static RampupInfo of(final long startRps, final long targetRps,
+      final Duration duration, final RampupCurve curve) {
+    return new RampupInfo(startRps, targetRps, duration, curve);
   }
 
   public static RampupInfo none() {
@@ -34,4 +43,8 @@ public class RampupInfo {
   public Duration getDuration() {
     return duration;
   }
+
+  public RampupCurve getCurve() {
+    return curve;
+  }
 }
@@ -16,6 +16,7 @@
 
 package io.ryos.rhino.sdk;
 
+import io.ryos.rhino.sdk.annotations.HttpClientConfig;
 import io.ryos.rhino.sdk.exceptions.ExceptionUtils;
 import io.ryos.rhino.sdk.exceptions.RhinoIOException;
 import io.ryos.rhino.sdk.io.ConfigResource;
@@ -28,6 +29,7 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.UUID;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -47,8 +49,14 @@ public class SimulationConfig {
   private static final String SIM_ID = "SIM_ID";
   private static final int DEFAULT_BATCH_DURATION = 200;
   private static final int DEFAULT_BATCH_ACTIONS = 1000;
+  private static final String INFLUX_MODE_AGGREGATED = "aggregated";
+  private static final int DEFAULT_INFLUX_QUEUE_SIZE = 64;
+  private static final int DEFAULT_INFLUX_RETRIES = 5;
+  private static final int METRICS_PORT_DISABLED = -1;
   private static final String DEFAULT_TIMEOUT = "60000";
   private static final String DEFAULT_CONNECTIONS = "1000";
+  private static final int DEFAULT_HTTP2_MAX_STREAMS = 100;
+  private static final String AUTO = "auto";
   private static final String DEFAULT_READ_TIMEOUT = "15000";
   private static SimulationConfig instance;
 
@@ -173,6 +181,177 @@ public class SimulationConfig {
     return instance.getDBSupportInfluxRetentionPolicy();
   }
 
+  public static int getInfluxQueueSize() {
+    if (instance.getDBSupportInfluxQueueSize() != null) {
+      return Integer.parseInt(instance.getDBSupportInfluxQueueSize());
+    }
+    return DEFAULT_INFLUX_QUEUE_SIZE;
+  }
+
+  public static int getInfluxMaxRetries() {
+    if (instance.getDBSupportInfluxMaxRetries() != null) {
+      return Integer.parseInt(instance.getDBSupportInfluxMaxRetries());
+    }
+    return DEFAULT_INFLUX_RETRIES;
+  }
+
+  /**
+   * Directory, the Influx DB batches are spilled to, if Influx DB is not available, or {@code
+   * null} if spilling is disabled.
+   * <p>
+   *
+   * @return Path to the spill directory.
+   */
+  public static String getInfluxSpillDirectory() {
+    return instance.getDBSupportInfluxSpillDirectory();
+  }
+
+  /**
+   * Whether the events are written to Influx DB as per-second aggregates instead of a point per
+   * event, that is configured with {@code db.influx.mode=aggregated}.
+   * <p>
+   *
+   * @return {@code true} if aggregated.
+   */
+  public static boolean isInfluxAggregated() {
+    return INFLUX_MODE_AGGREGATED.equalsIgnoreCase(instance.getDBSupportInfluxMode());
+  }
+
+  /**
+   * Port of the OpenMetrics scrape endpoint, that is configured with {@code metrics.port}, or
+   * {@code -1} if the endpoint is disabled.
+   * <p>
+   *
+   * @return Port of the scrape endpoint.
+   */
+  public static int getMetricsPort() {
+    if (instance.getMetricsPortProperty() != null) {
+      return Integer.parseInt(instance.getMetricsPortProperty());
+    }
+    return METRICS_PORT_DISABLED;
+  }
+
+  /**
+   * Whether the connection phases of the requests, i.e DNS, connect, TLS, time to first byte and
+   * download, are captured. The capture is enabled by default, and can be disabled with {@code
+   * http.timings=false} for runs, that must not pay for it.
+   * <p>
+   *
+   * @return {@code true} if the phases are captured.
+   */
+  public static boolean isConnectionPhasesEnabled() {
+    var property = instance.getHttpTimingsProperty();
+    return property == null || Boolean.parseBoolean(property.trim());
+  }
+
+  /**
+   * HTTP protocol of the simulation, that is configured with {@code http.protocol}, e.g {@code
+   * h2}. The default is HTTP/1.1.
+   * <p>
+   *
+   * @return {@link HttpProtocol} of the simulation.
+   */
+  public static HttpProtocol getHttpProtocol() {
+    var property = instance.getHttpProtocolProperty();
+    return property != null ? HttpProtocol.of(property) : HttpProtocol.HTTP_1_1;
+  }
+
+  /**
+   * Maximum number of concurrent streams per HTTP/2 connection, that is configured with {@code
+   * http2.maxConcurrentStreams}.
+   * <p>
+   *
+   * @return Maximum number of concurrent streams.
+   */
+  public static int getHttp2MaxConcurrentStreams() {
+    var property = instance.getHttp2MaxConcurrentStreamsProperty();
+    return property != null ? Integer.parseInt(property) : DEFAULT_HTTP2_MAX_STREAMS;
+  }
+
+  /**
+   * Number of the HTTP/2 connections per endpoint, that is configured with {@code
+   * http2.connections}. By default, there are as many connections as needed to serve {@code
+   * http.maxConnections} concurrent requests.
+   * <p>
+   *
+   * @return Number of the HTTP/2 connections.
+   */
+  public static int getHttp2Connections() {
+    var property = instance.getHttp2ConnectionsProperty();
+    if (property != null) {
+      return Integer.parseInt(property);
+    }
+    var streams = getHttp2MaxConcurrentStreams();
+    return Math.max(1, (getMaxConnections() + streams - 1) / streams);
+  }
+
+  /**
+   * Number of the HTTP client shards, that is configured with {@code http.shards}, whereas {@code
+   * auto} creates a shard per available core. Every shard has its own event loop, connection pool
+   * and share of {@code http.maxConnections}, and every virtual user is pinned to a shard. The
+   * default is a single client.
+   * <p>
+   *
+   * @return Number of the HTTP client shards.
+   */
+  public static int getHttpClientShards() {
+    var property = instance.getHttpShardsProperty();
+    if (property == null) {
+      return 1;
+    }
+    if (AUTO.equalsIgnoreCase(property.trim())) {
+      return Runtime.getRuntime().availableProcessors();
+    }
+    return Math.max(1, Integer.parseInt(property.trim()));
+  }
+
+  /**
+   * Number of the event loop threads of the HTTP client, that is configured with {@code
+   * http.ioThreads} or {@link HttpClientConfig#ioThreads()}.
+   * <p>
+   *
+   * @return Number of the event loop threads, or zero for the default of the client.
+   */
+  public static int getHttpIoThreads() {
+    return Integer.parseInt(instance.getHttpClientProperty("http.ioThreads",
+        HttpClientConfig::ioThreads));
+  }
+
+  public static boolean isHttpNativeTransport() {
+    return Boolean.parseBoolean(instance.getHttpClientProperty("http.nativeTransport",
+        HttpClientConfig::nativeTransport));
+  }
+
+  public static boolean isHttpPooledAllocator() {
+    return Boolean.parseBoolean(instance.getHttpClientProperty("http.pooledAllocator",
+        HttpClientConfig::pooledAllocator));
+  }
+
+  public static boolean isHttpTcpNoDelay() {
+    return Boolean.parseBoolean(instance.getHttpClientProperty("http.tcpNoDelay",
+        HttpClientConfig::tcpNoDelay));
+  }
+
+  public static boolean isHttpSoReuseAddress() {
+    return Boolean.parseBoolean(instance.getHttpClientProperty("http.soReuseAddress",
+        HttpClientConfig::soReuseAddress));
+  }
+
+  public static boolean isHttpSoReusePort() {
+    return Boolean.parseBoolean(instance.getHttpClientProperty("http.soReusePort",
+        HttpClientConfig::soReusePort));
+  }
+
+  public static int getHttpConnectionTtl() {
+    return Integer.parseInt(instance.getHttpClientProperty("http.connectionTtl",
+        HttpClientConfig::connectionTtl));
+  }
+
+  public static int getHttpPooledConnectionIdleTimeout() {
+    return Integer.parseInt(instance.getHttpClientProperty("http.pooledConnectionIdleTimeout",
+        HttpClientConfig::pooledConnectionIdleTimeout));
+  }
+
   private String getNodeName() {
     return properties.getProperty("node");
   }
@@ -296,6 +475,68 @@ public class SimulationConfig {
     return properties.getProperty("db.influx.policy");
   }
 
+  private String getDBSupportInfluxMode() {
+    return properties.getProperty("db.influx.mode");
+  }
+
+  private String getDBSupportInfluxQueueSize() {
+    return properties.getProperty("db.influx.queue.size");
+  }
+
+  private String getDBSupportInfluxMaxRetries() {
+    return properties.getProperty("db.influx.retry.max");
+  }
+
+  private String getDBSupportInfluxSpillDirectory() {
+    return properties.getProperty("db.influx.spill.dir");
+  }
+
+  private String getMetricsPortProperty() {
+    return properties.getProperty("metrics.port");
+  }
+
+  private String getHttpProtocolProperty() {
+    return properties.getProperty("http.protocol");
+  }
+
+  private String getHttp2MaxConcurrentStreamsProperty() {
+    return properties.getProperty("http2.maxConcurrentStreams");
+  }
+
+  private String getHttp2ConnectionsProperty() {
+    return properties.getProperty("http2.connections");
+  }
+
+  private String getHttpShardsProperty() {
+    return properties.getProperty("http.shards");
+  }
+
+  /**
+   * Returns the HTTP client option, whereas the System properties take precedence over the
+   * configuration, and the configuration over the {@link HttpClientConfig} annotation of the
+   * simulation.
+   * <p>
+   */
+  private String getHttpClientProperty(final String key,
+      final Function<HttpClientConfig, Object> annotationValue) {
+    var property = System.getProperty(key, properties.getProperty(key));
+    if (property != null) {
+      return property.trim();
+    }
+
+    var annotation = simulationClass != null
+        ? simulationClass.getDeclaredAnnotation(HttpClientConfig.class)
+        : null;
+    if (annotation == null) {
+      annotation = DefaultHttpClientConfig.class.getDeclaredAnnotation(HttpClientConfig.class);
+    }
+    return String.valueOf(annotationValue.apply(annotation));
+  }
+
+  private String getHttpTimingsProperty() {
+    return properties.getProperty("http.timings");
+  }
+
   private RampupInfo getRampupInfo(String name) {
     String prefix = "simulation.rampup." + name + ".";
     RampupInfo info = getRampupInfoPerAnnotation();
@@ -317,7 +558,9 @@ public class SimulationConfig {
     var duration = Duration.ofMinutes(
         Long.parseLong(
             val.apply("durationInMins", () -> "" + info.getDuration().toMinutes())));
-    return RampupInfo.ofDefault(startRps, targetRps, duration);
+    var curve = RampupCurve.valueOf(val.apply("curve", () -> info.getCurve().name())
+        .toUpperCase());
+    return RampupInfo.of(startRps, targetRps, duration, curve);
   }
 
   private RampupInfo getRampupInfoPerAnnotation() {
@@ -333,14 +576,37 @@ public class SimulationConfig {
       } else {
         duration = Duration.ofMinutes(simAnnotation.durationInMins());
       }
-      return RampupInfo.ofDefault(
+      return RampupInfo.of(
           rampUpAnnotation.startRps(),
           rampUpAnnotation.targetRps(),
-          duration);
+          duration,
+          rampUpAnnotation.curve());
     }
     return RampupInfo.none();
   }
 
+  private LoadProfile getLoadProfile(String name) {
+    var profileAnnotation = getSimulationClass()
+        .getDeclaredAnnotation(io.ryos.rhino.sdk.annotations.LoadProfile.class);
+    if (profileAnnotation != null) {
+      var builder = LoadProfile.startingAt(profileAnnotation.startRps());
+      for (var stage : profileAnnotation.value()) {
+        builder.stage(LoadStage.of(stage.name(),
+            stage.type(),
+            stage.targetRps(),
+            stage.durationInSecs() >= 0 ? Duration.ofSeconds(stage.durationInSecs()) : null,
+            stage.curve()));
+      }
+      return builder.build();
+    }
+
+    var rampupInfo = getRampupInfo(name);
+    if (rampupInfo != RampupInfo.none()) {
+      return LoadProfile.of(rampupInfo);
+    }
+    return null;
+  }
+
   private Duration getDuration(String name, int durationInMinsFallback) {
     String property = "simulation.durationInMins." + name;
     var duration = Duration
@@ -514,6 +780,24 @@ public class SimulationConfig {
     return instance.getRampupInfo(getSimulationClass().getCanonicalName());
   }
 
+  /**
+   * Returns the load profile of the simulation. The {@link
+   * io.ryos.rhino.sdk.annotations.LoadProfile} annotation takes precedence over the ramp-up, which
+   * is converted into a profile with a ramp and an unbounded hold stage.
+   * <p>
+   *
+   * @return {@link LoadProfile} instance, or {@code null} if the simulation has neither.
+   */
+  public static LoadProfile getLoadProfile() {
+    return instance.getLoadProfile(getSimulationClass().getCanonicalName());
+  }
+
+  public static boolean isLoadProfileDefined() {
+    return getSimulationClass()
+        .getDeclaredAnnotation(io.ryos.rhino.sdk.annotations.LoadProfile.class) != null
+        || isRampupDefined();
+  }
+
   public static boolean isRampupDefined() {
     RampupInfo rampupInfo = instance.getRampupInfo(getSimulationClass().getCanonicalName());
     return rampupInfo != RampupInfo.none();
@@ -553,4 +837,12 @@ public class SimulationConfig {
   private String getSimOutputStyle() {
     return properties.getProperty("simulation.output.style");
   }
+
+  /**
+   * Carries the defaults of the {@link HttpClientConfig} for simulations without the annotation.
+   * <p>
+   */
+  @HttpClientConfig
+  private static final class DefaultHttpClientConfig {
+  }
 }
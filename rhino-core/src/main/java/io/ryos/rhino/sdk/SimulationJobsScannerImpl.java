@@ -119,7 +119,8 @@ public class SimulationJobsScannerImpl implements SimulationJobsScanner {
   }
 
   private DslMethod createDslMethod(Object testInstance, Method method) {
-    return new DslMethodImpl(getName(method), ReflectionUtils.executeMethod(method, testInstance));
+    return new DslMethodImpl(getName(method), ReflectionUtils.executeMethod(method, testInstance))
+        .compile();
   }
 
   private String getName(Method method) {
@@ -20,11 +20,13 @@ import static io.ryos.rhino.sdk.utils.ReflectionUtils.getClassLevelAnnotation;
 import static io.ryos.rhino.sdk.utils.ReflectionUtils.instanceOf;
 
 import io.ryos.rhino.sdk.annotations.Logging;
+import io.ryos.rhino.sdk.annotations.Sink;
 import io.ryos.rhino.sdk.data.Scenario;
 import io.ryos.rhino.sdk.data.UserSession;
 import io.ryos.rhino.sdk.dsl.DslBuilder;
 import io.ryos.rhino.sdk.dsl.DslMethod;
 import io.ryos.rhino.sdk.dsl.MaterializableDslItem;
+import io.ryos.rhino.sdk.io.LogWriterPolicy;
 import io.ryos.rhino.sdk.reporting.SimulationLogFormatter;
 import io.ryos.rhino.sdk.runners.SimulationRunner;
 import io.ryos.rhino.sdk.users.repositories.UserRepository;
@@ -192,6 +194,28 @@ public class SimulationMetadata {
     return logFormatterInstance.orElseThrow(RuntimeException::new);
   }
 
+  /**
+   * Returns the policy of the simulation log writer.
+   * <p>
+   *
+   * @return {@link LogWriterPolicy} instance.
+   */
+  public LogWriterPolicy getLogWriterPolicy() {
+    return getClassLevelAnnotation(simulationClass, Logging.class)
+        .map(LogWriterPolicy::of)
+        .orElseGet(LogWriterPolicy::unbuffered);
+  }
+
+  /**
+   * Returns the result sinks registered on the simulation class.
+   * <p>
+   *
+   * @return {@link Sink} annotations, or an empty array.
+   */
+  public Sink[] getSinks() {
+    return ((Class<?>) simulationClass).getAnnotationsByType(Sink.class);
+  }
+
   public Method getPrepareMethod() {
     return prepareMethod;
   }
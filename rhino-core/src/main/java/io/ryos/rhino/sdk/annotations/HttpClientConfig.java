@@ -0,0 +1,89 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Network resources of the HTTP client of the simulation, i.e event loop threads, transport,
+ * buffer allocator, socket options and connection pool lifetimes.
+ * <br>
+ * If you wish you can override this annotation's properties via the configuration or System
+ * properties, e.g <code>-Dhttp.ioThreads=4</code>
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface HttpClientConfig {
+
+  /**
+   * Number of the event loop threads, which are split across the HTTP client shards. Zero leaves
+   * the number to the client, i.e twice the number of cores, whereas each shard gets at least two
+   * threads if there are more shards than one.
+   * <p>
+   *
+   * @return Number of the event loop threads.
+   */
+  int ioThreads() default 0;
+
+  /**
+   * Whether the native epoll transport is used on Linux, if it is available.
+   * <p>
+   *
+   * @return {@code true} if the native transport is used.
+   */
+  boolean nativeTransport() default true;
+
+  /**
+   * Whether the buffers are taken from the pooled allocator.
+   * <p>
+   *
+   * @return {@code true} if the buffers are pooled.
+   */
+  boolean pooledAllocator() default true;
+
+  boolean tcpNoDelay() default true;
+
+  boolean soReuseAddress() default false;
+
+  /**
+   * Whether {@code SO_REUSEPORT} is set, which requires the native epoll transport.
+   * <p>
+   *
+   * @return {@code true} if {@code SO_REUSEPORT} is set.
+   */
+  boolean soReusePort() default false;
+
+  /**
+   * Maximum lifetime of a pooled connection in millis, -1 for no limit.
+   * <p>
+   *
+   * @return Connection TTL in millis.
+   */
+  int connectionTtl() default -1;
+
+  /**
+   * Time in millis, an idle connection is kept in the pool.
+   * <p>
+   *
+   * @return Idle timeout in millis.
+   */
+  int pooledConnectionIdleTimeout() default 60000;
+}
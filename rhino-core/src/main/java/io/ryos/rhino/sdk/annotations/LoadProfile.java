@@ -0,0 +1,61 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Load profile annotation shapes the arrival rate of the simulation with an ordered list of
+ * {@link Stage}s, e.g ramp up to 500 RPS in two minutes, hold for ten minutes, spike to 2000 RPS
+ * for thirty seconds, and step down to 100 RPS:
+ * <pre>
+ * &#64;LoadProfile(startRps = 1, value = {
+ *     &#64;Stage(name = "warm-up", type = RAMP, targetRps = 500, durationInSecs = 120),
+ *     &#64;Stage(name = "steady", type = HOLD, durationInSecs = 600),
+ *     &#64;Stage(name = "spike", type = SPIKE, targetRps = 2000, durationInSecs = 30),
+ *     &#64;Stage(name = "cool-down", type = STEP, targetRps = 100, durationInSecs = 60)
+ * })
+ * </pre>
+ * The simulation ends once the last stage completes. Every measurement is tagged with the name
+ * of the stage the user session is injected in. The load profile takes precedence over
+ * {@link RampUp}.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @see io.ryos.rhino.sdk.LoadProfile
+ * @since 2.3.3
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LoadProfile {
+
+  /**
+   * Request-per-second at the beginning of the first stage.
+   * <p>
+   *
+   * @return Start RPS.
+   */
+  long startRps() default 1;
+
+  /**
+   * Stages of the profile in the order they are executed.
+   * <p>
+   *
+   * @return Stages.
+   */
+  Stage[] value();
+}
@@ -48,4 +48,66 @@ public @interface Logging {
    * @return Log formatter instance.
    */
   Class<? extends SimulationLogFormatter> formatter() default DefaultSimulationLogFormatter.class;
+
+  /**
+   * Enables the buffered writer, which collects the formatted events in a direct buffer and
+   * writes them through a file channel, if the buffer is full or the flush interval elapses.
+   * Otherwise, every event is flushed as soon as it is written.
+   * <p>
+   *
+   * @return {@code true} if the log is buffered.
+   */
+  boolean buffered() default false;
+
+  /**
+   * Size of the write buffer in KB. Only applies to the buffered writer.
+   * <p>
+   *
+   * @return Buffer size in KB.
+   */
+  int bufferSizeInKb() default 1024;
+
+  /**
+   * Maximum time the events are kept in the buffer. Only applies to the buffered writer.
+   * <p>
+   *
+   * @return Flush interval in millis.
+   */
+  long flushIntervalInMillis() default 1000L;
+
+  /**
+   * Size, after which the log file is rotated. Zero disables the size based rotation. Only
+   * applies to the buffered writer.
+   * <p>
+   *
+   * @return Rotation size in MB.
+   */
+  long rotateSizeInMb() default 0L;
+
+  /**
+   * Period, after which the log file is rotated. Zero disables the time based rotation. Only
+   * applies to the buffered writer.
+   * <p>
+   *
+   * @return Rotation interval in seconds.
+   */
+  long rotateIntervalInSecs() default 0L;
+
+  /**
+   * Compresses the rotated log files with gzip in background.
+   * <p>
+   *
+   * @return {@code true} if rotated files are compressed.
+   */
+  boolean compress() default false;
+
+  /**
+   * Writes the events in the compact binary format instead of text, in which case the formatter
+   * is not used. Binary logs can be converted into the text formats with {@link
+   * io.ryos.rhino.sdk.io.BinarySimulationLogConverter}.
+   * <p>
+   *
+   * @return {@code true} if the log is binary.
+   */
+  boolean binary() default false;
 }
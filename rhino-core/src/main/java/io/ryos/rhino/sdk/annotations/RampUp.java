@@ -1,5 +1,6 @@
 package io.ryos.rhino.sdk.annotations;
 
+import io.ryos.rhino.sdk.RampupCurve;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 
@@ -47,4 +48,15 @@ public @interface RampUp {
    * @return Ramp-up phase.
    */
   int durationInMins() default -1;
+
+  /**
+   * The curve the arrival rate follows from start RPS to target RPS during the ramp-up phase.
+   * <br>
+   * If you wish you can override this annotation's properties als via System properties,e.g.
+   * <code>-Dsimulation.rampup.io.ryos.rhino.test.ReactiveSleepTestSimulation.curve=EXPONENTIAL</code>
+   * <p>
+   *
+   * @return Ramp-up curve.
+   */
+  RampupCurve curve() default RampupCurve.LINEAR;
 }
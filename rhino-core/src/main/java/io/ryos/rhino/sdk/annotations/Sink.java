@@ -0,0 +1,63 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.annotations;
+
+import io.ryos.rhino.sdk.reporting.OverflowPolicy;
+import io.ryos.rhino.sdk.reporting.ResultSink;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Registers a {@link ResultSink} for the simulation. The sink class must have a public default
+ * constructor. The annotation is repeatable to register multiple sinks.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Repeatable(Sinks.class)
+public @interface Sink {
+
+  /**
+   * Sink implementation.
+   * <p>
+   *
+   * @return Sink class.
+   */
+  Class<? extends ResultSink> value();
+
+  /**
+   * Capacity of the queue of the sink, which must be a power of two.
+   * <p>
+   *
+   * @return Queue capacity.
+   */
+  int queueCapacity() default ResultSink.DEFAULT_QUEUE_CAPACITY;
+
+  /**
+   * Policy applied, if the queue of the sink is full.
+   * <p>
+   *
+   * @return Overflow policy.
+   */
+  OverflowPolicy overflowPolicy() default OverflowPolicy.BLOCK;
+}
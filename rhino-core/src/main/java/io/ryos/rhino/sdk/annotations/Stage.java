@@ -0,0 +1,76 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.annotations;
+
+import io.ryos.rhino.sdk.LoadStage.Type;
+import io.ryos.rhino.sdk.RampupCurve;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * A single stage of the {@link LoadProfile}.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @see io.ryos.rhino.sdk.LoadStage
+ * @since 2.3.3
+ */
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Stage {
+
+  /**
+   * The name of the stage, which the measurements are tagged with.
+   * <p>
+   *
+   * @return Name of the stage.
+   */
+  String name();
+
+  /**
+   * Type of the stage.
+   * <p>
+   *
+   * @return Stage type.
+   */
+  Type type() default Type.RAMP;
+
+  /**
+   * Target request-per-second. Hold stages ignore the target and keep the rate of the previous
+   * stage.
+   * <p>
+   *
+   * @return Target RPS.
+   */
+  long targetRps() default -1;
+
+  /**
+   * Duration of the stage in seconds. A negative duration, only allowed for the last stage, lets
+   * the stage last till the simulation ends.
+   * <p>
+   *
+   * @return Duration of the stage.
+   */
+  long durationInSecs() default -1;
+
+  /**
+   * The curve the arrival rate follows in ramp stages.
+   * <p>
+   *
+   * @return Ramp curve.
+   */
+  RampupCurve curve() default RampupCurve.LINEAR;
+}
@@ -17,19 +17,21 @@
 package io.ryos.rhino.sdk.data;
 
 import io.ryos.rhino.sdk.reporting.Measurement;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ContextImpl implements Context {
 
   // Data structure to store key value objects. The implementation employs the thread-safe
   // instance of HashMap.
   private final Map<String, Object> storage = new ConcurrentHashMap<>();
-  private final List<Measurement> measurements = new ArrayList<>();
+  // Measurements are registered and notified by the DSL items, which run concurrently for the same
+  // session, e.g the children of the parallel DSL.
+  private final List<Measurement> measurements = new CopyOnWriteArrayList<>();
 
   public Context add(String key, Object value) {
     storage.put(key, value);
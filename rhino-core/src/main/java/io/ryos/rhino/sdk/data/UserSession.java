@@ -16,6 +16,7 @@
 
 package io.ryos.rhino.sdk.data;
 
+import io.ryos.rhino.sdk.LoadStage;
 import io.ryos.rhino.sdk.users.data.User;
 import java.util.Optional;
 
@@ -57,4 +58,26 @@ public interface UserSession extends Context {
   SimulationSession getSimulationSession();
 
   SimulationSession getSimulationSessionFor(User user);
+
+  /**
+   * The stage of the load profile, in which the session is injected.
+   * <p>
+   *
+   * @return {@link LoadStage} instance, or {@code null} if the simulation has no load profile.
+   */
+  LoadStage getLoadStage();
+
+  void setLoadStage(LoadStage loadStage);
+
+  /**
+   * The time in epoch millis the session is scheduled to start at. The first request of the
+   * session measures its response time from the intended start, so that the time spent waiting
+   * before the request is actually sent is not omitted.
+   * <p>
+   *
+   * @return Intended start in epoch millis, or a negative value if the session is not scheduled.
+   */
+  long getIntendedStart();
+
+  void setIntendedStart(long intendedStart);
 }
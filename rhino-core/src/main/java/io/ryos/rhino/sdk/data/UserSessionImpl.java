@@ -16,6 +16,7 @@
 
 package io.ryos.rhino.sdk.data;
 
+import io.ryos.rhino.sdk.LoadStage;
 import io.ryos.rhino.sdk.dsl.data.LoadToken;
 import io.ryos.rhino.sdk.reporting.Measurement;
 import io.ryos.rhino.sdk.users.data.User;
@@ -40,6 +41,8 @@ public class UserSessionImpl extends ContextImpl implements UserSession {
   private SimulationSession simulationSession;
   private final List<LoadToken> tokens;
   private final List<Measurement> measurements;
+  private volatile LoadStage loadStage;
+  private volatile long intendedStart = -1L;
 
   public UserSessionImpl(final User user, final SimulationSession session,
       final List<LoadToken> tokens) {
@@ -89,6 +92,26 @@ public class UserSessionImpl extends ContextImpl implements UserSession {
         .orElse(new SimulationSession(user));
   }
 
+  @Override
+  public LoadStage getLoadStage() {
+    return loadStage;
+  }
+
+  @Override
+  public void setLoadStage(final LoadStage loadStage) {
+    this.loadStage = loadStage;
+  }
+
+  @Override
+  public long getIntendedStart() {
+    return intendedStart;
+  }
+
+  @Override
+  public void setIntendedStart(final long intendedStart) {
+    this.intendedStart = intendedStart;
+  }
+
   @Override
   public String toString() {
     return "UserSessionImpl{" +
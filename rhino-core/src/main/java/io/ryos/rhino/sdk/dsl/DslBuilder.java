@@ -17,6 +17,7 @@
 package io.ryos.rhino.sdk.dsl;
 
 import io.ryos.rhino.sdk.data.UserSession;
+import io.ryos.rhino.sdk.dsl.data.JoinPolicy;
 import io.ryos.rhino.sdk.dsl.impl.DslBuilderImpl;
 import io.ryos.rhino.sdk.reporting.VerificationInfo;
 import java.time.Duration;
@@ -68,6 +69,32 @@ public interface DslBuilder extends SessionDsl, IterableDsl, AssertionDsl, Mappa
    */
   DslBuilder run(Collection<MaterializableDslItem> specs);
 
+  /**
+   * Parallel DSL runs the {@link MaterializableDslItem}s concurrently for the same user session,
+   * and continues as all of them complete. The group as well as each item is measured.
+   * <p>
+   *
+   * @param name  Measurement name of the group.
+   * @param specs {@link MaterializableDslItem}s to materialize and run concurrently.
+   * @return {@link DslBuilderImpl} instance.
+   */
+  DslBuilder parallel(String name, MaterializableDslItem... specs);
+
+  /**
+   * Parallel DSL runs the {@link MaterializableDslItem}s concurrently for the same user session,
+   * at most max concurrency of them at once, and continues as the {@link JoinPolicy} is satisfied.
+   * The group as well as each item is measured.
+   * <p>
+   *
+   * @param name           Measurement name of the group.
+   * @param maxConcurrency Max. number of the items running at once.
+   * @param joinPolicy     {@link JoinPolicy} of the group.
+   * @param specs          {@link MaterializableDslItem}s to materialize and run concurrently.
+   * @return {@link DslBuilderImpl} instance.
+   */
+  DslBuilder parallel(String name, int maxConcurrency, JoinPolicy joinPolicy,
+      MaterializableDslItem... specs);
+
   /**
    * Conditional runnable DSL is a {@link DslBuilder} if {@link Predicate} returns {@code true}, then
    * the execution proceeds and it runs the {@link MaterializableDslItem} passed as parameter.
@@ -15,4 +15,30 @@ public interface ForEachDsl<E, R extends Iterable<E>> extends MaterializableDslI
   List<Function<E, ? extends MaterializableDslItem>> getForEachFunctions();
 
   Function<E, Object> getMapper();
+
+  /**
+   * Returns the max. number of the DSL items in flight.
+   * <p>
+   *
+   * @return Max. concurrency.
+   */
+  int getMaxConcurrency();
+
+  /**
+   * Returns whether the elements are run one after another in the order of the iterable.
+   * <p>
+   *
+   * @return {@code true} if the loop is sequential.
+   */
+  boolean isOrdered();
+
+  /**
+   * Returns the number of the elements in a chunk, or zero if the elements are not batched.
+   * <p>
+   *
+   * @return Batch size.
+   */
+  int getBatchSize();
+
+  List<Function<List<E>, ? extends MaterializableDslItem>> getBatchFunctions();
 }
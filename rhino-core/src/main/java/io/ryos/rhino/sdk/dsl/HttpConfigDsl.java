@@ -16,7 +16,11 @@
 
 package io.ryos.rhino.sdk.dsl;
 
+import io.ryos.rhino.sdk.HttpProtocol;
 import io.ryos.rhino.sdk.data.UserSession;
+import io.ryos.rhino.sdk.dsl.data.ResponseMode;
+import io.ryos.rhino.sdk.io.Payload;
+import io.ryos.rhino.sdk.io.RandomContent;
 import io.ryos.rhino.sdk.users.data.User;
 import java.io.InputStream;
 import java.util.List;
@@ -81,12 +85,52 @@ public interface HttpConfigDsl extends HttpMethodDsl {
 
   HttpConfigDsl upload(final Supplier<InputStream> inputStream);
 
+  /**
+   * Uploads the immutable payload, which every request reads through its own view. Payloads of
+   * files on the file system are sent as file regions without copying them.
+   * <p>
+   *
+   * @param payload Payload, e.g of {@link io.ryos.rhino.sdk.io.PayloadStore#file(String)}.
+   * @return Instance of {@link HttpConfigDsl}.
+   */
+  HttpConfigDsl upload(final Payload payload);
+
+  /**
+   * Uploads the random content, which is generated as the body is sent, so bodies of any size
+   * are uploaded without holding them in memory.
+   * <p>
+   *
+   * @param content Random content, e.g {@link RandomContent#of(long, long)}.
+   * @return Instance of {@link HttpConfigDsl}.
+   */
+  HttpConfigDsl upload(final RandomContent content);
+
   HttpConfigDsl payload(final Supplier<InputStream> inputStreamSupplier);
 
   HttpConfigDsl payload(final Function<UserSession, InputStream> payloadFunction);
 
   HttpConfigDsl payload(final String stringPayload);
 
+  /**
+   * Sets the protocol of the request, which overrides the {@code http.protocol} setting of the
+   * simulation.
+   * <p>
+   *
+   * @param protocol HTTP protocol, e.g {@link HttpProtocol#HTTP_2}.
+   * @return Instance of {@link HttpConfigDsl}.
+   */
+  HttpConfigDsl protocol(HttpProtocol protocol);
+
+  /**
+   * Sets how the body of the response is handled, e.g {@link ResponseMode#discard()} for
+   * downloads, whose content is not needed, so that the body is not buffered in the heap.
+   * <p>
+   *
+   * @param responseMode Response mode.
+   * @return Instance of {@link HttpConfigDsl}.
+   */
+  HttpConfigDsl responseMode(ResponseMode responseMode);
+
   Function<UserSession, User> getUserAccessor();
 
   Supplier<User> getUserSupplier();
@@ -16,9 +16,13 @@
 
 package io.ryos.rhino.sdk.dsl;
 
+import io.ryos.rhino.sdk.HttpProtocol;
 import io.ryos.rhino.sdk.data.UserSession;
 import io.ryos.rhino.sdk.dsl.data.HttpResponse;
+import io.ryos.rhino.sdk.dsl.data.ResponseMode;
 import io.ryos.rhino.sdk.dsl.impl.HttpDslImpl.RetryInfo;
+import io.ryos.rhino.sdk.io.Payload;
+import io.ryos.rhino.sdk.io.RandomContent;
 import io.ryos.rhino.sdk.users.data.User;
 import java.io.InputStream;
 import java.util.List;
@@ -44,6 +48,22 @@ public interface HttpDsl extends RetriableDsl<HttpResponse>,
 
   Supplier<InputStream> getUploadContent();
 
+  /**
+   * Payload of the upload.
+   * <p>
+   *
+   * @return {@link Payload}, or {@code null} if there is none.
+   */
+  Payload getUploadPayload();
+
+  /**
+   * Random content of the upload.
+   * <p>
+   *
+   * @return {@link RandomContent}, or {@code null} if there is none.
+   */
+  RandomContent getUploadRandomContent();
+
   Function<UserSession, InputStream> getLazyStringPayload();
 
   List<Function<UserSession, Entry<String, List<String>>>> getHeaders();
@@ -54,6 +74,22 @@ public interface HttpDsl extends RetriableDsl<HttpResponse>,
 
   RetryInfo getRetryInfo();
 
+  /**
+   * Protocol of the request.
+   * <p>
+   *
+   * @return {@link HttpProtocol}, or {@code null} if the simulation default is to be used.
+   */
+  HttpProtocol getProtocol();
+
+  /**
+   * Response mode of the request.
+   * <p>
+   *
+   * @return {@link ResponseMode}, or {@code null} if the body is buffered.
+   */
+  ResponseMode getResponseMode();
+
   boolean isAuth();
 
   User getAuthUser();
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2020 Ryos.io.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ryos.rhino.sdk.dsl;
+
+import io.ryos.rhino.sdk.dsl.data.JoinPolicy;
+
+/**
+ * Parallel DSL runs its children concurrently for the same user session, e.g to model a client,
+ * which fires several API calls at once after a page load.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public interface ParallelDsl extends MaterializableDslItem {
+
+  int getMaxConcurrency();
+
+  JoinPolicy getJoinPolicy();
+}
@@ -0,0 +1,33 @@
+package io.ryos.rhino.sdk.dsl.data;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Incremental parser of response bodies, which is fed with the body chunks as they are received,
+ * so that the value of interest can be extracted without buffering the whole body. A new parser
+ * is created for every response, thus the implementations need not be thread-safe.
+ * <p>
+ *
+ * @param <T> Type of the extracted value.
+ * @author Erhan Bagdemir
+ * @see ResponseMode#extract(java.util.function.Supplier)
+ * @since 2.3.3
+ */
+public interface BodyParser<T> {
+
+  /**
+   * Parses the next chunk of the body. The buffer is only valid during the call.
+   * <p>
+   *
+   * @param chunk Body chunk.
+   */
+  void parse(ByteBuffer chunk);
+
+  /**
+   * Called once the body is completely received.
+   * <p>
+   *
+   * @return Extracted value, which is available in {@link HttpResponse#getExtracted()}.
+   */
+  T complete();
+}
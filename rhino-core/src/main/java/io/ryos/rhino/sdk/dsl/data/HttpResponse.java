@@ -5,15 +5,42 @@ import org.asynchttpclient.Response;
 public class HttpResponse {
 
   private Response response;
+  private long bytesReceived = -1L;
+  private String digest;
+  private Object extracted;
 
   public HttpResponse(final Response response) {
     this.response = response;
   }
 
+  /**
+   * Creates a new {@link HttpResponse} of a response, whose body is handled by a
+   * {@link ResponseMode}.
+   * <p>
+   *
+   * @param response Response, whose body is empty unless it is buffered.
+   * @param bytesReceived Number of the body bytes received.
+   * @param digest Hex encoded digest of the body, or {@code null}.
+   * @param extracted Value extracted from the body, or {@code null}.
+   */
+  public HttpResponse(final Response response, final long bytesReceived, final String digest,
+      final Object extracted) {
+    this.response = response;
+    this.bytesReceived = bytesReceived;
+    this.digest = digest;
+    this.extracted = extracted;
+  }
+
   public Response getResponse() {
     return response;
   }
 
+  /**
+   * Returns the body of the response, that is empty unless the body is buffered.
+   * <p>
+   *
+   * @return Body of the response.
+   */
   public String getResponseBodyAsString() {
     return response.getResponseBody();
   }
@@ -22,4 +49,36 @@ public class HttpResponse {
   public int getStatusCode() {
     return response.getStatusCode();
   }
+
+  /**
+   * Returns the number of the body bytes received.
+   * <p>
+   *
+   * @return Number of the body bytes.
+   */
+  public long getBytesReceived() {
+    return bytesReceived >= 0 ? bytesReceived : response.getResponseBodyAsBytes().length;
+  }
+
+  /**
+   * Returns the digest of the body in {@link ResponseMode.Type#DIGEST} mode.
+   * <p>
+   *
+   * @return Hex encoded digest, or {@code null} in other modes.
+   */
+  public String getDigest() {
+    return digest;
+  }
+
+  /**
+   * Returns the value the {@link BodyParser} extracted in {@link ResponseMode.Type#EXTRACT} mode.
+   * <p>
+   *
+   * @param <T> Type of the extracted value.
+   * @return Extracted value, or {@code null} in other modes.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T getExtracted() {
+    return (T) extracted;
+  }
 }
@@ -1,11 +1,18 @@
 package io.ryos.rhino.sdk.dsl.data;
 
+import io.netty.channel.Channel;
 import io.netty.handler.codec.http.HttpHeaders;
+import io.ryos.rhino.sdk.Http2Client.RequestStartListener;
 import io.ryos.rhino.sdk.SimulationConfig;
 import io.ryos.rhino.sdk.data.UserSession;
 import io.ryos.rhino.sdk.dsl.HttpDsl;
 import io.ryos.rhino.sdk.dsl.impl.HttpDslImpl.RetryInfo;
+import io.ryos.rhino.sdk.reporting.ConnectionPhases;
+import io.ryos.rhino.sdk.reporting.ConnectionPhases.Phase;
 import io.ryos.rhino.sdk.reporting.MeasurementImpl;
+import java.net.InetSocketAddress;
+import java.util.List;
+import javax.net.ssl.SSLSession;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.asynchttpclient.AsyncHandler;
@@ -14,7 +21,19 @@ import org.asynchttpclient.HttpResponseStatus;
 import org.asynchttpclient.Response;
 import org.asynchttpclient.netty.request.NettyRequest;
 
-public class HttpSpecAsyncHandler implements AsyncHandler<Response> {
+/**
+ * Async handler of the HTTP DSL, which measures the request from sending it till the response is
+ * completed. Unless disabled with {@code http.timings=false}, the handler also captures the
+ * connection phases of the request from the hooks of the client, and publishes them along with
+ * the measurement.
+ * <p>
+ *
+ * The body of the response is handled according to the {@link ResponseMode} of the DSL item, i.e
+ * it is buffered, discarded, or streamed into a digest or a {@link BodyParser}, and the bytes
+ * received are counted in {@link io.ryos.rhino.sdk.reporting.LiveMetrics}.
+ * <p>
+ */
+public class HttpSpecAsyncHandler implements AsyncHandler<Response>, RequestStartListener {
 
   public static final Logger LOG = LogManager.getLogger(HttpSpecAsyncHandler.class);
   private volatile int status;
@@ -23,18 +42,34 @@ public class HttpSpecAsyncHandler implements AsyncHandler<Response> {
   private final Response.ResponseBuilder builder = new Response.ResponseBuilder();
   private final RetryInfo retryInfo;
   private final UserSession session;
+  private final ConnectionPhases connectionPhases;
+  private final ResponseBodyConsumer bodyConsumer;
 
   public HttpSpecAsyncHandler(final UserSession session, final HttpDsl dslItem) {
     this.session = session;
     this.measurement = new MeasurementImpl(session.getUser().getId(), dslItem);
+    this.measurement.setLoadStage(session.getLoadStage());
+    this.measurement.setIntendedStart(session.getIntendedStart() > 0
+        ? session.getIntendedStart()
+        : System.currentTimeMillis());
     this.retryInfo = dslItem.getRetryInfo();
+    this.connectionPhases = SimulationConfig.isConnectionPhasesEnabled()
+        ? new ConnectionPhases()
+        : null;
+    this.measurement.setConnectionPhases(connectionPhases);
+    this.bodyConsumer = new ResponseBodyConsumer(dslItem.getResponseMode(), builder);
   }
 
   @Override
   public State onStatusReceived(final HttpResponseStatus responseStatus) {
     builder.reset();
     builder.accumulate(responseStatus);
+    bodyConsumer.reset();
     status = responseStatus.getStatusCode();
+    if (connectionPhases != null) {
+      connectionPhases.end(Phase.TTFB);
+      connectionPhases.begin(Phase.DOWNLOAD);
+    }
 
     return State.CONTINUE;
   }
@@ -47,7 +82,7 @@ public class HttpSpecAsyncHandler implements AsyncHandler<Response> {
 
   @Override
   public State onBodyPartReceived(final HttpResponseBodyPart bodyPart) {
-    builder.accumulate(bodyPart);
+    bodyConsumer.accept(bodyPart);
     return State.CONTINUE;
   }
 
@@ -59,27 +94,47 @@ public class HttpSpecAsyncHandler implements AsyncHandler<Response> {
    */
   @Override
   public void onThrowable(final Throwable t) {
+    this.session.setIntendedStart(-1L);
     measurement.fail(t.getMessage());
   }
 
   @Override
   public Response onCompleted() {
+    if (connectionPhases != null) {
+      connectionPhases.end(Phase.DOWNLOAD);
+    }
     var response = builder.build();
-    var httpResponse = new HttpResponse(response);
-    if (isReadyToMeasure(httpResponse)) {
+    bodyConsumer.complete();
+    if (isReadyToMeasure(toHttpResponse(response))) {
       completeMeasurement();
     }
     if (SimulationConfig.debugHttp()) {
-      LOG.info("[debug.http=true][statusCode={}][body={}][headers={}]",
+      LOG.info("[debug.http=true][statusCode={}][bytes={}][body={}][headers={}]",
           response.getStatusCode(),
+          bodyConsumer.getBytesReceived(),
           response.getResponseBody(),
           response.getHeaders());
     }
     return response;
   }
 
+  /**
+   * Creates the {@link HttpResponse} of the response received, which carries the result of the
+   * response mode, e.g the digest of the body.
+   * <p>
+   *
+   * @param response Response received by the handler.
+   * @return {@link HttpResponse} instance.
+   */
+  public HttpResponse toHttpResponse(final Response response) {
+    return bodyConsumer.toHttpResponse(response);
+  }
+
   public void completeMeasurement() {
     final long measure = measurement.measure(String.valueOf(status));
+    // The intended start of the session applies to its first request only, the following
+    // requests are measured from the point in time they are issued.
+    this.session.setIntendedStart(-1L);
     this.session.notify(measure);
     this.measurement.finish();
   }
@@ -94,8 +149,68 @@ public class HttpSpecAsyncHandler implements AsyncHandler<Response> {
     return !retryInfo.getPredicate().test(httpResponse);
   }
 
+  @Override
+  public void onConnectionPoolAttempt() {
+    // First hook of every attempt, so the phases of a previous attempt are discarded.
+    if (connectionPhases != null) {
+      connectionPhases.reset();
+    }
+  }
+
+  @Override
+  public void onHostnameResolutionAttempt(final String name) {
+    if (connectionPhases != null) {
+      connectionPhases.begin(Phase.DNS);
+    }
+  }
+
+  @Override
+  public void onHostnameResolutionSuccess(final String name,
+      final List<InetSocketAddress> addresses) {
+    if (connectionPhases != null) {
+      connectionPhases.end(Phase.DNS);
+    }
+  }
+
+  @Override
+  public void onTcpConnectAttempt(final InetSocketAddress remoteAddress) {
+    if (connectionPhases != null) {
+      connectionPhases.begin(Phase.CONNECT);
+    }
+  }
+
+  @Override
+  public void onTcpConnectSuccess(final InetSocketAddress remoteAddress,
+      final Channel connection) {
+    if (connectionPhases != null) {
+      connectionPhases.end(Phase.CONNECT);
+    }
+  }
+
+  @Override
+  public void onTlsHandshakeAttempt() {
+    if (connectionPhases != null) {
+      connectionPhases.begin(Phase.TLS);
+    }
+  }
+
+  @Override
+  public void onTlsHandshakeSuccess(final SSLSession sslSession) {
+    if (connectionPhases != null) {
+      connectionPhases.end(Phase.TLS);
+    }
+  }
+
   @Override
   public void onRequestSend(NettyRequest request) {
+    onRequestStart();
+  }
+
+  @Override
+  public void onRequestStart() {
+    if (connectionPhases != null) {
+      connectionPhases.begin(Phase.TTFB);
+    }
     measurement.start();
   }
 }
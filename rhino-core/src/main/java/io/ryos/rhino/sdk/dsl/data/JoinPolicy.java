@@ -0,0 +1,102 @@
+package io.ryos.rhino.sdk.dsl.data;
+
+/**
+ * Join policy of the parallel DSL, which defines how many of the concurrent child items must
+ * succeed, before the user continues with the next DSL item. The children, which are still in
+ * flight as the policy is satisfied, are cancelled. Failed children do not count toward the
+ * policy.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class JoinPolicy {
+
+  private static final JoinPolicy ALL = new JoinPolicy(Type.ALL, -1);
+  private static final JoinPolicy FIRST = new JoinPolicy(Type.FIRST, 1);
+
+  /**
+   * Type of the join policy.
+   * <p>
+   */
+  public enum Type {
+
+    /**
+     * Waits for all children.
+     */
+    ALL,
+
+    /**
+     * Continues as the first child succeeds.
+     */
+    FIRST,
+
+    /**
+     * Continues as any n of the children succeed.
+     */
+    ANY
+  }
+
+  private final Type type;
+  private final int count;
+
+  private JoinPolicy(final Type type, final int count) {
+    this.type = type;
+    this.count = count;
+  }
+
+  /**
+   * Waits for all children to complete, which is the default.
+   * <p>
+   *
+   * @return {@link JoinPolicy} instance.
+   */
+  public static JoinPolicy all() {
+    return ALL;
+  }
+
+  /**
+   * Continues as the first child succeeds, e.g to model a client racing the replicas of a
+   * service.
+   * <p>
+   *
+   * @return {@link JoinPolicy} instance.
+   */
+  public static JoinPolicy first() {
+    return FIRST;
+  }
+
+  /**
+   * Continues as any n of the children succeed.
+   * <p>
+   *
+   * @param count Number of the children to wait for.
+   * @return {@link JoinPolicy} instance.
+   */
+  public static JoinPolicy any(final int count) {
+    if (count < 1) {
+      throw new IllegalArgumentException("Count must be positive: " + count);
+    }
+    return new JoinPolicy(Type.ANY, count);
+  }
+
+  /**
+   * Returns the number of the children to wait for.
+   * <p>
+   *
+   * @param numberOfChildren Number of the children of the parallel DSL.
+   * @return Number of the children to wait for.
+   */
+  public int getRequired(final int numberOfChildren) {
+    return type == Type.ALL ? numberOfChildren : Math.min(count, numberOfChildren);
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  @Override
+  public String toString() {
+    return type == Type.ANY ? "any(" + count + ")" : type.name().toLowerCase();
+  }
+}
@@ -0,0 +1,85 @@
+package io.ryos.rhino.sdk.dsl.data;
+
+import io.ryos.rhino.sdk.dsl.data.ResponseMode.Type;
+import io.ryos.rhino.sdk.reporting.LiveMetrics;
+import java.security.MessageDigest;
+import org.asynchttpclient.HttpResponseBodyPart;
+import org.asynchttpclient.Response;
+import org.asynchttpclient.util.StringUtils;
+
+/**
+ * Consumer of the body of a response according to its {@link ResponseMode}, which counts the
+ * bytes received. The body parts of a response are passed by a single thread at a time, and the
+ * result is published along with the completion of the response.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+final class ResponseBodyConsumer {
+
+  private final ResponseMode responseMode;
+  private final Response.ResponseBuilder builder;
+
+  private long bytesReceived;
+  private MessageDigest digest;
+  private BodyParser<?> parser;
+  private String bodyDigest;
+  private Object extracted;
+
+  ResponseBodyConsumer(final ResponseMode responseMode, final Response.ResponseBuilder builder) {
+    this.responseMode = responseMode != null ? responseMode : ResponseMode.buffer();
+    this.builder = builder;
+  }
+
+  /**
+   * Starts a new body, e.g of a retry.
+   * <p>
+   */
+  void reset() {
+    bytesReceived = 0L;
+    digest = responseMode.getType() == Type.DIGEST ? responseMode.newDigest() : null;
+    parser = responseMode.getType() == Type.EXTRACT ? responseMode.newParser() : null;
+    bodyDigest = null;
+    extracted = null;
+  }
+
+  void accept(final HttpResponseBodyPart bodyPart) {
+    var length = bodyPart.length();
+    bytesReceived += length;
+    LiveMetrics.bytesReceived(length);
+
+    switch (responseMode.getType()) {
+      case DISCARD:
+        break;
+      case DIGEST:
+        digest.update(bodyPart.getBodyByteBuffer());
+        break;
+      case EXTRACT:
+        parser.parse(bodyPart.getBodyByteBuffer());
+        break;
+      default:
+        builder.accumulate(bodyPart);
+    }
+  }
+
+  /**
+   * Completes the body, i.e the digest is computed and the parser completed.
+   * <p>
+   */
+  void complete() {
+    bodyDigest = digest != null ? StringUtils.toHexString(digest.digest()) : null;
+    extracted = parser != null ? parser.complete() : null;
+  }
+
+  HttpResponse toHttpResponse(final Response response) {
+    if (responseMode.getType() == Type.BUFFER) {
+      return new HttpResponse(response);
+    }
+    return new HttpResponse(response, bytesReceived, bodyDigest, extracted);
+  }
+
+  long getBytesReceived() {
+    return bytesReceived;
+  }
+}
@@ -0,0 +1,155 @@
+package io.ryos.rhino.sdk.dsl.data;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Response mode of the HTTP DSL, which defines how the body of the response is handled as it is
+ * received. Unless the body is buffered, which is the default, it is never held in the heap, so
+ * large downloads neither exhaust the heap nor keep the GC busy. The number of the bytes received
+ * is counted in every mode.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class ResponseMode {
+
+  /**
+   * Default algorithm of the digest mode.
+   * <p>
+   */
+  public static final String DEFAULT_DIGEST_ALGORITHM = "SHA-256";
+
+  private static final ResponseMode BUFFER = new ResponseMode(Type.BUFFER, null, null);
+  private static final ResponseMode DISCARD = new ResponseMode(Type.DISCARD, null, null);
+
+  /**
+   * Type of the response mode.
+   * <p>
+   */
+  public enum Type {
+
+    /**
+     * The body is buffered, and available in {@link HttpResponse#getResponseBodyAsString()}.
+     */
+    BUFFER,
+
+    /**
+     * The body is discarded, only its bytes are counted.
+     */
+    DISCARD,
+
+    /**
+     * The body is streamed into a message digest, which is available in
+     * {@link HttpResponse#getDigest()}.
+     */
+    DIGEST,
+
+    /**
+     * The body is streamed into a {@link BodyParser}, whose result is available in
+     * {@link HttpResponse#getExtracted()}.
+     */
+    EXTRACT
+  }
+
+  private final Type type;
+  private final String digestAlgorithm;
+  private final Supplier<? extends BodyParser<?>> parserSupplier;
+
+  private ResponseMode(final Type type, final String digestAlgorithm,
+      final Supplier<? extends BodyParser<?>> parserSupplier) {
+    this.type = type;
+    this.digestAlgorithm = digestAlgorithm;
+    this.parserSupplier = parserSupplier;
+  }
+
+  /**
+   * Buffers the whole body, which is the default.
+   * <p>
+   *
+   * @return {@link ResponseMode} instance.
+   */
+  public static ResponseMode buffer() {
+    return BUFFER;
+  }
+
+  /**
+   * Discards the body, only the bytes received are counted.
+   * <p>
+   *
+   * @return {@link ResponseMode} instance.
+   */
+  public static ResponseMode discard() {
+    return DISCARD;
+  }
+
+  /**
+   * Streams the body into a {@value #DEFAULT_DIGEST_ALGORITHM} digest.
+   * <p>
+   *
+   * @return {@link ResponseMode} instance.
+   */
+  public static ResponseMode digest() {
+    return digest(DEFAULT_DIGEST_ALGORITHM);
+  }
+
+  /**
+   * Streams the body into a message digest, e.g to verify the checksum of a download.
+   * <p>
+   *
+   * @param algorithm Digest algorithm, e.g "MD5" or "SHA-256".
+   * @return {@link ResponseMode} instance.
+   * @throws IllegalArgumentException If the algorithm is not available.
+   */
+  public static ResponseMode digest(final String algorithm) {
+    Objects.requireNonNull(algorithm, "Digest algorithm must not be null.");
+    try {
+      MessageDigest.getInstance(algorithm);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalArgumentException("Unknown digest algorithm: " + algorithm, e);
+    }
+    return new ResponseMode(Type.DIGEST, algorithm, null);
+  }
+
+  /**
+   * Streams the body into a parser, which extracts a value from it incrementally.
+   * <p>
+   *
+   * @param parserSupplier Supplier of a new parser for every response.
+   * @return {@link ResponseMode} instance.
+   */
+  public static ResponseMode extract(final Supplier<? extends BodyParser<?>> parserSupplier) {
+    Objects.requireNonNull(parserSupplier, "Parser supplier must not be null.");
+    return new ResponseMode(Type.EXTRACT, null, parserSupplier);
+  }
+
+  /**
+   * Creates a new message digest of the digest mode.
+   * <p>
+   *
+   * @return {@link MessageDigest} instance.
+   */
+  MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance(digestAlgorithm);
+    } catch (NoSuchAlgorithmException e) {
+      // The algorithm is validated as the mode is created.
+      throw new IllegalStateException(e);
+    }
+  }
+
+  BodyParser<?> newParser() {
+    return Objects.requireNonNull(parserSupplier.get(), "Parser supplier returned null.");
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public String getDigestAlgorithm() {
+    return digestAlgorithm;
+  }
+}
@@ -3,6 +3,8 @@ package io.ryos.rhino.sdk.dsl.data;
 import io.ryos.rhino.sdk.dsl.HttpDsl;
 import io.ryos.rhino.sdk.dsl.impl.HttpDslImpl;
 import io.ryos.rhino.sdk.io.ConfigResource;
+import io.ryos.rhino.sdk.io.Payload;
+import io.ryos.rhino.sdk.io.PayloadStore;
 import java.io.InputStream;
 import java.util.Objects;
 
@@ -25,7 +27,8 @@ public class UploadStream {
   /**
    * Static factory returns the {@link InputStream} from the path to file provided. The client is
    * responsible to close the stream once it is done. The path must be qualified with a scheme, e.g
-   * "classpath:///" or "file:///"
+   * "classpath:///" or "file:///". Files on the file system are streamed without loading them,
+   * resources in a jar are read once into the {@link PayloadStore}.
    * <p>
    *
    * @param pathToFile Path to file either in classpath or in file system.
@@ -33,6 +36,19 @@ public class UploadStream {
    */
   public static InputStream file(String pathToFile) {
     Objects.requireNonNull(pathToFile, "Path to file parameter must not be null!");
-    return new ConfigResource(pathToFile).getInputStream();
+    return PayloadStore.file(pathToFile).newInputStream();
+  }
+
+  /**
+   * Static factory returns the shared {@link Payload} of the file, which is to be passed to
+   * {@link io.ryos.rhino.sdk.dsl.HttpConfigDsl#upload(Payload)}. The path must be qualified with a
+   * scheme, e.g "classpath:///" or "file:///".
+   * <p>
+   *
+   * @param pathToFile Path to file either in classpath or in file system.
+   * @return {@link Payload} instance.
+   */
+  public static Payload payload(String pathToFile) {
+    return PayloadStore.file(pathToFile);
   }
 }
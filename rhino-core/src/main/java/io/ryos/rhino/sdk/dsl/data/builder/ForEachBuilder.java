@@ -27,8 +27,50 @@ public interface ForEachBuilder<E, R extends Iterable<E>, T extends Materializab
 
   ForEachBuilder<E, R, T> exec(Function<E, T> forEachFunction);
 
+  /**
+   * Maps the elements and collects the results into the session. The elements are mapped one
+   * after another, so the mapper cannot be combined with {@link #concurrency(int)},
+   * {@link #sequential()} or {@link #batch(int, Function)}.
+   * <p>
+   *
+   * @param mapper Function to map an element.
+   * @return {@link ForEachMapBuilder} instance.
+   * @throws IllegalStateException if the execution of the elements is already configured.
+   */
   ForEachMapBuilder<E, R, T> map(Function<E, Object> mapper);
 
+  /**
+   * Limits the number of the DSL items of the elements, which run concurrently for a user. The
+   * elements are pulled from the iterable as the running items complete.
+   * <p>
+   *
+   * @param maxConcurrency Max. number of the DSL items in flight.
+   * @return {@link ForEachBuilder} instance.
+   * @throws IllegalStateException if the elements are mapped with {@link #map(Function)}.
+   */
+  ForEachBuilder<E, R, T> concurrency(int maxConcurrency);
+
+  /**
+   * Runs the DSL items of the elements one after another, in the order of the iterable.
+   * <p>
+   *
+   * @return {@link ForEachBuilder} instance.
+   * @throws IllegalStateException if the elements are mapped with {@link #map(Function)}.
+   */
+  ForEachBuilder<E, R, T> sequential();
+
+  /**
+   * Groups the elements into chunks of the batch size, and runs a DSL item for each chunk, e.g a
+   * bulk request, instead of an item for each element. The last chunk may be smaller.
+   * <p>
+   *
+   * @param batchSize Number of the elements in a chunk.
+   * @param batchFunction Function to create a DSL item for a chunk.
+   * @return {@link ForEachBuilder} instance.
+   * @throws IllegalStateException if the elements are mapped with {@link #map(Function)}.
+   */
+  ForEachBuilder<E, R, T> batch(int batchSize, Function<List<E>, T> batchFunction);
+
   Function<UserSession, R> getIterableSupplier();
 
   Function<E, T> getForEachChildDslItemFunction();
@@ -41,6 +83,14 @@ public interface ForEachBuilder<E, R extends Iterable<E>, T extends Materializab
 
   Scope getSessionScope();
 
+  int getMaxConcurrency();
+
+  boolean isOrdered();
+
+  int getBatchSize();
+
+  List<Function<List<E>, T>> getBatchFunctions();
+
   ForEachDsl<E, R> getSpec();
 
   void setSpec(ForEachDsl<E, R> spec);
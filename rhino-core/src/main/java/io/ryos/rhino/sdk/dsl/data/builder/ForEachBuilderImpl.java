@@ -20,6 +20,7 @@ import io.ryos.rhino.sdk.data.UserSession;
 import io.ryos.rhino.sdk.dsl.ForEachDsl;
 import io.ryos.rhino.sdk.dsl.MaterializableDslItem;
 import io.ryos.rhino.sdk.dsl.SessionDslItem.Scope;
+import io.ryos.rhino.sdk.dsl.impl.ForEachDslImpl;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
@@ -41,6 +42,11 @@ public class ForEachBuilderImpl<E, R extends Iterable<E>, T extends Materializab
   private Function<UserSession, R> iterableSupplier;
   private ForEachDsl<E, R> forEachDsl;
   private Function<E, Object> mapper;
+  private int maxConcurrency = ForEachDslImpl.DEFAULT_MAX_CONCURRENCY;
+  private boolean ordered;
+  private int batchSize;
+  private List<Function<List<E>, T>> batchFunctions = new LinkedList<>();
+  private boolean executionConfigured;
 
   public ForEachBuilderImpl(final String sessionKey) {
     this.sessionKey = sessionKey;
@@ -78,13 +84,51 @@ public class ForEachBuilderImpl<E, R extends Iterable<E>, T extends Materializab
   @Override
   public ForEachBuilder<E, R, T> exec(final Function<E, T> forEachChildDslItemFunction) {
     Validate.notNull(forEachChildDslItemFunction, "forEachChildDslItemFunction must not be null.");
+    Validate.isTrue(batchFunctions.isEmpty(), "exec() cannot be combined with batch().");
     forEachChildDslItemFunctions.add(forEachChildDslItemFunction);
     return this;
   }
 
+  @Override
+  public ForEachBuilder<E, R, T> concurrency(final int maxConcurrency) {
+    Validate.isTrue(maxConcurrency > 0, "Max concurrency must be > 0: %d", maxConcurrency);
+    Validate.validState(mapper == null, "concurrency() cannot be combined with map().");
+    this.maxConcurrency = maxConcurrency;
+    this.ordered = false;
+    this.executionConfigured = true;
+    return this;
+  }
+
+  @Override
+  public ForEachBuilder<E, R, T> sequential() {
+    Validate.validState(mapper == null, "sequential() cannot be combined with map().");
+    this.maxConcurrency = 1;
+    this.ordered = true;
+    this.executionConfigured = true;
+    return this;
+  }
+
+  @Override
+  public ForEachBuilder<E, R, T> batch(final int batchSize,
+      final Function<List<E>, T> batchFunction) {
+    Validate.isTrue(batchSize > 0, "Batch size must be > 0: %d", batchSize);
+    Validate.notNull(batchFunction, "batchFunction must not be null.");
+    Validate.isTrue(forEachChildDslItemFunctions.isEmpty(),
+        "batch() cannot be combined with exec().");
+    Validate.isTrue(this.batchSize == 0 || this.batchSize == batchSize,
+        "Batch size is already set: %d", this.batchSize);
+    Validate.validState(mapper == null, "batch() cannot be combined with map().");
+    this.batchSize = batchSize;
+    this.executionConfigured = true;
+    batchFunctions.add(batchFunction);
+    return this;
+  }
+
   @Override
   public ForEachMapBuilder<E, R, T> map(final Function<E, Object> mapper) {
     Validate.notNull(mapper, "mapper must not be null.");
+    Validate.validState(!executionConfigured,
+        "map() cannot be combined with concurrency(), sequential() or batch().");
     this.mapper = mapper;
     return this;
   }
@@ -139,6 +183,26 @@ public class ForEachBuilderImpl<E, R extends Iterable<E>, T extends Materializab
     return mapper;
   }
 
+  @Override
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  @Override
+  public boolean isOrdered() {
+    return ordered;
+  }
+
+  @Override
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  @Override
+  public List<Function<List<E>, T>> getBatchFunctions() {
+    return batchFunctions;
+  }
+
   @Override
   public Function<UserSession, R> getIterableSupplier() {
     return iterableSupplier;
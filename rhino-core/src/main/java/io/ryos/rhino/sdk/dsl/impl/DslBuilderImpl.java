@@ -6,12 +6,14 @@ import io.ryos.rhino.sdk.dsl.DslBuilder;
 import io.ryos.rhino.sdk.dsl.MaterializableDslItem;
 import io.ryos.rhino.sdk.dsl.SessionDslItem.Scope;
 import io.ryos.rhino.sdk.dsl.VerifiableDslItem;
+import io.ryos.rhino.sdk.dsl.data.JoinPolicy;
 import io.ryos.rhino.sdk.dsl.data.builder.ForEachBuilder;
 import io.ryos.rhino.sdk.dsl.data.builder.MapperBuilder;
 import io.ryos.rhino.sdk.dsl.mat.LoadDslMaterializer;
 import io.ryos.rhino.sdk.reporting.VerificationInfo;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -65,6 +67,26 @@ public class DslBuilderImpl extends AbstractDSLItem implements DslBuilder {
     return this;
   }
 
+  @Override
+  public DslBuilder parallel(final String name, final MaterializableDslItem... dslItems) {
+    Validate.notNull(dslItems, "dslItems must not be null.");
+    return parallel(name, dslItems.length, JoinPolicy.all(), dslItems);
+  }
+
+  @Override
+  public DslBuilder parallel(final String name, final int maxConcurrency,
+      final JoinPolicy joinPolicy, final MaterializableDslItem... dslItems) {
+    Validate.notEmpty(name, "Name must not be null.");
+    Validate.notEmpty(dslItems, "dslItems must not be empty.");
+
+    var parallelDsl = new ParallelDslImpl(name, Arrays.asList(dslItems), maxConcurrency,
+        joinPolicy);
+    parallelDsl.setParent(this);
+    parallelDsl.getChildren().forEach(dslItem -> dslItem.setParent(parallelDsl));
+    children.add(parallelDsl);
+    return this;
+  }
+
   @Override
   public <T> DslBuilder verify(VerifiableDslItem dslItem, VerificationInfo<T> verificationInfo) {
     Validate.notNull(dslItem, "dslItem must not be null.");
@@ -186,7 +208,11 @@ public class DslBuilderImpl extends AbstractDSLItem implements DslBuilder {
         forEachBuilder.getSessionScope(),
         forEachBuilder.getIterableSupplier(),
         forEachBuilder.getForEachChildDslItemFunctions(),
-        forEachBuilder.getMapper());
+        forEachBuilder.getMapper(),
+        forEachBuilder.getMaxConcurrency(),
+        forEachBuilder.isOrdered(),
+        forEachBuilder.getBatchSize(),
+        forEachBuilder.getBatchFunctions());
 
     forEachDsl.setParent(this);
     children.add(forEachDsl);
@@ -29,6 +29,11 @@ public class DslMethodImpl implements DslItem, DslMethod {
   private DslItem dsl;
   private DslItem parent;
 
+  /**
+   * Execution plan of the method, which is compiled once.
+   */
+  private volatile DslMethodMaterializer plan;
+
   public DslMethodImpl(String name, DslItem dsl) {
     this.name = Validate.notNull(name, "Name must not be null.");
     this.dsl = Validate.notNull(dsl, "DSL must not be null.");
@@ -69,9 +74,32 @@ public class DslMethodImpl implements DslItem, DslMethod {
     return dsl.getChildren();
   }
 
+  /**
+   * Compiles the DSL tree of the method into its execution plan, unless it is compiled yet. The
+   * plan is to be compiled as the simulation is loaded, so the DSL tree is not mutated while the
+   * users are materializing it.
+   * <p>
+   *
+   * @return The method itself.
+   */
+  public DslMethodImpl compile() {
+    materializer();
+    return this;
+  }
+
   @Override
   public DslMethodMaterializer materializer() {
-    return new DslMethodMaterializer(this);
+    var compiled = plan;
+    if (compiled == null) {
+      synchronized (this) {
+        compiled = plan;
+        if (compiled == null) {
+          compiled = new DslMethodMaterializer(this);
+          plan = compiled;
+        }
+      }
+    }
+    return compiled;
   }
 
   @Override
@@ -25,9 +25,12 @@ import io.ryos.rhino.sdk.dsl.MaterializableDslItem;
 import io.ryos.rhino.sdk.dsl.mat.CollectingMaterializer;
 import io.ryos.rhino.sdk.dsl.mat.DslMaterializer;
 import io.ryos.rhino.sdk.dsl.mat.ForEachDslMaterializer;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
+import org.apache.commons.lang3.Validate;
+import reactor.util.concurrent.Queues;
 
 /**
  * For-each loop Dsl.
@@ -39,6 +42,11 @@ public class ForEachDslImpl<S, R extends Iterable<S>, T extends MaterializableDs
     ForEachDsl,
     ContainerScopeDsl {
 
+  /**
+   * Default max. number of the DSL items in flight, that is the default concurrency of Reactor.
+   */
+  public static final int DEFAULT_MAX_CONCURRENCY = Queues.SMALL_BUFFER_SIZE;
+
   /**
    * Child DSL items.
    */
@@ -56,6 +64,11 @@ public class ForEachDslImpl<S, R extends Iterable<S>, T extends MaterializableDs
 
   private Function<S, Object> mapper;
 
+  private final int maxConcurrency;
+  private final boolean ordered;
+  private final int batchSize;
+  private final List<Function<List<S>, T>> batchFunctions;
+
   /**
    * Constructs a new {@link ForEachDsl} instance.
    *
@@ -73,12 +86,48 @@ public class ForEachDslImpl<S, R extends Iterable<S>, T extends MaterializableDs
       final List<Function<S, T>> forEachFunctions,
       final Function<S, Object> mapper) {
 
+    this(name, children, sessionKey, scope, iterableSupplier, forEachFunctions, mapper,
+        DEFAULT_MAX_CONCURRENCY, false, 0, Collections.emptyList());
+  }
+
+  /**
+   * Constructs a new {@link ForEachDsl} instance.
+   *
+   * @param name Spec name.
+   * @param children Child DSL items.
+   * @param sessionKey Session key.
+   * @param scope Session scope.
+   * @param iterableSupplier Supplier for iterable.
+   * @param maxConcurrency Max. number of the DSL items in flight.
+   * @param ordered Whether the elements are run one after another in order.
+   * @param batchSize Number of the elements in a chunk, or zero.
+   * @param batchFunctions Functions to create the DSL items of the chunks.
+   */
+  public ForEachDslImpl(final String name,
+      final List<MaterializableDslItem> children,
+      final String sessionKey,
+      final Scope scope,
+      final Function<UserSession, R> iterableSupplier,
+      final List<Function<S, T>> forEachFunctions,
+      final Function<S, Object> mapper,
+      final int maxConcurrency,
+      final boolean ordered,
+      final int batchSize,
+      final List<Function<List<S>, T>> batchFunctions) {
+
     super(name, sessionKey, scope);
 
+    Validate.isTrue(maxConcurrency > 0, "Max concurrency must be > 0: %d", maxConcurrency);
+    Validate.isTrue(batchSize >= 0, "Batch size must not be negative: %d", batchSize);
+
     this.children = children;
     this.iterableSupplier = iterableSupplier;
     this.forEachFunctions = forEachFunctions;
     this.mapper = mapper;
+    this.maxConcurrency = maxConcurrency;
+    this.ordered = ordered;
+    this.batchSize = batchSize;
+    this.batchFunctions = batchFunctions;
   }
 
   @Override
@@ -106,6 +155,26 @@ public class ForEachDslImpl<S, R extends Iterable<S>, T extends MaterializableDs
     return mapper;
   }
 
+  @Override
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  @Override
+  public boolean isOrdered() {
+    return ordered;
+  }
+
+  @Override
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  @Override
+  public List<Function<List<S>, T>> getBatchFunctions() {
+    return batchFunctions;
+  }
+
   @Override
   public UserSession collect(UserSession userSession, Object response, String sessionKey,
       Scope sessionScope) {
@@ -2,6 +2,7 @@ package io.ryos.rhino.sdk.dsl.impl;
 
 import static io.ryos.rhino.sdk.dsl.utils.SessionUtils.getActiveUser;
 
+import io.ryos.rhino.sdk.HttpProtocol;
 import io.ryos.rhino.sdk.data.UserSession;
 import io.ryos.rhino.sdk.dsl.CollectableDslItem;
 import io.ryos.rhino.sdk.dsl.ContainerScopeDsl;
@@ -12,9 +13,14 @@ import io.ryos.rhino.sdk.dsl.HttpRetriableDsl;
 import io.ryos.rhino.sdk.dsl.MaterializableDslItem;
 import io.ryos.rhino.sdk.dsl.SessionDslItem;
 import io.ryos.rhino.sdk.dsl.data.HttpResponse;
+import io.ryos.rhino.sdk.dsl.data.ResponseMode;
 import io.ryos.rhino.sdk.dsl.mat.DslMaterializer;
 import io.ryos.rhino.sdk.dsl.mat.HttpDslData;
 import io.ryos.rhino.sdk.dsl.mat.HttpDslMaterializer;
+import io.ryos.rhino.sdk.dsl.mat.HttpRequestTemplate;
+import io.ryos.rhino.sdk.dsl.utils.ConstantFunction;
+import io.ryos.rhino.sdk.io.Payload;
+import io.ryos.rhino.sdk.io.RandomContent;
 import io.ryos.rhino.sdk.reporting.VerificationInfo;
 import io.ryos.rhino.sdk.users.data.User;
 import java.io.ByteArrayInputStream;
@@ -44,6 +50,8 @@ public class HttpDslImpl extends AbstractSessionDslItem implements HttpDsl, Http
   private String collectorsSessionKey;
 
   private Supplier<InputStream> toUpload;
+  private Payload uploadPayload;
+  private RandomContent uploadRandomContent;
   private Function<UserSession, InputStream> toLazyUpload;
 
   private List<Function<UserSession, Entry<String, List<String>>>> headers = new ArrayList<>();
@@ -57,7 +65,10 @@ public class HttpDslImpl extends AbstractSessionDslItem implements HttpDsl, Http
   private Function<UserSession, User> oauthUserAccessor;
   private Supplier<User> userSupplier;
   private RetryInfo retryInfo;
+  private HttpProtocol protocol;
+  private ResponseMode responseMode;
   private HttpResponse response;
+  private volatile HttpRequestTemplate requestTemplate;
 
   /**
    * Creates a new {@link HttpDslImpl}.
@@ -115,7 +126,7 @@ public class HttpDslImpl extends AbstractSessionDslItem implements HttpDsl, Http
   @Override
   public HttpConfigDsl endpoint(final String endpoint) {
     Validate.notEmpty(endpoint, "endpoint must not be empty.");
-    this.endpoint = r -> endpoint;
+    this.endpoint = ConstantFunction.of(endpoint);
     return this;
   }
 
@@ -136,14 +147,14 @@ public class HttpDslImpl extends AbstractSessionDslItem implements HttpDsl, Http
   @Override
   public HttpConfigDsl header(String name, List<String> values) {
     Validate.notEmpty(name, "Header name must not be null.");
-    this.headers.add(e -> Map.entry(name, values));
+    this.headers.add(ConstantFunction.of(Map.entry(name, values)));
     return this;
   }
 
   @Override
   public HttpConfigDsl header(String name, String value) {
     Validate.notEmpty(name, "Header name must not be null.");
-    this.headers.add(e -> Map.entry(name, Collections.singletonList(value)));
+    this.headers.add(ConstantFunction.of(Map.entry(name, Collections.singletonList(value))));
     return this;
   }
 
@@ -157,14 +168,15 @@ public class HttpDslImpl extends AbstractSessionDslItem implements HttpDsl, Http
   @Override
   public HttpConfigDsl formParam(String paramName, List<String> values) {
     Validate.notEmpty("Parameter name must not be empty.", paramName);
-    this.formParams.add(e -> Map.entry(paramName, values));
+    this.formParams.add(ConstantFunction.of(Map.entry(paramName, values)));
     return this;
   }
 
   @Override
   public HttpConfigDsl formParam(String paramName, String value) {
     Validate.notEmpty("Parameter name must not be empty.", paramName);
-    this.formParams.add(e -> Map.entry(paramName, Collections.singletonList(value)));
+    this.formParams.add(
+        ConstantFunction.of(Map.entry(paramName, Collections.singletonList(value))));
     return this;
   }
 
@@ -209,14 +221,15 @@ public class HttpDslImpl extends AbstractSessionDslItem implements HttpDsl, Http
   @Override
   public HttpConfigDsl queryParam(String queryParamName, List<String> values) {
     Validate.notEmpty(queryParamName, "Query param name must not be null.");
-    this.queryParams.add(e -> Map.entry(queryParamName, values));
+    this.queryParams.add(ConstantFunction.of(Map.entry(queryParamName, values)));
     return this;
   }
 
   @Override
   public HttpConfigDsl queryParam(String queryParamName, String value) {
     Validate.notEmpty(queryParamName, "Query param name must not be null.");
-    this.queryParams.add(e -> Map.entry(queryParamName, Collections.singletonList(value)));
+    this.queryParams.add(
+        ConstantFunction.of(Map.entry(queryParamName, Collections.singletonList(value))));
     return this;
   }
 
@@ -235,6 +248,20 @@ public class HttpDslImpl extends AbstractSessionDslItem implements HttpDsl, Http
     return this;
   }
 
+  @Override
+  public HttpConfigDsl upload(final Payload payload) {
+    Validate.notNull(payload, "Payload must not be null.");
+    this.uploadPayload = payload;
+    return this;
+  }
+
+  @Override
+  public HttpConfigDsl upload(final RandomContent content) {
+    Validate.notNull(content, "Content must not be null.");
+    this.uploadRandomContent = content;
+    return this;
+  }
+
   @Override
   public HttpConfigDsl payload(final Supplier<InputStream> inputStreamSupplier) {
     return upload(inputStreamSupplier);
@@ -252,6 +279,20 @@ public class HttpDslImpl extends AbstractSessionDslItem implements HttpDsl, Http
     return upload(() -> new ByteArrayInputStream(stringPayload.getBytes()));
   }
 
+  @Override
+  public HttpConfigDsl protocol(final HttpProtocol protocol) {
+    Validate.notNull(protocol, "Protocol must not be null.");
+    this.protocol = protocol;
+    return this;
+  }
+
+  @Override
+  public HttpConfigDsl responseMode(final ResponseMode responseMode) {
+    Validate.notNull(responseMode, "Response mode must not be null.");
+    this.responseMode = responseMode;
+    return this;
+  }
+
   @Override
   public HttpDsl retryIf(final Predicate<HttpResponse> predicate, final int numOfRetries) {
     Validate.isTrue(numOfRetries >= 0, "numberOfRetries must be bigger than zero.");
@@ -299,6 +340,16 @@ public class HttpDslImpl extends AbstractSessionDslItem implements HttpDsl, Http
     return toUpload;
   }
 
+  @Override
+  public Payload getUploadPayload() {
+    return uploadPayload;
+  }
+
+  @Override
+  public RandomContent getUploadRandomContent() {
+    return uploadRandomContent;
+  }
+
   @Override
   public Function<UserSession, InputStream> getLazyStringPayload() {
     return toLazyUpload;
@@ -370,9 +421,25 @@ public class HttpDslImpl extends AbstractSessionDslItem implements HttpDsl, Http
     return retryInfo;
   }
 
+  @Override
+  public HttpProtocol getProtocol() {
+    return protocol;
+  }
+
+  @Override
+  public ResponseMode getResponseMode() {
+    return responseMode;
+  }
+
   @Override
   public DslMaterializer materializer() {
-    return new HttpDslMaterializer(this);
+    var template = requestTemplate;
+    if (template == null) {
+      // Compiled once per DSL item, a concurrent compilation yields an equal template.
+      template = HttpRequestTemplate.compile(this);
+      requestTemplate = template;
+    }
+    return new HttpDslMaterializer(this, template);
   }
 
   @Override
@@ -0,0 +1,55 @@
+package io.ryos.rhino.sdk.dsl.impl;
+
+import io.ryos.rhino.sdk.dsl.MaterializableDslItem;
+import io.ryos.rhino.sdk.dsl.ParallelDsl;
+import io.ryos.rhino.sdk.dsl.data.JoinPolicy;
+import io.ryos.rhino.sdk.dsl.mat.ParallelDslMaterializer;
+import java.util.List;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Parallel DSL implementation.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public class ParallelDslImpl extends AbstractDSLItem implements ParallelDsl {
+
+  private final List<MaterializableDslItem> children;
+  private final int maxConcurrency;
+  private final JoinPolicy joinPolicy;
+
+  public ParallelDslImpl(final String name, final List<MaterializableDslItem> children,
+      final int maxConcurrency, final JoinPolicy joinPolicy) {
+    super(name);
+
+    Validate.notEmpty(children, "Parallel DSL must have children.");
+    Validate.noNullElements(children, "Children must not be null.");
+    Validate.isTrue(maxConcurrency > 0, "Max concurrency must be > 0: %d", maxConcurrency);
+
+    this.children = List.copyOf(children);
+    this.maxConcurrency = maxConcurrency;
+    this.joinPolicy = Validate.notNull(joinPolicy, "Join policy must not be null.");
+  }
+
+  @Override
+  public int getMaxConcurrency() {
+    return maxConcurrency;
+  }
+
+  @Override
+  public JoinPolicy getJoinPolicy() {
+    return joinPolicy;
+  }
+
+  @Override
+  public List<MaterializableDslItem> getChildren() {
+    return children;
+  }
+
+  @Override
+  public ParallelDslMaterializer materializer() {
+    return new ParallelDslMaterializer(this);
+  }
+}
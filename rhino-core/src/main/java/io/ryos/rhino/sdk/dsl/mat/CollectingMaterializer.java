@@ -13,6 +13,14 @@ import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+/**
+ * Materializer of the for-each DSL with a mapper, which maps the elements in the order of the
+ * iterable, and collects the results into the session. The builder rejects the concurrency,
+ * sequential and batch options together with a mapper, since they do not apply here.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ */
 public class CollectingMaterializer<S, R extends Iterable<S>> implements DslMaterializer {
   private static final Logger LOG = LoggerFactory.getLogger(ForEachDslMaterializer.class);
 
@@ -22,39 +22,60 @@ import io.ryos.rhino.sdk.dsl.MaterializableDslItem;
 import io.ryos.rhino.sdk.dsl.impl.ConditionalDslWrapper;
 import io.ryos.rhino.sdk.exceptions.NoSpecDefinedException;
 import io.ryos.rhino.sdk.exceptions.TerminateSimulationException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
 import reactor.core.publisher.Mono;
 
+/**
+ * Materializer of a DSL method, which is the execution plan of its children. The plan is compiled
+ * once, as the materializer is created: the parents of the children are resolved and the
+ * materializers of the children are created, that compile their own children in turn. Thus
+ * materializing the plan for a user only binds the session, without mutating the DSL tree or
+ * allocating materializers per iteration.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ */
 public class DslMethodMaterializer implements DslMaterializer {
 
   private final DslMethod dslMethod;
+  private final List<Step> steps;
 
   public DslMethodMaterializer(DslMethod dslMethod) {
     this.dslMethod = dslMethod;
+    this.steps = compile(dslMethod);
   }
 
-  @Override
-  public Mono<UserSession> materialize(final UserSession session) {
-    var childrenIterator = dslMethod.getChildren().iterator();
-    if (!childrenIterator.hasNext()) {
+  private static List<Step> compile(final DslMethod dslMethod) {
+    var children = dslMethod.getChildren();
+    if (children == null || children.isEmpty()) {
       throw new NoSpecDefinedException(dslMethod.getName());
     }
 
-    var nextChildDsl = childrenIterator.next();
-    nextChildDsl.setParent(dslMethod);
-    var materializer = nextChildDsl.materializer();
-    var acc = materializer.materialize(session);
+    var compiled = new ArrayList<Step>(children.size());
+    for (var child : children) {
+      child.setParent(dslMethod);
+      var predicate = isConditionalSpec(child) ? ((ConditionalDslWrapper) child).getPredicate()
+          : null;
+      compiled.add(new Step(child.materializer(), predicate));
+    }
+    return Collections.unmodifiableList(compiled);
+  }
+
+  @Override
+  public Mono<UserSession> materialize(final UserSession session) {
+    var stepIterator = steps.iterator();
+    var acc = stepIterator.next().materializer.materialize(session);
 
-    while (childrenIterator.hasNext()) {
-      var next = childrenIterator.next();
-      next.setParent(dslMethod);
+    while (stepIterator.hasNext()) {
+      var next = stepIterator.next();
       acc = acc.flatMap(s -> {
-        if (isConditionalSpec(next)) {
-          var predicate = ((ConditionalDslWrapper) next).getPredicate();
-          if (!predicate.test(s)) {
-            return Mono.just(s);
-          }
+        if (next.predicate != null && !next.predicate.test(s)) {
+          return Mono.just(s);
         }
-        return next.materializer().materialize(session);
+        return next.materializer.materialize(session);
       });
     }
 
@@ -66,7 +87,22 @@ public class DslMethodMaterializer implements DslMaterializer {
     });
   }
 
-  private boolean isConditionalSpec(MaterializableDslItem next) {
+  private static boolean isConditionalSpec(MaterializableDslItem next) {
     return next instanceof ConditionalDslWrapper;
   }
+
+  /**
+   * Compiled child of the plan.
+   * <p>
+   */
+  private static final class Step {
+
+    private final DslMaterializer materializer;
+    private final Predicate<UserSession> predicate;
+
+    private Step(final DslMaterializer materializer, final Predicate<UserSession> predicate) {
+      this.materializer = materializer;
+      this.predicate = predicate;
+    }
+  }
 }
@@ -21,7 +21,10 @@ import io.ryos.rhino.sdk.dsl.ForEachDsl;
 import io.ryos.rhino.sdk.dsl.MaterializableDslItem;
 import io.ryos.rhino.sdk.dsl.SessionDslItem;
 import io.ryos.rhino.sdk.exceptions.SessionObjectNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
@@ -48,20 +51,52 @@ public class ForEachDslMaterializer<S, R extends Iterable<S>> implements DslMate
       return Mono.error(keyNotFound);
     }
 
-    return Flux.fromIterable(iterable)
-        .flatMap(s -> Flux.fromIterable(dslItem.getForEachFunctions()).map(a -> a.apply(s)))
-        .map(childDsl -> populateToChildren(dslItem, childDsl))
-        .flatMap(childDsl -> childDsl.materializer().materialize(session))
+    // The elements are pulled from the iterable on demand, so at most max concurrency elements,
+    // or chunks, are in flight, and the iterable is never copied.
+    var children = createChildren(Flux.fromIterable(iterable))
+        .map(childDsl -> populateToChildren(dslItem, childDsl));
+
+    var materialized = dslItem.isOrdered()
+        ? children.concatMap(childDsl -> childDsl.materializer().materialize(session), 1)
+        : children.flatMap(childDsl -> childDsl.materializer().materialize(session),
+            dslItem.getMaxConcurrency(), 1);
+
+    return materialized
         .reduce((s1, s2) -> s1)
         .doOnError(e -> LOG.error("Unexpected error: ", e));
   }
 
+  private Flux<? extends MaterializableDslItem> createChildren(final Flux<S> elements) {
+    if (dslItem.getBatchSize() > 0) {
+      return elements.buffer(dslItem.getBatchSize())
+          .concatMapIterable(chunk -> apply(dslItem.getBatchFunctions(), chunk), 1);
+    }
+    return elements.concatMapIterable(s -> apply(dslItem.getForEachFunctions(), s), 1);
+  }
+
+  private static <X> List<MaterializableDslItem> apply(
+      final List<? extends Function<X, ? extends MaterializableDslItem>> functions,
+      final X element) {
+    var children = new ArrayList<MaterializableDslItem>(functions.size());
+    for (var function : functions) {
+      children.add(function.apply(element));
+    }
+    return children;
+  }
+
   private MaterializableDslItem populateToChildren(final ForEachDsl<S, R> forEachDsl,
       final MaterializableDslItem spec) {
+    // Children, which the for-each functions share across the elements, are populated once, so
+    // that the concurrent iterations do not write them.
     if (isSessionDSLItem(spec)) {
-      ((SessionDslItem) spec).setSessionScope(forEachDsl.getSessionScope());
+      var sessionDslItem = (SessionDslItem) spec;
+      if (sessionDslItem.getSessionScope() != forEachDsl.getSessionScope()) {
+        sessionDslItem.setSessionScope(forEachDsl.getSessionScope());
+      }
+    }
+    if (spec.getParent() != forEachDsl) {
+      spec.setParent(forEachDsl);
     }
-    spec.setParent(forEachDsl);
     return spec;
   }
 
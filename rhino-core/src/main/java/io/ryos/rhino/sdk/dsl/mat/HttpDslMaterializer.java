@@ -16,32 +16,19 @@
 
 package io.ryos.rhino.sdk.dsl.mat;
 
-import static org.asynchttpclient.Dsl.delete;
-import static org.asynchttpclient.Dsl.get;
-import static org.asynchttpclient.Dsl.head;
-import static org.asynchttpclient.Dsl.options;
-import static org.asynchttpclient.Dsl.post;
-import static org.asynchttpclient.Dsl.put;
-
+import io.ryos.rhino.sdk.Http2Client;
 import io.ryos.rhino.sdk.HttpClient;
-import io.ryos.rhino.sdk.SimulationConfig;
+import io.ryos.rhino.sdk.HttpProtocol;
 import io.ryos.rhino.sdk.data.UserSession;
 import io.ryos.rhino.sdk.dsl.HttpDsl;
 import io.ryos.rhino.sdk.dsl.data.HttpResponse;
 import io.ryos.rhino.sdk.dsl.data.HttpSpecAsyncHandler;
 import io.ryos.rhino.sdk.dsl.impl.HttpDslImpl.RetryInfo;
-import io.ryos.rhino.sdk.dsl.utils.SessionUtils;
 import io.ryos.rhino.sdk.exceptions.RetryFailedException;
 import io.ryos.rhino.sdk.exceptions.RetryableOperationException;
-import io.ryos.rhino.sdk.runners.Rampup;
-import io.ryos.rhino.sdk.users.BasicAuthRequestStrategy;
-import io.ryos.rhino.sdk.users.OAuth2RequestStrategy;
-import io.ryos.rhino.sdk.users.data.User;
-import io.ryos.rhino.sdk.users.oauth.OAuthUserImpl;
-import java.util.Optional;
+import io.ryos.rhino.sdk.reporting.LiveMetrics;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
-import java.util.function.Supplier;
-import org.apache.commons.lang3.NotImplementedException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.asynchttpclient.RequestBuilder;
@@ -61,30 +48,32 @@ import reactor.core.publisher.Mono;
 public class HttpDslMaterializer implements DslMaterializer {
 
   private static final Logger LOG = LogManager.getLogger(HttpDslMaterializer.class);
-  private static final Rampup rampUp = Rampup.getInstance();
   private final HttpDsl dslItem;
+  private final HttpRequestTemplate requestTemplate;
 
   public HttpDslMaterializer(HttpDsl dslItem) {
+    this(dslItem, HttpRequestTemplate.compile(dslItem));
+  }
+
+  public HttpDslMaterializer(final HttpDsl dslItem, final HttpRequestTemplate requestTemplate) {
     this.dslItem = dslItem;
+    this.requestTemplate = requestTemplate;
   }
 
   public Mono<UserSession> materialize(final UserSession userSession) {
 
     var httpSpecAsyncHandler = new HttpSpecAsyncHandler(userSession, dslItem);
 
-    var sessionMono = Mono.just(userSession);
-    if (SimulationConfig.isRampupDefined()) {
-      sessionMono = rampUp.rampUp(userSession);
-    }
-
-    var responseMono = sessionMono.flatMap(session -> Mono
-        .fromFuture(HttpClient.INSTANCE.getClient().executeRequest(buildHttpRequest(
-            dslItem, session), httpSpecAsyncHandler).toCompletableFuture()));
+    var responseMono = Mono.just(userSession).flatMap(session -> Mono
+        .fromFuture(executeRequest(session, requestTemplate.newRequest(session),
+            httpSpecAsyncHandler))
+        .doOnSubscribe(s -> LiveMetrics.requestStarted())
+        .doFinally(s -> LiveMetrics.requestCompleted()));
 
     RetryInfo retryInfo = dslItem.getRetryInfo();
     var retriableMono = responseMono;
     if (retryInfo != null) {
-      retriableMono = responseMono.map(HttpResponse::new)
+      retriableMono = responseMono.map(httpSpecAsyncHandler::toHttpResponse)
           .map(hr -> isRequestRetriable(retryInfo, hr))
           .retryWhen(companion -> companion.zipWith(
               Flux.range(1, retryInfo.getNumOfRetries() + 1), (error, index) -> {
@@ -98,11 +87,21 @@ public class HttpDslMaterializer implements DslMaterializer {
     }
 
     return retriableMono
-        .map(result -> dslItem.handleResult(userSession, new HttpResponse(result)))
+        .map(result -> dslItem.handleResult(userSession,
+            httpSpecAsyncHandler.toHttpResponse(result)))
         .onErrorResume(handleOnErrorResume(dslItem, httpSpecAsyncHandler))
         .doOnError(t -> LOG.error("Http Client Error", t));
   }
 
+  private CompletableFuture<Response> executeRequest(final UserSession session,
+      final RequestBuilder requestBuilder, final HttpSpecAsyncHandler httpSpecAsyncHandler) {
+    if (requestTemplate.getProtocol() == HttpProtocol.HTTP_2) {
+      return Http2Client.INSTANCE.executeRequest(requestBuilder.build(), httpSpecAsyncHandler);
+    }
+    return HttpClient.INSTANCE.shardOf(session.getUser().getId())
+        .executeRequest(requestBuilder, httpSpecAsyncHandler);
+  }
+
   private Function<Throwable, Mono<? extends UserSession>> handleOnErrorResume(
       final HttpDsl spec, final HttpSpecAsyncHandler httpSpecAsyncHandler) {
     return error -> {
@@ -121,81 +120,4 @@ public class HttpDslMaterializer implements DslMaterializer {
     }
     return httpResponse.getResponse();
   }
-
-  private RequestBuilder buildHttpRequest(HttpDsl httpSpec, UserSession userSession) {
-    var endpoint = httpSpec.getEndpoint().apply(userSession);
-
-    RequestBuilder builder = null;
-    switch (httpSpec.getMethod()) {
-      case GET:
-        builder = get(endpoint);
-        break;
-      case HEAD:
-        builder = head(endpoint);
-        break;
-      case OPTIONS:
-        builder = options(endpoint);
-        break;
-      case DELETE:
-        builder = delete(endpoint);
-        break;
-      case PUT:
-        builder = put(endpoint);
-        if (httpSpec.getUploadContent() != null || httpSpec.getLazyStringPayload() != null) {
-          builder.setBody(Optional.ofNullable(httpSpec.getUploadContent()).map(Supplier::get)
-              .orElseGet(() -> httpSpec.getLazyStringPayload().apply(userSession)));
-        }
-        break;
-      case POST:
-        builder = post(endpoint);
-        if (httpSpec.getUploadContent() != null || httpSpec.getLazyStringPayload() != null) {
-          builder.setBody(Optional.ofNullable(httpSpec.getUploadContent()).map(Supplier::get)
-              .orElseGet(() -> httpSpec.getLazyStringPayload().apply(userSession)));
-        }
-
-        break;
-      // case X : rest of methods, we support...
-      default:
-        throw new NotImplementedException("Not implemented: " + httpSpec.getMethod());
-    }
-
-    for (var f : httpSpec.getHeaders()) {
-      var headerEntry = f.apply(userSession);
-      builder = builder.addHeader(headerEntry.getKey(), headerEntry.getValue());
-    }
-
-    for (var f : httpSpec.getQueryParameters()) {
-      var paramEntry = f.apply(userSession);
-      builder = builder
-          .addQueryParam(paramEntry.getKey(), String.join(",", paramEntry.getValue()));
-    }
-
-    for (var f : httpSpec.getFormParameters()) {
-      var paramEntry = f.apply(userSession);
-      builder = builder
-          .addFormParam(paramEntry.getKey(), String.join(",", paramEntry.getValue()));
-    }
-
-    if (httpSpec.isAuth()) {
-      var specOwner = SessionUtils.getEffectiveHttpUser(httpSpec, userSession);
-      builder = handleAuth(specOwner, builder);
-    }
-
-    if (SimulationConfig.debugHttp()) {
-      LOG.info("[debug.http=true][url={}][headers={}]",
-          builder.build().getUrl(),
-          builder.build().getHeaders());
-    }
-    return builder;
-  }
-
-  private RequestBuilder handleAuth(User user, RequestBuilder builder) {
-
-    if (user instanceof OAuthUserImpl) {
-      return new OAuth2RequestStrategy().addAuthHeaders(builder, user);
-    }
-
-    return new BasicAuthRequestStrategy().addAuthHeaders(builder, user);
-
-  }
 }
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2018 Ryos.io.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ryos.rhino.sdk.dsl.mat;
+
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.ryos.rhino.sdk.HttpProtocol;
+import io.ryos.rhino.sdk.SimulationConfig;
+import io.ryos.rhino.sdk.data.UserSession;
+import io.ryos.rhino.sdk.dsl.HttpDsl;
+import io.ryos.rhino.sdk.dsl.utils.ConstantFunction;
+import io.ryos.rhino.sdk.dsl.utils.SessionUtils;
+import io.ryos.rhino.sdk.io.Payload;
+import io.ryos.rhino.sdk.io.RandomContent;
+import io.ryos.rhino.sdk.users.BasicAuthRequestStrategy;
+import io.ryos.rhino.sdk.users.OAuth2RequestStrategy;
+import io.ryos.rhino.sdk.users.UserAuthRequestStrategy;
+import io.ryos.rhino.sdk.users.oauth.OAuthUserImpl;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.apache.commons.lang3.NotImplementedException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.asynchttpclient.Param;
+import org.asynchttpclient.RequestBuilder;
+import org.asynchttpclient.uri.Uri;
+import org.asynchttpclient.util.Utf8UrlEncoder;
+
+/**
+ * Request template of a {@link HttpDsl}, which is compiled once per DSL item. The constant parts
+ * of the request, i.e the method, the endpoint, the headers and the parameters given as
+ * constants, are resolved and encoded at compile time, so creating a request evaluates the
+ * session dependent functions only.
+ * <p>
+ *
+ * The constant headers and form parameters precede the session dependent ones in the request.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class HttpRequestTemplate {
+
+  private static final Logger LOG = LogManager.getLogger(HttpRequestTemplate.class);
+  private static final UserAuthRequestStrategy OAUTH_STRATEGY = new OAuth2RequestStrategy();
+  private static final UserAuthRequestStrategy BASIC_AUTH_STRATEGY =
+      new BasicAuthRequestStrategy();
+  private static final String VALUE_SEPARATOR = ",";
+
+  private final HttpDsl httpDsl;
+  private final HttpProtocol protocol;
+  private final String method;
+  private final boolean supported;
+  private final boolean hasBody;
+  private final Payload payload;
+  private final RandomContent randomContent;
+
+  /**
+   * Endpoint with the constant query parameters, or {@code null} if the endpoint depends on the
+   * session.
+   * <p>
+   */
+  private final String constantUrl;
+
+  /**
+   * Parsed and encoded URI of the requests, or {@code null} if the URI depends on the session.
+   * <p>
+   */
+  private final Uri constantUri;
+  private final Function<UserSession, String> endpoint;
+
+  /**
+   * Encoded constant query parameters, e.g "a=1&b=2", or empty if there is none.
+   * <p>
+   */
+  private final String constantQuery;
+  private final HttpHeaders constantHeaders;
+  private final List<Param> constantFormParams;
+  private final List<Function<UserSession, Entry<String, List<String>>>> headers;
+  private final List<Function<UserSession, Entry<String, List<String>>>> queryParams;
+  private final List<Function<UserSession, Entry<String, List<String>>>> formParams;
+
+  private HttpRequestTemplate(final HttpDsl httpDsl) {
+    this.httpDsl = httpDsl;
+    this.protocol = httpDsl.getProtocol() != null
+        ? httpDsl.getProtocol()
+        : SimulationConfig.getHttpProtocol();
+
+    // Unsupported methods fail the requests, not the compilation of the DSL.
+    switch (httpDsl.getMethod()) {
+      case GET:
+      case HEAD:
+      case OPTIONS:
+      case DELETE:
+        this.supported = true;
+        this.hasBody = false;
+        break;
+      case PUT:
+      case POST:
+        this.supported = true;
+        this.hasBody = true;
+        break;
+      default:
+        this.supported = false;
+        this.hasBody = false;
+    }
+    this.method = httpDsl.getMethod().name();
+    this.payload = httpDsl.getUploadPayload();
+    this.randomContent = httpDsl.getUploadRandomContent();
+    this.endpoint = httpDsl.getEndpoint();
+
+    var query = new StringBuilder();
+    this.queryParams = new ArrayList<>();
+    for (var f : httpDsl.getQueryParameters()) {
+      if (f instanceof ConstantFunction) {
+        var param = f.apply(null);
+        if (query.length() > 0) {
+          query.append('&');
+        }
+        Utf8UrlEncoder.encodeAndAppendQueryElement(query, param.getKey()).append('=');
+        Utf8UrlEncoder.encodeAndAppendQueryElement(query,
+            String.join(VALUE_SEPARATOR, param.getValue()));
+      } else {
+        queryParams.add(f);
+      }
+    }
+    this.constantQuery = query.toString();
+    this.constantUrl = endpoint instanceof ConstantFunction
+        ? appendQuery(endpoint.apply(null), constantQuery)
+        : null;
+    this.constantUri = constantUrl != null && queryParams.isEmpty()
+        ? new RequestBuilder(method).setUrl(constantUrl).build().getUri()
+        : null;
+
+    this.constantHeaders = new DefaultHttpHeaders();
+    this.headers = new ArrayList<>();
+    for (var f : httpDsl.getHeaders()) {
+      if (f instanceof ConstantFunction) {
+        var header = f.apply(null);
+        constantHeaders.add(header.getKey(), header.getValue());
+      } else {
+        headers.add(f);
+      }
+    }
+
+    var constantParams = new ArrayList<Param>();
+    this.formParams = new ArrayList<>();
+    for (var f : httpDsl.getFormParameters()) {
+      if (f instanceof ConstantFunction) {
+        var param = f.apply(null);
+        constantParams.add(new Param(param.getKey(),
+            String.join(VALUE_SEPARATOR, param.getValue())));
+      } else {
+        formParams.add(f);
+      }
+    }
+    this.constantFormParams = List.copyOf(constantParams);
+  }
+
+  /**
+   * Compiles the request template of the DSL item.
+   * <p>
+   *
+   * @param httpDsl HTTP DSL item.
+   * @return {@link HttpRequestTemplate} instance.
+   */
+  public static HttpRequestTemplate compile(final HttpDsl httpDsl) {
+    return new HttpRequestTemplate(httpDsl);
+  }
+
+  /**
+   * Creates a new request for the session.
+   * <p>
+   *
+   * @param userSession User session.
+   * @return {@link RequestBuilder} of the request.
+   */
+  public RequestBuilder newRequest(final UserSession userSession) {
+    if (!supported) {
+      throw new NotImplementedException("Not implemented: " + httpDsl.getMethod());
+    }
+
+    RequestBuilder builder;
+    if (constantUri != null) {
+      // The URI is already encoded, so the builder takes it over as is.
+      builder = new RequestBuilder(method, true).setUri(constantUri);
+    } else {
+      var url = constantUrl != null
+          ? constantUrl
+          : appendQuery(endpoint.apply(userSession), constantQuery);
+      builder = new RequestBuilder(method).setUrl(url);
+    }
+
+    if (hasBody) {
+      if (payload != null) {
+        setBody(builder, payload);
+      } else if (randomContent != null) {
+        // Generated as the connection becomes writable, a new body is created per request.
+        builder.setBody(randomContent);
+      } else {
+        var body = getBody(userSession);
+        if (body != null) {
+          builder.setBody(body);
+        }
+      }
+    }
+
+    if (!constantHeaders.isEmpty()) {
+      builder.setHeaders(new DefaultHttpHeaders(false).add(constantHeaders));
+    }
+    for (var f : headers) {
+      var headerEntry = f.apply(userSession);
+      builder.addHeader(headerEntry.getKey(), headerEntry.getValue());
+    }
+
+    for (var f : queryParams) {
+      var paramEntry = f.apply(userSession);
+      builder.addQueryParam(paramEntry.getKey(),
+          String.join(VALUE_SEPARATOR, paramEntry.getValue()));
+    }
+
+    if (!constantFormParams.isEmpty()) {
+      builder.setFormParams(formParams.isEmpty()
+          ? constantFormParams
+          : new ArrayList<>(constantFormParams));
+    }
+    for (var f : formParams) {
+      var paramEntry = f.apply(userSession);
+      builder.addFormParam(paramEntry.getKey(),
+          String.join(VALUE_SEPARATOR, paramEntry.getValue()));
+    }
+
+    if (httpDsl.isAuth()) {
+      var user = SessionUtils.getEffectiveHttpUser(httpDsl, userSession);
+      builder = user instanceof OAuthUserImpl
+          ? OAUTH_STRATEGY.addAuthHeaders(builder, user)
+          : BASIC_AUTH_STRATEGY.addAuthHeaders(builder, user);
+    }
+
+    if (SimulationConfig.debugHttp()) {
+      var request = builder.build();
+      LOG.info("[debug.http=true][url={}][headers={}]", request.getUrl(), request.getHeaders());
+    }
+    return builder;
+  }
+
+  /**
+   * Protocol of the requests, i.e the protocol of the DSL item or the one of the simulation.
+   * <p>
+   *
+   * @return {@link HttpProtocol} of the requests.
+   */
+  public HttpProtocol getProtocol() {
+    return protocol;
+  }
+
+  private static void setBody(final RequestBuilder builder, final Payload payload) {
+    if (payload.isFile()) {
+      // Sent as a file region, the kernel transfers it without copying it to the user space.
+      builder.setBody(payload.getFile());
+    } else {
+      builder.setBody(payload.asByteBuffer());
+    }
+  }
+
+  private InputStream getBody(final UserSession userSession) {
+    Supplier<InputStream> uploadContent = httpDsl.getUploadContent();
+    if (uploadContent != null) {
+      return uploadContent.get();
+    }
+    var lazyPayload = httpDsl.getLazyStringPayload();
+    return lazyPayload != null ? lazyPayload.apply(userSession) : null;
+  }
+
+  private static String appendQuery(final String url, final String query) {
+    if (query.isEmpty()) {
+      return url;
+    }
+    return url + (url.indexOf('?') < 0 ? '?' : '&') + query;
+  }
+}
@@ -20,22 +20,29 @@ import io.ryos.rhino.sdk.dsl.DslBuilder;
 import io.ryos.rhino.sdk.dsl.impl.DslMethodImpl;
 import reactor.core.publisher.Mono;
 
+/**
+ * Materializer of a nested DSL builder, which compiles the builder into a DSL method plan once, as
+ * the materializer is created.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ */
 public class LoadDslMaterializer implements DslMaterializer {
 
-  private final DslBuilder dslItem;
+  private final DslMethodMaterializer plan;
 
   public LoadDslMaterializer(DslBuilder dslItem) {
-    this.dslItem = dslItem;
-  }
-
-  @Override
-  public Mono<UserSession> materialize(final UserSession userSession) {
     String name = "na";
     if (dslItem.hasParent()) {
       name = dslItem.getParentName();
     }
     DslMethodImpl dslMethod = new DslMethodImpl(name, dslItem);
     dslMethod.setParent(dslItem.getParent());
-    return new DslMethodMaterializer(dslMethod).materialize(userSession);
+    this.plan = new DslMethodMaterializer(dslMethod);
+  }
+
+  @Override
+  public Mono<UserSession> materialize(final UserSession userSession) {
+    return plan.materialize(userSession);
   }
 }
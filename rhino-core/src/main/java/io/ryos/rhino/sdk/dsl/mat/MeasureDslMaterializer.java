@@ -25,27 +25,29 @@ import reactor.core.publisher.Mono;
 public class MeasureDslMaterializer implements DslMaterializer {
 
   private final GaugeDslImpl gaugeDsl;
+  private final DslMaterializer measurableMaterializer;
 
   public MeasureDslMaterializer(GaugeDslImpl gauge) {
     this.gaugeDsl = gauge;
+
+    gaugeDsl.setName(gaugeDsl.getTag());
+    MaterializableDslItem materializableDslItem = gaugeDsl.getMeasureableItem();
+    materializableDslItem.setParent(gaugeDsl);
+    this.measurableMaterializer = materializableDslItem.materializer();
   }
 
   @Override
   public Mono<UserSession> materialize(UserSession userSession) {
-    gaugeDsl.setName(gaugeDsl.getTag());
     return Mono.just(userSession)
         .flatMap(session -> Mono.fromCallable(() -> {
           var measurement = new MeasurementImpl("", gaugeDsl.getTag(),
               userSession.getUser().getId());
+          measurement.setLoadStage(userSession.getLoadStage());
           measurement.start();
           userSession.register(measurement);
           return userSession;
         }))
-        .flatMap(session -> {
-          MaterializableDslItem materializableDslItem = gaugeDsl.getMeasureableItem();
-          materializableDslItem.setParent(gaugeDsl);
-          return materializableDslItem.materializer().materialize(session);
-        })
+        .flatMap(measurableMaterializer::materialize)
         .flatMap(session -> Mono.fromCallable(() -> {
           session.commit(" ");
           return session;
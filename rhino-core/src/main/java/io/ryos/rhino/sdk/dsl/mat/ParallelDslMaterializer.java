@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 Ryos.io.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ryos.rhino.sdk.dsl.mat;
+
+import io.ryos.rhino.sdk.data.UserSession;
+import io.ryos.rhino.sdk.dsl.ParallelDsl;
+import io.ryos.rhino.sdk.exceptions.TerminateSimulationException;
+import io.ryos.rhino.sdk.reporting.MeasurementImpl;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Materializer of the parallel DSL, which runs the children concurrently for the same session,
+ * at most max concurrency children at once, and continues as the join policy is satisfied. The
+ * wall-clock time of the group as well as of each child is measured, that is the latency a client
+ * experiences for a fan-out, unlike the sum of the response times.
+ * <p>
+ *
+ * Only the children, which succeed, count toward the join policy. If fewer children succeed than
+ * the policy requires, the group is measured as failed after all children complete, and the user
+ * continues with the next DSL item.
+ * <p>
+ *
+ * The children's materializers are created once, as the materializer is created.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public class ParallelDslMaterializer implements DslMaterializer {
+
+  private static final String STATUS_OK = "OK";
+  private static final String STATUS_FAILED = "FAILED";
+
+  private final ParallelDsl dslItem;
+  private final List<Branch> branches;
+  private final int required;
+
+  public ParallelDslMaterializer(final ParallelDsl dslItem) {
+    this.dslItem = dslItem;
+
+    var children = dslItem.getChildren();
+    var compiled = new ArrayList<Branch>(children.size());
+    for (int i = 0; i < children.size(); i++) {
+      var child = children.get(i);
+      var childName = child.getName() == null || child.getName().isEmpty()
+          ? String.valueOf(i + 1)
+          : child.getName();
+      compiled.add(new Branch(dslItem.getName() + "/" + childName, child.materializer()));
+    }
+    this.branches = Collections.unmodifiableList(compiled);
+    this.required = dslItem.getJoinPolicy().getRequired(branches.size());
+  }
+
+  @Override
+  public Mono<UserSession> materialize(final UserSession userSession) {
+    return Mono.defer(() -> {
+      var groupMeasurement = startMeasurement(userSession);
+      return Flux.fromIterable(branches)
+          .flatMap(branch -> materialize(branch, userSession), dslItem.getMaxConcurrency())
+          .filter(Boolean::booleanValue)
+          .take(required)
+          .count()
+          .map(succeeded -> commit(groupMeasurement, dslItem.getName(),
+              succeeded == required ? STATUS_OK : STATUS_FAILED, userSession));
+    });
+  }
+
+  /**
+   * Materializes the branch, and emits whether it succeeded. A branch fails, if its materializer
+   * completes empty, e.g the HTTP DSL on a client error, or with an error.
+   * <p>
+   */
+  private Mono<Boolean> materialize(final Branch branch, final UserSession userSession) {
+    return Mono.defer(() -> {
+      var measurement = startMeasurement(userSession);
+      return branch.materializer.materialize(userSession)
+          .map(session -> Boolean.TRUE)
+          .defaultIfEmpty(Boolean.FALSE)
+          .onErrorResume(exception -> {
+            if (exception instanceof TerminateSimulationException) {
+              return Mono.error(exception);
+            }
+            return Mono.just(Boolean.FALSE);
+          })
+          .map(succeeded -> {
+            commit(measurement, branch.name, succeeded ? STATUS_OK : STATUS_FAILED, userSession);
+            return succeeded;
+          });
+    });
+  }
+
+  private MeasurementImpl startMeasurement(final UserSession userSession) {
+    var measurement = new MeasurementImpl(dslItem.getParentName(),
+        userSession.getUser().getId());
+    measurement.setLoadStage(userSession.getLoadStage());
+    measurement.start();
+    return measurement;
+  }
+
+  private UserSession commit(final MeasurementImpl measurement, final String measurementPoint,
+      final String status, final UserSession userSession) {
+    measurement.measure(measurementPoint, status);
+    measurement.finish();
+    return userSession;
+  }
+
+  /**
+   * Compiled child of the parallel DSL.
+   * <p>
+   */
+  private static final class Branch {
+
+    private final String name;
+    private final DslMaterializer materializer;
+
+    private Branch(final String name, final DslMaterializer materializer) {
+      this.name = name;
+      this.materializer = materializer;
+    }
+  }
+}
@@ -42,6 +42,7 @@ public class SomeDslMaterializer implements DslMaterializer {
         .flatMap(session -> Mono.fromCallable(() -> {
           var userId = userSession.getUser().getId();
           var measurement = new MeasurementImpl(dslItem.getParentName(), userId);
+          measurement.setLoadStage(session.getLoadStage());
           measurement.start();
 
           var status = dslItem.getFunction().apply(session);
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018 Ryos.io.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ryos.rhino.sdk.dsl.utils;
+
+import io.ryos.rhino.sdk.data.UserSession;
+import java.util.function.Function;
+
+/**
+ * Session function, which returns the same value for every session. DSL items use it for the
+ * values given as constants, so that the materializers can tell them apart from the session
+ * dependent ones and evaluate them once.
+ * <p>
+ *
+ * @param <T> Type of the value.
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class ConstantFunction<T> implements Function<UserSession, T> {
+
+  private final T value;
+
+  private ConstantFunction(final T value) {
+    this.value = value;
+  }
+
+  public static <T> ConstantFunction<T> of(final T value) {
+    return new ConstantFunction<>(value);
+  }
+
+  @Override
+  public T apply(final UserSession session) {
+    return value;
+  }
+
+  public T getValue() {
+    return value;
+  }
+}
@@ -25,6 +25,7 @@ import io.ryos.rhino.sdk.dsl.HttpDsl;
 import io.ryos.rhino.sdk.dsl.MaterializableDslItem;
 import io.ryos.rhino.sdk.dsl.SessionDslItem.Scope;
 import io.ryos.rhino.sdk.dsl.SomeDsl;
+import io.ryos.rhino.sdk.dsl.data.JoinPolicy;
 import io.ryos.rhino.sdk.dsl.data.builder.MapperBuilder;
 import io.ryos.rhino.sdk.dsl.impl.DslBuilderImpl;
 import io.ryos.rhino.sdk.dsl.impl.ExpressionDslImpl;
@@ -78,6 +79,16 @@ public class DslUtils {
     return new DslBuilderImpl(DslBuilder.dslMethodName.get()).run(matDslItem);
   }
 
+  public static DslBuilder parallel(String name, MaterializableDslItem... matDslItems) {
+    return new DslBuilderImpl(DslBuilder.dslMethodName.get()).parallel(name, matDslItems);
+  }
+
+  public static DslBuilder parallel(String name, int maxConcurrency, JoinPolicy joinPolicy,
+      MaterializableDslItem... matDslItems) {
+    return new DslBuilderImpl(DslBuilder.dslMethodName.get()).parallel(name, maxConcurrency,
+        joinPolicy, matDslItems);
+  }
+
   public static DslBuilder wait(Duration duration) {
     return new DslBuilderImpl(DslBuilder.dslMethodName.get()).wait(duration);
   }
@@ -0,0 +1,66 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.io;
+
+/**
+ * Layout of the binary simulation log. The log is an append-only sequence of records in big-endian
+ * byte order, preceded by a header:
+ * <p>
+ *
+ * <pre>
+ *   header     := magic:int version:short startTime:long simulationClass:string
+ *                 simulationName:string
+ *   string     := length:int utf8:byte[length]
+ *   dictionary := 0x01 id:int value:string
+ *   request    := 0x02 user:int scenario:int measurementPoint:int status:int stage:int
+ *                 start:long end:long elapsed:long responseTime:long
+ *   user       := 0x03 user:int scenario:int eventType:byte start:long end:long elapsed:long
+ *   timed      := 0x04 user:int scenario:int measurementPoint:int status:int stage:int
+ *                 start:long end:long elapsed:long responseTime:long
+ *                 dns:int connect:int tls:int ttfb:int download:int
+ * </pre>
+ *
+ * Users, scenarios, measurement points, statuses and stages are dictionary-encoded. A dictionary
+ * record precedes the first record referring to its id. The id zero is the blank string.
+ * <p>
+ *
+ * Requests with connection phases are written as timed records, whose phases are in micros, or
+ * {@code -1} if the request did not go through the phase. Timed records were introduced with
+ * version 2, version 1 logs are still readable.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+final class BinaryLogFormat {
+
+  static final int MAGIC = 0x52484e4f;
+  static final short VERSION = 2;
+  static final short MIN_VERSION = 1;
+
+  static final byte DICTIONARY = 0x01;
+  static final byte REQUEST = 0x02;
+  static final byte USER = 0x03;
+  static final byte TIMED_REQUEST = 0x04;
+
+  static final int REQUEST_SIZE = 1 + 5 * Integer.BYTES + 4 * Long.BYTES;
+  static final int TIMED_REQUEST_SIZE = REQUEST_SIZE + 5 * Integer.BYTES;
+  static final int USER_SIZE = 1 + 2 * Integer.BYTES + 1 + 3 * Long.BYTES;
+
+  private BinaryLogFormat() {
+  }
+}
@@ -0,0 +1,116 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.io;
+
+import static io.ryos.rhino.sdk.reporting.GatlingSimulationLogFormatter.GATLING_HEADLINE_TEMPLATE;
+
+import io.ryos.rhino.sdk.reporting.CsvSimulationLogFormatter;
+import io.ryos.rhino.sdk.reporting.DefaultSimulationLogFormatter;
+import io.ryos.rhino.sdk.reporting.EventSlot;
+import io.ryos.rhino.sdk.reporting.GatlingSimulationLogFormatter;
+import io.ryos.rhino.sdk.reporting.SimulationLogFormatter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Command-line converter, which streams a binary simulation log and writes it in one of the text
+ * formats:
+ *
+ * <pre>
+ *   $ java -cp rhino-core.jar io.ryos.rhino.sdk.io.BinarySimulationLogConverter \
+ *       &lt;binary-log&gt; &lt;output&gt; [default|gatling|csv]
+ * </pre>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public class BinarySimulationLogConverter {
+
+  /**
+   * Text formats, the binary log can be converted into.
+   * <p>
+   */
+  public enum Format {DEFAULT, GATLING, CSV}
+
+  private static final String USAGE =
+      "Usage: BinarySimulationLogConverter <binary-log> <output> [default|gatling|csv]";
+
+  public static void main(final String... args) throws IOException {
+    if (args.length < 2 || args.length > 3) {
+      System.err.println(USAGE);
+      System.exit(1);
+    }
+
+    var format = args.length == 3
+        ? Format.valueOf(args[2].toUpperCase(Locale.ROOT))
+        : Format.DEFAULT;
+    var converted = convert(Paths.get(args[0]), Paths.get(args[1]), format);
+    System.out.println(converted + " events converted to " + args[1]);
+  }
+
+  /**
+   * Converts the binary log into the text format given.
+   * <p>
+   *
+   * @param input Path to the binary log.
+   * @param output Path to the text log.
+   * @param format Text format.
+   * @return Number of the events converted.
+   * @throws IOException If the logs cannot be read or written.
+   */
+  public static long convert(final Path input, final Path output, final Format format)
+      throws IOException {
+    try (var reader = new BinarySimulationLogReader(input);
+        Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+
+      var formatter = formatterOf(format);
+      if (format == Format.GATLING) {
+        writer.write(String.format(GATLING_HEADLINE_TEMPLATE,
+            reader.getSimulationClass(),
+            reader.getSimulationName(),
+            reader.getStartTime(),
+            GatlingSimulationLogFormatter.GATLING_VERSION));
+      } else if (format == Format.CSV) {
+        writer.write(CsvSimulationLogFormatter.CSV_HEADER);
+      }
+
+      var slot = new EventSlot();
+      var count = 0L;
+      while (reader.next(slot)) {
+        writer.write(formatter.format(slot));
+        count++;
+      }
+      return count;
+    }
+  }
+
+  private static SimulationLogFormatter formatterOf(final Format format) {
+    switch (format) {
+      case GATLING:
+        return new GatlingSimulationLogFormatter();
+      case CSV:
+        return new CsvSimulationLogFormatter();
+      default:
+        return new DefaultSimulationLogFormatter();
+    }
+  }
+}
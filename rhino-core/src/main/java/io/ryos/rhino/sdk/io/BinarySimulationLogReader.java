@@ -0,0 +1,242 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.io;
+
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.DICTIONARY;
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.MAGIC;
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.MIN_VERSION;
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.REQUEST;
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.REQUEST_SIZE;
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.TIMED_REQUEST;
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.TIMED_REQUEST_SIZE;
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.USER;
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.VERSION;
+
+import io.ryos.rhino.sdk.reporting.ConnectionPhases;
+import io.ryos.rhino.sdk.reporting.ConnectionPhases.Phase;
+import io.ryos.rhino.sdk.reporting.EventSlot;
+import io.ryos.rhino.sdk.reporting.UserEvent.EventType;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streams the events of a binary simulation log, see {@link BinaryLogFormat}, back into {@link
+ * EventSlot}s. The reader keeps the dictionary only, so logs of any size can be read. The log is
+ * read in large chunks into a reusable buffer, and the dictionary is an array indexed by the id,
+ * so reading an event neither takes a lock nor allocates.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public class BinarySimulationLogReader implements Closeable {
+
+  private static final int BUFFER_SIZE = 1024 * 1024;
+  private static final int INITIAL_DICTIONARY_SIZE = 256;
+  private static final EventType[] EVENT_TYPES = EventType.values();
+  private static final Phase[] PHASES = Phase.values();
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  private final ConnectionPhases connectionPhases = new ConnectionPhases();
+  private String[] dictionary = new String[INITIAL_DICTIONARY_SIZE];
+  private final long startTime;
+  private final String simulationClass;
+  private final String simulationName;
+
+  public BinarySimulationLogReader(final Path logFile) throws IOException {
+    this.channel = FileChannel.open(logFile, StandardOpenOption.READ);
+    this.buffer.flip();
+    this.dictionary[0] = "";
+
+    try {
+      if (!fill(Integer.BYTES) || buffer.getInt() != MAGIC) {
+        throw new IOException("Not a binary simulation log: " + logFile);
+      }
+      require(Short.BYTES + Long.BYTES);
+      var version = buffer.getShort();
+      if (version < MIN_VERSION || version > VERSION) {
+        throw new IOException("Unsupported binary simulation log version: " + version);
+      }
+      this.startTime = buffer.getLong();
+      this.simulationClass = readString();
+      this.simulationName = readString();
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Reads the next event into the slot given.
+   * <p>
+   *
+   * @param slot Slot to fill.
+   * @return {@code true} if an event is read, {@code false} at the end of the log.
+   * @throws IOException If the log cannot be read or is corrupt.
+   */
+  public boolean next(final EventSlot slot) throws IOException {
+    while (true) {
+      if (!fill(1)) {
+        return false;
+      }
+
+      int type = buffer.get();
+      switch (type) {
+        case DICTIONARY:
+          require(Integer.BYTES);
+          define(buffer.getInt(), readString());
+          break;
+        case REQUEST:
+          require(REQUEST_SIZE - 1);
+          readRequest(slot, null);
+          return true;
+        case TIMED_REQUEST:
+          require(TIMED_REQUEST_SIZE - 1);
+          readRequest(slot, connectionPhases);
+          return true;
+        case USER:
+          require(2 * Integer.BYTES + 1 + 3 * Long.BYTES);
+          var userId = lookup(buffer.getInt());
+          var scenario = lookup(buffer.getInt());
+          var eventType = eventTypeOf(buffer.get());
+          slot.setUserEvent(userId, scenario, buffer.getLong(), buffer.getLong(),
+              buffer.getLong(), eventType, null);
+          return true;
+        default:
+          throw new IOException("Corrupt binary simulation log, unknown record type: " + type);
+      }
+    }
+  }
+
+  private static EventType eventTypeOf(final int ordinal) throws IOException {
+    if (ordinal < 0 || ordinal >= EVENT_TYPES.length) {
+      throw new IOException("Corrupt binary simulation log, unknown user event type: " + ordinal);
+    }
+    return EVENT_TYPES[ordinal];
+  }
+
+  private void readRequest(final EventSlot slot, final ConnectionPhases phases)
+      throws IOException {
+    var userId = lookup(buffer.getInt());
+    var scenario = lookup(buffer.getInt());
+    var measurementPoint = lookup(buffer.getInt());
+    var status = lookup(buffer.getInt());
+    var loadStage = lookup(buffer.getInt());
+    var start = buffer.getLong();
+    var end = buffer.getLong();
+    var elapsed = buffer.getLong();
+    var responseTime = buffer.getLong();
+    if (phases != null) {
+      for (var phase : PHASES) {
+        phases.set(phase, buffer.getInt());
+      }
+    }
+    slot.setDslEvent(userId, scenario, measurementPoint, status, loadStage, start, end, elapsed,
+        responseTime, null, phases);
+  }
+
+  /**
+   * Makes sure the buffer holds at least the number of bytes given, unless the log ends.
+   * <p>
+   *
+   * @param bytes Number of bytes required.
+   * @return {@code true} if the bytes are available.
+   */
+  private boolean fill(final int bytes) throws IOException {
+    if (buffer.remaining() >= bytes) {
+      return true;
+    }
+
+    buffer.compact();
+    try {
+      while (buffer.position() < bytes) {
+        if (channel.read(buffer) < 0) {
+          return false;
+        }
+      }
+    } finally {
+      buffer.flip();
+    }
+    return true;
+  }
+
+  private void require(final int bytes) throws IOException {
+    if (!fill(bytes)) {
+      throw new EOFException("Corrupt binary simulation log, unexpected end of the log.");
+    }
+  }
+
+  private void define(final int id, final String value) throws IOException {
+    if (id < 0) {
+      throw new IOException("Corrupt binary simulation log, negative dictionary id: " + id);
+    }
+    if (id >= dictionary.length) {
+      dictionary = Arrays.copyOf(dictionary, Math.max(dictionary.length * 2, id + 1));
+    }
+    dictionary[id] = value;
+  }
+
+  private String lookup(final int id) throws IOException {
+    var value = id >= 0 && id < dictionary.length ? dictionary[id] : null;
+    if (value == null) {
+      throw new IOException("Corrupt binary simulation log, unknown dictionary id: " + id);
+    }
+    return value;
+  }
+
+  private String readString() throws IOException {
+    require(Integer.BYTES);
+    var length = buffer.getInt();
+    if (length < 0) {
+      throw new EOFException("Corrupt binary simulation log, negative string length.");
+    }
+    var bytes = new byte[length];
+    var offset = 0;
+    while (offset < length) {
+      require(1);
+      var chunk = Math.min(buffer.remaining(), length - offset);
+      buffer.get(bytes, offset, chunk);
+      offset += chunk;
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  public long getStartTime() {
+    return startTime;
+  }
+
+  public String getSimulationClass() {
+    return simulationClass;
+  }
+
+  public String getSimulationName() {
+    return simulationName;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
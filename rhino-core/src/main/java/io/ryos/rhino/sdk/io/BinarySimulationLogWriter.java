@@ -0,0 +1,270 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.io;
+
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.DICTIONARY;
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.MAGIC;
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.REQUEST;
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.REQUEST_SIZE;
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.TIMED_REQUEST;
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.TIMED_REQUEST_SIZE;
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.USER;
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.USER_SIZE;
+import static io.ryos.rhino.sdk.io.BinaryLogFormat.VERSION;
+
+import io.ryos.rhino.sdk.reporting.ConnectionPhases.Phase;
+import io.ryos.rhino.sdk.reporting.EventKeys;
+import io.ryos.rhino.sdk.reporting.EventSlot;
+import io.ryos.rhino.sdk.reporting.ResultSink;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Writes the events into a binary simulation log, see {@link BinaryLogFormat}. The file is written
+ * through memory-mapped segments, so appending a record is a plain memory write, and the file is
+ * truncated to the written size once the writer is closed. The binary log can be converted into
+ * the text formats with {@link BinarySimulationLogConverter}.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public class BinarySimulationLogWriter implements ResultSink {
+
+  private static final Logger LOG = LogManager.getLogger(BinarySimulationLogWriter.class);
+  private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+  private static final int INITIAL_DICTIONARY_SIZE = 256;
+  private static final Phase[] PHASES = Phase.values();
+
+  private final FileChannel channel;
+  private final int segmentSize;
+
+  /**
+   * Dictionary ids of the event keys written, indexed by their {@link EventKeys} id, or zero if
+   * the key is not yet written.
+   * <p>
+   */
+  private int[] keyIds = new int[INITIAL_DICTIONARY_SIZE];
+
+  /**
+   * Dictionary ids of the users written. User ids are not interned into the {@link EventKeys},
+   * since they are unbounded, so they are numbered by the writer.
+   * <p>
+   */
+  private final Map<String, Integer> userIds = new HashMap<>();
+
+  /**
+   * Next dictionary id. The id zero is the blank string.
+   * <p>
+   */
+  private int nextId = 1;
+
+  private MappedByteBuffer segment;
+  private long segmentOffset;
+
+  public BinarySimulationLogWriter(final String logFile, final String simulationClass,
+      final String simulationName) {
+    this(Paths.get(Objects.requireNonNull(logFile)), simulationClass, simulationName,
+        DEFAULT_SEGMENT_SIZE);
+  }
+
+  BinarySimulationLogWriter(final Path logFile, final String simulationClass,
+      final String simulationName, final int segmentSize) {
+    this.segmentSize = segmentSize;
+
+    FileChannel fileChannel = null;
+    try {
+      fileChannel = FileChannel.open(logFile, StandardOpenOption.CREATE,
+          StandardOpenOption.READ, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING);
+    } catch (IOException e) {
+      LOG.error("Binary simulation log cannot be created.", e);
+      ExceptionUtils.rethrow(e);
+    }
+    this.channel = fileChannel;
+
+    var className = bytesOf(simulationClass);
+    var name = bytesOf(simulationName);
+    ensure(Integer.BYTES + Short.BYTES + Long.BYTES + 2 * Integer.BYTES + className.length
+        + name.length);
+    segment.putInt(MAGIC);
+    segment.putShort(VERSION);
+    segment.putLong(System.currentTimeMillis());
+    putString(className);
+    putString(name);
+  }
+
+  @Override
+  public void onBatch(final List<EventSlot> events) {
+    for (var slot : events) {
+      write(slot);
+    }
+  }
+
+  /**
+   * Appends the event to the log.
+   * <p>
+   *
+   * @param slot Event slot.
+   */
+  public void write(final EventSlot slot) {
+    var userId = defineUser(slot.getUserId());
+    var scenarioId = defineKey(slot.getParentMeasurementPointId());
+
+    if (slot.getKind() == EventSlot.Kind.DSL) {
+      var measurementPointId = defineKey(slot.getMeasurementPointId());
+      var statusId = defineKey(slot.getStatusId());
+      var loadStageId = defineKey(slot.getLoadStageId());
+
+      var connectionPhases = slot.getConnectionPhases();
+      var timed = !connectionPhases.isEmpty();
+      ensure(timed ? TIMED_REQUEST_SIZE : REQUEST_SIZE);
+      segment.put(timed ? TIMED_REQUEST : REQUEST);
+      segment.putInt(userId);
+      segment.putInt(scenarioId);
+      segment.putInt(measurementPointId);
+      segment.putInt(statusId);
+      segment.putInt(loadStageId);
+      segment.putLong(slot.getStart());
+      segment.putLong(slot.getEnd());
+      segment.putLong(slot.getElapsed());
+      segment.putLong(slot.getResponseTime());
+      if (timed) {
+        for (var phase : PHASES) {
+          segment.putInt((int) Math.min(connectionPhases.get(phase), Integer.MAX_VALUE));
+        }
+      }
+    } else {
+      ensure(USER_SIZE);
+      segment.put(USER);
+      segment.putInt(userId);
+      segment.putInt(scenarioId);
+      segment.put((byte) slot.getEventType().ordinal());
+      segment.putLong(slot.getStart());
+      segment.putLong(slot.getEnd());
+      segment.putLong(slot.getElapsed());
+    }
+  }
+
+  private int defineKey(final int keyId) {
+    if (keyId == 0) {
+      return 0;
+    }
+    if (keyId >= keyIds.length) {
+      keyIds = Arrays.copyOf(keyIds, Math.max(keyIds.length * 2, keyId + 1));
+    }
+
+    var id = keyIds[keyId];
+    if (id == 0) {
+      id = define(EventKeys.nameOf(keyId));
+      keyIds[keyId] = id;
+    }
+    return id;
+  }
+
+  private int defineUser(final String userId) {
+    if (userId == null || userId.isEmpty()) {
+      return 0;
+    }
+
+    var id = userIds.get(userId);
+    if (id == null) {
+      id = define(userId);
+      userIds.put(userId, id);
+    }
+    return id;
+  }
+
+  /**
+   * Writes a dictionary record of the value, which is to be referred to by the id returned.
+   * <p>
+   *
+   * @param value Value of the dictionary entry.
+   * @return Dictionary id of the value.
+   */
+  private int define(final String value) {
+    var bytes = bytesOf(value);
+    ensure(1 + 2 * Integer.BYTES + bytes.length);
+    segment.put(DICTIONARY);
+    segment.putInt(nextId);
+    putString(bytes);
+    return nextId++;
+  }
+
+  private void putString(final byte[] value) {
+    segment.putInt(value.length);
+    segment.put(value);
+  }
+
+  private static byte[] bytesOf(final String value) {
+    return (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Maps the next segment, if the current one cannot take the bytes given.
+   * <p>
+   *
+   * @param bytes Number of bytes to write.
+   */
+  private void ensure(final int bytes) {
+    if (segment != null && segment.remaining() >= bytes) {
+      return;
+    }
+
+    try {
+      if (segment != null) {
+        segmentOffset += segment.position();
+      }
+      segment = channel.map(MapMode.READ_WRITE, segmentOffset, Math.max(segmentSize, bytes));
+    } catch (IOException e) {
+      LOG.error("Binary simulation log segment cannot be mapped.", e);
+      ExceptionUtils.rethrow(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    // The channel or the segment is missing, if the log could not be created.
+    if (channel == null) {
+      return;
+    }
+
+    try {
+      if (segment != null) {
+        segment.force();
+        channel.truncate(segmentOffset + segment.position());
+      }
+      channel.close();
+    } catch (IOException e) {
+      LOG.error("Something went wrong while closing the binary simulation log.", e);
+    }
+  }
+}
@@ -0,0 +1,256 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Buffered log channel encodes the log lines into a direct buffer, which is written through a
+ * {@link FileChannel}, if the buffer is full or the flush interval elapsed. The flush interval is
+ * checked on every write and flush call, so the writer does not need a timer thread.
+ * <p>
+ *
+ * If rotation is enabled, the active file is renamed to {@code <file>.<n>} before a line would
+ * exceed the rotation size, or once the rotation period elapsed, and a new file is opened at the
+ * original path. Rotation happens at line boundaries only, so every segment holds whole lines.
+ * Rotated files are compressed by a background thread, if compression is enabled.
+ * <p>
+ *
+ * The channel is not thread-safe. It is written by the worker thread of the log writer sink.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+final class BufferedLogChannel {
+
+  private static final Logger LOG = LogManager.getLogger(BufferedLogChannel.class);
+  private static final String GZIP_SUFFIX = ".gz";
+  private static final String COMPRESSOR_THREAD_NAME = "rhino-log-compressor";
+  private static final long COMPRESSION_TIMEOUT_SECS = 60L;
+
+  private final Path path;
+  private final LogWriterPolicy policy;
+  private final ByteBuffer buffer;
+  private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+  private final ExecutorService compressor;
+
+  private FileChannel channel;
+  private long segmentBytes;
+  private long segmentStart;
+  private long lastFlush;
+  private int segment;
+
+  BufferedLogChannel(final Path path, final LogWriterPolicy policy) throws IOException {
+    this.path = Objects.requireNonNull(path);
+    this.policy = Objects.requireNonNull(policy);
+    this.buffer = ByteBuffer.allocateDirect(policy.getBufferSize());
+    this.compressor = policy.isCompress() ? Executors.newSingleThreadExecutor(r -> {
+      var thread = new Thread(r, COMPRESSOR_THREAD_NAME);
+      thread.setDaemon(true);
+      return thread;
+    }) : null;
+    this.lastFlush = System.currentTimeMillis();
+    open();
+  }
+
+  private void open() throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    this.segmentBytes = 0L;
+    this.segmentStart = System.currentTimeMillis();
+  }
+
+  /**
+   * Encodes the line into the buffer. The buffer is written to the file, as soon as it is full. If
+   * the line would exceed the rotation size of the active file, the file is rotated before the
+   * line is encoded, so the line is not split across files.
+   * <p>
+   *
+   * @param line Log line.
+   * @throws IOException If the buffer cannot be written.
+   */
+  void write(final String line) throws IOException {
+    var rotateSizeBytes = policy.getRotateSizeBytes();
+    if (rotateSizeBytes > 0) {
+      var pendingBytes = pendingBytes();
+      if (pendingBytes > 0 && pendingBytes + utf8Length(line) > rotateSizeBytes) {
+        rotate();
+      }
+    }
+
+    var chars = CharBuffer.wrap(line);
+    encoder.reset();
+    while (encoder.encode(chars, buffer, true).isOverflow()) {
+      writeBuffer();
+    }
+    while (encoder.flush(buffer).isOverflow()) {
+      writeBuffer();
+    }
+    flushIfDue();
+    rotateIfDue();
+  }
+
+  /**
+   * Writes the buffer to the file, if the flush interval elapsed.
+   * <p>
+   *
+   * @throws IOException If the buffer cannot be written.
+   */
+  void flushIfDue() throws IOException {
+    if (System.currentTimeMillis() - lastFlush >= policy.getFlushIntervalMillis()) {
+      flush();
+    }
+  }
+
+  /**
+   * Writes the buffer to the file.
+   * <p>
+   *
+   * @throws IOException If the buffer cannot be written.
+   */
+  void flush() throws IOException {
+    writeBuffer();
+    lastFlush = System.currentTimeMillis();
+    rotateIfDue();
+  }
+
+  private void writeBuffer() throws IOException {
+    if (buffer.position() > 0) {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        segmentBytes += channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+
+  /**
+   * Number of the bytes of the active file, including the ones in the buffer.
+   * <p>
+   */
+  private long pendingBytes() {
+    return segmentBytes + buffer.position();
+  }
+
+  private static long utf8Length(final String line) {
+    long length = 0;
+    for (int i = 0; i < line.length(); i++) {
+      var c = line.charAt(i);
+      if (c < 0x80) {
+        length++;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < line.length()
+          && Character.isLowSurrogate(line.charAt(i + 1))) {
+        length += 4;
+        i++;
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Rotates the file, if the rotation size or period is exceeded. The rotation is checked at line
+   * boundaries only, so a line is never split across files.
+   * <p>
+   */
+  private void rotateIfDue() throws IOException {
+    if (pendingBytes() > 0 && isRotationDue()) {
+      rotate();
+    }
+  }
+
+  private boolean isRotationDue() {
+    return policy.getRotateSizeBytes() > 0 && pendingBytes() >= policy.getRotateSizeBytes()
+        || policy.getRotateIntervalMillis() > 0
+        && System.currentTimeMillis() - segmentStart >= policy.getRotateIntervalMillis();
+  }
+
+  private void rotate() throws IOException {
+    // The buffer holds the tail of the active file, which must not move to the next one.
+    writeBuffer();
+    channel.close();
+    var rotated = Paths.get(path.toString() + "." + (++segment));
+    Files.move(path, rotated, StandardCopyOption.REPLACE_EXISTING);
+    open();
+
+    if (compressor != null) {
+      compressor.execute(() -> compress(rotated));
+    }
+  }
+
+  private static void compress(final Path file) {
+    var target = Paths.get(file.toString() + GZIP_SUFFIX);
+    try (InputStream in = Files.newInputStream(file);
+        OutputStream out = new GZIPOutputStream(Files.newOutputStream(target))) {
+      in.transferTo(out);
+    } catch (IOException e) {
+      LOG.error("Log file cannot be compressed: " + file, e);
+      return;
+    }
+
+    try {
+      Files.delete(file);
+    } catch (IOException e) {
+      LOG.error("Compressed log file cannot be deleted: " + file, e);
+    }
+  }
+
+  /**
+   * Flushes the buffer, closes the file, and waits for the pending compressions.
+   * <p>
+   *
+   * @throws IOException If the buffer cannot be written or the file cannot be closed.
+   */
+  void close() throws IOException {
+    try {
+      writeBuffer();
+    } finally {
+      channel.close();
+      if (compressor != null) {
+        compressor.shutdown();
+        try {
+          compressor.awaitTermination(COMPRESSION_TIMEOUT_SECS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.io;
+
+import io.ryos.rhino.sdk.reporting.HtmlReportRenderer;
+import io.ryos.rhino.sdk.reporting.ReportAggregator;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command-line report generator, which streams a simulation log in the binary, CSV or Gatling
+ * format and writes a single, self-contained HTML report with throughput, latency percentiles
+ * and active users over time, the statistics per measurement point and the error breakdown by
+ * status:
+ *
+ * <pre>
+ *   $ java -cp rhino-core.jar io.ryos.rhino.sdk.io.HtmlReportGenerator \
+ *       &lt;simulation-log&gt; &lt;report.html&gt; [title]
+ * </pre>
+ *
+ * The log is read once and folded into bounded aggregates, so logs of any size can be processed.
+ * The binary log is the fastest to process.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public class HtmlReportGenerator {
+
+  private static final String USAGE =
+      "Usage: HtmlReportGenerator <simulation-log> <report.html> [title]";
+
+  public static void main(final String... args) throws IOException {
+    if (args.length < 2 || args.length > 3) {
+      System.err.println(USAGE);
+      System.exit(1);
+    }
+
+    var input = Paths.get(args[0]);
+    var title = args.length == 3 ? args[2] : input.getFileName().toString();
+    var started = System.nanoTime();
+    var events = generate(input, Paths.get(args[1]), title);
+    System.out.println(String.format("%d events reported to %s in %d ms", events, args[1],
+        (System.nanoTime() - started) / 1_000_000L));
+  }
+
+  /**
+   * Generates the HTML report of the simulation log.
+   * <p>
+   *
+   * @param input Path to the simulation log.
+   * @param output Path to the HTML report.
+   * @param title Title of the report.
+   * @return Number of the events reported.
+   * @throws IOException If the log cannot be read, or the report cannot be written.
+   */
+  public static long generate(final Path input, final Path output, final String title)
+      throws IOException {
+    var report = new ReportAggregator();
+    var events = SimulationLogScanner.scan(input, report::add);
+    try (var writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+      HtmlReportRenderer.render(report, title, writer);
+    }
+    return events;
+  }
+}
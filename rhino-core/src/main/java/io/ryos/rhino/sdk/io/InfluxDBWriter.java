@@ -16,114 +16,269 @@
 
 package io.ryos.rhino.sdk.io;
 
-import akka.actor.AbstractActor;
-import akka.actor.Props;
-import akka.japi.pf.ReceiveBuilder;
 import io.ryos.rhino.sdk.SimulationConfig;
-import io.ryos.rhino.sdk.reporting.DslEvent;
+import io.ryos.rhino.sdk.reporting.ConnectionPhases;
+import io.ryos.rhino.sdk.reporting.ConnectionPhases.Phase;
+import io.ryos.rhino.sdk.reporting.EventSlot;
 import io.ryos.rhino.sdk.reporting.LogEvent;
-import io.ryos.rhino.sdk.reporting.UserEvent;
+import io.ryos.rhino.sdk.reporting.OverflowPolicy;
+import io.ryos.rhino.sdk.reporting.ResultSink;
+import io.ryos.rhino.sdk.reporting.TimeSeriesAggregator;
+import io.ryos.rhino.sdk.reporting.TimeSeriesBucket;
 import io.ryos.rhino.sdk.reporting.UserEvent.EventType;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
-import okhttp3.OkHttpClient;
+import java.util.zip.GZIPOutputStream;
 import org.apache.commons.lang3.StringUtils;
-import org.influxdb.InfluxDB;
-import org.influxdb.InfluxDB.ConsistencyLevel;
-import org.influxdb.InfluxDBFactory;
-import org.influxdb.dto.Point;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 /**
  * Writer implementation for Influx DB. It must be activated by using @Influx annotation.
  * <p>
  *
+ * The points are encoded in the line protocol straight into a reusable buffer, which is posted
+ * gzip-compressed to the HTTP API of Influx DB once it holds {@code db.influx.batch.actions}
+ * points or {@code db.influx.batch.duration} millis elapsed. Batches are sent by the {@link
+ * InfluxHttpSender}, which retries failed writes, and spills the batches to {@code
+ * db.influx.spill.dir}, if configured, while Influx DB is not available.
+ * <p>
+ *
+ * The writer drops events rather than slowing down the simulation, if Influx DB cannot keep up
+ * and the queue of the sink is full.
+ * <p>
+ *
+ * In aggregated mode, i.e {@code db.influx.mode=aggregated}, the events are folded into
+ * per-second buckets per step, status, stage, scenario and node, and only the aggregates are
+ * written with the count, error count, min, max, mean and percentiles of the bucket.
+ * <p>
+ *
+ * The connection phases of the requests are written in micros, e.g {@code ttfb_us}, or their
+ * means in aggregated mode, e.g {@code ttfb_us_mean}, unless the request did not go through the
+ * phase.
+ * <p>
+ *
  * @author Erhan Bagdemir
  * @since 1.1.0
  */
-public class InfluxDBWriter extends AbstractActor implements ResultWriter<LogEvent> {
+public class InfluxDBWriter implements ResultWriter<LogEvent>, ResultSink {
 
+  private static final Logger LOG = LogManager.getLogger(InfluxDBWriter.class);
   private static final String DEFAULT_DB = "rhino_test_db_";
+  private static final String AGGREGATED_SUFFIX = "_1s";
+  private static final long CLOSE_TIMEOUT = 30_000L;
+  private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final Phase[] PHASES = Phase.values();
+  private static final String[] PHASE_FIELDS = Arrays.stream(PHASES)
+      .map(phase -> phase.getFieldName() + "_us")
+      .toArray(String[]::new);
+  private static final String[] PHASE_MEAN_FIELDS = Arrays.stream(PHASE_FIELDS)
+      .map(field -> field + "_mean")
+      .toArray(String[]::new);
+
+  private final InfluxHttpSender sender;
+  private final LineProtocolEncoder encoder = new LineProtocolEncoder();
+  private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+  private final String simulationMeasurement;
+  private final String userMeasurement;
+  private final String healthMeasurement;
+  private final String node;
+  private final int batchActions;
+  private final long batchDurationMillis;
+
+  /**
+   * Aggregator of the events, or {@code null} if a point is written per event.
+   * <p>
+   */
+  private final TimeSeriesAggregator aggregator;
 
-  private final InfluxDB influxDB;
-  private final String dbName;
+  private long batchStart = System.currentTimeMillis();
 
-  public static Props props() {
-    return Props.create(InfluxDBWriter.class, InfluxDBWriter::new);
+  /**
+   * Sequence, which is added to the timestamp of the raw points in nanos, so the points of the
+   * same series ending in the same milli do not overwrite each other.
+   * <p>
+   */
+  private long sequence;
+
+  public InfluxDBWriter() {
+    this(createSender(), SimulationConfig.isInfluxAggregated());
+  }
+
+  InfluxDBWriter(final InfluxHttpSender sender, final boolean aggregated) {
+    this.sender = sender;
+    this.simulationMeasurement = "simulation_" + SimulationConfig.getSimulationId();
+    this.userMeasurement = "user_" + SimulationConfig.getSimulationId();
+    this.healthMeasurement = "health_" + SimulationConfig.getSimulationId();
+    this.node = SimulationConfig.getNode();
+    this.batchActions = SimulationConfig.getInfluxBatchActions();
+    this.batchDurationMillis = SimulationConfig.getInfluxBatchDuration();
+    this.aggregator = aggregated ? new TimeSeriesAggregator() : null;
   }
 
-  private InfluxDBWriter() {
-    this.dbName = Optional.ofNullable(SimulationConfig.getInfluxDBName())
+  private static InfluxHttpSender createSender() {
+    var dbName = Optional.ofNullable(SimulationConfig.getInfluxDBName())
         .orElse(DEFAULT_DB + System.currentTimeMillis());
+    var spillDirectory = SimulationConfig.getInfluxSpillDirectory();
 
-    var client = new OkHttpClient.Builder()
-        .connectTimeout(1, TimeUnit.MINUTES)
-        .readTimeout(1, TimeUnit.MINUTES)
-        .writeTimeout(1, TimeUnit.MINUTES)
-        .retryOnConnectionFailure(true);
-
-    if (StringUtils.isEmpty(SimulationConfig.getInfluxUsername())) {
-      this.influxDB = InfluxDBFactory.connect(SimulationConfig.getInfluxURL(), client)
-          .setRetentionPolicy(SimulationConfig.getInfluxRetentionPolicy())
-          .setConsistency(ConsistencyLevel.ONE)
-          .enableBatch(SimulationConfig.getInfluxBatchActions(),
-              SimulationConfig.getInfluxBatchDuration(),
-              TimeUnit.MICROSECONDS);
-    } else {
-      this.influxDB = InfluxDBFactory.connect(SimulationConfig.getInfluxURL(),
-          SimulationConfig.getInfluxUsername(),
-          SimulationConfig.getInfluxPassword(), client)
-          .setRetentionPolicy(SimulationConfig.getInfluxRetentionPolicy())
-          .setConsistency(ConsistencyLevel.ONE)
-          .enableBatch(SimulationConfig.getInfluxBatchActions(),
-              SimulationConfig.getInfluxBatchDuration(),
-              TimeUnit.MICROSECONDS);
-    }
+    var sender = InfluxHttpSender.builder()
+        .url(SimulationConfig.getInfluxURL())
+        .database(dbName)
+        .retentionPolicy(SimulationConfig.getInfluxRetentionPolicy())
+        .credentials(SimulationConfig.getInfluxUsername(), SimulationConfig.getInfluxPassword())
+        .queueCapacity(SimulationConfig.getInfluxQueueSize())
+        .retries(SimulationConfig.getInfluxMaxRetries(), 100L, 10_000L)
+        .spillDirectory(StringUtils.isNotBlank(spillDirectory) ? Paths.get(spillDirectory) : null)
+        .build();
+    sender.createDatabase(dbName);
+    return sender;
+  }
 
-    influxDB.createDatabase(dbName);
+  @Override
+  public void onBatch(final List<EventSlot> events) {
+    for (var slot : events) {
+      // Health samples are per-second already, so they are never aggregated.
+      if (aggregator != null && slot.getKind() != EventSlot.Kind.HEALTH) {
+        aggregator.add(slot);
+      } else {
+        write(slot);
+      }
+    }
   }
 
   @Override
-  public Receive createReceive() {
+  public void flush() {
+    if (aggregator != null) {
+      aggregator.flush(System.currentTimeMillis(), this::write);
+    }
 
-    return ReceiveBuilder.create()
-        .match(String.class, this::write)
-        .match(LogEvent.class, this::write)
-        .build();
+    if (encoder.lines() > 0
+        && System.currentTimeMillis() - batchStart >= batchDurationMillis) {
+      submitBatch();
+    }
   }
 
   @Override
-  public void write(final LogEvent logEvent) {
+  public OverflowPolicy overflowPolicy() {
+    return OverflowPolicy.DROP;
+  }
+
+  @Override
+  public boolean acceptsHealthSamples() {
+    return true;
+  }
+
+  private void write(final EventSlot slot) {
+    if (slot.getKind() == EventSlot.Kind.DSL) {
+      encoder.measurement(simulationMeasurement)
+          .tag("step", slot.getMeasurementPoint())
+          .tag("status", slot.getStatus())
+          .tag("stage", slot.getLoadStage())
+          .field("scenario", slot.getParentMeasurementPoint())
+          .field("pt", slot.getElapsed())
+          .field("rt", slot.getResponseTime())
+          .field("node", StringUtils.defaultString(node));
+      var connectionPhases = slot.getConnectionPhases();
+      for (var phase : PHASES) {
+        var duration = connectionPhases.get(phase);
+        if (duration != ConnectionPhases.NONE) {
+          encoder.field(PHASE_FIELDS[phase.ordinal()], duration);
+        }
+      }
+      encoder.end(timestampOf(slot.getEnd()));
+    } else if (slot.getKind() == EventSlot.Kind.HEALTH) {
+      encoder.measurement(healthMeasurement)
+          .tag("metric", slot.getMeasurementPoint())
+          .tag("node", node)
+          .field("value", slot.getElapsed())
+          .end(timestampOf(slot.getEnd()));
+    } else if (slot.getEventType() == EventType.END) {
+      encoder.measurement(userMeasurement)
+          .tag("scenario", slot.getParentMeasurementPoint())
+          .field("id", slot.getUserId())
+          .field("node", StringUtils.defaultString(node))
+          .field("pt", slot.getElapsed())
+          .end(timestampOf(slot.getEnd()));
+    } else {
+      return;
+    }
+    submitIfFull();
+  }
+
+  private long timestampOf(final long epochMillis) {
+    sequence = (sequence + 1) % NANOS_PER_MILLI;
+    return epochMillis * NANOS_PER_MILLI + sequence;
+  }
 
-    if (logEvent instanceof DslEvent) {
-      createPoint((DslEvent) logEvent);
+  private void write(final TimeSeriesBucket bucket) {
+    if (bucket.getKind() == EventSlot.Kind.DSL) {
+      var serviceTimes = bucket.getServiceTimes();
+      var responseTimes = bucket.getResponseTimes();
+      encoder.measurement(simulationMeasurement + AGGREGATED_SUFFIX)
+          .tag("step", bucket.getMeasurementPoint())
+          .tag("status", bucket.getStatus())
+          .tag("stage", bucket.getLoadStage())
+          .tag("scenario", bucket.getScenario())
+          .tag("node", node)
+          .field("count", bucket.getCount())
+          .field("errors", bucket.getErrors())
+          .field("pt_min", serviceTimes.getMinValue())
+          .field("pt_max", serviceTimes.getMaxValue())
+          .field("pt_mean", serviceTimes.getMean())
+          .field("pt_p50", serviceTimes.getValueAtPercentile(50d))
+          .field("pt_p90", serviceTimes.getValueAtPercentile(90d))
+          .field("pt_p99", serviceTimes.getValueAtPercentile(99d))
+          .field("rt_mean", responseTimes.getMean())
+          .field("rt_p99", responseTimes.getValueAtPercentile(99d))
+          .field("rt_max", responseTimes.getMaxValue());
+      for (var phase : PHASES) {
+        var mean = bucket.getPhaseMean(phase);
+        if (mean >= 0) {
+          encoder.field(PHASE_MEAN_FIELDS[phase.ordinal()], mean);
+        }
+      }
+    } else {
+      encoder.measurement(userMeasurement + AGGREGATED_SUFFIX)
+          .tag("scenario", bucket.getScenario())
+          .tag("node", node)
+          .field("count", bucket.getCount())
+          .field("pt_mean", bucket.getServiceTimes().getMean());
     }
+    encoder.end(TimeUnit.SECONDS.toNanos(bucket.getEpochSecond()));
+    submitIfFull();
+  }
 
-    if (logEvent instanceof UserEvent) {
-      createPoint((UserEvent) logEvent);
+  private void submitIfFull() {
+    if (encoder.lines() >= batchActions) {
+      submitBatch();
     }
   }
 
-  private void createPoint(DslEvent report) {
-    var builder = Point.measurement("simulation_" + SimulationConfig.getSimulationId())
-        .tag("step", report.getMeasurementPoint())
-        .tag("status", report.getStatus())
-        .addField("scenario", report.getParentMeasurementPoint())
-        .addField("pt", report.getElapsed())
-        .addField("node", SimulationConfig.getNode());
-    influxDB.setDatabase(dbName);
-    influxDB.write(builder.build());
+  private void submitBatch() {
+    try {
+      compressed.reset();
+      try (var gzip = new GZIPOutputStream(compressed)) {
+        encoder.writeTo(gzip);
+      }
+      sender.submit(compressed.toByteArray());
+    } catch (IOException e) {
+      LOG.error("Influx DB batch cannot be compressed.", e);
+    } finally {
+      encoder.reset();
+      batchStart = System.currentTimeMillis();
+    }
   }
 
-  private void createPoint(UserEvent report) {
-    if (report.getEventType() == EventType.END) {
-      var builder =
-          Point.measurement("user_" + SimulationConfig.getSimulationId())
-              .tag("scenario", report.getParentMeasurementPoint())
-              .addField("id", report.getId())
-              .addField("node", SimulationConfig.getNode())
-              .addField("pt", report.getElapsed());
-      influxDB.setDatabase(dbName);
-      influxDB.write(builder.build());
+  @Override
+  public void write(final LogEvent logEvent) {
+    var slot = new EventSlot();
+    if (slot.copyFrom(logEvent)) {
+      onBatch(List.of(slot));
     }
   }
 
@@ -134,6 +289,12 @@ public class InfluxDBWriter extends AbstractActor implements ResultWriter<LogEve
 
   @Override
   public void close() {
-    // Intentionally left empty.
+    if (aggregator != null) {
+      aggregator.flushAll(this::write);
+    }
+    if (encoder.lines() > 0) {
+      submitBatch();
+    }
+    sender.close(CLOSE_TIMEOUT);
   }
 }
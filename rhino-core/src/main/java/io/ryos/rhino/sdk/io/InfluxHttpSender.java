@@ -0,0 +1,438 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.io;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Posts gzip-compressed line protocol batches to the HTTP API of Influx DB. Batches are queued in a
+ * bounded in-memory queue and sent by a single sender thread. Failed writes are retried with
+ * exponential backoff. If the retries are exhausted or the queue is full, the batch is spilled to
+ * the spill directory, if configured, or dropped otherwise. Spilled batches are replayed in the
+ * order they were spilled, as soon as Influx DB accepts writes again.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+final class InfluxHttpSender {
+
+  private static final Logger LOG = LogManager.getLogger(InfluxHttpSender.class);
+  private static final String SENDER_THREAD_NAME = "rhino-influx-sender";
+  private static final String SPILL_FILE_PREFIX = "batch-";
+  private static final String SPILL_FILE_SUFFIX = ".lp.gz";
+  private static final long POLL_TIMEOUT_MILLIS = 100L;
+
+  private final HttpClient client;
+  private final URI writeUri;
+  private final URI queryUri;
+  private final String authorization;
+  private final Duration requestTimeout;
+  private final int maxRetries;
+  private final long initialBackoffMillis;
+  private final long maxBackoffMillis;
+  private final Path spillDirectory;
+  private final BlockingQueue<byte[]> queue;
+  private final Thread sender;
+
+  private final AtomicLong sent = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong spilled = new AtomicLong();
+  private final AtomicLong spillSequence = new AtomicLong();
+
+  private volatile boolean running = true;
+  private volatile boolean spillPending;
+  private volatile long deadline = Long.MAX_VALUE;
+
+  private InfluxHttpSender(final Builder builder) {
+    var url = StringUtils.removeEnd(Objects.requireNonNull(builder.url), "/");
+    var query = "db=" + encode(Objects.requireNonNull(builder.database)) + "&precision=ns"
+        + (StringUtils.isNotBlank(builder.retentionPolicy)
+        ? "&rp=" + encode(builder.retentionPolicy) : "");
+
+    this.writeUri = URI.create(url + "/write?" + query);
+    this.queryUri = URI.create(url + "/query");
+    this.authorization = StringUtils.isNotEmpty(builder.username)
+        ? "Basic " + Base64.getEncoder().encodeToString((builder.username + ":"
+        + StringUtils.defaultString(builder.password)).getBytes(StandardCharsets.UTF_8))
+        : null;
+    this.requestTimeout = builder.requestTimeout;
+    this.maxRetries = builder.maxRetries;
+    this.initialBackoffMillis = builder.initialBackoffMillis;
+    this.maxBackoffMillis = builder.maxBackoffMillis;
+    this.spillDirectory = builder.spillDirectory;
+    this.queue = new ArrayBlockingQueue<>(builder.queueCapacity);
+    this.client = HttpClient.newBuilder()
+        .connectTimeout(builder.connectTimeout)
+        .build();
+
+    if (spillDirectory != null) {
+      try {
+        Files.createDirectories(spillDirectory);
+        var spillFiles = listSpillFiles();
+        if (!spillFiles.isEmpty()) {
+          // Batches spilled by a previous run are replayed first.
+          spillSequence.set(sequenceOf(spillFiles.get(spillFiles.size() - 1)) + 1);
+          spillPending = true;
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException("Spill directory cannot be created: " + spillDirectory,
+            e);
+      }
+    }
+
+    this.sender = new Thread(this::sendLoop, SENDER_THREAD_NAME);
+    this.sender.setDaemon(true);
+    this.sender.start();
+  }
+
+  static Builder builder() {
+    return new Builder();
+  }
+
+  private static String encode(final String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Creates the database, if it does not exist yet.
+   * <p>
+   *
+   * @param database Name of the database.
+   */
+  void createDatabase(final String database) {
+    var body = "q=" + encode("CREATE DATABASE \"" + database + "\"");
+    var request = newRequest(queryUri)
+        .header("Content-Type", "application/x-www-form-urlencoded")
+        .POST(BodyPublishers.ofString(body))
+        .build();
+    try {
+      var response = client.send(request, BodyHandlers.discarding());
+      if (response.statusCode() / 100 != 2) {
+        LOG.error("Influx DB database cannot be created, status: " + response.statusCode());
+      }
+    } catch (IOException e) {
+      LOG.error("Influx DB database cannot be created.", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Queues the gzip-compressed batch without blocking. If the queue is full, the batch is spilled
+   * or dropped.
+   * <p>
+   *
+   * @param batch Gzip-compressed line protocol batch.
+   */
+  void submit(final byte[] batch) {
+    if (!running || !queue.offer(batch)) {
+      spillOrDrop(batch);
+    }
+  }
+
+  private void sendLoop() {
+    while (running || !queue.isEmpty()) {
+      byte[] batch;
+      try {
+        batch = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        break;
+      }
+
+      if (batch != null) {
+        if (sendWithRetry(batch) != Outcome.FAILED) {
+          replaySpilled();
+        } else {
+          spillOrDrop(batch);
+        }
+      } else if (running) {
+        replaySpilled();
+      }
+    }
+  }
+
+  private Outcome sendWithRetry(final byte[] batch) {
+    var backoff = initialBackoffMillis;
+    for (int attempt = 0; attempt <= maxRetries; attempt++) {
+      var outcome = send(batch);
+      if (outcome != Outcome.FAILED) {
+        count(outcome);
+        return outcome;
+      }
+
+      if (attempt == maxRetries || System.currentTimeMillis() + backoff > deadline) {
+        break;
+      }
+      try {
+        Thread.sleep(backoff);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+      backoff = Math.min(backoff * 2, maxBackoffMillis);
+    }
+    return Outcome.FAILED;
+  }
+
+  private Outcome send(final byte[] batch) {
+    var request = newRequest(writeUri)
+        .header("Content-Type", "text/plain; charset=utf-8")
+        .header("Content-Encoding", "gzip")
+        .POST(BodyPublishers.ofByteArray(batch))
+        .build();
+    try {
+      var response = client.send(request, BodyHandlers.discarding());
+      var status = response.statusCode();
+      if (status / 100 == 2) {
+        return Outcome.SENT;
+      }
+      if (status / 100 == 4) {
+        // The batch is rejected, e.g malformed points, which a retry cannot fix.
+        LOG.error("Influx DB rejected the batch, status: {}", status);
+        return Outcome.REJECTED;
+      }
+      LOG.warn("Influx DB write failed, status: {}", status);
+    } catch (IOException e) {
+      LOG.warn("Influx DB write failed: {}", e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return Outcome.FAILED;
+  }
+
+  private void count(final Outcome outcome) {
+    if (outcome == Outcome.SENT) {
+      sent.incrementAndGet();
+    } else {
+      dropped.incrementAndGet();
+    }
+  }
+
+  private HttpRequest.Builder newRequest(final URI uri) {
+    var builder = HttpRequest.newBuilder(uri).timeout(requestTimeout);
+    if (authorization != null) {
+      builder.header("Authorization", authorization);
+    }
+    return builder;
+  }
+
+  private void spillOrDrop(final byte[] batch) {
+    if (spillDirectory == null) {
+      dropped.incrementAndGet();
+      return;
+    }
+
+    var file = spillDirectory.resolve(String.format("%s%019d%s", SPILL_FILE_PREFIX,
+        spillSequence.getAndIncrement(), SPILL_FILE_SUFFIX));
+    try {
+      Files.write(file, batch);
+      spilled.incrementAndGet();
+      spillPending = true;
+    } catch (IOException e) {
+      LOG.error("Batch cannot be spilled to " + file, e);
+      dropped.incrementAndGet();
+    }
+  }
+
+  /**
+   * Replays the spilled batches in order, and stops at the first batch, that cannot be sent.
+   * <p>
+   */
+  private void replaySpilled() {
+    if (!spillPending) {
+      return;
+    }
+
+    try {
+      spillPending = false;
+      for (var file : listSpillFiles()) {
+        var outcome = send(Files.readAllBytes(file));
+        if (outcome == Outcome.FAILED) {
+          spillPending = true;
+          return;
+        }
+        Files.delete(file);
+        count(outcome);
+      }
+    } catch (IOException e) {
+      spillPending = true;
+      LOG.error("Spilled batches cannot be replayed.", e);
+    }
+  }
+
+  private static long sequenceOf(final Path spillFile) {
+    var name = spillFile.getFileName().toString();
+    return Long.parseLong(name.substring(SPILL_FILE_PREFIX.length(),
+        name.length() - SPILL_FILE_SUFFIX.length()));
+  }
+
+  private List<Path> listSpillFiles() throws IOException {
+    try (var files = Files.list(spillDirectory)) {
+      var spillFiles = files
+          .filter(file -> file.getFileName().toString().startsWith(SPILL_FILE_PREFIX))
+          .filter(file -> file.getFileName().toString().endsWith(SPILL_FILE_SUFFIX))
+          .collect(Collectors.toCollection(ArrayList::new));
+      Collections.sort(spillFiles);
+      return spillFiles;
+    }
+  }
+
+  /**
+   * Sends the queued batches till the timeout elapses. Batches, that cannot be sent till then,
+   * are spilled or dropped.
+   * <p>
+   *
+   * @param timeoutMillis Time to wait for the queued batches in millis.
+   */
+  void close(final long timeoutMillis) {
+    deadline = System.currentTimeMillis() + timeoutMillis;
+    running = false;
+    try {
+      sender.join(timeoutMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    if (sender.isAlive()) {
+      sender.interrupt();
+    }
+    byte[] batch;
+    while ((batch = queue.poll()) != null) {
+      spillOrDrop(batch);
+    }
+
+    if (dropped.get() > 0 || spilled.get() > 0) {
+      LOG.warn("Influx DB batches sent: {}, spilled: {}, dropped: {}", sent.get(), spilled.get(),
+          dropped.get());
+    }
+  }
+
+  long getSent() {
+    return sent.get();
+  }
+
+  long getDropped() {
+    return dropped.get();
+  }
+
+  long getSpilled() {
+    return spilled.get();
+  }
+
+  /**
+   * Builder for {@link InfluxHttpSender}.
+   * <p>
+   */
+  static class Builder {
+
+    private String url;
+    private String database;
+    private String retentionPolicy;
+    private String username;
+    private String password;
+    private int queueCapacity = 64;
+    private int maxRetries = 5;
+    private long initialBackoffMillis = 100L;
+    private long maxBackoffMillis = 10_000L;
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration requestTimeout = Duration.ofSeconds(30);
+    private Path spillDirectory;
+
+    Builder url(final String url) {
+      this.url = url;
+      return this;
+    }
+
+    Builder database(final String database) {
+      this.database = database;
+      return this;
+    }
+
+    Builder retentionPolicy(final String retentionPolicy) {
+      this.retentionPolicy = retentionPolicy;
+      return this;
+    }
+
+    Builder credentials(final String username, final String password) {
+      this.username = username;
+      this.password = password;
+      return this;
+    }
+
+    Builder queueCapacity(final int queueCapacity) {
+      this.queueCapacity = queueCapacity;
+      return this;
+    }
+
+    Builder retries(final int maxRetries, final long initialBackoffMillis,
+        final long maxBackoffMillis) {
+      this.maxRetries = maxRetries;
+      this.initialBackoffMillis = initialBackoffMillis;
+      this.maxBackoffMillis = maxBackoffMillis;
+      return this;
+    }
+
+    Builder timeouts(final Duration connectTimeout, final Duration requestTimeout) {
+      this.connectTimeout = connectTimeout;
+      this.requestTimeout = requestTimeout;
+      return this;
+    }
+
+    Builder spillDirectory(final Path spillDirectory) {
+      this.spillDirectory = spillDirectory;
+      return this;
+    }
+
+    InfluxHttpSender build() {
+      Validate.isTrue(queueCapacity > 0, "Queue capacity must be greater than 0.");
+      Validate.isTrue(maxRetries >= 0, "Retries must not be negative.");
+      Validate.isTrue(initialBackoffMillis > 0, "Backoff must be greater than 0.");
+      return new InfluxHttpSender(this);
+    }
+  }
+
+  /**
+   * Outcome of sending a batch. A rejected batch is not retried, and counted as dropped.
+   * <p>
+   */
+  private enum Outcome {SENT, REJECTED, FAILED}
+}
@@ -0,0 +1,199 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Encodes points in the Influx DB line protocol straight into a reusable byte buffer:
+ *
+ * <pre>
+ *   measurement,tag=value,tag=value field=1i,field=2.5,field="text" timestamp
+ * </pre>
+ *
+ * Points are written by calling {@link #measurement(String)}, followed by the tags, the fields
+ * and {@link #end(long)}. Tags with blank values are omitted, since the line protocol does not
+ * allow them. The encoder is not thread-safe.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+final class LineProtocolEncoder {
+
+  private static final int INITIAL_CAPACITY = 64 * 1024;
+
+  private byte[] buffer;
+  private int size;
+  private int lines;
+  private boolean hasFields;
+
+  LineProtocolEncoder() {
+    this(INITIAL_CAPACITY);
+  }
+
+  LineProtocolEncoder(final int initialCapacity) {
+    this.buffer = new byte[initialCapacity];
+  }
+
+  LineProtocolEncoder measurement(final String measurement) {
+    hasFields = false;
+    appendEscaped(measurement, false);
+    return this;
+  }
+
+  LineProtocolEncoder tag(final String key, final String value) {
+    if (value == null || value.isBlank()) {
+      return this;
+    }
+
+    append((byte) ',');
+    appendEscaped(key, true);
+    append((byte) '=');
+    appendEscaped(value, true);
+    return this;
+  }
+
+  LineProtocolEncoder field(final String key, final long value) {
+    fieldKey(key);
+    appendAscii(Long.toString(value));
+    append((byte) 'i');
+    return this;
+  }
+
+  LineProtocolEncoder field(final String key, final double value) {
+    fieldKey(key);
+    appendAscii(Double.isFinite(value) ? Double.toString(value) : "0");
+    return this;
+  }
+
+  LineProtocolEncoder field(final String key, final String value) {
+    fieldKey(key);
+    append((byte) '"');
+    var text = value != null ? value : "";
+    for (int i = 0; i < text.length(); i++) {
+      var c = text.charAt(i);
+      if (c == '"' || c == '\\') {
+        append((byte) '\\');
+      }
+      appendChar(text, i);
+      if (Character.isHighSurrogate(c)) {
+        i++;
+      }
+    }
+    append((byte) '"');
+    return this;
+  }
+
+  /**
+   * Completes the point.
+   * <p>
+   *
+   * @param timestampNanos Timestamp of the point in epoch nanos, as the points are written with
+   *     the precision {@code ns}.
+   */
+  void end(final long timestampNanos) {
+    append((byte) ' ');
+    appendAscii(Long.toString(timestampNanos));
+    append((byte) '\n');
+    lines++;
+  }
+
+  private void fieldKey(final String key) {
+    append(hasFields ? (byte) ',' : (byte) ' ');
+    hasFields = true;
+    appendEscaped(key, true);
+    append((byte) '=');
+  }
+
+  /**
+   * Escapes commas and spaces, and also equal signs in tags and field keys.
+   * <p>
+   */
+  private void appendEscaped(final String value, final boolean escapeEquals) {
+    for (int i = 0; i < value.length(); i++) {
+      var c = value.charAt(i);
+      if (c == ',' || c == ' ' || escapeEquals && c == '=') {
+        append((byte) '\\');
+      }
+      if (c == '\n') {
+        // Line breaks would terminate the point.
+        append((byte) ' ');
+        continue;
+      }
+      appendChar(value, i);
+      if (Character.isHighSurrogate(c)) {
+        i++;
+      }
+    }
+  }
+
+  private void appendAscii(final String value) {
+    for (int i = 0; i < value.length(); i++) {
+      append((byte) value.charAt(i));
+    }
+  }
+
+  private void appendChar(final String value, final int index) {
+    var c = value.charAt(index);
+    if (c < 0x80) {
+      append((byte) c);
+      return;
+    }
+
+    var end = Character.isHighSurrogate(c) && index + 1 < value.length() ? index + 2 : index + 1;
+    for (var b : value.substring(index, end).getBytes(StandardCharsets.UTF_8)) {
+      append(b);
+    }
+  }
+
+  private void append(final byte b) {
+    if (size == buffer.length) {
+      buffer = Arrays.copyOf(buffer, buffer.length * 2);
+    }
+    buffer[size++] = b;
+  }
+
+  void writeTo(final OutputStream out) throws IOException {
+    out.write(buffer, 0, size);
+  }
+
+  /**
+   * Clears the encoded points. The buffer is kept for reuse.
+   * <p>
+   */
+  void reset() {
+    size = 0;
+    lines = 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int lines() {
+    return lines;
+  }
+
+  @Override
+  public String toString() {
+    return new String(buffer, 0, size, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,161 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.io;
+
+import io.ryos.rhino.sdk.annotations.Logging;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Policy of the simulation log, which determines whether the events are written in binary or
+ * text, whether text is buffered, when the buffer is flushed, and when the log file is rotated.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public class LogWriterPolicy {
+
+  private static final int KB = 1024;
+  private static final long MB = 1024L * 1024L;
+  private static final LogWriterPolicy UNBUFFERED = new LogWriterPolicy(false, 0, 0L, 0L, 0L,
+      false, false);
+  private static final LogWriterPolicy BINARY = new LogWriterPolicy(false, 0, 0L, 0L, 0L,
+      false, true);
+
+  private final boolean buffered;
+  private final int bufferSize;
+  private final long flushIntervalMillis;
+  private final long rotateSizeBytes;
+  private final long rotateIntervalMillis;
+  private final boolean compress;
+  private final boolean binary;
+
+  private LogWriterPolicy(final boolean buffered,
+      final int bufferSize,
+      final long flushIntervalMillis,
+      final long rotateSizeBytes,
+      final long rotateIntervalMillis,
+      final boolean compress,
+      final boolean binary) {
+    this.buffered = buffered;
+    this.bufferSize = bufferSize;
+    this.flushIntervalMillis = flushIntervalMillis;
+    this.rotateSizeBytes = rotateSizeBytes;
+    this.rotateIntervalMillis = rotateIntervalMillis;
+    this.compress = compress;
+    this.binary = binary;
+  }
+
+  /**
+   * Policy, which flushes every event as soon as it is written.
+   * <p>
+   *
+   * @return Unbuffered {@link LogWriterPolicy}.
+   */
+  public static LogWriterPolicy unbuffered() {
+    return UNBUFFERED;
+  }
+
+  /**
+   * Policy of the buffered writer.
+   * <p>
+   *
+   * @param bufferSize Size of the write buffer in bytes.
+   * @param flushIntervalMillis Maximum time the events are kept in the buffer.
+   * @param rotateSizeBytes Size, after which the file is rotated, or zero.
+   * @param rotateIntervalMillis Period, after which the file is rotated, or zero.
+   * @param compress Whether the rotated files are compressed.
+   * @return Buffered {@link LogWriterPolicy}.
+   */
+  public static LogWriterPolicy buffered(final int bufferSize,
+      final long flushIntervalMillis,
+      final long rotateSizeBytes,
+      final long rotateIntervalMillis,
+      final boolean compress) {
+    Validate.isTrue(bufferSize > 0, "Buffer size must be greater than 0.");
+    Validate.isTrue(flushIntervalMillis >= 0, "Flush interval must not be negative.");
+    Validate.isTrue(rotateSizeBytes >= 0, "Rotation size must not be negative.");
+    Validate.isTrue(rotateIntervalMillis >= 0, "Rotation interval must not be negative.");
+    return new LogWriterPolicy(true, bufferSize, flushIntervalMillis, rotateSizeBytes,
+        rotateIntervalMillis, compress, false);
+  }
+
+  /**
+   * Policy, which writes the events in the binary format.
+   * <p>
+   *
+   * @return Binary {@link LogWriterPolicy}.
+   */
+  public static LogWriterPolicy binary() {
+    return BINARY;
+  }
+
+  public static LogWriterPolicy of(final Logging logging) {
+    if (logging.binary()) {
+      return BINARY;
+    }
+    if (!logging.buffered()) {
+      return UNBUFFERED;
+    }
+    return buffered(logging.bufferSizeInKb() * KB,
+        logging.flushIntervalInMillis(),
+        logging.rotateSizeInMb() * MB,
+        logging.rotateIntervalInSecs() * 1000L,
+        logging.compress());
+  }
+
+  public boolean isBuffered() {
+    return buffered;
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  public long getFlushIntervalMillis() {
+    return flushIntervalMillis;
+  }
+
+  public long getRotateSizeBytes() {
+    return rotateSizeBytes;
+  }
+
+  public long getRotateIntervalMillis() {
+    return rotateIntervalMillis;
+  }
+
+  public boolean isCompress() {
+    return compress;
+  }
+
+  public boolean isBinary() {
+    return binary;
+  }
+
+  @Override
+  public String toString() {
+    return "LogWriterPolicy{" +
+        "buffered=" + buffered +
+        ", bufferSize=" + bufferSize +
+        ", flushIntervalMillis=" + flushIntervalMillis +
+        ", rotateSizeBytes=" + rotateSizeBytes +
+        ", rotateIntervalMillis=" + rotateIntervalMillis +
+        ", compress=" + compress +
+        ", binary=" + binary +
+        '}';
+  }
+}
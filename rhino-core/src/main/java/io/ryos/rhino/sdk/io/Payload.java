@@ -0,0 +1,187 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.io;
+
+import io.ryos.rhino.sdk.exceptions.RhinoIOException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Immutable payload of uploads, whose content is held once in a read-only buffer, i.e in the
+ * heap, off-heap or memory-mapped. Every request reads the content through its own view, so a
+ * payload can be uploaded by any number of requests concurrently, without copying it.
+ * <p>
+ *
+ * Payloads of files on the file system keep a reference to the file, so that the HTTP client can
+ * send it as a file region, which the kernel transfers without copying it to the user space. The
+ * file is memory-mapped only as its buffer is requested, and streams read the file itself, so
+ * files larger than 2 GiB can still be uploaded as file or stream.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @see PayloadStore
+ * @since 2.3.3
+ */
+public final class Payload {
+
+  private final String name;
+  private final File file;
+  private final long size;
+  private volatile ByteBuffer content;
+
+  Payload(final String name, final ByteBuffer content) {
+    this.name = Objects.requireNonNull(name);
+    this.content = content.asReadOnlyBuffer();
+    this.file = null;
+    this.size = content.capacity();
+  }
+
+  Payload(final String name, final File file) {
+    this.name = Objects.requireNonNull(name);
+    this.file = Objects.requireNonNull(file);
+    this.size = file.length();
+  }
+
+  /**
+   * Returns a new read-only view of the content, whose position is independent of the other
+   * views. The file of the payload is memory-mapped as its buffer is requested first.
+   * <p>
+   *
+   * @return Read-only {@link ByteBuffer} view.
+   * @throws RhinoIOException if the file is larger than 2 GiB, or cannot be mapped.
+   */
+  public ByteBuffer asByteBuffer() {
+    var current = content;
+    if (current == null) {
+      current = map();
+    }
+    return current.duplicate();
+  }
+
+  private synchronized ByteBuffer map() {
+    if (content != null) {
+      return content;
+    }
+    if (size > Integer.MAX_VALUE) {
+      throw new RhinoIOException("Payload is too large to be mapped, upload it as file or "
+          + "stream instead: " + name);
+    }
+    try (var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      content = channel.map(MapMode.READ_ONLY, 0, size).asReadOnlyBuffer();
+      return content;
+    } catch (IOException e) {
+      throw new RhinoIOException("Cannot map the payload: " + name, e);
+    }
+  }
+
+  /**
+   * Returns a new stream, which reads the content from its own view, or the file of the payload,
+   * unless it is already mapped.
+   * <p>
+   *
+   * @return {@link InputStream} of the content.
+   */
+  public InputStream newInputStream() {
+    var current = content;
+    if (current != null) {
+      return new ByteBufferInputStream(current.duplicate());
+    }
+    try {
+      return Files.newInputStream(file.toPath());
+    } catch (IOException e) {
+      throw new RhinoIOException("Cannot read the payload: " + name, e);
+    }
+  }
+
+  /**
+   * Returns the file of the payload.
+   * <p>
+   *
+   * @return File on the file system, or {@code null} if the payload is not backed by a file.
+   */
+  public File getFile() {
+    return file;
+  }
+
+  public boolean isFile() {
+    return file != null;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long size() {
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    return "Payload{name='" + name + "', size=" + size() + "}";
+  }
+
+  /**
+   * Input stream over a buffer view, which neither copies nor changes the content.
+   * <p>
+   */
+  private static final class ByteBufferInputStream extends InputStream {
+
+    private final ByteBuffer buffer;
+
+    private ByteBufferInputStream(final ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) {
+      Objects.checkFromIndexSize(offset, length, bytes.length);
+      if (length == 0) {
+        return 0;
+      }
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      var count = Math.min(length, buffer.remaining());
+      buffer.get(bytes, offset, count);
+      return count;
+    }
+
+    @Override
+    public long skip(final long n) {
+      var count = (int) Math.max(0L, Math.min(n, buffer.remaining()));
+      buffer.position(buffer.position() + count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+}
@@ -0,0 +1,168 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.io;
+
+import io.ryos.rhino.sdk.exceptions.ConfigurationNotFoundException;
+import io.ryos.rhino.sdk.exceptions.RhinoIOException;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Store of the upload {@link Payload}s, which loads every file once and shares it across the
+ * requests. Files on the file system, also the classpath resources, which are not packaged in a
+ * jar, are uploaded as file regions, and memory-mapped only if their buffer is requested. Other
+ * resources are read once into off-heap buffers.
+ * <p>
+ *
+ * The payloads are kept until they are released, e.g as the simulation is shut down, so that the
+ * mapped and off-heap buffers can be reclaimed.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class PayloadStore {
+
+  private static final String SEPARATOR = "://";
+  private static final String FILE_PROTOCOL = "file";
+  private static final Map<String, Payload> PAYLOADS = new ConcurrentHashMap<>();
+
+  private PayloadStore() {
+    // intentionally left empty.
+  }
+
+  /**
+   * Returns the payload of the file, which is loaded once. The path must be qualified with a
+   * scheme, e.g "classpath:///" or "file:///".
+   * <p>
+   *
+   * @param pathToFile Path to file either in classpath or in file system.
+   * @return {@link Payload} of the file.
+   */
+  public static Payload file(final String pathToFile) {
+    Objects.requireNonNull(pathToFile, "Path to file parameter must not be null!");
+    return PAYLOADS.computeIfAbsent(pathToFile, PayloadStore::load);
+  }
+
+  /**
+   * Releases the payload of the file, so that its buffer can be reclaimed once the requests, which
+   * still upload it, complete.
+   * <p>
+   *
+   * @param pathToFile Path to file either in classpath or in file system.
+   */
+  public static void release(final String pathToFile) {
+    PAYLOADS.remove(pathToFile);
+  }
+
+  /**
+   * Releases the payloads of all files.
+   * <p>
+   */
+  public static void releaseAll() {
+    PAYLOADS.clear();
+  }
+
+  /**
+   * Creates an off-heap payload of random bytes. The same seed yields the same content, so that
+   * the uploads of a simulation are reproducible.
+   * <p>
+   *
+   * @param size Size of the payload in bytes.
+   * @param seed Seed of the random content.
+   * @return {@link Payload} of random bytes.
+   */
+  public static Payload random(final int size, final long seed) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Size must not be negative: " + size);
+    }
+    var content = ByteBuffer.allocateDirect(size);
+    var random = new SplittableRandom(seed);
+    while (content.remaining() >= Long.BYTES) {
+      content.putLong(random.nextLong());
+    }
+    while (content.hasRemaining()) {
+      content.put((byte) random.nextInt());
+    }
+    return new Payload("random-" + seed, content.flip());
+  }
+
+  /**
+   * Creates a payload of the bytes, which are copied.
+   * <p>
+   *
+   * @param name Name of the payload.
+   * @param content Content of the payload.
+   * @return {@link Payload} of the bytes.
+   */
+  public static Payload of(final String name, final byte[] content) {
+    return new Payload(name, ByteBuffer.wrap(content.clone()));
+  }
+
+  private static Payload load(final String pathToFile) {
+    var split = pathToFile.split(SEPARATOR);
+    if (split.length != 2) {
+      throw new IllegalArgumentException(pathToFile + " is invalid path. The path should follow "
+          + "scheme://<absolute-path> convention.");
+    }
+
+    switch (ConfigResource.Type.valueOf(split[0].toUpperCase())) {
+      case FILE:
+        return fileOf(pathToFile, Path.of(split[1]).toFile());
+      case CLASSPATH:
+        var resource = PayloadStore.class.getResource(split[1]);
+        if (resource == null) {
+          throw new ConfigurationNotFoundException(split[1]);
+        }
+        if (FILE_PROTOCOL.equals(resource.getProtocol())) {
+          try {
+            return fileOf(pathToFile, new File(resource.toURI()));
+          } catch (URISyntaxException e) {
+            throw new RhinoIOException("Cannot resolve the resource: " + pathToFile, e);
+          }
+        }
+        return read(pathToFile);
+      default:
+        throw new UnsupportedOperationException("Rhino knows only about classpath files or"
+            + " files on file system.");
+    }
+  }
+
+  private static Payload fileOf(final String name, final File file) {
+    if (!file.isFile() || !file.canRead()) {
+      throw new ConfigurationNotFoundException(file.getPath());
+    }
+    return new Payload(name, file);
+  }
+
+  private static Payload read(final String name) {
+    try (var stream = new ConfigResource(name).getInputStream()) {
+      var bytes = stream.readAllBytes();
+      var content = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+      return new Payload(name, content);
+    } catch (IOException e) {
+      throw new RhinoIOException("Cannot read the payload: " + name, e);
+    }
+  }
+}
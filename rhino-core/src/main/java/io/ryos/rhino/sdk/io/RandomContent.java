@@ -0,0 +1,237 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.io;
+
+import io.netty.buffer.ByteBuf;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import org.asynchttpclient.request.body.Body;
+import org.asynchttpclient.request.body.generator.BodyGenerator;
+import org.asynchttpclient.util.StringUtils;
+
+/**
+ * Pseudo-random content of a length, which is generated from a seed on the fly as it is read, so
+ * bodies of any size are uploaded without holding them in memory. The HTTP client pulls the body
+ * chunk by chunk as the connection becomes writable, thus a slow server throttles the generator.
+ * <p>
+ *
+ * The content is deterministic, i.e the same seed and length yield the same bytes, which are
+ * equal to the ones of {@link PayloadStore#random(int, long)}, so the checksum of an upload can be
+ * computed with {@link #digest(String)} and verified by the server.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class RandomContent implements BodyGenerator {
+
+  private static final int DIGEST_CHUNK_SIZE = 64 * 1024;
+
+  private final long seed;
+  private final long length;
+
+  private RandomContent(final long seed, final long length) {
+    if (length < 0) {
+      throw new IllegalArgumentException("Length must not be negative: " + length);
+    }
+    this.seed = seed;
+    this.length = length;
+  }
+
+  /**
+   * Creates random content.
+   * <p>
+   *
+   * @param seed Seed of the content.
+   * @param length Length of the content in bytes.
+   * @return {@link RandomContent} instance.
+   */
+  public static RandomContent of(final long seed, final long length) {
+    return new RandomContent(seed, length);
+  }
+
+  /**
+   * Creates a new body of the content for a request, which generates the content from its start.
+   * <p>
+   *
+   * @return {@link Body} of the content.
+   */
+  @Override
+  public Body createBody() {
+    return new RandomBody(new Generator(seed, length));
+  }
+
+  /**
+   * Returns a new stream of the content.
+   * <p>
+   *
+   * @return {@link InputStream} of the content.
+   */
+  public InputStream newInputStream() {
+    return new GeneratorInputStream(new Generator(seed, length));
+  }
+
+  /**
+   * Computes the digest of the content by generating it, without holding it in memory.
+   * <p>
+   *
+   * @param algorithm Digest algorithm, e.g "SHA-256".
+   * @return Hex encoded digest.
+   */
+  public String digest(final String algorithm) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance(Objects.requireNonNull(algorithm));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalArgumentException("Unknown digest algorithm: " + algorithm, e);
+    }
+
+    var generator = new Generator(seed, length);
+    var chunk = ByteBuffer.allocate(DIGEST_CHUNK_SIZE);
+    while (generator.hasRemaining()) {
+      chunk.clear();
+      generator.fill(chunk);
+      digest.update(chunk.flip());
+    }
+    return StringUtils.toHexString(digest.digest());
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public long getLength() {
+    return length;
+  }
+
+  @Override
+  public String toString() {
+    return "RandomContent{seed=" + seed + ", length=" + length + "}";
+  }
+
+  /**
+   * Generator of the content, which emits whole longs of the random sequence as long as eight
+   * bytes remain, and single bytes after, so that the content does not depend on the sizes of the
+   * chunks read.
+   * <p>
+   */
+  private static final class Generator {
+
+    private final SplittableRandom random;
+    private long remaining;
+
+    private Generator(final long seed, final long length) {
+      this.random = new SplittableRandom(seed);
+      this.remaining = length;
+    }
+
+    private boolean hasRemaining() {
+      return remaining > 0;
+    }
+
+    private void fill(final ByteBuffer target) {
+      while (remaining >= Long.BYTES && target.remaining() >= Long.BYTES) {
+        target.putLong(random.nextLong());
+        remaining -= Long.BYTES;
+      }
+      while (remaining > 0 && remaining < Long.BYTES && target.hasRemaining()) {
+        target.put((byte) random.nextInt());
+        remaining--;
+      }
+    }
+
+    private void fill(final ByteBuf target) {
+      while (remaining >= Long.BYTES && target.writableBytes() >= Long.BYTES) {
+        target.writeLong(random.nextLong());
+        remaining -= Long.BYTES;
+      }
+      while (remaining > 0 && remaining < Long.BYTES && target.isWritable()) {
+        target.writeByte(random.nextInt());
+        remaining--;
+      }
+    }
+  }
+
+  private static final class RandomBody implements Body {
+
+    private final Generator generator;
+    private final long contentLength;
+
+    private RandomBody(final Generator generator) {
+      this.generator = generator;
+      this.contentLength = generator.remaining;
+    }
+
+    @Override
+    public long getContentLength() {
+      return contentLength;
+    }
+
+    @Override
+    public BodyState transferTo(final ByteBuf target) {
+      generator.fill(target);
+      return generator.hasRemaining() ? BodyState.CONTINUE : BodyState.STOP;
+    }
+
+    @Override
+    public void close() {
+      // nothing to release, the content is generated.
+    }
+  }
+
+  private static final class GeneratorInputStream extends InputStream {
+
+    private final Generator generator;
+    private final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * 512).flip();
+
+    private GeneratorInputStream(final Generator generator) {
+      this.generator = generator;
+    }
+
+    private boolean ensureAvailable() {
+      if (!buffer.hasRemaining() && generator.hasRemaining()) {
+        buffer.clear();
+        generator.fill(buffer);
+        buffer.flip();
+      }
+      return buffer.hasRemaining();
+    }
+
+    @Override
+    public int read() {
+      return ensureAvailable() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) {
+      Objects.checkFromIndexSize(offset, length, bytes.length);
+      if (length == 0) {
+        return 0;
+      }
+      if (!ensureAvailable()) {
+        return -1;
+      }
+      var count = Math.min(length, buffer.remaining());
+      buffer.get(bytes, offset, count);
+      return count;
+    }
+  }
+}
@@ -0,0 +1,237 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.io;
+
+import io.ryos.rhino.sdk.reporting.CsvSimulationLogFormatter;
+import io.ryos.rhino.sdk.reporting.EventSlot;
+import io.ryos.rhino.sdk.reporting.UserEvent.EventType;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Streams the events of a simulation log into {@link EventSlot}s, one at a time, so logs of any
+ * size can be processed in bounded memory. The format of the log is detected by its header. The
+ * binary, the CSV and the Gatling formats are supported, whereas Gatling logs carry neither the
+ * scenario nor the status of the requests but OK or KO. The default text format lacks the
+ * measurement points, so it cannot be scanned.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+final class SimulationLogScanner {
+
+  private static final int BUFFER_SIZE = 1024 * 1024;
+  private static final String GATLING_RUN = "RUN\t";
+  private static final String GATLING_REQUEST = "REQUEST";
+  private static final String GATLING_USER = "USER";
+  private static final String CSV_REQUEST = "REQUEST";
+  private static final String CSV_USER = "USER";
+  private static final int MAX_FIELDS = 16;
+
+  private SimulationLogScanner() {
+  }
+
+  /**
+   * Passes the events of the log to the consumer. The slot is reused for every event.
+   * <p>
+   *
+   * @param log Path to the simulation log.
+   * @param consumer Consumer of the events.
+   * @return Number of the events scanned.
+   * @throws IOException If the log cannot be read, or its format is not supported.
+   */
+  static long scan(final Path log, final Consumer<EventSlot> consumer) throws IOException {
+    if (isBinary(log)) {
+      return scanBinary(log, consumer);
+    }
+
+    try (var reader = new BufferedReader(new InputStreamReader(Files.newInputStream(log),
+        StandardCharsets.UTF_8), BUFFER_SIZE)) {
+      var header = reader.readLine();
+      if (header == null) {
+        return 0L;
+      }
+      if (header.startsWith(GATLING_RUN)) {
+        return scanText(reader, consumer, '\t', SimulationLogScanner::parseGatling);
+      }
+      if (header.startsWith(CsvSimulationLogFormatter.CSV_BASE_COLUMNS)) {
+        return scanText(reader, consumer, ',', SimulationLogScanner::parseCsv);
+      }
+      throw new IOException("Unsupported simulation log format, binary, CSV or Gatling logs "
+          + "are expected: " + log);
+    }
+  }
+
+  private static boolean isBinary(final Path log) throws IOException {
+    try (var in = new DataInputStream(Files.newInputStream(log))) {
+      return in.available() >= Integer.BYTES && in.readInt() == BinaryLogFormat.MAGIC;
+    }
+  }
+
+  private static long scanBinary(final Path log, final Consumer<EventSlot> consumer)
+      throws IOException {
+    try (var reader = new BinarySimulationLogReader(log)) {
+      var slot = new EventSlot();
+      var count = 0L;
+      while (reader.next(slot)) {
+        consumer.accept(slot);
+        count++;
+      }
+      return count;
+    }
+  }
+
+  @FunctionalInterface
+  private interface LineParser {
+
+    boolean parse(String[] fields, int size, EventSlot slot);
+  }
+
+  private static long scanText(final BufferedReader reader, final Consumer<EventSlot> consumer,
+      final char delimiter, final LineParser parser) throws IOException {
+    var slot = new EventSlot();
+    var fields = new String[MAX_FIELDS];
+    var count = 0L;
+    String line;
+    while ((line = reader.readLine()) != null) {
+      var size = split(line, delimiter, fields);
+      if (parser.parse(fields, size, slot)) {
+        consumer.accept(slot);
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Splits the line into the fields, whereas double quoted fields may contain the delimiter.
+   * <p>
+   */
+  private static int split(final String line, final char delimiter, final String[] fields) {
+    var size = 0;
+    var start = 0;
+    var length = line.length();
+    while (start <= length && size < fields.length) {
+      if (start < length && line.charAt(start) == '"') {
+        var value = new StringBuilder();
+        var i = start + 1;
+        while (i < length) {
+          var c = line.charAt(i);
+          if (c == '"' && i + 1 < length && line.charAt(i + 1) == '"') {
+            value.append('"');
+            i += 2;
+          } else if (c == '"') {
+            i++;
+            break;
+          } else {
+            value.append(c);
+            i++;
+          }
+        }
+        fields[size++] = value.toString();
+        start = i + 1;
+      } else {
+        var end = line.indexOf(delimiter, start);
+        if (end < 0) {
+          end = length;
+        }
+        fields[size++] = line.substring(start, end);
+        start = end + 1;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Parses the Gatling lines:
+   *
+   * <pre>
+   *   REQUEST  user  (group)  measurement-point  start  end  OK|KO  message
+   *   USER     scenario  user  START|END  start  end
+   * </pre>
+   */
+  private static boolean parseGatling(final String[] fields, final int size,
+      final EventSlot slot) {
+    if (size >= 7 && GATLING_REQUEST.equals(fields[0])) {
+      var start = Long.parseLong(fields[4]);
+      var end = Long.parseLong(fields[5]);
+      var message = size > 7 ? fields[7].trim() : "";
+      var responseTime = isNumeric(message) ? Long.parseLong(message) : end - start;
+      slot.setDslEvent(fields[1], "", fields[3], fields[6], "", start, end, end - start,
+          responseTime, null);
+      return true;
+    }
+
+    if (size >= 6 && GATLING_USER.equals(fields[0])) {
+      var start = Long.parseLong(fields[4]);
+      var end = Long.parseLong(fields[5]);
+      slot.setUserEvent(fields[2], fields[1], start, end, end - start,
+          EventType.valueOf(fields[3]), null);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * The message column of the Gatling logs carries the error text of the failed requests, but the
+   * response time from the intended start in the logs of the earlier Rhino versions.
+   * <p>
+   */
+  private static boolean isNumeric(final String message) {
+    if (message.isEmpty() || message.length() > 18) {
+      return false;
+    }
+    for (int i = 0; i < message.length(); i++) {
+      if (!Character.isDigit(message.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Parses the lines of {@link CsvSimulationLogFormatter}.
+   * <p>
+   */
+  private static boolean parseCsv(final String[] fields, final int size, final EventSlot slot) {
+    if (size < 11) {
+      return false;
+    }
+
+    if (CSV_REQUEST.equals(fields[0])) {
+      slot.setDslEvent(fields[1], fields[2], fields[3], fields[4], fields[5],
+          Long.parseLong(fields[7]), Long.parseLong(fields[8]), Long.parseLong(fields[9]),
+          Long.parseLong(fields[10]), null);
+      return true;
+    }
+
+    if (CSV_USER.equals(fields[0])) {
+      slot.setUserEvent(fields[1], fields[2], Long.parseLong(fields[7]),
+          Long.parseLong(fields[8]), Long.parseLong(fields[9]), EventType.valueOf(fields[6]),
+          null);
+      return true;
+    }
+    return false;
+  }
+}
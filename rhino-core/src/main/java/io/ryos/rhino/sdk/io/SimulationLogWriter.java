@@ -16,16 +16,16 @@
 
 package io.ryos.rhino.sdk.io;
 
-import akka.actor.AbstractActor;
-import akka.actor.Props;
-import akka.japi.pf.ReceiveBuilder;
+import io.ryos.rhino.sdk.reporting.EventSlot;
 import io.ryos.rhino.sdk.reporting.LogEvent;
+import io.ryos.rhino.sdk.reporting.ResultSink;
 import io.ryos.rhino.sdk.reporting.SimulationLogFormatter;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
+import java.util.List;
 import java.util.Objects;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.logging.log4j.LogManager;
@@ -36,14 +36,20 @@ import org.apache.logging.log4j.Logger;
  * metrics.
  * <p>
  *
+ * By default, every event is flushed as soon as it is written. If the {@link LogWriterPolicy} is
+ * buffered, the events are collected in a direct buffer and written through a file channel on a
+ * size-or-time basis, and the log file is rotated as configured.
+ * <p>
+ *
  * @author Erhan Bagdemir
  */
-public class SimulationLogWriter extends AbstractActor implements ResultWriter {
+public class SimulationLogWriter implements ResultWriter<LogEvent>, ResultSink {
 
   private static final Logger LOG = LogManager.getLogger(SimulationLogWriter.class);
 
   private SimulationLogFormatter simulationLogFormatter;
   private Writer writer;
+  private BufferedLogChannel logChannel;
 
   /**
    * Constructs a new {@link SimulationLogFormatter} instance.
@@ -52,6 +58,18 @@ public class SimulationLogWriter extends AbstractActor implements ResultWriter {
    * @param formatter Log formatter.
    */
   public SimulationLogWriter(final String logFile, final SimulationLogFormatter formatter) {
+    this(logFile, formatter, LogWriterPolicy.unbuffered());
+  }
+
+  /**
+   * Constructs a new {@link SimulationLogFormatter} instance.
+   *
+   * @param logFile Path to the log file.
+   * @param formatter Log formatter.
+   * @param policy Write policy.
+   */
+  public SimulationLogWriter(final String logFile, final SimulationLogFormatter formatter,
+      final LogWriterPolicy policy) {
     if (formatter == null) {
       return;
     }
@@ -62,27 +80,17 @@ public class SimulationLogWriter extends AbstractActor implements ResultWriter {
     var file = new File(pathToLogFile);
 
     try { // do not close the stream till the load test completes.
-      this.writer = new BufferedWriter(new FileWriter(file));
+      if (policy.isBuffered()) {
+        this.logChannel = new BufferedLogChannel(file.toPath(), policy);
+      } else {
+        this.writer = new BufferedWriter(new FileWriter(file));
+      }
     } catch (IOException e) {
       LOG.error("Something went wrong while writing to the stream.", e);
       ExceptionUtils.rethrow(e);
     }
   }
 
-  /**
-   * Static factory method to create a new instance of {@link SimulationLogFormatter}.
-   *
-   * @param pathToLogFile Path to the log file.
-   * @param logFormatter Log formatter instance.
-   * @param <T> A type of {@link SimulationLogFormatter}.
-   * @return {@link SimulationLogFormatter} instance.
-   */
-  public static <T extends SimulationLogFormatter> Props props(final String pathToLogFile,
-      final T logFormatter) {
-    return Props.create(
-        SimulationLogWriter.class, () -> new SimulationLogWriter(pathToLogFile, logFormatter));
-  }
-
   @Override
   public void write(final LogEvent report) {
     if (simulationLogFormatter != null) {
@@ -90,12 +98,39 @@ public class SimulationLogWriter extends AbstractActor implements ResultWriter {
     }
   }
 
+  @Override
+  public void onBatch(final List<EventSlot> events) {
+    if (simulationLogFormatter == null) {
+      return;
+    }
+
+    for (var slot : events) {
+      write(simulationLogFormatter.format(slot));
+    }
+  }
+
   @Override
   public void write(final String report) {
+    try {
+      if (logChannel != null) {
+        logChannel.write(report);
+      } else if (writer != null) {
+        writer.write(report);
+        writer.flush();
+      }
+    } catch (IOException e) {
+      LOG.error(e);
+    }
+  }
+
+  @Override
+  public void flush() {
+    if (logChannel == null) {
+      return;
+    }
 
     try {
-      writer.write(report);
-      writer.flush();
+      logChannel.flushIfDue();
     } catch (IOException e) {
       LOG.error(e);
     }
@@ -103,18 +138,15 @@ public class SimulationLogWriter extends AbstractActor implements ResultWriter {
 
   @Override
   public void close() {
-    // Nothing to close.
     try {
-      writer.close();
+      if (logChannel != null) {
+        logChannel.close();
+      } else if (writer != null) {
+        writer.close();
+      }
     } catch (IOException e) {
       LOG.error("Something went wrong while closing the stream.", e);
       ExceptionUtils.rethrow(e);
     }
   }
-
-  @Override
-  public Receive createReceive() {
-    return ReceiveBuilder.create().match(String.class, this::write
-    ).match(LogEvent.class, this::write).build();
-  }
 }
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2018 Ryos.io.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ryos.rhino.sdk.monitoring;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.ryos.rhino.sdk.reporting.GeneratorHealth;
+import java.io.Closeable;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Monitors the health of the load generator, so that a latency increase caused by the generator
+ * itself can be told apart from the one of the system under test. The monitor samples GC pause
+ * time, which is received through JMX notifications, process CPU load, heap usage, and the
+ * scheduling delay of the event loops, that is measured by probe tasks submitted to every event
+ * loop periodically. As the Reactor pipelines of the simulation run on the event loops, the lag
+ * also reveals blocking callbacks.
+ * <p>
+ *
+ * The samples are passed to the {@link SampleListener} once per sample period, e.g to publish
+ * them through the event pipeline, along with the gauges added, e.g the utilisation of the HTTP
+ * client shards.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public class GeneratorHealthMonitor implements Closeable {
+
+  private static final Logger LOG = LogManager.getLogger(GeneratorHealthMonitor.class);
+  private static final long SAMPLE_PERIOD = 1000L;
+  private static final long PROBE_PERIOD = 100L;
+  private static final long BYTES_PER_MB = 1024L * 1024L;
+  private static final long NO_PROBE = 0L;
+  private static final String THREAD_NAME = "rhino-health-monitor";
+  private static final String CONCURRENT_GC_ACTION = "concurrent";
+  private static final String CONCURRENT_GC_CYCLES = "Cycles";
+
+  /**
+   * Listener the health samples are passed to.
+   * <p>
+   */
+  @FunctionalInterface
+  public interface SampleListener {
+
+    void onSample(String metric, long timestamp, long value);
+  }
+
+  private final SampleListener listener;
+  private final EventExecutor[] eventLoops;
+  private final AtomicLong[] pendingProbes;
+  private final AtomicLong eventLoopLag = new AtomicLong();
+  private final AtomicLong gcPause = new AtomicLong();
+  private final List<NotificationEmitter> gcEmitters = new ArrayList<>();
+  private final NotificationListener gcListener = this::handleGcNotification;
+  private final List<Gauge> gauges = new CopyOnWriteArrayList<>();
+  private final ScheduledExecutorService scheduler;
+
+  /**
+   * Creates a new monitor.
+   * <p>
+   *
+   * @param eventLoopGroup Event loops to probe, or {@code null} if there is none.
+   * @param listener Listener the samples are passed to.
+   */
+  public GeneratorHealthMonitor(final EventLoopGroup eventLoopGroup,
+      final SampleListener listener) {
+    this(eventLoopGroup != null ? List.of(eventLoopGroup) : List.of(), listener);
+  }
+
+  /**
+   * Creates a new monitor.
+   * <p>
+   *
+   * @param eventLoopGroups Event loops to probe.
+   * @param listener Listener the samples are passed to.
+   */
+  public GeneratorHealthMonitor(final Collection<? extends EventLoopGroup> eventLoopGroups,
+      final SampleListener listener) {
+    this.listener = Objects.requireNonNull(listener);
+
+    var loops = new ArrayList<EventExecutor>();
+    eventLoopGroups.forEach(group -> group.forEach(loops::add));
+    this.eventLoops = loops.toArray(new EventExecutor[0]);
+    this.pendingProbes = new AtomicLong[eventLoops.length];
+    for (int i = 0; i < pendingProbes.length; i++) {
+      pendingProbes[i] = new AtomicLong(NO_PROBE);
+    }
+
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      var thread = new Thread(r, THREAD_NAME);
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Creates and starts a new monitor.
+   * <p>
+   *
+   * @param eventLoopGroup Event loops to probe, or {@code null} if there is none.
+   * @param listener Listener the samples are passed to.
+   * @return Started {@link GeneratorHealthMonitor}.
+   */
+  public static GeneratorHealthMonitor start(final EventLoopGroup eventLoopGroup,
+      final SampleListener listener) {
+    var monitor = new GeneratorHealthMonitor(eventLoopGroup, listener);
+    monitor.start();
+    return monitor;
+  }
+
+  /**
+   * Creates and starts a new monitor.
+   * <p>
+   *
+   * @param eventLoopGroups Event loops to probe.
+   * @param listener Listener the samples are passed to.
+   * @return Started {@link GeneratorHealthMonitor}.
+   */
+  public static GeneratorHealthMonitor start(
+      final Collection<? extends EventLoopGroup> eventLoopGroups, final SampleListener listener) {
+    var monitor = new GeneratorHealthMonitor(eventLoopGroups, listener);
+    monitor.start();
+    return monitor;
+  }
+
+  /**
+   * Adds a gauge, which is sampled once per sample period along with the health metrics.
+   * <p>
+   *
+   * @param metric Name of the metric.
+   * @param gauge Supplier of the value.
+   */
+  public void addGauge(final String metric, final LongSupplier gauge) {
+    gauges.add(new Gauge(metric, gauge));
+  }
+
+  public void start() {
+    for (GarbageCollectorMXBean gcBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+      if (gcBean instanceof NotificationEmitter) {
+        var emitter = (NotificationEmitter) gcBean;
+        emitter.addNotificationListener(gcListener, n -> GarbageCollectionNotificationInfo
+            .GARBAGE_COLLECTION_NOTIFICATION.equals(n.getType()), null);
+        gcEmitters.add(emitter);
+      }
+    }
+
+    if (eventLoops.length > 0) {
+      scheduler.scheduleAtFixedRate(this::probe, PROBE_PERIOD, PROBE_PERIOD,
+          TimeUnit.MILLISECONDS);
+    }
+    scheduler.scheduleAtFixedRate(this::sample, SAMPLE_PERIOD, SAMPLE_PERIOD,
+        TimeUnit.MILLISECONDS);
+  }
+
+  private void handleGcNotification(final Notification notification, final Object handback) {
+    var info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+    // Concurrent collectors report their whole cycle, which runs alongside the application.
+    if (info.getGcAction().contains(CONCURRENT_GC_ACTION)
+        || info.getGcName().endsWith(CONCURRENT_GC_CYCLES)) {
+      return;
+    }
+    gcPause.addAndGet(info.getGcInfo().getDuration());
+  }
+
+  /**
+   * Submits a probe task to every event loop, whose previous probe has completed. The delay
+   * between the submission and the execution of the probe is the scheduling lag of the loop.
+   * <p>
+   */
+  void probe() {
+    for (int i = 0; i < eventLoops.length; i++) {
+      var eventLoop = eventLoops[i];
+      var pending = pendingProbes[i];
+      if (eventLoop.isShuttingDown() || pending.get() != NO_PROBE) {
+        continue;
+      }
+
+      var submitted = System.nanoTime();
+      pending.set(submitted);
+      try {
+        eventLoop.execute(() -> {
+          eventLoopLag.accumulateAndGet(System.nanoTime() - submitted, Math::max);
+          pending.set(NO_PROBE);
+        });
+      } catch (RuntimeException e) {
+        pending.set(NO_PROBE);
+        LOG.debug("Cannot probe the event loop.", e);
+      }
+    }
+  }
+
+  /**
+   * Samples the health metrics and passes them to the listener.
+   * <p>
+   */
+  void sample() {
+    var now = System.currentTimeMillis();
+    var nowNanos = System.nanoTime();
+
+    // Probes, which have not been executed yet, are lagging at least since their submission.
+    var lag = eventLoopLag.getAndSet(0L);
+    for (var pending : pendingProbes) {
+      var submitted = pending.get();
+      if (submitted != NO_PROBE) {
+        lag = Math.max(lag, nowNanos - submitted);
+      }
+    }
+
+    if (eventLoops.length > 0) {
+      listener.onSample(GeneratorHealth.EVENT_LOOP_LAG, now, TimeUnit.NANOSECONDS.toMillis(lag));
+    }
+    listener.onSample(GeneratorHealth.GC_PAUSE, now, gcPause.getAndSet(0L));
+
+    var osBean = ManagementFactory.getOperatingSystemMXBean();
+    if (osBean instanceof com.sun.management.OperatingSystemMXBean) {
+      var cpuLoad = ((com.sun.management.OperatingSystemMXBean) osBean).getProcessCpuLoad();
+      if (cpuLoad >= 0) {
+        listener.onSample(GeneratorHealth.CPU, now, Math.round(cpuLoad * 100));
+      }
+    }
+
+    var heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    var maxHeap = heap.getMax() > 0 ? heap.getMax() : heap.getCommitted();
+    listener.onSample(GeneratorHealth.HEAP_USED, now, heap.getUsed() / BYTES_PER_MB);
+    listener.onSample(GeneratorHealth.HEAP_USAGE, now, heap.getUsed() * 100 / maxHeap);
+
+    for (var gauge : gauges) {
+      listener.onSample(gauge.metric, now, gauge.supplier.getAsLong());
+    }
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+    for (var emitter : gcEmitters) {
+      try {
+        emitter.removeNotificationListener(gcListener);
+      } catch (ListenerNotFoundException e) {
+        LOG.debug("GC listener is already removed.", e);
+      }
+    }
+    gcEmitters.clear();
+  }
+
+  private static final class Gauge {
+
+    private final String metric;
+    private final LongSupplier supplier;
+
+    private Gauge(final String metric, final LongSupplier supplier) {
+      this.metric = metric;
+      this.supplier = supplier;
+    }
+  }
+}
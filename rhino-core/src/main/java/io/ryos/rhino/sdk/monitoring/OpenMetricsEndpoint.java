@@ -0,0 +1,199 @@
+/*
+ * Copyright 2018 Ryos.io.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ryos.rhino.sdk.monitoring;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.ryos.rhino.sdk.reporting.LiveMetrics;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Embedded HTTP endpoint, which serves the {@link LiveMetrics} of the running simulation in the
+ * OpenMetrics text format at {@code /metrics}, so Prometheus can scrape every load generator
+ * node. The endpoint is enabled by setting {@code metrics.port} in the configuration. Scrapes
+ * read the live metrics without locking, so they never block the simulation.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public class OpenMetricsEndpoint {
+
+  private static final Logger LOG = LogManager.getLogger(OpenMetricsEndpoint.class);
+  private static final String PATH = "/metrics";
+  private static final String CONTENT_TYPE =
+      "application/openmetrics-text; version=1.0.0; charset=utf-8";
+  private static final String THREAD_NAME = "rhino-metrics-endpoint";
+
+  private final LiveMetrics liveMetrics;
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  private OpenMetricsEndpoint(final LiveMetrics liveMetrics, final int port) throws IOException {
+    this.liveMetrics = Objects.requireNonNull(liveMetrics);
+    this.server = HttpServer.create(new InetSocketAddress(port), 0);
+    this.server.createContext(PATH, this::handle);
+    this.executor = Executors.newSingleThreadExecutor(r -> {
+      var thread = new Thread(r, THREAD_NAME);
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.server.setExecutor(executor);
+  }
+
+  /**
+   * Starts the endpoint on the port given.
+   * <p>
+   *
+   * @param liveMetrics Live metrics to serve.
+   * @param port Port to listen on, or zero for an ephemeral port.
+   * @return Started {@link OpenMetricsEndpoint}.
+   * @throws IOException If the port cannot be bound.
+   */
+  public static OpenMetricsEndpoint start(final LiveMetrics liveMetrics, final int port)
+      throws IOException {
+    var endpoint = new OpenMetricsEndpoint(liveMetrics, port);
+    endpoint.server.start();
+    LOG.info("OpenMetrics endpoint is listening on port {}", endpoint.getPort());
+    return endpoint;
+  }
+
+  private void handle(final HttpExchange exchange) throws IOException {
+    try {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+
+      var body = render(liveMetrics, System.currentTimeMillis())
+          .getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+    } finally {
+      exchange.close();
+    }
+  }
+
+  /**
+   * Renders the live metrics in the OpenMetrics text format.
+   * <p>
+   *
+   * @param liveMetrics Live metrics.
+   * @param nowMillis Current time in epoch millis.
+   * @return Metrics in the OpenMetrics text format.
+   */
+  public static String render(final LiveMetrics liveMetrics, final long nowMillis) {
+    var out = new StringBuilder(4096);
+    var series = liveMetrics.getSeries();
+    var bounds = LiveMetrics.getBucketBounds();
+
+    out.append("# TYPE rhino_requests counter\n")
+        .append("# HELP rhino_requests Number of the requests completed.\n");
+    for (var s : series) {
+      out.append("rhino_requests_total");
+      labels(out, s, null).append(' ').append(s.getCount()).append('\n');
+    }
+
+    out.append("# TYPE rhino_requests_in_flight gauge\n")
+        .append("# HELP rhino_requests_in_flight Number of the requests sent but not completed.\n")
+        .append("rhino_requests_in_flight ").append(LiveMetrics.getInFlight()).append('\n');
+
+    out.append("# TYPE rhino_received_bytes counter\n")
+        .append("# UNIT rhino_received_bytes bytes\n")
+        .append("# HELP rhino_received_bytes Body bytes of the responses received.\n")
+        .append("rhino_received_bytes_total ").append(LiveMetrics.getBytesReceived())
+        .append('\n');
+
+    out.append("# TYPE rhino_achieved_rps gauge\n")
+        .append("# HELP rhino_achieved_rps Requests completed in the last full second.\n")
+        .append("rhino_achieved_rps ").append(liveMetrics.getAchievedRps(nowMillis)).append('\n');
+
+    out.append("# TYPE rhino_service_time_milliseconds histogram\n")
+        .append("# UNIT rhino_service_time_milliseconds milliseconds\n")
+        .append("# HELP rhino_service_time_milliseconds Service time of the requests.\n");
+    for (var s : series) {
+      // Read the count first, so the buckets are never behind the +Inf bucket.
+      var count = s.getCount();
+      var sum = s.getSum();
+      var cumulative = 0L;
+      for (int i = 0; i < bounds.length; i++) {
+        cumulative += s.getBucket(i);
+        out.append("rhino_service_time_milliseconds_bucket");
+        labels(out, s, bounds[i] + ".0").append(' ').append(Math.min(cumulative, count))
+            .append('\n');
+      }
+      out.append("rhino_service_time_milliseconds_bucket");
+      labels(out, s, "+Inf").append(' ').append(count).append('\n');
+      out.append("rhino_service_time_milliseconds_count");
+      labels(out, s, null).append(' ').append(count).append('\n');
+      out.append("rhino_service_time_milliseconds_sum");
+      labels(out, s, null).append(' ').append(sum).append('\n');
+    }
+
+    return out.append("# EOF\n").toString();
+  }
+
+  private static StringBuilder labels(final StringBuilder out, final LiveMetrics.Series series,
+      final String le) {
+    out.append('{');
+    label(out, "scenario", series.getScenario()).append(',');
+    label(out, "step", series.getMeasurementPoint()).append(',');
+    label(out, "status", series.getStatus());
+    if (le != null) {
+      out.append(',');
+      label(out, "le", le);
+    }
+    return out.append('}');
+  }
+
+  private static StringBuilder label(final StringBuilder out, final String name,
+      final String value) {
+    out.append(name).append("=\"");
+    for (int i = 0; i < value.length(); i++) {
+      var c = value.charAt(i);
+      if (c == '\\' || c == '"') {
+        out.append('\\').append(c);
+      } else if (c == '\n') {
+        out.append("\\n");
+      } else {
+        out.append(c);
+      }
+    }
+    return out.append('"');
+  }
+
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Stops the server and releases the thread serving the scrapes.
+   * <p>
+   */
+  public void stop() {
+    server.stop(0);
+    executor.shutdown();
+  }
+}
@@ -1,26 +1,94 @@
 package io.ryos.rhino.sdk.providers;
 
-import java.io.ByteArrayInputStream;
+import io.ryos.rhino.sdk.io.Payload;
+import io.ryos.rhino.sdk.io.PayloadStore;
+import io.ryos.rhino.sdk.io.RandomContent;
 import java.io.Closeable;
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.Objects;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Random in-memory file, whose content is an immutable off-heap {@link Payload}, so the file can
+ * be uploaded any number of times. The payload is created as it is requested first, whereas the
+ * streams and the {@link RandomContent} generate the same content as they are read, without
+ * creating it.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ */
 public class RandomInMemoryFile implements Closeable {
   private String mimeType;
-  private InputStream stream;
+  private RandomContent content;
+  private volatile Payload payload;
 
   public RandomInMemoryFile(int size, String mimeType) {
-    this.mimeType = mimeType;
+    this(size, mimeType, ThreadLocalRandom.current().nextLong());
+  }
 
-    var content = new byte[size];
-    new Random().nextBytes(content);
-    this.stream = new ByteArrayInputStream(content);
+  /**
+   * Creates a new {@link RandomInMemoryFile}, whose content is derived from the seed.
+   * <p>
+   *
+   * @param size Size of the file in bytes.
+   * @param mimeType Mime type of the file.
+   * @param seed Seed of the random content.
+   * @since 2.3.3
+   */
+  public RandomInMemoryFile(int size, String mimeType, long seed) {
+    this.mimeType = mimeType;
+    this.content = RandomContent.of(seed, size);
   }
 
+  /**
+   * Returns a new stream of the content, that is independent of the streams returned before. The
+   * content is generated as it is read, so the stream does not hold the file in memory.
+   * <p>
+   *
+   * @return {@link InputStream} of the content.
+   */
   public InputStream asStream() {
-    return stream;
+    return content.newInputStream();
+  }
+
+  /**
+   * Returns the content of the file, which is to be passed to
+   * {@link io.ryos.rhino.sdk.dsl.HttpConfigDsl#upload(Payload)}.
+   * <p>
+   *
+   * @return {@link Payload} of the file.
+   * @throws IllegalStateException if the file is larger than a payload can hold, i.e 2 GiB.
+   * @since 2.3.3
+   */
+  public Payload getPayload() {
+    var current = payload;
+    if (current == null) {
+      synchronized (this) {
+        current = payload;
+        if (current == null) {
+          var length = content.getLength();
+          if (length > Integer.MAX_VALUE) {
+            throw new IllegalStateException("File is too large for a payload, upload its "
+                + "random content instead: " + length);
+          }
+          current = PayloadStore.random((int) length, content.getSeed());
+          payload = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Returns the content of the file, which is generated as it is uploaded with
+   * {@link io.ryos.rhino.sdk.dsl.HttpConfigDsl#upload(RandomContent)}.
+   * <p>
+   *
+   * @return {@link RandomContent} of the file.
+   * @since 2.3.3
+   */
+  public RandomContent getContent() {
+    return content;
   }
 
   public String getMimeType() {
@@ -37,16 +105,17 @@ public class RandomInMemoryFile implements Closeable {
     }
     RandomInMemoryFile that = (RandomInMemoryFile) o;
     return mimeType.equals(that.mimeType) &&
-        stream.equals(that.stream);
+        content.getSeed() == that.content.getSeed() &&
+        content.getLength() == that.content.getLength();
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(mimeType, stream);
+    return Objects.hash(mimeType, content.getSeed(), content.getLength());
   }
 
   @Override
-  public void close() throws IOException {
-    asStream().close();
+  public void close() {
+    // The payload is immutable and its streams are independent, there is nothing to release.
   }
 }
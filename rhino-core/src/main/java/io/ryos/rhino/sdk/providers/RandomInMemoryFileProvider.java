@@ -12,6 +12,7 @@ import java.util.stream.Stream;
 
 /**
  * Provider instance to create random in-memory files which can be used in tests e.g upload files.
+ * The content of the files is created lazily, so the provider does not allocate it up front.
  *
  * @author Erhan Bagdemir
  */
@@ -47,7 +48,8 @@ public class RandomInMemoryFileProvider extends AbstractProvider<RandomInMemoryF
   private void init() {
     var cyclicIterator = new CyclicIterator<>(mimeTypes);
     var inMemoryFiles = Stream
-        .generate(() -> new RandomInMemoryFile(randomizer.nextInt(maxSize), cyclicIterator.next()))
+        .generate(() -> new RandomInMemoryFile(randomizer.nextInt(maxSize), cyclicIterator.next(),
+            randomizer.nextLong()))
         .limit(numberOfFiles)
         .collect(Collectors.toList());
     this.fileIterator = new CyclicIterator<>(inMemoryFiles);
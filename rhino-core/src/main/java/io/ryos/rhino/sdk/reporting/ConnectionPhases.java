@@ -0,0 +1,171 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.reporting;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Breakdown of a request into its connection phases, i.e hostname resolution, TCP connect, TLS
+ * handshake, time to first byte and download of the response. The phases are measured in micros,
+ * phases the request did not go through, e.g connect and TLS on a pooled connection, are
+ * {@link #NONE}.
+ * <p>
+ *
+ * Instances are mutable and reused, the phases are recorded with {@link #begin(Phase)} and
+ * {@link #end(Phase)} by the request handler and copied into the {@link EventSlot} once the
+ * request is measured.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class ConnectionPhases {
+
+  /**
+   * Phases of a request in the order they occur.
+   * <p>
+   */
+  public enum Phase {
+    DNS("dns"), CONNECT("connect"), TLS("tls"), TTFB("ttfb"), DOWNLOAD("download");
+
+    private final String fieldName;
+
+    Phase(final String fieldName) {
+      this.fieldName = fieldName;
+    }
+
+    /**
+     * Name of the phase used in the exported logs and metrics.
+     * <p>
+     *
+     * @return Field name, e.g "ttfb".
+     */
+    public String getFieldName() {
+      return fieldName;
+    }
+  }
+
+  public static final long NONE = -1L;
+
+  private static final Phase[] PHASES = Phase.values();
+  static final int PHASE_COUNT = PHASES.length;
+
+  private final long[] durations = new long[PHASE_COUNT];
+  private final long[] beginNanos = new long[PHASE_COUNT];
+
+  public ConnectionPhases() {
+    reset();
+  }
+
+  /**
+   * Marks the beginning of the phase.
+   * <p>
+   *
+   * @param phase Phase beginning.
+   */
+  public void begin(final Phase phase) {
+    beginNanos[phase.ordinal()] = System.nanoTime();
+  }
+
+  /**
+   * Marks the end of the phase, which has been begun before. Ends without a beginning are ignored.
+   * <p>
+   *
+   * @param phase Phase ending.
+   */
+  public void end(final Phase phase) {
+    var begin = beginNanos[phase.ordinal()];
+    if (begin != 0L) {
+      durations[phase.ordinal()] = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - begin);
+      beginNanos[phase.ordinal()] = 0L;
+    }
+  }
+
+  /**
+   * Returns the duration of the phase.
+   * <p>
+   *
+   * @param phase Phase.
+   * @return Duration in micros, or {@link #NONE} if the phase has not been recorded.
+   */
+  public long get(final Phase phase) {
+    return durations[phase.ordinal()];
+  }
+
+  public void set(final Phase phase, final long micros) {
+    durations[phase.ordinal()] = micros;
+  }
+
+  /**
+   * Checks whether none of the phases has been recorded.
+   * <p>
+   *
+   * @return {@code true} if there is no phase recorded.
+   */
+  public boolean isEmpty() {
+    for (var duration : durations) {
+      if (duration != NONE) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public void reset() {
+    Arrays.fill(durations, NONE);
+    Arrays.fill(beginNanos, 0L);
+  }
+
+  /**
+   * Copies the durations of the other instance, or clears them if the other is {@code null}.
+   * <p>
+   *
+   * @param other Phases to copy, or {@code null}.
+   */
+  public void copyFrom(final ConnectionPhases other) {
+    if (other == null) {
+      Arrays.fill(durations, NONE);
+    } else {
+      System.arraycopy(other.durations, 0, durations, 0, PHASE_COUNT);
+    }
+  }
+
+  /**
+   * Creates a copy of the durations.
+   * <p>
+   *
+   * @return New {@link ConnectionPhases} instance.
+   */
+  public ConnectionPhases copy() {
+    var copy = new ConnectionPhases();
+    copy.copyFrom(this);
+    return copy;
+  }
+
+  @Override
+  public String toString() {
+    var builder = new StringBuilder("ConnectionPhases{");
+    for (var phase : PHASES) {
+      if (phase.ordinal() > 0) {
+        builder.append(", ");
+      }
+      builder.append(phase.getFieldName()).append('=').append(get(phase));
+    }
+    return builder.append('}').toString();
+  }
+}
@@ -0,0 +1,90 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+package io.ryos.rhino.sdk.reporting;
+
+/**
+ * CSV log formatter writes one row per event, with the columns given in {@link #CSV_HEADER}.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public class CsvSimulationLogFormatter implements SimulationLogFormatter {
+
+  /**
+   * Columns every CSV log starts with, the logs written before the connection phases were added
+   * consist of these columns only.
+   * <p>
+   */
+  public static final String CSV_BASE_COLUMNS = "type,user,scenario,measurement_point,status,"
+      + "stage,event_type,start,end,elapsed,response_time";
+
+  /**
+   * Header of the CSV log. The connection phases are in micros, and blank if the request did not
+   * go through the phase or the phases are not captured.
+   * <p>
+   */
+  public static final String CSV_HEADER = String.format("%s,dns_us,connect_us,tls_us,ttfb_us,"
+      + "download_us%n", CSV_BASE_COLUMNS);
+
+  private static final ConnectionPhases.Phase[] PHASES = ConnectionPhases.Phase.values();
+
+  @Override
+  public String format(final LogEvent event) {
+    var slot = new EventSlot();
+    return slot.copyFrom(event) ? format(slot) : "";
+  }
+
+  @Override
+  public String format(final EventSlot slot) {
+    var dsl = slot.getKind() == EventSlot.Kind.DSL;
+    return String.format("%s,%s,%s,%s,%s,%s,%s,%d,%d,%d,%d%s%n",
+        dsl ? "REQUEST" : "USER",
+        escape(slot.getUserId()),
+        escape(slot.getParentMeasurementPoint()),
+        escape(slot.getMeasurementPoint()),
+        escape(slot.getStatus()),
+        escape(slot.getLoadStage()),
+        dsl ? "" : slot.getEventType(),
+        slot.getStart(),
+        slot.getEnd(),
+        slot.getElapsed(),
+        slot.getResponseTime(),
+        formatPhases(slot.getConnectionPhases()));
+  }
+
+  private static String formatPhases(final ConnectionPhases connectionPhases) {
+    var columns = new StringBuilder();
+    for (var phase : PHASES) {
+      columns.append(',');
+      var duration = connectionPhases.get(phase);
+      if (duration != ConnectionPhases.NONE) {
+        columns.append(duration);
+      }
+    }
+    return columns.toString();
+  }
+
+  private static String escape(final String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+}
@@ -32,7 +32,19 @@ public class DefaultSimulationLogFormatter implements SimulationLogFormatter {
         event.getElapsed(),
         event.getUsername(),
         event.getStart(),
-        ""
+        event instanceof DslEvent ? ((DslEvent) event).getResponseTime() : ""
+    );
+  }
+
+  @Override
+  public String format(final EventSlot slot) {
+    return String.format("\"%s\"\t\"%s\"\t%s\t%s\t%s\t%s%n",
+        slot.getParentMeasurementPoint(),
+        slot.getStart(),
+        slot.getElapsed(),
+        "",
+        slot.getStart(),
+        slot.getKind() == EventSlot.Kind.DSL ? slot.getResponseTime() : ""
     );
   }
 }
@@ -20,6 +20,9 @@ public class DslEvent extends LogEvent {
 
   private final String status;
   private final String measurementPoint;
+  private final String loadStage;
+  private final long responseTime;
+  private final ConnectionPhases connectionPhases;
 
   public DslEvent(final String username,
       final String userId,
@@ -30,10 +33,44 @@ public class DslEvent extends LogEvent {
       final String status,
       final String measurement,
       final VerificationInfo verificationInfo) {
+    this(username, userId, parentMeasurement, start, end, elapsed, status, measurement,
+        verificationInfo, "", elapsed);
+  }
+
+  public DslEvent(final String username,
+      final String userId,
+      final String parentMeasurement,
+      final long start,
+      final long end,
+      final long elapsed,
+      final String status,
+      final String measurement,
+      final VerificationInfo verificationInfo,
+      final String loadStage,
+      final long responseTime) {
+    this(username, userId, parentMeasurement, start, end, elapsed, status, measurement,
+        verificationInfo, loadStage, responseTime, null);
+  }
+
+  public DslEvent(final String username,
+      final String userId,
+      final String parentMeasurement,
+      final long start,
+      final long end,
+      final long elapsed,
+      final String status,
+      final String measurement,
+      final VerificationInfo verificationInfo,
+      final String loadStage,
+      final long responseTime,
+      final ConnectionPhases connectionPhases) {
     super(username, userId, parentMeasurement, start, end, elapsed, verificationInfo);
 
     this.status = status;
     this.measurementPoint = measurement;
+    this.loadStage = loadStage;
+    this.responseTime = responseTime;
+    this.connectionPhases = connectionPhases;
   }
 
   public String getStatus() {
@@ -44,17 +81,52 @@ public class DslEvent extends LogEvent {
     return measurementPoint;
   }
 
+  /**
+   * The name of the load profile stage, in which the event is recorded.
+   * <p>
+   *
+   * @return Stage name, or blank if the simulation has no load profile.
+   */
+  public String getLoadStage() {
+    return loadStage;
+  }
+
+  /**
+   * Response time measured from the intended start of the request, including the time the
+   * request waited before it was sent, e.g in the throttling queue or for a pooled connection,
+   * whereas {@link #getElapsed()} is the service time from sending the request till the response.
+   * <p>
+   *
+   * @return Response time in millis.
+   */
+  public long getResponseTime() {
+    return responseTime;
+  }
+
+  /**
+   * Breakdown of the request into its connection phases.
+   * <p>
+   *
+   * @return {@link ConnectionPhases}, or {@code null} if the phases have not been captured.
+   */
+  public ConnectionPhases getConnectionPhases() {
+    return connectionPhases;
+  }
+
   @Override
   public String toString() {
     return "DslEvent{" +
         "status='" + status + '\'' +
         ", measurementPoint='" + measurementPoint + '\'' +
+        ", loadStage='" + loadStage + '\'' +
         ", username='" + getUsername() + '\'' +
         ", userId='" + getUserId() + '\'' +
         ", scenario='" + getParentMeasurementPoint() + '\'' +
         ", start=" + getStart() +
         ", end=" + getEnd() +
         ", elapsed=" + getElapsed() +
+        ", responseTime=" + responseTime +
+        ", connectionPhases=" + connectionPhases +
         '}';
   }
 }
@@ -0,0 +1,69 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.reporting;
+
+/**
+ * Interns the strings the events refer to, e.g measurement points, scenarios and statuses, into
+ * dense integer ids, so the event slots can carry primitive ids instead of references. Looking up
+ * a known string does not allocate. The blank string is always mapped to the id zero.
+ * <p>
+ *
+ * The number of the distinct strings is capped, since they are kept for the lifetime of the JVM,
+ * and free-text values, e.g error messages, might be used as measurement points. The strings
+ * beyond the cap are mapped to the {@link #OTHER} key.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class EventKeys {
+
+  /**
+   * Key of the strings, which are not interned, since the cap is reached.
+   * <p>
+   */
+  public static final String OTHER = "other";
+
+  private static final int MAX_KEYS = 1 << 16;
+
+  private static final StringInterner KEYS = new StringInterner(MAX_KEYS, OTHER);
+
+  private EventKeys() {
+  }
+
+  /**
+   * Returns the id of the string given, and assigns a new one if the string is not yet known.
+   * <p>
+   *
+   * @param name String to intern, {@code null} is treated as blank.
+   * @return Id of the string, or the id of {@link #OTHER} if the cap is reached.
+   */
+  public static int idOf(final String name) {
+    return KEYS.idOf(name);
+  }
+
+  /**
+   * Resolves the id into the interned string.
+   * <p>
+   *
+   * @param id Id of the string.
+   * @return Interned string.
+   */
+  public static String nameOf(final int id) {
+    return KEYS.nameOf(id);
+  }
+}
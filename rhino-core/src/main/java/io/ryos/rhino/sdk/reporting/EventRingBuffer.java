@@ -0,0 +1,142 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.reporting;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Bounded single-producer single-consumer ring buffer of pre-allocated {@link EventSlot}s. Every
+ * producer thread owns a ring buffer, which is drained by a single consumer thread, so neither
+ * side takes locks nor allocates.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class EventRingBuffer {
+
+  private final EventSlot[] slots;
+  private final int mask;
+
+  /**
+   * Position of the next slot to consume. Written by the consumer only.
+   * <p>
+   */
+  private final AtomicLong head = new AtomicLong();
+
+  /**
+   * Position of the next slot to publish. Written by the producer only.
+   * <p>
+   */
+  private final AtomicLong tail = new AtomicLong();
+
+  public EventRingBuffer(final int capacity) {
+    if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+    }
+
+    this.slots = new EventSlot[capacity];
+    this.mask = capacity - 1;
+    for (int i = 0; i < capacity; i++) {
+      slots[i] = new EventSlot();
+    }
+  }
+
+  /**
+   * Returns the next free slot to be filled by the producer, which must be followed by {@link
+   * #publish()}.
+   * <p>
+   *
+   * @return Free {@link EventSlot}, or {@code null} if the buffer is full.
+   */
+  public EventSlot claim() {
+    var position = tail.get();
+    if (position - head.get() >= slots.length) {
+      return null;
+    }
+    return slots[(int) position & mask];
+  }
+
+  /**
+   * Makes the slot claimed last visible to the consumer.
+   * <p>
+   */
+  public void publish() {
+    tail.lazySet(tail.get() + 1);
+  }
+
+  /**
+   * Hands the published slots over to the handler in order, up to the limit given.
+   * <p>
+   *
+   * @param handler Slot handler.
+   * @param limit Maximum number of slots to drain.
+   * @return Number of slots drained.
+   */
+  public int drain(final Consumer<EventSlot> handler, final int limit) {
+    var position = head.get();
+    var available = (int) Math.min(tail.get() - position, limit);
+    for (int i = 0; i < available; i++) {
+      handler.accept(slots[(int) (position + i) & mask]);
+    }
+    if (available > 0) {
+      head.lazySet(position + available);
+    }
+    return available;
+  }
+
+  /**
+   * Hands the published slots over to the handler as a single batch, up to the limit given. The
+   * batch list is cleared and refilled, and the slots are released once the handler returns.
+   * <p>
+   *
+   * @param batch Reusable list, the slots are collected in.
+   * @param handler Batch handler.
+   * @param limit Maximum number of slots to drain.
+   * @return Number of slots drained.
+   */
+  public int drainBatch(final List<EventSlot> batch, final Consumer<List<EventSlot>> handler,
+      final int limit) {
+    var position = head.get();
+    var available = (int) Math.min(tail.get() - position, limit);
+    if (available == 0) {
+      return 0;
+    }
+
+    batch.clear();
+    for (int i = 0; i < available; i++) {
+      batch.add(slots[(int) (position + i) & mask]);
+    }
+    try {
+      handler.accept(batch);
+    } finally {
+      batch.clear();
+      head.lazySet(position + available);
+    }
+    return available;
+  }
+
+  public int size() {
+    return (int) (tail.get() - head.get());
+  }
+
+  public int capacity() {
+    return slots.length;
+  }
+}
@@ -0,0 +1,313 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.reporting;
+
+import io.ryos.rhino.sdk.reporting.UserEvent.EventType;
+
+/**
+ * Mutable, reusable event slot of the {@link EventRingBuffer}. The slot holds a DSL event, a user
+ * event or a health sample of the load generator in primitive fields and interned {@link
+ * EventKeys} ids, so publishing an event does not allocate. Slots are owned by the ring buffer and
+ * must not be retained by the sinks beyond the call they receive them in; use {@link
+ * #toLogEvent()} if a copy is needed.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class EventSlot {
+
+  /**
+   * Kind of the event the slot currently holds.
+   * <p>
+   */
+  public enum Kind {DSL, USER, HEALTH}
+
+  private static final String BLANK = "";
+
+  private Kind kind;
+  private String userId;
+  private int parentMeasurementPointId;
+  private int measurementPointId;
+  private int statusId;
+  private int loadStageId;
+  private long start;
+  private long end;
+  private long elapsed;
+  private long responseTime;
+  private EventType eventType;
+  private VerificationInfo verificationInfo;
+  private final ConnectionPhases connectionPhases = new ConnectionPhases();
+
+  public void setDslEvent(final String userId,
+      final String parentMeasurementPoint,
+      final String measurementPoint,
+      final String status,
+      final String loadStage,
+      final long start,
+      final long end,
+      final long elapsed,
+      final long responseTime,
+      final VerificationInfo verificationInfo) {
+    setDslEvent(userId, parentMeasurementPoint, measurementPoint, status, loadStage, start, end,
+        elapsed, responseTime, verificationInfo, null);
+  }
+
+  public void setDslEvent(final String userId,
+      final String parentMeasurementPoint,
+      final String measurementPoint,
+      final String status,
+      final String loadStage,
+      final long start,
+      final long end,
+      final long elapsed,
+      final long responseTime,
+      final VerificationInfo verificationInfo,
+      final ConnectionPhases connectionPhases) {
+    this.kind = Kind.DSL;
+    this.userId = userId;
+    this.parentMeasurementPointId = EventKeys.idOf(parentMeasurementPoint);
+    this.measurementPointId = EventKeys.idOf(measurementPoint);
+    this.statusId = EventKeys.idOf(status);
+    this.loadStageId = EventKeys.idOf(loadStage);
+    this.start = start;
+    this.end = end;
+    this.elapsed = elapsed;
+    this.responseTime = responseTime;
+    this.eventType = null;
+    this.verificationInfo = verificationInfo;
+    this.connectionPhases.copyFrom(connectionPhases);
+  }
+
+  public void setUserEvent(final String userId,
+      final String parentMeasurementPoint,
+      final long start,
+      final long end,
+      final long elapsed,
+      final EventType eventType,
+      final VerificationInfo verificationInfo) {
+    this.kind = Kind.USER;
+    this.userId = userId;
+    this.parentMeasurementPointId = EventKeys.idOf(parentMeasurementPoint);
+    this.measurementPointId = 0;
+    this.statusId = 0;
+    this.loadStageId = 0;
+    this.start = start;
+    this.end = end;
+    this.elapsed = elapsed;
+    this.responseTime = elapsed;
+    this.eventType = eventType;
+    this.verificationInfo = verificationInfo;
+    this.connectionPhases.copyFrom(null);
+  }
+
+  /**
+   * Sets a health sample of the load generator. The metric is carried as the measurement point
+   * and the sampled value as elapsed time.
+   * <p>
+   *
+   * @param metric Name of the health metric, e.g {@link GeneratorHealth#CPU}.
+   * @param timestamp Time of the sample in epoch millis.
+   * @param value Sampled value.
+   */
+  public void setHealthSample(final String metric, final long timestamp, final long value) {
+    this.kind = Kind.HEALTH;
+    this.userId = BLANK;
+    this.parentMeasurementPointId = EventKeys.idOf(GeneratorHealth.SCOPE);
+    this.measurementPointId = EventKeys.idOf(metric);
+    this.statusId = 0;
+    this.loadStageId = 0;
+    this.start = timestamp;
+    this.end = timestamp;
+    this.elapsed = value;
+    this.responseTime = value;
+    this.eventType = null;
+    this.verificationInfo = null;
+    this.connectionPhases.copyFrom(null);
+  }
+
+  /**
+   * Copies the content of another slot into this one.
+   * <p>
+   *
+   * @param other Slot to copy.
+   */
+  public void copyFrom(final EventSlot other) {
+    this.kind = other.kind;
+    this.userId = other.userId;
+    this.parentMeasurementPointId = other.parentMeasurementPointId;
+    this.measurementPointId = other.measurementPointId;
+    this.statusId = other.statusId;
+    this.loadStageId = other.loadStageId;
+    this.start = other.start;
+    this.end = other.end;
+    this.elapsed = other.elapsed;
+    this.responseTime = other.responseTime;
+    this.eventType = other.eventType;
+    this.verificationInfo = other.verificationInfo;
+    this.connectionPhases.copyFrom(other.connectionPhases);
+  }
+
+  /**
+   * Copies the log event into the slot.
+   * <p>
+   *
+   * @param event Log event to copy.
+   * @return {@code true} if the event type is supported.
+   */
+  public boolean copyFrom(final LogEvent event) {
+    if (event instanceof DslEvent) {
+      var dslEvent = (DslEvent) event;
+      setDslEvent(dslEvent.getUserId(),
+          dslEvent.getParentMeasurementPoint(),
+          dslEvent.getMeasurementPoint(),
+          dslEvent.getStatus(),
+          dslEvent.getLoadStage(),
+          dslEvent.getStart(),
+          dslEvent.getEnd(),
+          dslEvent.getElapsed(),
+          dslEvent.getResponseTime(),
+          dslEvent.getVerificationInfo(),
+          dslEvent.getConnectionPhases());
+      return true;
+    }
+
+    if (event instanceof UserEvent) {
+      var userEvent = (UserEvent) event;
+      setUserEvent(userEvent.getUserId(),
+          userEvent.getParentMeasurementPoint(),
+          userEvent.getStart(),
+          userEvent.getEnd(),
+          userEvent.getElapsed(),
+          userEvent.getEventType(),
+          userEvent.getVerificationInfo());
+      return true;
+    }
+
+    return false;
+  }
+
+  /**
+   * Creates an immutable copy of the slot.
+   * <p>
+   *
+   * @return {@link DslEvent} or {@link UserEvent} instance. Health samples are copied into a
+   * {@link DslEvent}.
+   */
+  public LogEvent toLogEvent() {
+    if (kind != Kind.USER) {
+      return new DslEvent(BLANK,
+          userId,
+          getParentMeasurementPoint(),
+          start,
+          end,
+          elapsed,
+          getStatus(),
+          getMeasurementPoint(),
+          verificationInfo,
+          getLoadStage(),
+          responseTime,
+          connectionPhases.isEmpty() ? null : connectionPhases.copy());
+    }
+
+    return new UserEvent(BLANK,
+        userId,
+        getParentMeasurementPoint(),
+        start,
+        end,
+        elapsed,
+        eventType,
+        BLANK,
+        userId,
+        verificationInfo);
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public int getParentMeasurementPointId() {
+    return parentMeasurementPointId;
+  }
+
+  public String getParentMeasurementPoint() {
+    return EventKeys.nameOf(parentMeasurementPointId);
+  }
+
+  public int getMeasurementPointId() {
+    return measurementPointId;
+  }
+
+  public String getMeasurementPoint() {
+    return EventKeys.nameOf(measurementPointId);
+  }
+
+  public int getStatusId() {
+    return statusId;
+  }
+
+  public String getStatus() {
+    return EventKeys.nameOf(statusId);
+  }
+
+  public int getLoadStageId() {
+    return loadStageId;
+  }
+
+  public String getLoadStage() {
+    return EventKeys.nameOf(loadStageId);
+  }
+
+  public long getStart() {
+    return start;
+  }
+
+  public long getEnd() {
+    return end;
+  }
+
+  public long getElapsed() {
+    return elapsed;
+  }
+
+  public long getResponseTime() {
+    return responseTime;
+  }
+
+  public EventType getEventType() {
+    return eventType;
+  }
+
+  public VerificationInfo getVerificationInfo() {
+    return verificationInfo;
+  }
+
+  /**
+   * Connection phases of the DSL event, which are all {@link ConnectionPhases#NONE} if the phases
+   * have not been captured.
+   * <p>
+   *
+   * @return {@link ConnectionPhases} owned by the slot.
+   */
+  public ConnectionPhases getConnectionPhases() {
+    return connectionPhases;
+  }
+}
@@ -56,7 +56,30 @@ public class GatlingSimulationLogFormatter implements SimulationLogFormatter {
     return "N/A";
   }
 
+  @Override
+  public String format(final EventSlot slot) {
+    if (slot.getKind() == EventSlot.Kind.DSL) {
+      return String.format("REQUEST\t%s\t\t%s\t%s\t%s\t%s\t %n",
+          slot.getUserId(),
+          slot.getMeasurementPoint(),
+          slot.getStart(),
+          slot.getEnd(),
+          slot.getStatus().equals("200") ? "OK" : "KO"
+      );
+    }
+
+    return String.format("USER\t%s\t%s\t%s\t%d\t%d%n",
+        slot.getParentMeasurementPoint(),
+        slot.getUserId(),
+        slot.getEventType(),
+        slot.getStart(),
+        slot.getEnd()
+    );
+  }
+
   private String convert(DslEvent event) {
+    // Gatling reads the last column as the error message, so the response time from the intended
+    // start is carried by the Rhino log formats only.
     return String.format("REQUEST\t%s\t\t%s\t%s\t%s\t%s\t %n",
         event.getUserId(),
         event.getMeasurementPoint(),
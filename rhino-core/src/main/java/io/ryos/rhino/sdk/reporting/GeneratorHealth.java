@@ -0,0 +1,252 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.reporting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Health of the load generator itself over a report interval, folded from the health samples of
+ * {@link io.ryos.rhino.sdk.monitoring.GeneratorHealthMonitor}. The generator is considered the
+ * bottleneck, if the process is CPU saturated, the event loops are lagging, or the JVM spends too
+ * much time in GC pauses, in which case the measured latencies include client-side delays.
+ * <p>
+ *
+ * Samples are recorded by the worker thread of the metric collector, and read and reset by the
+ * report timer.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class GeneratorHealth {
+
+  /**
+   * Scope, i.e the parent measurement point, of the health samples.
+   * <p>
+   */
+  public static final String SCOPE = "Generator";
+
+  /**
+   * Time spent in GC pauses within the sample period in millis.
+   * <p>
+   */
+  public static final String GC_PAUSE = "gc-pause";
+
+  /**
+   * Process CPU load in percent of all available cores.
+   * <p>
+   */
+  public static final String CPU = "cpu";
+
+  /**
+   * Heap used in megabytes.
+   * <p>
+   */
+  public static final String HEAP_USED = "heap-used";
+
+  /**
+   * Heap used in percent of the maximum heap.
+   * <p>
+   */
+  public static final String HEAP_USAGE = "heap-usage";
+
+  /**
+   * Maximum scheduling delay of the event loops within the sample period in millis.
+   * <p>
+   */
+  public static final String EVENT_LOOP_LAG = "event-loop-lag";
+
+  /**
+   * Prefix of the utilisation of the HTTP client shards, i.e the requests in flight in percent of
+   * the connections of the shard.
+   * <p>
+   */
+  public static final String SHARD_UTILISATION = "shard-utilisation-";
+
+  /**
+   * Body bytes of the responses received per second in kilobytes.
+   * <p>
+   */
+  public static final String DOWNLOAD_THROUGHPUT = "download-throughput";
+
+  static final long CPU_THRESHOLD = 90L;
+  static final long EVENT_LOOP_LAG_THRESHOLD = 50L;
+  static final long GC_PAUSE_THRESHOLD = 100L;
+  static final long HEAP_USAGE_THRESHOLD = 90L;
+  static final long SHARD_UTILISATION_THRESHOLD = 100L;
+
+  private static final long NOT_SAMPLED = -1L;
+
+  private final AtomicLong gcPause = new AtomicLong(NOT_SAMPLED);
+  private final AtomicLong cpu = new AtomicLong(NOT_SAMPLED);
+  private final AtomicLong heapUsed = new AtomicLong(NOT_SAMPLED);
+  private final AtomicLong heapUsage = new AtomicLong(NOT_SAMPLED);
+  private final AtomicLong eventLoopLag = new AtomicLong(NOT_SAMPLED);
+  private final AtomicLong downloadThroughput = new AtomicLong(NOT_SAMPLED);
+  private final ConcurrentSkipListMap<Integer, AtomicLong> shardUtilisation =
+      new ConcurrentSkipListMap<>();
+
+  /**
+   * Returns the metric name of the utilisation of the shard.
+   * <p>
+   *
+   * @param shard Index of the shard.
+   * @return Metric name, e.g "shard-utilisation-0".
+   */
+  public static String shardUtilisation(final int shard) {
+    return SHARD_UTILISATION + shard;
+  }
+
+  /**
+   * Records a health sample, the maximum of the interval is kept.
+   * <p>
+   *
+   * @param metric Name of the health metric.
+   * @param value Sampled value.
+   */
+  public void record(final String metric, final long value) {
+    var target = valueOf(metric);
+    if (target != null) {
+      target.accumulateAndGet(value, Math::max);
+    }
+  }
+
+  private AtomicLong valueOf(final String metric) {
+    if (metric.startsWith(SHARD_UTILISATION)) {
+      try {
+        var shard = Integer.parseInt(metric.substring(SHARD_UTILISATION.length()));
+        return shardUtilisation.computeIfAbsent(shard, k -> new AtomicLong(NOT_SAMPLED));
+      } catch (NumberFormatException e) {
+        return null;
+      }
+    }
+
+    switch (metric) {
+      case GC_PAUSE:
+        return gcPause;
+      case CPU:
+        return cpu;
+      case HEAP_USED:
+        return heapUsed;
+      case HEAP_USAGE:
+        return heapUsage;
+      case EVENT_LOOP_LAG:
+        return eventLoopLag;
+      case DOWNLOAD_THROUGHPUT:
+        return downloadThroughput;
+      default:
+        return null;
+    }
+  }
+
+  public boolean hasSamples() {
+    return cpu.get() != NOT_SAMPLED || heapUsed.get() != NOT_SAMPLED;
+  }
+
+  /**
+   * Returns the peak values of the interval as a single line.
+   * <p>
+   *
+   * @return Summary of the generator health.
+   */
+  public String getSummary() {
+    return String.format("cpu %s %%, heap %s MB (%s %%), gc pause %s ms/s, event loop lag %s ms",
+        format(cpu), format(heapUsed), format(heapUsage), format(gcPause), format(eventLoopLag));
+  }
+
+  /**
+   * Returns the peak utilisation of the HTTP client shards within the interval as a single line.
+   * <p>
+   *
+   * @return Summary of the shards, or an empty string if there is a single client.
+   */
+  public String getShardSummary() {
+    if (shardUtilisation.size() < 2) {
+      return "";
+    }
+    return shardUtilisation.entrySet().stream()
+        .map(entry -> String.format("shard %d %s %%", entry.getKey(), format(entry.getValue())))
+        .collect(Collectors.joining(", "));
+  }
+
+  /**
+   * Returns the peak download throughput within the interval.
+   * <p>
+   *
+   * @return Summary of the download throughput, or an empty string if it is not sampled.
+   */
+  public String getDownloadSummary() {
+    if (downloadThroughput.get() == NOT_SAMPLED) {
+      return "";
+    }
+    return String.format("download %d KB/s", downloadThroughput.get());
+  }
+
+  private static String format(final AtomicLong value) {
+    var current = value.get();
+    return current == NOT_SAMPLED ? "N/A" : String.valueOf(current);
+  }
+
+  /**
+   * Returns the warnings for the thresholds exceeded within the interval.
+   * <p>
+   *
+   * @return Warnings, or an empty list if the generator is healthy.
+   */
+  public List<String> getWarnings() {
+    var warnings = new ArrayList<String>();
+    if (cpu.get() >= CPU_THRESHOLD) {
+      warnings.add(String.format("Process CPU peaked at %d %%.", cpu.get()));
+    }
+    if (eventLoopLag.get() >= EVENT_LOOP_LAG_THRESHOLD) {
+      warnings.add(String.format("Event loops lagged up to %d ms, callbacks are blocking them.",
+          eventLoopLag.get()));
+    }
+    if (gcPause.get() >= GC_PAUSE_THRESHOLD) {
+      warnings.add(String.format("GC paused the JVM up to %d ms per second.", gcPause.get()));
+    }
+    if (heapUsage.get() >= HEAP_USAGE_THRESHOLD) {
+      warnings.add(String.format("Heap usage peaked at %d %% of the maximum heap.",
+          heapUsage.get()));
+    }
+    shardUtilisation.forEach((shard, utilisation) -> {
+      if (utilisation.get() >= SHARD_UTILISATION_THRESHOLD) {
+        warnings.add(String.format("HTTP client shard %d used all of its connections, requests "
+            + "are queued in the client.", shard));
+      }
+    });
+    return warnings;
+  }
+
+  /**
+   * Starts a new interval.
+   * <p>
+   */
+  public void reset() {
+    gcPause.set(NOT_SAMPLED);
+    cpu.set(NOT_SAMPLED);
+    heapUsed.set(NOT_SAMPLED);
+    heapUsage.set(NOT_SAMPLED);
+    eventLoopLag.set(NOT_SAMPLED);
+    downloadThroughput.set(NOT_SAMPLED);
+    shardUtilisation.values().forEach(utilisation -> utilisation.set(NOT_SAMPLED));
+  }
+}
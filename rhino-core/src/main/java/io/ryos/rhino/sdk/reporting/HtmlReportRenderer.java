@@ -0,0 +1,335 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.reporting;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Renders the statistics of a {@link ReportAggregator} into a single, self-contained HTML file.
+ * Charts are rendered as inline SVG, so the report needs neither scripts nor network access to
+ * be viewed.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class HtmlReportRenderer {
+
+  private static final int CHART_WIDTH = 960;
+  private static final int CHART_HEIGHT = 240;
+  private static final int MARGIN_LEFT = 70;
+  private static final int MARGIN_RIGHT = 20;
+  private static final int MARGIN_TOP = 20;
+  private static final int MARGIN_BOTTOM = 30;
+  private static final int Y_TICKS = 4;
+  private static final String[] COLORS = {"#1f77b4", "#d62728", "#2ca02c", "#ff7f0e",
+      "#9467bd"};
+  private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss")
+      .withZone(ZoneId.systemDefault());
+  private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter
+      .ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+  private HtmlReportRenderer() {
+  }
+
+  /**
+   * Renders the report.
+   * <p>
+   *
+   * @param report Aggregated statistics.
+   * @param title Title of the report, e.g the simulation name.
+   * @param writer Writer, the HTML is written to.
+   * @throws IOException If the report cannot be written.
+   */
+  public static void render(final ReportAggregator report, final String title,
+      final Writer writer) throws IOException {
+    var out = new StringBuilder(64 * 1024);
+    out.append("<!DOCTYPE html>\n<html lang=\"en\">\n<head>\n<meta charset=\"utf-8\">\n")
+        .append("<title>").append(escape(title)).append("</title>\n")
+        .append("<style>\n")
+        .append("body{font-family:sans-serif;margin:2em;color:#222}")
+        .append("table{border-collapse:collapse;margin-bottom:2em}")
+        .append("th,td{border:1px solid #ccc;padding:4px 8px;text-align:right}")
+        .append("th{background:#f3f3f3}td.name{text-align:left}")
+        .append("svg{display:block;margin-bottom:2em}")
+        .append("svg text{font-size:11px;fill:#555}")
+        .append("\n</style>\n</head>\n<body>\n")
+        .append("<h1>").append(escape(title)).append("</h1>\n");
+
+    renderSummary(out, report);
+    if (!report.getTimeline().isEmpty()) {
+      renderCharts(out, report);
+    }
+    renderSteps(out, report);
+    renderErrors(out, report);
+
+    out.append("</body>\n</html>\n");
+    writer.write(out.toString());
+  }
+
+  private static void renderSummary(final StringBuilder out, final ReportAggregator report) {
+    var hasRequests = report.getTotalCount() > 0;
+    out.append("<h2>Summary</h2>\n<table>\n");
+    row(out, "Start", hasRequests ? DATE_TIME_FORMAT.format(
+        Instant.ofEpochMilli(report.getFirstTimestamp())) : "N/A");
+    row(out, "End", hasRequests ? DATE_TIME_FORMAT.format(
+        Instant.ofEpochMilli(report.getLastTimestamp())) : "N/A");
+    row(out, "Duration", durationSecs(report) + " s");
+    row(out, "Requests", String.valueOf(report.getTotalCount()));
+    row(out, "Errors", report.getTotalErrors() + " (" + percent(report.getTotalErrors(),
+        report.getTotalCount()) + ")");
+    row(out, "Mean throughput", format(report.getTotalCount() / (double) durationSecs(report))
+        + " req/s");
+    row(out, "Peak active users", String.valueOf(report.getPeakUsers()));
+    row(out, "Chart resolution", report.getBucketWidthSecs() + " s");
+    out.append("</table>\n");
+  }
+
+  private static void row(final StringBuilder out, final String name, final String value) {
+    out.append("<tr><th>").append(name).append("</th><td class=\"name\">")
+        .append(escape(value)).append("</td></tr>\n");
+  }
+
+  private static void renderCharts(final StringBuilder out, final ReportAggregator report) {
+    var timeline = report.getTimeline();
+    double width = report.getBucketWidthSecs();
+
+    out.append("<h2>Throughput</h2>\n");
+    chart(out, report, "req/s", List.of("requests", "errors"),
+        valuesOf(timeline, bucket -> bucket.getCount() / width),
+        valuesOf(timeline, bucket -> bucket.getErrors() / width));
+
+    out.append("<h2>Latency percentiles</h2>\n");
+    chart(out, report, "ms", List.of("p50", "p90", "p99", "max"),
+        valuesOf(timeline, bucket -> percentile(bucket, 50d)),
+        valuesOf(timeline, bucket -> percentile(bucket, 90d)),
+        valuesOf(timeline, bucket -> percentile(bucket, 99d)),
+        valuesOf(timeline, bucket -> percentile(bucket, 100d)));
+
+    // Buckets without user events keep the number of the active users of the previous one.
+    var users = new double[timeline.size()];
+    var current = 0d;
+    for (int i = 0; i < users.length; i++) {
+      if (timeline.get(i).getUsers() >= 0) {
+        current = timeline.get(i).getUsers();
+      }
+      users[i] = current;
+    }
+    out.append("<h2>Active users</h2>\n");
+    chart(out, report, "users", List.of("active users"), users);
+  }
+
+  private static double[] valuesOf(final List<ReportAggregator.TimeBucket> timeline,
+      final ToDoubleFunction<ReportAggregator.TimeBucket> selector) {
+    var values = new double[timeline.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = selector.applyAsDouble(timeline.get(i));
+    }
+    return values;
+  }
+
+  private static double percentile(final ReportAggregator.TimeBucket bucket,
+      final double percentile) {
+    return bucket.getCount() > 0 ? bucket.getLatencies().getValueAtPercentile(percentile)
+        : Double.NaN;
+  }
+
+  /**
+   * Renders a line chart of the series over the timeline. Values, which are not a number, break
+   * the line, e.g the latencies of the buckets without requests.
+   * <p>
+   */
+  private static void chart(final StringBuilder out, final ReportAggregator report,
+      final String unit, final List<String> names, final double[]... series) {
+
+    var size = report.getTimeline().size();
+    var max = 0d;
+    for (var values : series) {
+      for (var value : values) {
+        if (!Double.isNaN(value)) {
+          max = Math.max(max, value);
+        }
+      }
+    }
+    var yMax = niceCeiling(max);
+    var plotWidth = CHART_WIDTH - MARGIN_LEFT - MARGIN_RIGHT;
+    var plotHeight = CHART_HEIGHT - MARGIN_TOP - MARGIN_BOTTOM;
+    var step = size > 1 ? plotWidth / (double) (size - 1) : 0d;
+
+    out.append(String.format(Locale.ROOT,
+        "<svg width=\"%d\" height=\"%d\" viewBox=\"0 0 %d %d\">\n",
+        CHART_WIDTH, CHART_HEIGHT, CHART_WIDTH, CHART_HEIGHT));
+
+    for (int t = 0; t <= Y_TICKS; t++) {
+      var y = MARGIN_TOP + plotHeight - plotHeight * t / (double) Y_TICKS;
+      out.append(String.format(Locale.ROOT,
+          "<line x1=\"%d\" y1=\"%.1f\" x2=\"%d\" y2=\"%.1f\" stroke=\"#e5e5e5\"/>"
+              + "<text x=\"%d\" y=\"%.1f\" text-anchor=\"end\">%s %s</text>\n",
+          MARGIN_LEFT, y, CHART_WIDTH - MARGIN_RIGHT, y, MARGIN_LEFT - 6, y + 4,
+          format(yMax * t / Y_TICKS), unit));
+    }
+
+    var last = size - 1;
+    for (int index : new int[]{0, last / 2, last}) {
+      var second = report.getOriginSecond() + index * report.getBucketWidthSecs();
+      out.append(String.format(Locale.ROOT,
+          "<text x=\"%.1f\" y=\"%d\" text-anchor=\"middle\">%s</text>\n",
+          MARGIN_LEFT + index * step, CHART_HEIGHT - 8,
+          TIME_FORMAT.format(Instant.ofEpochSecond(second))));
+    }
+
+    for (int s = 0; s < series.length; s++) {
+      var color = COLORS[s % COLORS.length];
+      var points = new StringBuilder();
+      for (int i = 0; i < size; i++) {
+        var value = series[s][i];
+        if (Double.isNaN(value)) {
+          polyline(out, points, color);
+          continue;
+        }
+        var y = MARGIN_TOP + plotHeight - value / yMax * plotHeight;
+        points.append(String.format(Locale.ROOT, "%.1f,%.1f ", MARGIN_LEFT + i * step, y));
+      }
+      polyline(out, points, color);
+
+      out.append(String.format(Locale.ROOT,
+          "<rect x=\"%d\" y=\"4\" width=\"10\" height=\"10\" fill=\"%s\"/>"
+              + "<text x=\"%d\" y=\"13\">%s</text>\n",
+          MARGIN_LEFT + s * 110, color, MARGIN_LEFT + s * 110 + 14, escape(names.get(s))));
+    }
+    out.append("</svg>\n");
+  }
+
+  private static void polyline(final StringBuilder out, final StringBuilder points,
+      final String color) {
+    if (points.length() == 0) {
+      return;
+    }
+    out.append("<polyline fill=\"none\" stroke-width=\"1.5\" stroke=\"").append(color)
+        .append("\" points=\"").append(points).append("\"/>\n");
+    points.setLength(0);
+  }
+
+  private static double niceCeiling(final double value) {
+    if (value <= 0) {
+      return 1d;
+    }
+    var magnitude = Math.pow(10, Math.floor(Math.log10(value)));
+    for (var factor : new double[]{1d, 2d, 2.5d, 5d, 10d}) {
+      if (factor * magnitude >= value) {
+        return factor * magnitude;
+      }
+    }
+    return 10d * magnitude;
+  }
+
+  private static void renderSteps(final StringBuilder out, final ReportAggregator report) {
+    var durationSecs = durationSecs(report);
+    out.append("<h2>Measurement points</h2>\n<table>\n<tr><th>Scenario</th><th>Step</th>")
+        .append("<th>Count</th><th>Errors</th><th>Error %</th><th>req/s</th><th>Min</th>")
+        .append("<th>Mean</th><th>p50</th><th>p90</th><th>p99</th><th>p99.9</th>")
+        .append("<th>Max</th></tr>\n");
+    for (var step : report.getSteps()) {
+      var latencies = step.getLatencies();
+      out.append("<tr><td class=\"name\">").append(escape(step.getKey().getScenario()))
+          .append("</td><td class=\"name\">").append(escape(step.getKey().getMeasurementPoint()))
+          .append("</td><td>").append(step.getCount())
+          .append("</td><td>").append(step.getErrors())
+          .append("</td><td>").append(percent(step.getErrors(), step.getCount()))
+          .append("</td><td>").append(format(step.getCount() / (double) durationSecs))
+          .append("</td><td>").append(latencies.getMinValue())
+          .append("</td><td>").append(format(latencies.getMean()))
+          .append("</td><td>").append(latencies.getValueAtPercentile(50d))
+          .append("</td><td>").append(latencies.getValueAtPercentile(90d))
+          .append("</td><td>").append(latencies.getValueAtPercentile(99d))
+          .append("</td><td>").append(latencies.getValueAtPercentile(99.9d))
+          .append("</td><td>").append(latencies.getMaxValue())
+          .append("</td></tr>\n");
+    }
+    out.append("</table>\n<p>Latencies are service times in ms.</p>\n");
+  }
+
+  private static void renderErrors(final StringBuilder out, final ReportAggregator report) {
+    var errors = report.getErrorBreakdown();
+    out.append("<h2>Errors by status</h2>\n");
+    if (errors.isEmpty()) {
+      out.append("<p>No errors.</p>\n");
+      return;
+    }
+
+    out.append("<table>\n<tr><th>Scenario</th><th>Step</th><th>Status</th><th>Count</th>")
+        .append("<th>% of requests</th></tr>\n");
+    for (var error : errors) {
+      out.append("<tr><td class=\"name\">").append(escape(error.getKey().getScenario()))
+          .append("</td><td class=\"name\">").append(escape(error.getKey().getMeasurementPoint()))
+          .append("</td><td class=\"name\">").append(escape(error.getKey().getStatus()))
+          .append("</td><td>").append(error.getCount())
+          .append("</td><td>").append(percent(error.getCount(), report.getTotalCount()))
+          .append("</td></tr>\n");
+    }
+    out.append("</table>\n");
+  }
+
+  private static long durationSecs(final ReportAggregator report) {
+    if (report.getTotalCount() == 0) {
+      return 1L;
+    }
+    return Math.max(1L, (report.getLastTimestamp() - report.getFirstTimestamp()) / 1000L);
+  }
+
+  private static String percent(final long part, final long total) {
+    return total > 0 ? format(part * 100d / total) + " %" : "0 %";
+  }
+
+  private static String format(final double value) {
+    return String.format(Locale.ROOT, "%.2f", value);
+  }
+
+  private static String escape(final String value) {
+    if (value == null) {
+      return "";
+    }
+    var escaped = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      var c = value.charAt(i);
+      switch (c) {
+        case '<':
+          escaped.append("&lt;");
+          break;
+        case '>':
+          escaped.append("&gt;");
+          break;
+        case '&':
+          escaped.append("&amp;");
+          break;
+        case '"':
+          escaped.append("&quot;");
+          break;
+        default:
+          escaped.append(c);
+      }
+    }
+    return escaped.toString();
+  }
+}
@@ -0,0 +1,92 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.reporting;
+
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latency histogram keeps a cumulative histogram over the entire run and an interval histogram
+ * over the period between two consecutive {@link #roll()} calls. Both histograms are of fixed
+ * size, so the memory footprint as well as the cost of recording a value are constant regardless
+ * of the number of samples.
+ * <p>
+ *
+ * Values are recorded in millis and are clamped to {@link #HIGHEST_TRACKABLE_VALUE}. Recording
+ * is wait-free and can be done concurrently to {@link #roll()}, that is called by the reporting
+ * thread.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public class LatencyHistogram {
+
+  static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toMillis(1);
+  private static final int SIGNIFICANT_DIGITS = 3;
+
+  private final Recorder recorder;
+  private final Histogram cumulative;
+  private Histogram interval;
+
+  public LatencyHistogram() {
+    this.recorder = new Recorder(HIGHEST_TRACKABLE_VALUE, SIGNIFICANT_DIGITS);
+    this.cumulative = new Histogram(HIGHEST_TRACKABLE_VALUE, SIGNIFICANT_DIGITS);
+    this.interval = recorder.getIntervalHistogram();
+  }
+
+  /**
+   * Records the value in millis.
+   * <p>
+   *
+   * @param value Value to record.
+   */
+  public void record(final long value) {
+    recorder.recordValue(Math.min(Math.max(value, 0L), HIGHEST_TRACKABLE_VALUE));
+  }
+
+  /**
+   * Closes the current interval. The values recorded since the last call are merged into the
+   * cumulative histogram and become the interval histogram.
+   * <p>
+   */
+  public synchronized void roll() {
+    interval = recorder.getIntervalHistogram(interval);
+    cumulative.add(interval);
+  }
+
+  /**
+   * Histogram over the entire run till the last {@link #roll()}.
+   * <p>
+   *
+   * @return Cumulative {@link Histogram}.
+   */
+  public synchronized Histogram getCumulative() {
+    return cumulative;
+  }
+
+  /**
+   * Histogram over the last interval.
+   * <p>
+   *
+   * @return Interval {@link Histogram}.
+   */
+  public synchronized Histogram getInterval() {
+    return interval;
+  }
+}
@@ -0,0 +1,228 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+package io.ryos.rhino.sdk.reporting;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Live metrics of the running simulation, i.e request counters, latency histograms per
+ * measurement point, achieved requests per second and in-flight requests, which can be read at
+ * any time, e.g by a scrape endpoint. The metrics are recorded by a single writer, the worker
+ * thread of the metric collector, and published through atomic fields, so reading them neither
+ * takes a lock nor blocks the writer.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class LiveMetrics {
+
+  /**
+   * Upper bounds of the latency histogram buckets in millis.
+   * <p>
+   */
+  private static final long[] BUCKET_BOUNDS = {5L, 10L, 25L, 50L, 100L, 250L, 500L, 1000L,
+      2500L, 5000L, 10000L};
+  private static final int RATE_WINDOW = 8;
+  private static final int INITIAL_CAPACITY = 64;
+
+  /**
+   * Requests sent but not yet completed, across all simulations of the node.
+   * <p>
+   */
+  private static final AtomicLong IN_FLIGHT = new AtomicLong();
+
+  /**
+   * Body bytes received, across all simulations of the node. The event loops add to it
+   * concurrently, so it is striped.
+   * <p>
+   */
+  private static final LongAdder BYTES_RECEIVED = new LongAdder();
+  private static final long BYTES_PER_KB = 1024L;
+
+  /**
+   * Series indexed by the {@link MetricKeys} id, accessed by the writer only.
+   * <p>
+   */
+  private Series[] seriesById = new Series[INITIAL_CAPACITY];
+  private final List<Series> series = new CopyOnWriteArrayList<>();
+
+  /**
+   * Number of requests completed per second, indexed by the epoch second modulo the window.
+   * <p>
+   */
+  private final AtomicLongArray completedPerSecond = new AtomicLongArray(RATE_WINDOW);
+  private final AtomicLongArray completedSecond = new AtomicLongArray(RATE_WINDOW);
+
+  public static void requestStarted() {
+    IN_FLIGHT.incrementAndGet();
+  }
+
+  public static void requestCompleted() {
+    IN_FLIGHT.decrementAndGet();
+  }
+
+  public static long getInFlight() {
+    return IN_FLIGHT.get();
+  }
+
+  public static void bytesReceived(final long bytes) {
+    BYTES_RECEIVED.add(bytes);
+  }
+
+  public static long getBytesReceived() {
+    return BYTES_RECEIVED.sum();
+  }
+
+  /**
+   * Returns a gauge of the download throughput, i.e the body bytes received per second since the
+   * previous read of the gauge in kilobytes. The gauge must be read by a single thread.
+   * <p>
+   *
+   * @return Gauge of the download throughput in KB/s.
+   */
+  public static LongSupplier downloadThroughput() {
+    var last = new long[] {getBytesReceived(), System.nanoTime()};
+    return () -> {
+      var bytes = getBytesReceived();
+      var now = System.nanoTime();
+      var elapsed = Math.max(1L, now - last[1]);
+      var throughput = (bytes - last[0]) * TimeUnit.SECONDS.toNanos(1) / elapsed / BYTES_PER_KB;
+      last[0] = bytes;
+      last[1] = now;
+      return throughput;
+    };
+  }
+
+  public static long[] getBucketBounds() {
+    return BUCKET_BOUNDS.clone();
+  }
+
+  /**
+   * Records a completed request. Must be called by a single thread.
+   * <p>
+   *
+   * @param slot DSL event slot.
+   */
+  public void record(final EventSlot slot) {
+    var keyId = MetricKeys.idOf(slot);
+    if (keyId >= seriesById.length) {
+      seriesById = Arrays.copyOf(seriesById, Math.max(seriesById.length * 2, keyId + 1));
+    }
+    var target = seriesById[keyId];
+    if (target == null) {
+      target = new Series(MetricKeys.keyOf(keyId));
+      seriesById[keyId] = target;
+      series.add(target);
+    }
+    target.record(slot.getElapsed());
+
+    var second = TimeUnit.MILLISECONDS.toSeconds(slot.getEnd());
+    var index = (int) (second % RATE_WINDOW);
+    if (completedSecond.get(index) != second) {
+      completedPerSecond.set(index, 0L);
+      completedSecond.set(index, second);
+    }
+    completedPerSecond.lazySet(index, completedPerSecond.get(index) + 1);
+  }
+
+  /**
+   * Returns the number of requests completed in the last full second.
+   * <p>
+   *
+   * @param nowMillis Current time in epoch millis.
+   * @return Achieved requests per second.
+   */
+  public long getAchievedRps(final long nowMillis) {
+    var second = TimeUnit.MILLISECONDS.toSeconds(nowMillis) - 1;
+    var index = (int) (second % RATE_WINDOW);
+    return completedSecond.get(index) == second ? completedPerSecond.get(index) : 0L;
+  }
+
+  public List<Series> getSeries() {
+    return series;
+  }
+
+  /**
+   * Counters and latency histogram of a scenario, measurement point and status.
+   * <p>
+   */
+  public static final class Series {
+
+    private final MetricKey key;
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS.length);
+
+    private Series(final MetricKey key) {
+      this.key = key;
+    }
+
+    private void record(final long elapsed) {
+      // Single writer, so the plain read-modify-write is safe and lazySet publishes it.
+      for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+        if (elapsed <= BUCKET_BOUNDS[i]) {
+          buckets.lazySet(i, buckets.get(i) + 1);
+          break;
+        }
+      }
+      sum.lazySet(sum.get() + elapsed);
+      count.lazySet(count.get() + 1);
+    }
+
+    public MetricKey getKey() {
+      return key;
+    }
+
+    public String getScenario() {
+      return key.getScenario();
+    }
+
+    public String getMeasurementPoint() {
+      return key.getMeasurementPoint();
+    }
+
+    public String getStatus() {
+      return key.getStatus();
+    }
+
+    public long getCount() {
+      return count.get();
+    }
+
+    public long getSum() {
+      return sum.get();
+    }
+
+    /**
+     * Number of the requests in the bucket, that is non-cumulative.
+     * <p>
+     *
+     * @param index Index of the bucket bound.
+     * @return Number of the requests.
+     */
+    public long getBucket(final int index) {
+      return buckets.get(index);
+    }
+  }
+}
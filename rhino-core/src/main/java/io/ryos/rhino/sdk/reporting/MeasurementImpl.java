@@ -16,6 +16,7 @@
 
 package io.ryos.rhino.sdk.reporting;
 
+import io.ryos.rhino.sdk.LoadStage;
 import io.ryos.rhino.sdk.dsl.DslItem;
 import io.ryos.rhino.sdk.dsl.DslMethod;
 import io.ryos.rhino.sdk.dsl.MeasurableDsl;
@@ -27,7 +28,8 @@ import java.util.List;
 
 /**
  * Measurement implementation which measures elapsed time from beginning the execution of the
- * scenario.
+ * scenario. The events are published to the {@link EventDispatcher} as they occur, only the events
+ * passed to {@link #record(LogEvent)} are kept till the measurement is dispatched.
  *
  * @author Erhan Bagdemir
  */
@@ -39,13 +41,16 @@ public class MeasurementImpl implements Measurement {
   private final String userId;
 
   private String measurementPoint;
+  private String loadStage = STR_BLANK;
   private boolean cumulativeMeasurement;
 
   private MeasurableDsl measurableDsl;
   private volatile boolean measurementEnabled;
   private volatile boolean measurementStarted;
   private long start = -1;
+  private long intendedStart = -1;
   private long elapsed = 0L;
+  private ConnectionPhases connectionPhases;
 
   private EventDispatcher dispatcher;
 
@@ -120,29 +125,25 @@ public class MeasurementImpl implements Measurement {
     }
 
     var verifier = getVerifier();
-    addEvent(new DslEvent(STR_BLANK,
-        this.userId,
+    var end = this.start + this.elapsed;
+    this.dispatcher.dispatchDslEvent(this.userId,
         this.parentName,
+        measurement,
+        status,
+        loadStage,
         this.start,
-        this.start + this.elapsed,
+        end,
         this.elapsed,
-        status,
-        measurement,
-        verifier));
+        responseTime(end),
+        verifier);
 
-    var userEventEnd = new UserEvent(STR_BLANK,
-        this.userId,
+    this.dispatcher.dispatchUserEvent(this.userId,
         this.parentName,
         this.start,
-        this.start + this.elapsed,
+        end,
         this.elapsed,
         EventType.END,
-        STR_BLANK,
-        this.userId,
-        verifier
-    );
-
-    record(userEventEnd);
+        verifier);
 
     this.dispatcher.dispatchEvents(this);
     this.start = -1;
@@ -157,20 +158,13 @@ public class MeasurementImpl implements Measurement {
   }
 
   private void registerStartUserEvent() {
-    UserEvent userEventStart = new UserEvent(
-        STR_BLANK,
-        this.userId,
+    this.dispatcher.dispatchUserEvent(this.userId,
         this.parentName,
         this.start,
         this.start,
         0L,
         EventType.START,
-        STR_BLANK,
-        this.userId,
-        getVerifier()
-    );
-
-    record(userEventStart);
+        getVerifier());
   }
 
   @Override
@@ -182,25 +176,27 @@ public class MeasurementImpl implements Measurement {
     registerEndUserEvent();
     this.dispatcher.dispatchEvents(this);
     this.start = System.currentTimeMillis();
+    this.intendedStart = -1;
+  }
+
+  private long responseTime(final long end) {
+    if (intendedStart > 0 && intendedStart <= start) {
+      return end - intendedStart;
+    }
+    return end - start;
   }
 
   private void registerEndUserEvent() {
 
     var elapsed = System.currentTimeMillis() - start;
 
-    UserEvent userEventEnd = new UserEvent(STR_BLANK,
-        this.userId,
+    this.dispatcher.dispatchUserEvent(this.userId,
         this.parentName,
         this.start,
         this.start + elapsed,
         elapsed,
         EventType.END,
-        STR_BLANK,
-        this.userId,
-        getVerifier()
-    );
-
-    record(userEventEnd);
+        getVerifier());
   }
 
   @Override
@@ -212,15 +208,17 @@ public class MeasurementImpl implements Measurement {
     long end = System.currentTimeMillis();
     this.elapsed = end - start;
 
-    addEvent(new DslEvent(STR_BLANK,
-        this.userId,
+    this.dispatcher.dispatchDslEvent(this.userId,
         this.parentName,
+        measurement,
+        status,
+        loadStage,
         this.start,
         end,
         this.elapsed,
-        status,
-        measurement,
-        getVerifier()));
+        responseTime(end),
+        getVerifier(),
+        connectionPhases);
 
     return this.elapsed;
   }
@@ -247,28 +245,17 @@ public class MeasurementImpl implements Measurement {
     // Store the error event in the measurement stack.
     measure(message, "N/A");
 
-    var userEventEnd = new UserEvent(
-        STR_BLANK,
-        this.userId,
+    dispatcher.dispatchUserEvent(this.userId,
         this.parentName,
         this.start,
         0,
         0L,
         EventType.END,
-        STR_BLANK,
-        this.userId,
-        getVerifier()
-    );
-
-    record(userEventEnd);
+        getVerifier());
 
     dispatcher.dispatchEvents(this);
   }
 
-  private synchronized void addEvent(final DslEvent event) {
-    events.add(event);
-  }
-
   public List<LogEvent> getEvents() {
     return events;
   }
@@ -285,6 +272,46 @@ public class MeasurementImpl implements Measurement {
     return measurementPoint;
   }
 
+  public long getIntendedStart() {
+    return intendedStart;
+  }
+
+  /**
+   * Sets the time in epoch millis the measured operation was intended to start at. The response
+   * time of the events is measured from the intended start, if it precedes the actual start.
+   * <p>
+   *
+   * @param intendedStart Intended start in epoch millis.
+   */
+  public void setIntendedStart(final long intendedStart) {
+    this.intendedStart = intendedStart;
+  }
+
+  public String getLoadStage() {
+    return loadStage;
+  }
+
+  /**
+   * Sets the connection phases, that are published along with the measured events. The phases
+   * are copied as the events are measured, so the instance may be refilled afterwards.
+   * <p>
+   *
+   * @param connectionPhases Connection phases of the measured request, or {@code null}.
+   */
+  public void setConnectionPhases(final ConnectionPhases connectionPhases) {
+    this.connectionPhases = connectionPhases;
+  }
+
+  /**
+   * Tags the events recorded by the measurement with the stage of the load profile.
+   * <p>
+   *
+   * @param loadStage Load stage, the measurement is taken in, or {@code null}.
+   */
+  public void setLoadStage(final LoadStage loadStage) {
+    this.loadStage = loadStage != null ? loadStage.getName() : STR_BLANK;
+  }
+
   public boolean isCumulativeMeasurement() {
     return cumulativeMeasurement;
   }
@@ -16,32 +16,26 @@
 
 package io.ryos.rhino.sdk.reporting;
 
-import akka.actor.AbstractActor;
-import akka.actor.Props;
-import akka.japi.pf.ReceiveBuilder;
 import io.ryos.rhino.sdk.ExecutionMode;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
-import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * The actor outputs the current status of the test run. It gives out information to stdout like
- * number of requests per scenario, and avg. response times.
+ * The collector outputs the current status of the test run. It gives out information to stdout
+ * like number of requests per scenario, and avg. response times. The events are passed in by the
+ * worker thread of the sink.
  * <p>
  *
  * @author Erhan Bagdemir
  */
-public class MetricCollector extends AbstractActor {
+public class MetricCollector implements ResultSink {
   private static final long DELAY = 1000L;
   private static final long PERIOD = 1000L * 5; // TODO make configurable.
-  private static final int MSG_OK = 200;
   private static final int CONTAINER_WIDTH = 130;
 
   private Instant startTime;
@@ -61,15 +55,24 @@ public class MetricCollector extends AbstractActor {
    */
   private Timer timer;
 
-  private final Map<String, String> verificationResult = new LinkedHashMap<>();
-  private final Map<String, Long> performanceMetrics = new LinkedHashMap<>();
-  private final Map<String, SummaryStatistics> performanceStats = new LinkedHashMap<>();
-  private final Map<String, DescriptiveStatistics> performanceRollingStats = new LinkedHashMap<>();
+  /**
+   * Counters and latency histograms per metric key. The table is recorded by the worker thread of
+   * the sink and read by the report timer.
+   * <p>
+   */
+  private final MetricTable metricTable = new MetricTable();
 
-  public static Props props(int numberOfUsers, Instant startTime, Duration duration) {
-    return Props.create(MetricCollector.class, () -> new MetricCollector(numberOfUsers, startTime,
-        duration));
-  }
+  /**
+   * Live metrics exposed to the scrapers while the simulation is running.
+   * <p>
+   */
+  private final LiveMetrics liveMetrics = new LiveMetrics();
+
+  /**
+   * Health of the load generator within the current report interval.
+   * <p>
+   */
+  private final GeneratorHealth generatorHealth = new GeneratorHealth();
 
   private MetricCollector(final int numberOfUsers, final Instant startTime, final Duration duration,
       final ExecutionMode executionMode) {
@@ -86,7 +89,7 @@ public class MetricCollector extends AbstractActor {
     }
   }
 
-  private MetricCollector(final int numberOfUsers, final Instant startTime,
+  public MetricCollector(final int numberOfUsers, final Instant startTime,
       final Duration duration) {
     this(numberOfUsers, startTime, duration, ExecutionMode.PERFORMANCE);
   }
@@ -103,105 +106,67 @@ public class MetricCollector extends AbstractActor {
   }
 
   @Override
-  public Receive createReceive() {
-    return ReceiveBuilder.create()
-        .match(DslEvent.class, this::persist)
-        .match(EndTestEvent.class, this::activateTermination)
-        .build();
+  public void onBatch(final List<EventSlot> events) {
+    for (var slot : events) {
+      if (slot.getKind() == EventSlot.Kind.DSL) {
+        metricTable.record(slot);
+        liveMetrics.record(slot);
+      } else if (slot.getKind() == EventSlot.Kind.HEALTH) {
+        generatorHealth.record(slot.getMeasurementPoint(), slot.getElapsed());
+      }
+    }
   }
 
-  private void activateTermination(final EndTestEvent endEvent) {
+  /**
+   * Stops the report timer and prints out the final report.
+   * <p>
+   *
+   * @param endEvent End of test event.
+   */
+  public void activateTermination(final EndTestEvent endEvent) {
     if (receivedTerminationEvent) {
-      sender().tell(MSG_OK, self());
       return;
     }
 
     flushReport(endEvent);
     this.receivedTerminationEvent = true;
     this.timer.cancel();
-    sender().tell(MSG_OK, self());
   }
 
-  private void persist(final DslEvent logEvent) {
-
-    var countKey = String.format("Count/%s/%s/%s",
-        logEvent.getParentMeasurementPoint(),
-        logEvent.getMeasurementPoint(),
-        logEvent.getStatus());
-
-    var responseTypeKey = String.format("ResponseTime/%s/%s/%s",
-        logEvent.getParentMeasurementPoint(),
-        logEvent.getMeasurementPoint(),
-        logEvent.getStatus());
-
-    var verificationTypeKey = String.format("Verification/%s/%s/%s",
-        logEvent.getParentMeasurementPoint(),
-        logEvent.getMeasurementPoint(),
-        logEvent.getStatus());
-
-    if (!performanceStats.containsKey(responseTypeKey)) {
-      performanceStats.put(responseTypeKey, new SummaryStatistics());
-    }
-
-    if (!performanceRollingStats.containsKey(responseTypeKey)) {
-      var descriptiveStatistics = new DescriptiveStatistics();
-      descriptiveStatistics.setWindowSize(100);
-      performanceRollingStats.put(responseTypeKey, descriptiveStatistics);
-    }
-
-    if (!performanceMetrics.containsKey(countKey)) {
-      performanceMetrics.put(countKey, 0L);
-    }
-
-    if (!performanceMetrics.containsKey(responseTypeKey)) {
-      performanceMetrics.put(responseTypeKey, 0L);
-    }
-
-    if (!verificationResult.containsKey(verificationTypeKey)) {
-      verificationResult.put(responseTypeKey, "");
-    }
-
-    VerificationInfo verificationInfo = logEvent.getVerificationInfo();
-    if (verificationInfo != null) {
-      boolean testResult = verificationInfo.getPredicate().test(logEvent.getStatus());
-      verificationResult.put(verificationTypeKey,
-          getVerificationResult(testResult) + (!testResult ?
-              "  Expected " + verificationInfo.getDescription() + " but was " + logEvent.getStatus()
-              : ""));
-    }
-
-    var currVal = performanceMetrics.get(countKey);
-    performanceMetrics.put(countKey, ++currVal);
-
-    var currElapsed = performanceMetrics.get(responseTypeKey);
-    performanceMetrics.put(responseTypeKey, currElapsed + logEvent.getElapsed());
-
-    performanceStats.get(responseTypeKey).addValue(logEvent.getElapsed());
-    performanceRollingStats.get(responseTypeKey).addValue(logEvent.getElapsed());
+  @Override
+  public boolean acceptsHealthSamples() {
+    return true;
   }
 
-  private String getVerificationResult(Boolean testResult) {
-    return testResult ? "SUCCESS" : "FAIL";
+  @Override
+  public void close() {
+    this.timer.cancel();
   }
 
   private void flushReport(EndTestEvent event) {
-    if (performanceMetrics.isEmpty()) {
+    if (metricTable.isEmpty()) {
       System.out.println("There is no record in measurement yet. Test is running...");
       return;
     }
 
+    metricTable.roll();
+
     var consoleOutputView = new PerformanceConsoleOutputView(CONTAINER_WIDTH,
         numberOfUsers,
         startTime,
         event != null ? event.getEndTestTime() : null,
         duration,
-        verificationResult,
-        performanceMetrics,
-        performanceStats,
-        performanceRollingStats);
+        metricTable.getRows(),
+        metricTable.getStageRows(),
+        metricTable.getPhaseRows(),
+        generatorHealth);
 
+    System.out.println(consoleOutputView.getView());
+    generatorHealth.reset();
+  }
 
-        System.out.println(consoleOutputView.getView());
+  public LiveMetrics getLiveMetrics() {
+    return liveMetrics;
   }
 
   public static class EndTestEvent {
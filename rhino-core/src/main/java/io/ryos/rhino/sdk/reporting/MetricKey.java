@@ -0,0 +1,75 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.reporting;
+
+/**
+ * Metric key identifies the series, the measurements are reported in, by the scenario, the
+ * measurement point and the status. Keys are interned by {@link MetricKeys} into dense ids, so
+ * the reporters can keep their counters and histograms in arrays indexed by the id.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class MetricKey {
+
+  private final int id;
+  private final int scenarioId;
+  private final int measurementPointId;
+  private final int statusId;
+
+  MetricKey(final int id, final int scenarioId, final int measurementPointId,
+      final int statusId) {
+    this.id = id;
+    this.scenarioId = scenarioId;
+    this.measurementPointId = measurementPointId;
+    this.statusId = statusId;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public int getScenarioId() {
+    return scenarioId;
+  }
+
+  public String getScenario() {
+    return EventKeys.nameOf(scenarioId);
+  }
+
+  public int getMeasurementPointId() {
+    return measurementPointId;
+  }
+
+  public String getMeasurementPoint() {
+    return EventKeys.nameOf(measurementPointId);
+  }
+
+  public int getStatusId() {
+    return statusId;
+  }
+
+  public String getStatus() {
+    return EventKeys.nameOf(statusId);
+  }
+
+  @Override
+  public String toString() {
+    return getScenario() + "/" + getMeasurementPoint() + "/" + getStatus();
+  }
+}
@@ -0,0 +1,189 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.reporting;
+
+import java.util.Arrays;
+
+/**
+ * Interns the {@link MetricKey}s, i.e the triples of scenario, measurement point and status
+ * {@link EventKeys} ids, into dense integer ids starting at zero. Looking up a known key neither
+ * allocates nor takes a lock, as the lookup table is replaced, instead of modified, once a new
+ * key is registered, which happens once per series only.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class MetricKeys {
+
+  private static final int ID_BITS = 21;
+  private static final int MAX_EVENT_KEY_ID = (1 << ID_BITS) - 1;
+  private static final int INITIAL_CAPACITY = 64;
+  private static final long EMPTY = 0L;
+
+  private static volatile Table table = new Table(INITIAL_CAPACITY * 2);
+  private static volatile MetricKey[] keys = new MetricKey[INITIAL_CAPACITY];
+  private static volatile int size;
+
+  private MetricKeys() {
+  }
+
+  /**
+   * Returns the id of the key given, and assigns a new one if the key is not yet known.
+   * <p>
+   *
+   * @param scenarioId {@link EventKeys} id of the scenario.
+   * @param measurementPointId {@link EventKeys} id of the measurement point.
+   * @param statusId {@link EventKeys} id of the status.
+   * @return Id of the key.
+   */
+  public static int idOf(final int scenarioId, final int measurementPointId, final int statusId) {
+    var packed = pack(scenarioId, measurementPointId, statusId);
+    var id = table.get(packed);
+    if (id >= 0) {
+      return id;
+    }
+    return register(packed, scenarioId, measurementPointId, statusId);
+  }
+
+  /**
+   * Returns the id of the key of the DSL event in the slot given.
+   * <p>
+   *
+   * @param slot Event slot.
+   * @return Id of the key.
+   */
+  public static int idOf(final EventSlot slot) {
+    return idOf(slot.getParentMeasurementPointId(), slot.getMeasurementPointId(),
+        slot.getStatusId());
+  }
+
+  private static synchronized int register(final long packed, final int scenarioId,
+      final int measurementPointId, final int statusId) {
+    var current = table;
+    var id = current.get(packed);
+    if (id >= 0) {
+      return id;
+    }
+
+    id = size;
+    if (id == keys.length) {
+      keys = Arrays.copyOf(keys, id * 2);
+    }
+    keys[id] = new MetricKey(id, scenarioId, measurementPointId, statusId);
+    size = id + 1;
+    table = current.with(packed, id);
+    return id;
+  }
+
+  private static long pack(final int scenarioId, final int measurementPointId,
+      final int statusId) {
+    if (scenarioId > MAX_EVENT_KEY_ID || measurementPointId > MAX_EVENT_KEY_ID
+        || statusId > MAX_EVENT_KEY_ID) {
+      throw new IllegalStateException("Too many distinct measurement names.");
+    }
+    // Shifted by one, so that no key is packed into the empty marker.
+    return (((long) scenarioId << (2 * ID_BITS)) | ((long) measurementPointId << ID_BITS)
+        | statusId) + 1;
+  }
+
+  /**
+   * Resolves the id into the key.
+   * <p>
+   *
+   * @param id Id of the key.
+   * @return {@link MetricKey} instance.
+   */
+  public static MetricKey keyOf(final int id) {
+    return keys[id];
+  }
+
+  /**
+   * Number of the keys registered, i.e the keys have ids less than the size.
+   * <p>
+   *
+   * @return Number of the keys.
+   */
+  public static int size() {
+    return size;
+  }
+
+  /**
+   * Immutable open addressing table of the packed keys.
+   * <p>
+   */
+  private static final class Table {
+
+    private final long[] packedKeys;
+    private final int[] ids;
+    private final int mask;
+    private final int size;
+
+    private Table(final int capacity) {
+      this.packedKeys = new long[capacity];
+      this.ids = new int[capacity];
+      this.mask = capacity - 1;
+      this.size = 0;
+    }
+
+    private Table(final Table other, final int capacity, final int size) {
+      this.packedKeys = new long[capacity];
+      this.ids = new int[capacity];
+      this.mask = capacity - 1;
+      this.size = size;
+      for (int i = 0; i < other.packedKeys.length; i++) {
+        if (other.packedKeys[i] != EMPTY) {
+          put(other.packedKeys[i], other.ids[i]);
+        }
+      }
+    }
+
+    private int get(final long packed) {
+      var index = indexOf(packed);
+      while (packedKeys[index] != EMPTY) {
+        if (packedKeys[index] == packed) {
+          return ids[index];
+        }
+        index = (index + 1) & mask;
+      }
+      return -1;
+    }
+
+    private Table with(final long packed, final int id) {
+      // Kept at most half full, so the probe sequences stay short.
+      var capacity = (size + 1) * 2 > packedKeys.length ? packedKeys.length * 2
+          : packedKeys.length;
+      var copy = new Table(this, capacity, size + 1);
+      copy.put(packed, id);
+      return copy;
+    }
+
+    private void put(final long packed, final int id) {
+      var index = indexOf(packed);
+      while (packedKeys[index] != EMPTY) {
+        index = (index + 1) & mask;
+      }
+      packedKeys[index] = packed;
+      ids[index] = id;
+    }
+
+    private int indexOf(final long packed) {
+      var hash = packed * 0x9E3779B97F4A7C15L;
+      return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+  }
+}
@@ -0,0 +1,363 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.reporting;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Counters and latency histograms of the DSL events per {@link MetricKey}, kept in arrays indexed
+ * by the dense key id, so recording an event takes neither string building nor hashing. Events
+ * of a load stage are additionally recorded per stage, measurement point and status, for which
+ * the stage is interned in place of the scenario. The connection phases are summed up per
+ * scenario and measurement point, regardless of the status.
+ * <p>
+ *
+ * The table is recorded by a single writer, the worker thread of the metric collector, and read
+ * by the report timer. The columns are replaced by larger copies as new keys arrive.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+final class MetricTable {
+
+  private static final int INITIAL_CAPACITY = 64;
+  private static final int PHASE_COUNT = ConnectionPhases.PHASE_COUNT;
+  private static final ConnectionPhases.Phase[] PHASES = ConnectionPhases.Phase.values();
+  private static final String SUCCESS = "SUCCESS";
+  private static final String FAIL = "FAIL";
+  private static final Comparator<Row> KEY_ORDER = Comparator
+      .comparing((Row row) -> row.getKey().getScenario())
+      .thenComparing(row -> row.getKey().getMeasurementPoint())
+      .thenComparing(row -> row.getKey().getStatus());
+
+  private volatile Columns columns = new Columns(INITIAL_CAPACITY);
+
+  /**
+   * Records the DSL event.
+   * <p>
+   *
+   * @param slot DSL event slot.
+   */
+  void record(final EventSlot slot) {
+    var keyId = MetricKeys.idOf(slot);
+    var target = columnsFor(keyId);
+
+    // Single writer, so the plain read-modify-write is safe and lazySet publishes it.
+    target.counts.lazySet(keyId, target.counts.get(keyId) + 1);
+    target.serviceTimeSums.lazySet(keyId, target.serviceTimeSums.get(keyId) + slot.getElapsed());
+    target.responseTimeSums.lazySet(keyId,
+        target.responseTimeSums.get(keyId) + slot.getResponseTime());
+    histogramOf(target.serviceTimes, keyId).record(slot.getElapsed());
+    histogramOf(target.responseTimes, keyId).record(slot.getResponseTime());
+
+    var verificationInfo = slot.getVerificationInfo();
+    if (verificationInfo != null) {
+      var passed = verificationInfo.getPredicate().test(slot.getStatus());
+      target.verifications.lazySet(keyId, passed ? SUCCESS : FAIL + "  Expected "
+          + verificationInfo.getDescription() + " but was " + slot.getStatus());
+    }
+
+    if (slot.getLoadStageId() != 0) {
+      var stageKeyId = MetricKeys.idOf(slot.getLoadStageId(), slot.getMeasurementPointId(),
+          slot.getStatusId());
+      histogramOf(columnsFor(stageKeyId).stageServiceTimes, stageKeyId)
+          .record(slot.getElapsed());
+    }
+
+    var connectionPhases = slot.getConnectionPhases();
+    if (!connectionPhases.isEmpty()) {
+      recordPhases(slot, connectionPhases);
+    }
+  }
+
+  private void recordPhases(final EventSlot slot, final ConnectionPhases connectionPhases) {
+    var stepKeyId = MetricKeys.idOf(slot.getParentMeasurementPointId(),
+        slot.getMeasurementPointId(), 0);
+    var target = columnsFor(stepKeyId);
+    for (var phase : PHASES) {
+      var duration = connectionPhases.get(phase);
+      if (duration != ConnectionPhases.NONE) {
+        var index = stepKeyId * PHASE_COUNT + phase.ordinal();
+        target.phaseCounts.lazySet(index, target.phaseCounts.get(index) + 1);
+        target.phaseSums.lazySet(index, target.phaseSums.get(index) + duration);
+      }
+    }
+  }
+
+  private Columns columnsFor(final int keyId) {
+    var current = columns;
+    if (keyId < current.capacity) {
+      return current;
+    }
+
+    var grown = new Columns(Math.max(current.capacity * 2, keyId + 1), current);
+    columns = grown;
+    return grown;
+  }
+
+  private static LatencyHistogram histogramOf(
+      final AtomicReferenceArray<LatencyHistogram> histograms, final int keyId) {
+    var histogram = histograms.get(keyId);
+    if (histogram == null) {
+      histogram = new LatencyHistogram();
+      histograms.set(keyId, histogram);
+    }
+    return histogram;
+  }
+
+  boolean isEmpty() {
+    var current = columns;
+    for (int i = 0; i < current.capacity; i++) {
+      if (current.counts.get(i) > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Closes the current interval of all histograms.
+   * <p>
+   */
+  void roll() {
+    var current = columns;
+    for (int i = 0; i < current.capacity; i++) {
+      roll(current.serviceTimes.get(i));
+      roll(current.responseTimes.get(i));
+      roll(current.stageServiceTimes.get(i));
+    }
+  }
+
+  private static void roll(final LatencyHistogram histogram) {
+    if (histogram != null) {
+      histogram.roll();
+    }
+  }
+
+  /**
+   * Returns the rows of the keys recorded, ordered by scenario, measurement point and status.
+   * <p>
+   *
+   * @return Rows of the keys.
+   */
+  List<Row> getRows() {
+    var current = columns;
+    var rows = new ArrayList<Row>();
+    for (int i = 0; i < current.capacity; i++) {
+      var count = current.counts.get(i);
+      var serviceTimes = current.serviceTimes.get(i);
+      var responseTimes = current.responseTimes.get(i);
+      if (count > 0 && serviceTimes != null && responseTimes != null) {
+        rows.add(new Row(MetricKeys.keyOf(i), count, current.serviceTimeSums.get(i),
+            current.responseTimeSums.get(i), serviceTimes, responseTimes,
+            current.verifications.get(i)));
+      }
+    }
+    rows.sort(KEY_ORDER);
+    return rows;
+  }
+
+  /**
+   * Returns the rows of the stages recorded, whose keys carry the stage in place of the scenario.
+   * <p>
+   *
+   * @return Rows of the stages.
+   */
+  List<Row> getStageRows() {
+    var current = columns;
+    var rows = new ArrayList<Row>();
+    for (int i = 0; i < current.capacity; i++) {
+      var serviceTimes = current.stageServiceTimes.get(i);
+      if (serviceTimes != null) {
+        rows.add(new Row(MetricKeys.keyOf(i), serviceTimes.getCumulative().getTotalCount(), 0L,
+            0L, serviceTimes, null, null));
+      }
+    }
+    rows.sort(KEY_ORDER);
+    return rows;
+  }
+
+  /**
+   * Returns the connection phases per scenario and measurement point, whose keys carry no status.
+   * <p>
+   *
+   * @return Rows of the connection phases.
+   */
+  List<PhaseRow> getPhaseRows() {
+    var current = columns;
+    var rows = new ArrayList<PhaseRow>();
+    for (int i = 0; i < current.capacity; i++) {
+      var counts = new long[PHASE_COUNT];
+      var sums = new long[PHASE_COUNT];
+      var recorded = false;
+      for (int p = 0; p < PHASE_COUNT; p++) {
+        counts[p] = current.phaseCounts.get(i * PHASE_COUNT + p);
+        sums[p] = current.phaseSums.get(i * PHASE_COUNT + p);
+        recorded |= counts[p] > 0;
+      }
+      if (recorded) {
+        rows.add(new PhaseRow(MetricKeys.keyOf(i), counts, sums));
+      }
+    }
+    rows.sort(Comparator.comparing((PhaseRow row) -> row.getKey().getScenario())
+        .thenComparing(row -> row.getKey().getMeasurementPoint()));
+    return rows;
+  }
+
+  /**
+   * Snapshot of the counters and the histograms of a key.
+   * <p>
+   */
+  static final class Row {
+
+    private final MetricKey key;
+    private final long count;
+    private final long serviceTimeSum;
+    private final long responseTimeSum;
+    private final LatencyHistogram serviceTimes;
+    private final LatencyHistogram responseTimes;
+    private final String verification;
+
+    private Row(final MetricKey key, final long count, final long serviceTimeSum,
+        final long responseTimeSum, final LatencyHistogram serviceTimes,
+        final LatencyHistogram responseTimes, final String verification) {
+      this.key = key;
+      this.count = count;
+      this.serviceTimeSum = serviceTimeSum;
+      this.responseTimeSum = responseTimeSum;
+      this.serviceTimes = serviceTimes;
+      this.responseTimes = responseTimes;
+      this.verification = verification;
+    }
+
+    MetricKey getKey() {
+      return key;
+    }
+
+    long getCount() {
+      return count;
+    }
+
+    long getServiceTimeSum() {
+      return serviceTimeSum;
+    }
+
+    long getResponseTimeSum() {
+      return responseTimeSum;
+    }
+
+    LatencyHistogram getServiceTimes() {
+      return serviceTimes;
+    }
+
+    LatencyHistogram getResponseTimes() {
+      return responseTimes;
+    }
+
+    String getVerification() {
+      return verification;
+    }
+  }
+
+  /**
+   * Snapshot of the connection phases of a scenario and measurement point.
+   * <p>
+   */
+  static final class PhaseRow {
+
+    private final MetricKey key;
+    private final long[] counts;
+    private final long[] sums;
+
+    private PhaseRow(final MetricKey key, final long[] counts, final long[] sums) {
+      this.key = key;
+      this.counts = counts;
+      this.sums = sums;
+    }
+
+    MetricKey getKey() {
+      return key;
+    }
+
+    /**
+     * Number of the requests, which went through the phase, e.g requests on pooled connections
+     * do not connect.
+     * <p>
+     */
+    long getCount(final ConnectionPhases.Phase phase) {
+      return counts[phase.ordinal()];
+    }
+
+    /**
+     * Mean duration of the phase in micros, or {@code -1} if no request went through it.
+     * <p>
+     */
+    double getMean(final ConnectionPhases.Phase phase) {
+      var count = counts[phase.ordinal()];
+      return count > 0 ? (double) sums[phase.ordinal()] / count : -1d;
+    }
+  }
+
+  private static final class Columns {
+
+    private final int capacity;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray serviceTimeSums;
+    private final AtomicLongArray responseTimeSums;
+    private final AtomicReferenceArray<LatencyHistogram> serviceTimes;
+    private final AtomicReferenceArray<LatencyHistogram> responseTimes;
+    private final AtomicReferenceArray<LatencyHistogram> stageServiceTimes;
+    private final AtomicReferenceArray<String> verifications;
+    private final AtomicLongArray phaseCounts;
+    private final AtomicLongArray phaseSums;
+
+    private Columns(final int capacity) {
+      this.capacity = capacity;
+      this.counts = new AtomicLongArray(capacity);
+      this.serviceTimeSums = new AtomicLongArray(capacity);
+      this.responseTimeSums = new AtomicLongArray(capacity);
+      this.serviceTimes = new AtomicReferenceArray<>(capacity);
+      this.responseTimes = new AtomicReferenceArray<>(capacity);
+      this.stageServiceTimes = new AtomicReferenceArray<>(capacity);
+      this.verifications = new AtomicReferenceArray<>(capacity);
+      this.phaseCounts = new AtomicLongArray(capacity * PHASE_COUNT);
+      this.phaseSums = new AtomicLongArray(capacity * PHASE_COUNT);
+    }
+
+    private Columns(final int capacity, final Columns other) {
+      this(capacity);
+      for (int i = 0; i < other.capacity; i++) {
+        counts.set(i, other.counts.get(i));
+        serviceTimeSums.set(i, other.serviceTimeSums.get(i));
+        responseTimeSums.set(i, other.responseTimeSums.get(i));
+        serviceTimes.set(i, other.serviceTimes.get(i));
+        responseTimes.set(i, other.responseTimes.get(i));
+        stageServiceTimes.set(i, other.stageServiceTimes.get(i));
+        verifications.set(i, other.verifications.get(i));
+        for (int p = 0; p < PHASE_COUNT; p++) {
+          phaseCounts.set(i * PHASE_COUNT + p, other.phaseCounts.get(i * PHASE_COUNT + p));
+          phaseSums.set(i * PHASE_COUNT + p, other.phaseSums.get(i * PHASE_COUNT + p));
+        }
+      }
+    }
+  }
+}
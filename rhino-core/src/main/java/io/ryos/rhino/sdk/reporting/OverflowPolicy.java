@@ -0,0 +1,39 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.reporting;
+
+/**
+ * Policy applied by the event dispatcher, if the queue of a {@link ResultSink} is full.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public enum OverflowPolicy {
+
+  /**
+   * Waits till the sink frees space in its queue. No event is lost, but a slow sink slows down
+   * the dispatcher, and eventually the simulation.
+   */
+  BLOCK,
+
+  /**
+   * Drops the event and counts it. The number of dropped events is reported once the sink is
+   * closed.
+   */
+  DROP
+}
@@ -21,109 +21,106 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
-import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+import org.HdrHistogram.Histogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class PerformanceConsoleOutputView {
 
-  private static final String VERIFICATION = "Verification/";
-  private static final String COUNT = "Count/";
-  private static final String RESPONSE_TIME = "ResponseTime/";
-  private static final String BLANK_STR = "";
   private static final int HEADER_LEFT_PADDING_SIZE = 1;
   private static final Logger LOG = LoggerFactory.getLogger(PerformanceConsoleOutputView.class);
   private static final String DATETIME_PATTERN = "HH:mm:ss";
   private static final String NOT_AVAILABLE = "N/A";
   private static final String EMPTY_SPACE = " ";
   private static final String BORDER_LINE_STYLE = "=";
-  private static final String SPLITTER = "/";
   private static final char LB = '\n';
   private static final String HEADER_LINE_STYLE = "-";
+  private static final double MICROS_PER_MILLI = 1000d;
 
   private final int containerWidth;
   private final int numberOfUsers;
   private final Instant startTime;
   private final Instant endTime;
   private final Duration duration;
-  private final Map<String, String> verification;
-  private final Map<String, Long> metrics;
-  private final Map<String, SummaryStatistics> stats;
-  private final Map<String, DescriptiveStatistics> rollingStats;
+  private final List<MetricTable.Row> rows;
+  private final List<MetricTable.Row> stageRows;
+  private final List<MetricTable.PhaseRow> phaseRows;
+  private final GeneratorHealth generatorHealth;
 
-  public PerformanceConsoleOutputView(int containerWidth,
+  PerformanceConsoleOutputView(int containerWidth,
       int numberOfUsers, Instant startTime, Instant endTime, Duration duration,
-      Map<String, String> verification,
-      Map<String, Long> metrics,
-      Map<String, SummaryStatistics> stats,
-      Map<String, DescriptiveStatistics> rollingStats) {
+      List<MetricTable.Row> rows,
+      List<MetricTable.Row> stageRows,
+      List<MetricTable.PhaseRow> phaseRows,
+      GeneratorHealth generatorHealth) {
     this.containerWidth = containerWidth;
     this.numberOfUsers = numberOfUsers;
     this.startTime = startTime;
     this.endTime = endTime;
     this.duration = duration;
-    this.metrics = metrics;
-    this.stats = stats;
-    this.rollingStats = rollingStats;
-    this.verification = verification;
+    this.rows = rows;
+    this.stageRows = stageRows;
+    this.phaseRows = phaseRows;
+    this.generatorHealth = generatorHealth;
   }
 
   public String getView() {
-    if (metrics.isEmpty()) {
+    if (rows.isEmpty()) {
       System.out.println("There is no record in measurement yet. Test is running...");
       return "";
     }
 
-    var verificationResults = verification.entrySet()
-        .stream()
-        .filter(e -> e.getKey().startsWith(VERIFICATION))
-        .map(e -> formatVerifyKey(e.getKey()) + EMPTY_SPACE + String.format("%5s",
-            e.getValue()))
+    var verificationResults = rows.stream()
+        .filter(row -> row.getVerification() != null)
+        .map(row -> formatVerifyKey(row.getKey()) + EMPTY_SPACE + String.format("%5s",
+            row.getVerification()))
         .collect(Collectors.toList());
 
-    var countMetrics = metrics.entrySet()
-        .stream()
-        .filter(e -> e.getKey().startsWith(COUNT))
-        .map(e -> formatKey(e.getKey()) + EMPTY_SPACE + String.format("%5s", Math.round(e.getValue())))
+    var countMetrics = rows.stream()
+        .map(row -> formatKey(row.getKey()) + EMPTY_SPACE + String.format("%5s", row.getCount()))
         .collect(Collectors.toList());
 
-    var responseTimeStats = stats.entrySet()
-        .stream()
-        .filter(e -> e.getKey().startsWith(RESPONSE_TIME))
-        .map(e -> formatKey(e.getKey()) + EMPTY_SPACE + String.format("%5s ms", Math.round(e.getValue().getMean())))
+    var responseTimeStats = rows.stream()
+        .map(row -> formatKey(row.getKey()) + EMPTY_SPACE + String.format("%5s ms",
+            Math.round(row.getServiceTimes().getCumulative().getMean())))
         .collect(Collectors.toList());
 
-    var responseTimeRollingStats = rollingStats.entrySet()
-        .stream()
-        .filter(e -> e.getKey().startsWith(RESPONSE_TIME))
-        .map(e -> formatKey(e.getKey()) + EMPTY_SPACE
-            + String.format("%5s ms %5s ms %5s ms %5s ms",
-            Math.round(e.getValue().getMean()),
-            Math.round(e.getValue().getPercentile(50.0)),
-            Math.round(e.getValue().getPercentile(96.0)),
-            Math.round(e.getValue().getPercentile(99.0)))
-        )
+    var intendedResponseTimeStats = rows.stream()
+        .map(row -> formatKey(row.getKey()) + EMPTY_SPACE + String.format("%5s ms",
+            Math.round(row.getResponseTimes().getCumulative().getMean())))
         .collect(Collectors.toList());
 
-    long overAllResponseTime = metrics.entrySet()
-        .stream()
-        .filter(e -> e.getKey().startsWith(RESPONSE_TIME))
-        .map(Entry::getValue)
-        .reduce(Long::sum).orElse(0L);
+    var stageStats = stageRows.stream()
+        .map(row -> formatKey(row.getKey()) + EMPTY_SPACE + String.format("%5s ms %5s ms %8s",
+            Math.round(row.getServiceTimes().getCumulative().getMean()),
+            row.getServiceTimes().getCumulative().getValueAtPercentile(99.0),
+            row.getServiceTimes().getCumulative().getTotalCount()))
+        .collect(Collectors.toList());
+
+    var responseTimePercentiles = formatPercentiles(MetricTable.Row::getServiceTimes,
+        LatencyHistogram::getCumulative);
+    var responseTimeIntervalPercentiles = formatPercentiles(MetricTable.Row::getServiceTimes,
+        LatencyHistogram::getInterval);
+    var intendedResponseTimePercentiles = formatPercentiles(MetricTable.Row::getResponseTimes,
+        LatencyHistogram::getCumulative);
 
-    long totalNumberOfRequests = metrics.entrySet()
-        .stream()
-        .filter(e -> e.getKey().startsWith(COUNT))
-        .map(Entry::getValue)
-        .reduce(Long::sum).orElse(0L);
+    long overAllResponseTime = 0L;
+    long overAllIntendedResponseTime = 0L;
+    long totalNumberOfRequests = 0L;
+    for (var row : rows) {
+      overAllResponseTime += row.getServiceTimeSum();
+      overAllIntendedResponseTime += row.getResponseTimeSum();
+      totalNumberOfRequests += row.getCount();
+    }
 
     long avgRT = -1;
+    long avgIntendedRT = -1;
     if (totalNumberOfRequests > 0) {
       avgRT = overAllResponseTime / totalNumberOfRequests;
+      avgIntendedRT = overAllIntendedResponseTime / totalNumberOfRequests;
     }
 
     StringBuilder output = new StringBuilder();
@@ -144,29 +141,100 @@ public class PerformanceConsoleOutputView {
     output.append(BORDER_LINE_STYLE.repeat(containerWidth)).append(LB);
     output.append(createHeader("Number of executions")).append(LB);
     output.append(String.join("\n", countMetrics)).append(LB);
-    output.append(createHeader("Response Time (overall avg)")).append(LB);
+    output.append(createHeader("Service Time (overall avg)")).append(LB);
     output.append(String.join("\n", responseTimeStats)).append(LB);
 
+    if (!intendedResponseTimeStats.isEmpty()) {
+      output.append(createHeader("Response Time from Intended Start (overall avg)")).append(LB);
+      output.append(String.join("\n", intendedResponseTimeStats)).append(LB);
+    }
+
+    if (!stageStats.isEmpty()) {
+      output.append(createHeader("Response Time per Stage")).append(LB);
+      output.append(String.format("%90s %5s %8s %8s", "status", "mean", "p99", "count"))
+          .append(LB);
+      output.append(HEADER_LINE_STYLE.repeat(containerWidth)).append(LB);
+      output.append(String.join("\n", stageStats)).append(LB);
+    }
+
+    if (!phaseRows.isEmpty()) {
+      output.append(createHeader("Connection Phases (avg ms)")).append(LB);
+      output.append(String.format("%87s %8s %8s %8s %8s", "dns", "connect", "tls", "ttfb",
+          "download")).append(LB);
+      output.append(HEADER_LINE_STYLE.repeat(containerWidth)).append(LB);
+      phaseRows.forEach(row -> output.append(formatPhases(row)).append(LB));
+    }
+
     if (!verificationResults.isEmpty()) {
       output.append(createHeader("Verification")).append(LB);
       output.append(String.join("\n", verificationResults)).append(LB).append(LB);
     }
 
     if ("full".equalsIgnoreCase(SimulationConfig.getSimulationOutputStyle())) {
-      output.append(createHeader("Rolling Stats (100 sample-window)")).append(LB);
-      output.append(String.format("%90s %5s %8s %8s %8s", "status", "mean", "median", "p96", "p99"))
-          .append(LB);
-      output.append(HEADER_LINE_STYLE.repeat(containerWidth)).append(LB);
-      output.append(String.join("\n", responseTimeRollingStats)).append(LB).append(LB);
+      appendPercentiles(output, "Service Time Percentiles (entire run)",
+          responseTimePercentiles);
+      appendPercentiles(output, "Service Time Percentiles (last interval)",
+          responseTimeIntervalPercentiles);
+      appendPercentiles(output, "Response Time from Intended Start Percentiles (entire run)",
+          intendedResponseTimePercentiles);
+    }
+    if (generatorHealth != null && generatorHealth.hasSamples()) {
+      output.append(createHeader("Load Generator (peak)")).append(LB);
+      output.append("> ").append(generatorHealth.getSummary()).append(LB);
+      var shardSummary = generatorHealth.getShardSummary();
+      if (!shardSummary.isEmpty()) {
+        output.append("> HTTP client ").append(shardSummary).append(LB);
+      }
+      var downloadSummary = generatorHealth.getDownloadSummary();
+      if (!downloadSummary.isEmpty()) {
+        output.append("> HTTP client ").append(downloadSummary).append(LB);
+      }
+      var warnings = generatorHealth.getWarnings();
+      if (!warnings.isEmpty()) {
+        output.append("> WARNING: The load generator is the bottleneck, the latencies include "
+            + "client-side delays.").append(LB);
+        warnings.forEach(warning -> output.append(">   ").append(warning).append(LB));
+      }
     }
     output.append(BORDER_LINE_STYLE.repeat(containerWidth)).append(LB);
-    output.append(String.format("%70s %25.9s ms", "Average Response Time", avgRT)).append(LB);
+    output.append(String.format("%70s %25.9s ms", "Average Service Time", avgRT)).append(LB);
+    output.append(String.format("%70s %25.9s ms", "Average Response Time (intended start)",
+        avgIntendedRT)).append(LB);
     output.append(String.format("%70s %19.9s ", "Total Request", totalNumberOfRequests)).append(LB);
     output.append(BORDER_LINE_STYLE.repeat(containerWidth)).append(LB);
 
     return output.toString();
   }
 
+  private List<String> formatPercentiles(
+      final Function<MetricTable.Row, LatencyHistogram> latencySelector,
+      final Function<LatencyHistogram, Histogram> histogramSelector) {
+    return rows.stream()
+        .map(row -> {
+          var histogram = histogramSelector.apply(latencySelector.apply(row));
+          return formatKey(row.getKey()) + EMPTY_SPACE
+              + String.format("%5s ms %5s ms %5s ms %5s ms %5s ms",
+              histogram.getValueAtPercentile(50.0),
+              histogram.getValueAtPercentile(90.0),
+              histogram.getValueAtPercentile(99.0),
+              histogram.getValueAtPercentile(99.9),
+              histogram.getMaxValue());
+        })
+        .collect(Collectors.toList());
+  }
+
+  private void appendPercentiles(final StringBuilder output, final String header,
+      final List<String> percentiles) {
+    if (percentiles.isEmpty()) {
+      return;
+    }
+    output.append(createHeader(header)).append(LB);
+    output.append(String.format("%90s %5s %8s %8s %8s %8s", "status", "p50", "p90", "p99",
+        "p99.9", "max")).append(LB);
+    output.append(HEADER_LINE_STYLE.repeat(containerWidth)).append(LB);
+    output.append(String.join("\n", percentiles)).append(LB).append(LB);
+  }
+
   private String createHeader(final String text) {
     return HEADER_LINE_STYLE.repeat(HEADER_LEFT_PADDING_SIZE) + EMPTY_SPACE + text + EMPTY_SPACE
         + HEADER_LINE_STYLE
@@ -183,25 +251,24 @@ public class PerformanceConsoleOutputView {
         .format(dateTime);
   }
 
-  private String formatVerifyKey(final String key) {
-    var normalizedStr = key
-        .replace(VERIFICATION, BLANK_STR);
-    var sections = normalizedStr.split(SPLITTER);
-    if (sections.length > 2) {
-      return String.format("> %-38.39s%-46.57s", sections[0], sections[1]);
-    }
-    return BLANK_STR;
+  private String formatVerifyKey(final MetricKey key) {
+    return String.format("> %-38.39s%-46.57s", key.getScenario(), key.getMeasurementPoint());
   }
 
-  private String formatKey(final String key) {
-    var normalizedStr = key
-        .replace(RESPONSE_TIME, BLANK_STR)
-        .replace(VERIFICATION, BLANK_STR)
-        .replace(COUNT, BLANK_STR);
-    var sections = normalizedStr.split(SPLITTER);
-    if (sections.length > 2) {
-      return String.format("> %-38.39s%-38.39s%12.12s", sections[0], sections[1], sections[2]);
+  private String formatPhases(final MetricTable.PhaseRow row) {
+    var phases = new StringBuilder(String.format("> %-38.39s%-38.39s", row.getKey().getScenario(),
+        row.getKey().getMeasurementPoint()));
+    for (var phase : ConnectionPhases.Phase.values()) {
+      var mean = row.getMean(phase);
+      phases.append(EMPTY_SPACE).append(mean < 0
+          ? String.format("%8s", "-")
+          : String.format("%8.2f", mean / MICROS_PER_MILLI));
     }
-    return BLANK_STR;
+    return phases.toString();
+  }
+
+  private String formatKey(final MetricKey key) {
+    return String.format("> %-38.39s%-38.39s%12.12s", key.getScenario(),
+        key.getMeasurementPoint(), key.getStatus());
   }
 }
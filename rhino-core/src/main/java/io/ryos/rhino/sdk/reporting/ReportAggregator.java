@@ -0,0 +1,375 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.reporting;
+
+import io.ryos.rhino.sdk.reporting.UserEvent.EventType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Folds a stream of events, e.g read from a simulation log, into the statistics of the HTML
+ * report: throughput, latency percentiles and active users over time, latency statistics per
+ * measurement point and the error breakdown by status. The memory footprint is bounded
+ * regardless of the number of events. The timeline holds at most {@link #MAX_TIME_BUCKETS}
+ * buckets, and once a run outgrows them, adjacent buckets are merged and the bucket width is
+ * doubled.
+ * <p>
+ *
+ * The aggregator is not thread-safe.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class ReportAggregator {
+
+  static final int MAX_TIME_BUCKETS = 512;
+
+  private static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toMillis(1);
+  private static final int TIMELINE_SIGNIFICANT_DIGITS = 2;
+  private static final int STEP_SIGNIFICANT_DIGITS = 3;
+  private static final int INITIAL_CAPACITY = 64;
+  private static final String GATLING_OK = "OK";
+  private static final String GATLING_KO = "KO";
+
+  private final List<TimeBucket> timeline = new ArrayList<>();
+  private StepStats[] stepsById = new StepStats[INITIAL_CAPACITY];
+  private long[] countsByKeyId = new long[INITIAL_CAPACITY];
+
+  private long originSecond = Long.MIN_VALUE;
+  private long bucketWidthSecs = 1L;
+  private long firstTimestamp = Long.MAX_VALUE;
+  private long lastTimestamp = Long.MIN_VALUE;
+  private long totalCount;
+  private long totalErrors;
+  private long activeUsers;
+  private long peakUsers;
+
+  /**
+   * Folds the event into the report.
+   * <p>
+   *
+   * @param slot Event slot.
+   */
+  public void add(final EventSlot slot) {
+    if (slot.getKind() == EventSlot.Kind.DSL) {
+      addRequest(slot);
+    } else if (slot.getKind() == EventSlot.Kind.USER) {
+      addUser(slot);
+    }
+  }
+
+  private void addRequest(final EventSlot slot) {
+    var error = isError(slot.getStatus());
+    var elapsed = clamp(slot.getElapsed());
+    totalCount++;
+    if (error) {
+      totalErrors++;
+    }
+    firstTimestamp = Math.min(firstTimestamp, slot.getStart());
+    lastTimestamp = Math.max(lastTimestamp, slot.getEnd());
+
+    var bucket = bucketOf(slot.getEnd());
+    bucket.count++;
+    if (error) {
+      bucket.errors++;
+    }
+    bucket.latencies.recordValue(elapsed);
+
+    var stepKeyId = MetricKeys.idOf(slot.getParentMeasurementPointId(),
+        slot.getMeasurementPointId(), 0);
+    stepOf(stepKeyId).add(elapsed, error);
+
+    var keyId = MetricKeys.idOf(slot);
+    if (keyId >= countsByKeyId.length) {
+      countsByKeyId = Arrays.copyOf(countsByKeyId, Math.max(countsByKeyId.length * 2,
+          keyId + 1));
+    }
+    countsByKeyId[keyId]++;
+  }
+
+  private void addUser(final EventSlot slot) {
+    if (slot.getEventType() == EventType.START) {
+      activeUsers++;
+    } else if (slot.getEventType() == EventType.END && activeUsers > 0) {
+      activeUsers--;
+    } else {
+      return;
+    }
+
+    peakUsers = Math.max(peakUsers, activeUsers);
+    var bucket = bucketOf(slot.getEnd());
+    bucket.users = Math.max(bucket.users, activeUsers);
+  }
+
+  private TimeBucket bucketOf(final long epochMillis) {
+    var second = TimeUnit.MILLISECONDS.toSeconds(epochMillis);
+    if (originSecond == Long.MIN_VALUE) {
+      originSecond = second;
+    }
+
+    var index = Math.max(0L, (second - originSecond) / bucketWidthSecs);
+    while (index >= MAX_TIME_BUCKETS) {
+      compact();
+      index = (second - originSecond) / bucketWidthSecs;
+    }
+    while (timeline.size() <= index) {
+      timeline.add(new TimeBucket());
+    }
+    return timeline.get((int) index);
+  }
+
+  /**
+   * Merges adjacent buckets, which doubles the bucket width.
+   * <p>
+   */
+  private void compact() {
+    var merged = new ArrayList<TimeBucket>((timeline.size() + 1) / 2);
+    for (int i = 0; i < timeline.size(); i += 2) {
+      var bucket = timeline.get(i);
+      if (i + 1 < timeline.size()) {
+        bucket.merge(timeline.get(i + 1));
+      }
+      merged.add(bucket);
+    }
+    timeline.clear();
+    timeline.addAll(merged);
+    bucketWidthSecs *= 2;
+  }
+
+  private StepStats stepOf(final int stepKeyId) {
+    if (stepKeyId >= stepsById.length) {
+      stepsById = Arrays.copyOf(stepsById, Math.max(stepsById.length * 2, stepKeyId + 1));
+    }
+    var step = stepsById[stepKeyId];
+    if (step == null) {
+      step = new StepStats(MetricKeys.keyOf(stepKeyId));
+      stepsById[stepKeyId] = step;
+    }
+    return step;
+  }
+
+  private static long clamp(final long value) {
+    return Math.min(Math.max(value, 0L), HIGHEST_TRACKABLE_VALUE);
+  }
+
+  /**
+   * Statuses other than 2xx and 3xx count as errors, as well as the KO status of Gatling logs.
+   * <p>
+   */
+  static boolean isError(final String status) {
+    if (GATLING_OK.equals(status)) {
+      return false;
+    }
+    if (GATLING_KO.equals(status)) {
+      return true;
+    }
+    return status == null || status.length() != 3 || status.charAt(0) != '2'
+        && status.charAt(0) != '3';
+  }
+
+  /**
+   * Start of the first bucket in epoch seconds.
+   * <p>
+   *
+   * @return Start of the timeline.
+   */
+  public long getOriginSecond() {
+    return originSecond;
+  }
+
+  public long getBucketWidthSecs() {
+    return bucketWidthSecs;
+  }
+
+  public List<TimeBucket> getTimeline() {
+    return Collections.unmodifiableList(timeline);
+  }
+
+  /**
+   * Returns the statistics per scenario and measurement point in their order.
+   * <p>
+   *
+   * @return Statistics of the steps.
+   */
+  public List<StepStats> getSteps() {
+    var steps = new ArrayList<StepStats>();
+    for (var step : stepsById) {
+      if (step != null) {
+        steps.add(step);
+      }
+    }
+    steps.sort(Comparator.comparing((StepStats step) -> step.getKey().getScenario())
+        .thenComparing(step -> step.getKey().getMeasurementPoint()));
+    return steps;
+  }
+
+  /**
+   * Returns the number of the failed requests per scenario, measurement point and status, the most
+   * frequent first.
+   * <p>
+   *
+   * @return Error breakdown.
+   */
+  public List<StatusCount> getErrorBreakdown() {
+    var errors = new ArrayList<StatusCount>();
+    for (int keyId = 0; keyId < countsByKeyId.length; keyId++) {
+      if (countsByKeyId[keyId] > 0) {
+        var key = MetricKeys.keyOf(keyId);
+        if (isError(key.getStatus())) {
+          errors.add(new StatusCount(key, countsByKeyId[keyId]));
+        }
+      }
+    }
+    errors.sort(Comparator.comparingLong(StatusCount::getCount).reversed());
+    return errors;
+  }
+
+  public long getFirstTimestamp() {
+    return firstTimestamp;
+  }
+
+  public long getLastTimestamp() {
+    return lastTimestamp;
+  }
+
+  public long getTotalCount() {
+    return totalCount;
+  }
+
+  public long getTotalErrors() {
+    return totalErrors;
+  }
+
+  public long getPeakUsers() {
+    return peakUsers;
+  }
+
+  /**
+   * Requests, latencies and active users within a bucket of the timeline.
+   * <p>
+   */
+  public static final class TimeBucket {
+
+    private final Histogram latencies = new Histogram(HIGHEST_TRACKABLE_VALUE,
+        TIMELINE_SIGNIFICANT_DIGITS);
+    private long count;
+    private long errors;
+
+    /**
+     * Peak of the active users within the bucket, or {@code -1} if no user started or ended.
+     * <p>
+     */
+    private long users = -1L;
+
+    private void merge(final TimeBucket other) {
+      latencies.add(other.latencies);
+      count += other.count;
+      errors += other.errors;
+      users = Math.max(users, other.users);
+    }
+
+    public Histogram getLatencies() {
+      return latencies;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getErrors() {
+      return errors;
+    }
+
+    public long getUsers() {
+      return users;
+    }
+  }
+
+  /**
+   * Latency statistics of a measurement point over the entire run.
+   * <p>
+   */
+  public static final class StepStats {
+
+    private final MetricKey key;
+    private final Histogram latencies = new Histogram(HIGHEST_TRACKABLE_VALUE,
+        STEP_SIGNIFICANT_DIGITS);
+    private long errors;
+
+    private StepStats(final MetricKey key) {
+      this.key = key;
+    }
+
+    private void add(final long elapsed, final boolean error) {
+      latencies.recordValue(elapsed);
+      if (error) {
+        errors++;
+      }
+    }
+
+    /**
+     * Key of the step, whose status is blank.
+     * <p>
+     *
+     * @return {@link MetricKey} of the step.
+     */
+    public MetricKey getKey() {
+      return key;
+    }
+
+    public Histogram getLatencies() {
+      return latencies;
+    }
+
+    public long getCount() {
+      return latencies.getTotalCount();
+    }
+
+    public long getErrors() {
+      return errors;
+    }
+  }
+
+  /**
+   * Number of the requests of a scenario, measurement point and status.
+   * <p>
+   */
+  public static final class StatusCount {
+
+    private final MetricKey key;
+    private final long count;
+
+    private StatusCount(final MetricKey key, final long count) {
+      this.key = key;
+      this.count = count;
+    }
+
+    public MetricKey getKey() {
+      return key;
+    }
+
+    public long getCount() {
+      return count;
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.reporting;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * Result sink is the extension point for consumers of measurement events, e.g the metric
+ * collector, the simulation log writer or the Influx DB writer. Sinks are registered either with
+ * the {@link io.ryos.rhino.sdk.annotations.Sink} annotation on the simulation class, or through
+ * the {@link java.util.ServiceLoader} by listing the implementation in
+ * {@code META-INF/services/io.ryos.rhino.sdk.reporting.ResultSink}.
+ * <p>
+ *
+ * Every sink has its own bounded queue and worker thread, so a slow sink cannot stall the others.
+ * The {@link OverflowPolicy} decides what happens once the queue of the sink is full. The sink is
+ * called by its worker thread only, so implementations need not be thread-safe regarding {@link
+ * #onBatch(List)}.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public interface ResultSink extends Closeable {
+
+  int DEFAULT_QUEUE_CAPACITY = 8192;
+
+  /**
+   * Processes a batch of events in the order they were drained. The slots are reused once the
+   * method returns, so they must not be retained; use {@link EventSlot#toLogEvent()} if a copy is
+   * needed. The batch contains the DSL and user events, and the health samples of the load
+   * generator only if the sink opts in by {@link #acceptsHealthSamples()}.
+   * <p>
+   *
+   * @param events Batch of event slots.
+   */
+  void onBatch(List<EventSlot> events);
+
+  /**
+   * Called after every batch, and before the sink is closed.
+   * <p>
+   */
+  default void flush() {
+  }
+
+  /**
+   * Capacity of the queue of the sink, which must be a power of two.
+   * <p>
+   *
+   * @return Queue capacity.
+   */
+  default int queueCapacity() {
+    return DEFAULT_QUEUE_CAPACITY;
+  }
+
+  /**
+   * Policy applied, if the queue of the sink is full.
+   * <p>
+   *
+   * @return {@link OverflowPolicy} of the sink.
+   */
+  default OverflowPolicy overflowPolicy() {
+    return OverflowPolicy.BLOCK;
+  }
+
+  /**
+   * Whether the sink receives the health samples of the load generator, i.e the slots of {@link
+   * EventSlot.Kind#HEALTH} kind, besides the DSL and user events. Sinks do not receive them unless
+   * they opt in.
+   * <p>
+   *
+   * @return {@code true} if the sink receives the health samples.
+   */
+  default boolean acceptsHealthSamples() {
+    return false;
+  }
+
+  @Override
+  void close();
+}
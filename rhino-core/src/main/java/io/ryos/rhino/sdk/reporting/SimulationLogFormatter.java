@@ -22,4 +22,16 @@ package io.ryos.rhino.sdk.reporting;
 public interface SimulationLogFormatter {
 
   String format(LogEvent event);
+
+  /**
+   * Formats the event slot drained from the event pipeline. The default implementation copies the
+   * slot into a {@link LogEvent}, formatters should override it to format the slot directly.
+   * <p>
+   *
+   * @param slot Event slot.
+   * @return Formatted string containing the step entry.
+   */
+  default String format(EventSlot slot) {
+    return format(slot.toLogEvent());
+  }
 }
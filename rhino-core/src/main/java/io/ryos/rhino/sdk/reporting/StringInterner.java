@@ -0,0 +1,100 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.reporting;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Interns strings into dense integer ids up to a maximum number of the ids. The blank string is
+ * mapped to the id zero, the fallback to the id one, and the strings beyond the maximum to the
+ * fallback, so the interner never grows past its maximum.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @see EventKeys
+ * @since 2.3.3
+ */
+final class StringInterner {
+
+  private static final Logger LOG = LoggerFactory.getLogger(StringInterner.class);
+  private static final int INITIAL_CAPACITY = 256;
+  private static final String BLANK = "";
+  private static final int FALLBACK_ID = 1;
+
+  private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+  private final int maxIds;
+  private volatile String[] names = new String[INITIAL_CAPACITY];
+  private int size;
+  private volatile boolean full;
+
+  StringInterner(final int maxIds, final String fallback) {
+    if (maxIds < 2) {
+      throw new IllegalArgumentException("Max ids must be at least two: " + maxIds);
+    }
+    this.maxIds = maxIds;
+    register(BLANK);
+    register(fallback);
+  }
+
+  int idOf(final String name) {
+    if (name == null) {
+      return 0;
+    }
+
+    var id = ids.get(name);
+    if (id != null) {
+      return id;
+    }
+    // Unknown strings are not registered any more, once the interner is full.
+    if (full) {
+      return FALLBACK_ID;
+    }
+    return register(name);
+  }
+
+  private synchronized int register(final String name) {
+    var id = ids.get(name);
+    if (id != null) {
+      return id;
+    }
+
+    if (size == maxIds) {
+      full = true;
+      LOG.warn("{} distinct measurement names are interned, further names are reported as {}.",
+          maxIds, names[FALLBACK_ID]);
+      return FALLBACK_ID;
+    }
+    if (size == names.length) {
+      names = Arrays.copyOf(names, size * 2);
+    }
+    names[size] = name;
+    ids.put(name, size);
+    return size++;
+  }
+
+  String nameOf(final int id) {
+    return names[id];
+  }
+
+  int size() {
+    return ids.size();
+  }
+}
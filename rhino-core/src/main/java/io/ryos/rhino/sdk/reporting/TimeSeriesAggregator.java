@@ -0,0 +1,189 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+package io.ryos.rhino.sdk.reporting;
+
+import io.ryos.rhino.sdk.reporting.UserEvent.EventType;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Folds the events into per-second {@link TimeSeriesBucket}s by their end time, so a time-series
+ * backend receives one aggregate per second and series instead of a point per request. Requests
+ * are bucketed per scenario, measurement point, status and load stage, users per scenario,
+ * whereas only completed users are counted.
+ * <p>
+ *
+ * A bucket is completed once the wall clock passes its second by the allowed lateness. Events
+ * arriving later than that are folded into the oldest open bucket, so a completed bucket is never
+ * emitted twice. The aggregator is not thread-safe, it is called by the worker thread of the sink.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class TimeSeriesAggregator {
+
+  private static final long DEFAULT_ALLOWED_LATENESS_SECS = 2L;
+
+  private final Map<BucketKey, TimeSeriesBucket> buckets = new HashMap<>();
+  private final Deque<TimeSeriesBucket> pool = new ArrayDeque<>();
+  private final BucketKey probe = new BucketKey();
+  private final long allowedLatenessSecs;
+
+  /**
+   * The oldest second, that is still open.
+   * <p>
+   */
+  private long watermark = Long.MIN_VALUE;
+
+  public TimeSeriesAggregator() {
+    this(DEFAULT_ALLOWED_LATENESS_SECS);
+  }
+
+  public TimeSeriesAggregator(final long allowedLatenessSecs) {
+    this.allowedLatenessSecs = allowedLatenessSecs;
+  }
+
+  /**
+   * Folds the event into its bucket.
+   * <p>
+   *
+   * @param slot Event slot.
+   */
+  public void add(final EventSlot slot) {
+    if (slot.getKind() == EventSlot.Kind.USER && slot.getEventType() != EventType.END) {
+      return;
+    }
+
+    var second = Math.max(TimeUnit.MILLISECONDS.toSeconds(slot.getEnd()), watermark);
+    // Users are bucketed per scenario only.
+    var keyId = slot.getKind() == EventSlot.Kind.DSL
+        ? MetricKeys.idOf(slot)
+        : MetricKeys.idOf(slot.getParentMeasurementPointId(), 0, 0);
+    var stageId = slot.getKind() == EventSlot.Kind.DSL ? slot.getLoadStageId() : 0;
+    probe.set(slot.getKind(), second, keyId, stageId);
+
+    var bucket = buckets.get(probe);
+    if (bucket == null) {
+      bucket = pool.isEmpty() ? new TimeSeriesBucket() : pool.pop();
+      bucket.reset(probe.kind, probe.second, MetricKeys.keyOf(keyId), stageId);
+      buckets.put(probe.copy(), bucket);
+    }
+    bucket.add(slot, slot.getKind() == EventSlot.Kind.DSL && isError(slot.getStatus()));
+  }
+
+  /**
+   * Hands the buckets completed at the time given over to the consumer, and releases them.
+   * <p>
+   *
+   * @param nowMillis Current time in epoch millis.
+   * @param consumer Consumer of the completed buckets.
+   */
+  public void flush(final long nowMillis, final Consumer<TimeSeriesBucket> consumer) {
+    var completedBefore = TimeUnit.MILLISECONDS.toSeconds(nowMillis) - allowedLatenessSecs;
+    if (completedBefore <= watermark) {
+      return;
+    }
+
+    watermark = completedBefore;
+    emit(consumer, completedBefore);
+  }
+
+  /**
+   * Hands all buckets over to the consumer, and releases them.
+   * <p>
+   *
+   * @param consumer Consumer of the buckets.
+   */
+  public void flushAll(final Consumer<TimeSeriesBucket> consumer) {
+    emit(consumer, Long.MAX_VALUE);
+  }
+
+  private void emit(final Consumer<TimeSeriesBucket> consumer, final long completedBefore) {
+    var iterator = buckets.entrySet().iterator();
+    while (iterator.hasNext()) {
+      var bucket = iterator.next().getValue();
+      if (bucket.getEpochSecond() < completedBefore) {
+        iterator.remove();
+        consumer.accept(bucket);
+        pool.push(bucket);
+      }
+    }
+  }
+
+  public int size() {
+    return buckets.size();
+  }
+
+  /**
+   * Statuses other than 2xx and 3xx count as errors.
+   * <p>
+   */
+  private static boolean isError(final String status) {
+    return status == null || status.length() != 3 || status.charAt(0) != '2'
+        && status.charAt(0) != '3';
+  }
+
+  private static final class BucketKey {
+
+    private EventSlot.Kind kind;
+    private long second;
+    private int keyId;
+    private int stageId;
+
+    private void set(final EventSlot.Kind kind, final long second, final int keyId,
+        final int stageId) {
+      this.kind = kind;
+      this.second = second;
+      this.keyId = keyId;
+      this.stageId = stageId;
+    }
+
+    private BucketKey copy() {
+      var key = new BucketKey();
+      key.set(kind, second, keyId, stageId);
+      return key;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof BucketKey)) {
+        return false;
+      }
+      var that = (BucketKey) o;
+      return second == that.second
+          && keyId == that.keyId
+          && stageId == that.stageId
+          && kind == that.kind;
+    }
+
+    @Override
+    public int hashCode() {
+      // Computed without boxing, since the key is probed for every event.
+      var hash = kind.ordinal();
+      hash = 31 * hash + Long.hashCode(second);
+      hash = 31 * hash + keyId;
+      return 31 * hash + stageId;
+    }
+  }
+}
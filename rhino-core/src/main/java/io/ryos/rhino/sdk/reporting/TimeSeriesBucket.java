@@ -0,0 +1,154 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+package io.ryos.rhino.sdk.reporting;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Aggregate of the events completed within the same second, that share the same scenario,
+ * measurement point, status and load stage. Buckets are pooled by the {@link
+ * TimeSeriesAggregator}, so they must not be retained after they are handed out.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public final class TimeSeriesBucket {
+
+  private static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toMillis(1);
+  private static final int SIGNIFICANT_DIGITS = 3;
+  private static final ConnectionPhases.Phase[] PHASES = ConnectionPhases.Phase.values();
+
+  private final Histogram serviceTimes = new Histogram(HIGHEST_TRACKABLE_VALUE,
+      SIGNIFICANT_DIGITS);
+  private final Histogram responseTimes = new Histogram(HIGHEST_TRACKABLE_VALUE,
+      SIGNIFICANT_DIGITS);
+
+  private EventSlot.Kind kind;
+  private long epochSecond;
+  private MetricKey key;
+  private int stageId;
+  private long count;
+  private long errors;
+  private final long[] phaseCounts = new long[PHASES.length];
+  private final long[] phaseSums = new long[PHASES.length];
+
+  void reset(final EventSlot.Kind kind, final long epochSecond, final MetricKey key,
+      final int stageId) {
+    this.kind = kind;
+    this.epochSecond = epochSecond;
+    this.key = key;
+    this.stageId = stageId;
+    this.count = 0L;
+    this.errors = 0L;
+    this.serviceTimes.reset();
+    this.responseTimes.reset();
+    Arrays.fill(phaseCounts, 0L);
+    Arrays.fill(phaseSums, 0L);
+  }
+
+  void add(final EventSlot slot, final boolean error) {
+    count++;
+    if (error) {
+      errors++;
+    }
+    serviceTimes.recordValue(clamp(slot.getElapsed()));
+    responseTimes.recordValue(clamp(slot.getResponseTime()));
+
+    var connectionPhases = slot.getConnectionPhases();
+    for (var phase : PHASES) {
+      var duration = connectionPhases.get(phase);
+      if (duration != ConnectionPhases.NONE) {
+        phaseCounts[phase.ordinal()]++;
+        phaseSums[phase.ordinal()] += duration;
+      }
+    }
+  }
+
+  private static long clamp(final long value) {
+    return Math.min(Math.max(value, 0L), HIGHEST_TRACKABLE_VALUE);
+  }
+
+  public EventSlot.Kind getKind() {
+    return kind;
+  }
+
+  public long getEpochSecond() {
+    return epochSecond;
+  }
+
+  public MetricKey getKey() {
+    return key;
+  }
+
+  public String getScenario() {
+    return key.getScenario();
+  }
+
+  public String getMeasurementPoint() {
+    return key.getMeasurementPoint();
+  }
+
+  public String getStatus() {
+    return key.getStatus();
+  }
+
+  public String getLoadStage() {
+    return EventKeys.nameOf(stageId);
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getErrors() {
+    return errors;
+  }
+
+  /**
+   * Histogram of the service times in millis.
+   * <p>
+   *
+   * @return Service time {@link Histogram}.
+   */
+  public Histogram getServiceTimes() {
+    return serviceTimes;
+  }
+
+  /**
+   * Histogram of the response times from the intended start in millis.
+   * <p>
+   *
+   * @return Response time {@link Histogram}.
+   */
+  public Histogram getResponseTimes() {
+    return responseTimes;
+  }
+
+  /**
+   * Mean duration of the connection phase of the requests in the bucket.
+   * <p>
+   *
+   * @param phase Connection phase.
+   * @return Mean duration in micros, or {@code -1} if no request went through the phase.
+   */
+  public double getPhaseMean(final ConnectionPhases.Phase phase) {
+    var count = phaseCounts[phase.ordinal()];
+    return count > 0 ? (double) phaseSums[phase.ordinal()] / count : -1d;
+  }
+}
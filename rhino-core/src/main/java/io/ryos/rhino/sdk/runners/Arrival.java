@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018 Ryos.io.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ryos.rhino.sdk.runners;
+
+import io.ryos.rhino.sdk.LoadStage;
+
+/**
+ * A single arrival emitted by the {@link ArrivalRateInjector}.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public class Arrival {
+
+  private final long intendedTime;
+  private final LoadStage stage;
+
+  public Arrival(final long intendedTime, final LoadStage stage) {
+    this.intendedTime = intendedTime;
+    this.stage = stage;
+  }
+
+  /**
+   * The time the arrival is scheduled for in epoch millis.
+   * <p>
+   *
+   * @return Intended dispatch time.
+   */
+  public long getIntendedTime() {
+    return intendedTime;
+  }
+
+  /**
+   * The stage of the load profile the arrival belongs to.
+   * <p>
+   *
+   * @return {@link LoadStage} instance.
+   */
+  public LoadStage getStage() {
+    return stage;
+  }
+}
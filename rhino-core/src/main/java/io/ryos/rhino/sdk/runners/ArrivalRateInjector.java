@@ -0,0 +1,190 @@
+/*
+ * Copyright 2018 Ryos.io.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.ryos.rhino.sdk.runners;
+
+import io.ryos.rhino.sdk.LoadProfile;
+import io.ryos.rhino.sdk.RampupCurve;
+import io.ryos.rhino.sdk.RampupInfo;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.FluxSink.OverflowStrategy;
+
+/**
+ * Open-model injector emits arrivals at exact inter-arrival times. All arrivals are derived from
+ * a single monotonic clock, so the injected rate does neither drift from the wall clock nor
+ * depend on how fast the pipeline consumes the arrivals. The rate follows the stages of the
+ * {@link LoadProfile}, and the injection completes as soon as the last stage ends.
+ * <p>
+ *
+ * Every emitted element carries the intended dispatch time of the arrival in epoch millis and
+ * the stage it belongs to.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+public class ArrivalRateInjector {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ArrivalRateInjector.class);
+  private static final long NANOS_PER_SEC = TimeUnit.SECONDS.toNanos(1);
+  private static final long REPORT_PERIOD = 1000L;
+  private static final String THREAD_NAME = "rhino-injector";
+
+  private final LoadProfile loadProfile;
+  private final AtomicLong injected = new AtomicLong();
+
+  public ArrivalRateInjector(final LoadProfile loadProfile) {
+    this.loadProfile = Objects.requireNonNull(loadProfile);
+  }
+
+  public ArrivalRateInjector(final long startRps, final long targetRps, final Duration duration,
+      final RampupCurve curve) {
+    this(LoadProfile.of(validate(startRps, targetRps, duration, curve)));
+  }
+
+  private static RampupInfo validate(final long startRps, final long targetRps,
+      final Duration duration, final RampupCurve curve) {
+    if (startRps < 1) {
+      throw new IllegalArgumentException("StartRps must be greater than 0");
+    }
+    if (targetRps < startRps) {
+      throw new IllegalArgumentException("TargetRps must be greater than startRps");
+    }
+    return RampupInfo.of(startRps, targetRps, Objects.requireNonNull(duration),
+        Objects.requireNonNull(curve));
+  }
+
+  public static ArrivalRateInjector of(final RampupInfo rampupInfo) {
+    return new ArrivalRateInjector(rampupInfo.getStartRps(),
+        rampupInfo.getTargetRps(),
+        rampupInfo.getDuration(),
+        rampupInfo.getCurve());
+  }
+
+  public static ArrivalRateInjector of(final LoadProfile loadProfile) {
+    return new ArrivalRateInjector(loadProfile);
+  }
+
+  /**
+   * Returns the target arrival rate in requests per second at the time elapsed since the
+   * injection started.
+   * <p>
+   *
+   * @param elapsedNanos Time elapsed since the injection started in nanos.
+   * @return Arrival rate in requests per second.
+   */
+  public double rateAt(final long elapsedNanos) {
+    return loadProfile.rateAt(elapsedNanos);
+  }
+
+  /**
+   * Computes the point in time of the arrival following the one at the time given.
+   * <p>
+   *
+   * @param arrivalNanos Time of the previous arrival relative to the injection start.
+   * @return Time of the next arrival relative to the injection start.
+   */
+  public long nextArrival(final long arrivalNanos) {
+    return loadProfile.nextArrival(arrivalNanos);
+  }
+
+  /**
+   * Creates a {@link Flux} which emits the arrivals. The arrivals are emitted by a dedicated
+   * thread, that is started upon subscription and stopped as soon as the subscription is disposed
+   * or the load profile is completed.
+   * <p>
+   *
+   * @return {@link Flux} of the arrivals.
+   */
+  public Flux<Arrival> arrivals() {
+    return Flux.create(sink -> {
+      var injectorThread = new Thread(() -> inject(sink), THREAD_NAME);
+      injectorThread.setDaemon(true);
+      sink.onDispose(injectorThread::interrupt);
+      injectorThread.start();
+    }, OverflowStrategy.BUFFER);
+  }
+
+  private void inject(final FluxSink<Arrival> sink) {
+    var startNanos = System.nanoTime();
+    var startMillis = System.currentTimeMillis();
+    var reportTimer = startReporting(startNanos);
+    var nextArrival = 0L;
+
+    try {
+      while (!sink.isCancelled() && !Thread.currentThread().isInterrupted()) {
+        var stage = loadProfile.stageAt(nextArrival);
+        if (stage == null) {
+          sink.complete();
+          return;
+        }
+
+        var waitNanos = startNanos + nextArrival - System.nanoTime();
+        if (waitNanos > 0) {
+          LockSupport.parkNanos(waitNanos);
+          continue;
+        }
+
+        // Paused stages, i.e with zero rate, are skipped without emitting an arrival.
+        if (loadProfile.rateAt(nextArrival) > 0) {
+          // Arrivals falling behind the schedule are emitted immediately, so the injector catches
+          // up instead of silently dropping the load.
+          sink.next(new Arrival(startMillis + TimeUnit.NANOSECONDS.toMillis(nextArrival), stage));
+          injected.incrementAndGet();
+        }
+        nextArrival = nextArrival(nextArrival);
+      }
+    } finally {
+      reportTimer.cancel();
+    }
+  }
+
+  private Timer startReporting(final long startNanos) {
+    var timer = new Timer("Injector Report Timer", true);
+    timer.scheduleAtFixedRate(new TimerTask() {
+      private long lastCount;
+      private long lastNanos = startNanos;
+
+      @Override
+      public void run() {
+        var now = System.nanoTime();
+        var count = injected.get();
+        var achieved = (count - lastCount) * (double) NANOS_PER_SEC / (now - lastNanos);
+        var stage = loadProfile.stageAt(now - startNanos);
+        LOG.info("Arrival rate stage={}, target={} rps, achieved={} rps",
+            stage != null ? stage.getName() : "-",
+            Math.round(rateAt(now - startNanos)), Math.round(achieved));
+        lastCount = count;
+        lastNanos = now;
+      }
+    }, REPORT_PERIOD, REPORT_PERIOD);
+    return timer;
+  }
+
+  public long getInjected() {
+    return injected.get();
+  }
+}
@@ -1,30 +1,58 @@
 package io.ryos.rhino.sdk.runners;
 
 import static io.ryos.rhino.sdk.reporting.GatlingSimulationLogFormatter.GATLING_HEADLINE_TEMPLATE;
+import static io.ryos.rhino.sdk.utils.ReflectionUtils.instanceOf;
 
-import akka.actor.ActorRef;
-import akka.actor.ActorSystem;
-import akka.actor.Terminated;
-import akka.dispatch.OnComplete;
-import akka.pattern.Patterns;
 import io.ryos.rhino.sdk.Simulation;
+import io.ryos.rhino.sdk.SimulationConfig;
 import io.ryos.rhino.sdk.SimulationMetadata;
+import io.ryos.rhino.sdk.annotations.Sink;
+import io.ryos.rhino.sdk.exceptions.RhinoIOException;
+import io.ryos.rhino.sdk.io.BinarySimulationLogWriter;
 import io.ryos.rhino.sdk.io.InfluxDBWriter;
 import io.ryos.rhino.sdk.io.SimulationLogWriter;
+import io.ryos.rhino.sdk.monitoring.OpenMetricsEndpoint;
+import io.ryos.rhino.sdk.reporting.ConnectionPhases;
+import io.ryos.rhino.sdk.reporting.EventRingBuffer;
+import io.ryos.rhino.sdk.reporting.EventSlot;
 import io.ryos.rhino.sdk.reporting.GatlingSimulationLogFormatter;
 import io.ryos.rhino.sdk.reporting.Measurement;
 import io.ryos.rhino.sdk.reporting.MetricCollector;
 import io.ryos.rhino.sdk.reporting.MetricCollector.EndTestEvent;
+import io.ryos.rhino.sdk.reporting.ResultSink;
+import io.ryos.rhino.sdk.reporting.UserEvent.EventType;
+import io.ryos.rhino.sdk.reporting.VerificationInfo;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import scala.concurrent.Await;
-import scala.concurrent.duration.FiniteDuration;
 
 /**
  * Singleton event dispatcher forwards the events created by simulation callables to corresponding
- * entities like actors wnich process them.
+ * entities which process them.
+ * <p>
+ *
+ * Events are written into pre-allocated slots of a per-thread {@link EventRingBuffer} by the
+ * threads executing the simulation, and drained in batches by a single drainer thread, that fans
+ * them out to the {@link ResultSink}s. Publishing an event neither allocates nor takes a lock. If
+ * the ring buffer of a thread is full, the thread waits for the drainer instead of dropping the
+ * event. The ring buffers of the threads, which terminated, are released as they are drained.
+ * <p>
+ *
+ * Besides the built-in sinks, i.e the metric collector, the simulation log writer and the Influx
+ * DB writer, sinks can be registered with the {@link Sink} annotation or through the {@link
+ * ServiceLoader}. Every sink is served by its own {@link SinkChannel}, i.e a bounded queue and a
+ * worker thread, so a slow sink applies its {@link io.ryos.rhino.sdk.reporting.OverflowPolicy}
+ * without stalling the others.
  * <p>
  *
  * @author Erhan Bagdemir
@@ -33,112 +61,410 @@ import scala.concurrent.duration.FiniteDuration;
 public class EventDispatcher {
 
   private static final Logger LOG = LogManager.getLogger(EventDispatcher.class);
+
   private static final long TERMINATION_REQUEST_TIMEOUT = 5000L;
-  private static final String ACTOR_SYS_NAME = "rhino-dispatcher";
-  private static EventDispatcher INSTANCE;
+  private static final String DRAINER_THREAD_NAME = "rhino-event-drainer";
+  private static final int RING_BUFFER_CAPACITY = 8192;
+  private static final int DRAIN_BATCH_SIZE = 1024;
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long BACKOFF_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+  private static volatile EventDispatcher INSTANCE;
 
   private EventDispatcher(final SimulationMetadata simulationMetadata) {
 
     this.simulationMetadata = Objects.requireNonNull(simulationMetadata);
-    this.metricCollector = system
-        .actorOf(MetricCollector.props(simulationMetadata.getNumberOfUsers(),
-            Instant.now(),
-            simulationMetadata.getDuration()),
-            MetricCollector.class.getName());
-    this.loggerActor = system
-        .actorOf(SimulationLogWriter.props(simulationMetadata.getReportingURI(),
-            simulationMetadata.getLogFormatter()),
-            SimulationLogWriter.class.getName());
+    this.metricCollector = new MetricCollector(simulationMetadata.getNumberOfUsers(),
+        Instant.now(),
+        simulationMetadata.getDuration());
+    this.logWriter = createLogWriter(simulationMetadata);
 
+    var channelList = new ArrayList<SinkChannel>();
+    channelList.add(new SinkChannel(logWriter));
+    channelList.add(new SinkChannel(metricCollector));
     if (simulationMetadata.isEnableInflux()) {
-      influxActor = system.actorOf(InfluxDBWriter.props(), InfluxDBWriter.class.getName());
+      channelList.add(new SinkChannel(new InfluxDBWriter()));
+    }
+    for (var sink : simulationMetadata.getSinks()) {
+      channelList.add(createChannel(sink));
+    }
+    for (var sink : ServiceLoader.load(ResultSink.class)) {
+      channelList.add(new SinkChannel(sink));
+    }
+    this.channels = channelList.toArray(new SinkChannel[0]);
+    for (var channel : channels) {
+      channel.start();
     }
 
+    this.drainer = new Thread(this::drainLoop, DRAINER_THREAD_NAME);
+    this.drainer.setDaemon(true);
+    this.drainer.start();
+    this.metricsEndpoint = createMetricsEndpoint(metricCollector);
+  }
+
+  private static OpenMetricsEndpoint createMetricsEndpoint(final MetricCollector metricCollector) {
+    var port = SimulationConfig.getMetricsPort();
+    if (port < 0) {
+      return null;
+    }
+
+    try {
+      return OpenMetricsEndpoint.start(metricCollector.getLiveMetrics(), port);
+    } catch (IOException e) {
+      throw new RhinoIOException("Cannot start the metrics endpoint on port " + port, e);
+    }
+  }
+
+  /**
+   * Simulation metadata.
+   * <p>
+   */
+  private final SimulationMetadata simulationMetadata;
+
+  /**
+   * Log writer writes the events into the simulation log.
+   * <p>
+   */
+  private final ResultSink logWriter;
+
+  /**
+   * StdOut reporter is to write out about the test execution to the stdout. It can be considered as
+   * heartbeat about the running test.
+   * <p>
+   */
+  private final MetricCollector metricCollector;
+
+  /**
+   * Channels of the sinks, the drained events are passed to.
+   * <p>
+   */
+  private final SinkChannel[] channels;
+
+  /**
+   * Ring buffers of all threads publishing events.
+   * <p>
+   */
+  private final List<ProducerRing> ringBuffers = new CopyOnWriteArrayList<>();
+
+  private final ThreadLocal<EventRingBuffer> localRingBuffer =
+      ThreadLocal.withInitial(this::createRingBuffer);
+
+  /**
+   * Number of the events dropped, since they were published after the dispatcher stopped.
+   * <p>
+   */
+  private final LongAdder droppedEvents = new LongAdder();
+
+  private final Thread drainer;
+
+  /**
+   * OpenMetrics scrape endpoint, or {@code null} if no metrics port is configured.
+   * <p>
+   */
+  private final OpenMetricsEndpoint metricsEndpoint;
+
+  private volatile boolean running = true;
+
+  public static EventDispatcher getInstance() {
+    var instance = INSTANCE;
+    if (instance == null) {
+      synchronized (EventDispatcher.class) {
+        instance = INSTANCE;
+        if (instance == null) {
+          instance = new EventDispatcher(Simulation.getData().orElseThrow());
+          INSTANCE = instance;
+        }
+      }
+    }
+
+    return instance;
+  }
+
+  private static ResultSink createLogWriter(final SimulationMetadata simulationMetadata) {
+    var policy = simulationMetadata.getLogWriterPolicy();
+    if (policy.isBinary()) {
+      return new BinarySimulationLogWriter(simulationMetadata.getReportingURI(),
+          simulationMetadata.getSimulationClass().getName(),
+          simulationMetadata.getSimulationName());
+    }
+
+    var logWriter = new SimulationLogWriter(simulationMetadata.getReportingURI(),
+        simulationMetadata.getLogFormatter(),
+        policy);
     if (simulationMetadata.getLogFormatter() instanceof GatlingSimulationLogFormatter) {
-      loggerActor.tell(
+      logWriter.write(
           String.format(
               GATLING_HEADLINE_TEMPLATE,
               simulationMetadata.getSimulationClass().getName(),
               simulationMetadata.getSimulationName(),
               System.currentTimeMillis(),
-              GatlingSimulationLogFormatter.GATLING_VERSION),
-          ActorRef.noSender());
+              GatlingSimulationLogFormatter.GATLING_VERSION));
     }
+    return logWriter;
+  }
+
+  private static SinkChannel createChannel(final Sink sink) {
+    var resultSink = instanceOf(sink.value()).orElseThrow(() ->
+        new IllegalArgumentException("Sink cannot be instantiated: " + sink.value().getName()));
+    return new SinkChannel(resultSink, sink.queueCapacity(), sink.overflowPolicy());
+  }
+
+  private EventRingBuffer createRingBuffer() {
+    var ringBuffer = new EventRingBuffer(RING_BUFFER_CAPACITY);
+    ringBuffers.add(new ProducerRing(Thread.currentThread(), ringBuffer));
+    return ringBuffer;
   }
 
   /**
-   * Simulation metadata.
+   * Publishes a DSL event.
    * <p>
+   *
+   * @param userId Id of the user.
+   * @param parentMeasurementPoint Scenario, the measurement point belongs to.
+   * @param measurementPoint Measurement point.
+   * @param status Status of the measurement.
+   * @param loadStage Stage of the load profile.
+   * @param start Start of the measurement in epoch millis.
+   * @param end End of the measurement in epoch millis.
+   * @param elapsed Service time in millis.
+   * @param responseTime Response time from the intended start in millis.
+   * @param verificationInfo Verification information, if any.
    */
-  private SimulationMetadata simulationMetadata;
+  public void dispatchDslEvent(final String userId,
+      final String parentMeasurementPoint,
+      final String measurementPoint,
+      final String status,
+      final String loadStage,
+      final long start,
+      final long end,
+      final long elapsed,
+      final long responseTime,
+      final VerificationInfo verificationInfo) {
+    dispatchDslEvent(userId, parentMeasurementPoint, measurementPoint, status, loadStage, start,
+        end, elapsed, responseTime, verificationInfo, null);
+  }
 
   /**
-   * Reporter actor reference is the reference to the actor which receives reporting events.
+   * Publishes a DSL event along with the connection phases of the request. The phases are copied
+   * into the event, so the instance may be reused once the method returns.
    * <p>
+   *
+   * @param userId Id of the user.
+   * @param parentMeasurementPoint Scenario, the measurement point belongs to.
+   * @param measurementPoint Measurement point.
+   * @param status Status of the measurement.
+   * @param loadStage Stage of the load profile.
+   * @param start Start of the measurement in epoch millis.
+   * @param end End of the measurement in epoch millis.
+   * @param elapsed Service time in millis.
+   * @param responseTime Response time from the intended start in millis.
+   * @param verificationInfo Verification information, if any.
+   * @param connectionPhases Connection phases of the request, or {@code null}.
    */
-  private ActorRef loggerActor;
+  public void dispatchDslEvent(final String userId,
+      final String parentMeasurementPoint,
+      final String measurementPoint,
+      final String status,
+      final String loadStage,
+      final long start,
+      final long end,
+      final long elapsed,
+      final long responseTime,
+      final VerificationInfo verificationInfo,
+      final ConnectionPhases connectionPhases) {
+
+    var ringBuffer = localRingBuffer.get();
+    var slot = claim(ringBuffer);
+    if (slot != null) {
+      slot.setDslEvent(userId, parentMeasurementPoint, measurementPoint, status, loadStage, start,
+          end, elapsed, responseTime, verificationInfo, connectionPhases);
+      ringBuffer.publish();
+    }
+  }
 
   /**
-   * Reporter actor reference to write log events to the Influx DB.
+   * Publishes a user event.
    * <p>
+   *
+   * @param userId Id of the user.
+   * @param parentMeasurementPoint Scenario, the event belongs to.
+   * @param start Start of the measurement in epoch millis.
+   * @param end End of the measurement in epoch millis.
+   * @param elapsed Elapsed time in millis.
+   * @param eventType Type of the event.
+   * @param verificationInfo Verification information, if any.
    */
-  private ActorRef influxActor;
+  public void dispatchUserEvent(final String userId,
+      final String parentMeasurementPoint,
+      final long start,
+      final long end,
+      final long elapsed,
+      final EventType eventType,
+      final VerificationInfo verificationInfo) {
+
+    var ringBuffer = localRingBuffer.get();
+    var slot = claim(ringBuffer);
+    if (slot != null) {
+      slot.setUserEvent(userId, parentMeasurementPoint, start, end, elapsed, eventType,
+          verificationInfo);
+      ringBuffer.publish();
+    }
+  }
 
   /**
-   * StdOut reporter is to write out about the test execution to the stdout. It can be considered as
-   * heartbeat about the running test.
+   * Publishes a health sample of the load generator.
    * <p>
+   *
+   * @param metric Name of the health metric.
+   * @param timestamp Time of the sample in epoch millis.
+   * @param value Sampled value.
    */
-  private ActorRef metricCollector;
-
-  private ActorSystem system = ActorSystem.create(ACTOR_SYS_NAME);
-
-  public static EventDispatcher getInstance() {
-    if (INSTANCE == null) {
-      INSTANCE = new EventDispatcher(Simulation.getData().orElseThrow());
+  public void dispatchHealthSample(final String metric, final long timestamp, final long value) {
+    var ringBuffer = localRingBuffer.get();
+    var slot = claim(ringBuffer);
+    if (slot != null) {
+      slot.setHealthSample(metric, timestamp, value);
+      ringBuffer.publish();
     }
-
-    return INSTANCE;
   }
 
+  /**
+   * Publishes the events recorded in the measurement, and purges them.
+   * <p>
+   *
+   * @param measurement Measurement instance.
+   */
   public void dispatchEvents(final Measurement measurement) {
     try {
-      measurement.getEvents().forEach(event -> {
-        loggerActor.tell(event, ActorRef.noSender());
-        metricCollector.tell(event, ActorRef.noSender());
+      var events = measurement.getEvents();
+      if (events.isEmpty()) {
+        return;
+      }
 
-        if (simulationMetadata.isEnableInflux()) {
-          influxActor.tell(event, ActorRef.noSender());
+      var ringBuffer = localRingBuffer.get();
+      for (var event : events) {
+        var slot = claim(ringBuffer);
+        if (slot != null && slot.copyFrom(event)) {
+          ringBuffer.publish();
         }
-      });
+      }
     } finally {
       measurement.purge();
     }
   }
 
-  public void stop() {
+  private EventSlot claim(final EventRingBuffer ringBuffer) {
+    var slot = ringBuffer.claim();
+    while (slot == null && running) {
+      // Back pressure: the drainer falls behind, so the producer waits rather than losing the
+      // event.
+      LockSupport.parkNanos(BACKOFF_PARK_NANOS);
+      slot = ringBuffer.claim();
+    }
+    if (slot == null) {
+      droppedEvents.increment();
+    }
+    return slot;
+  }
+
+  /**
+   * Returns the number of the events dropped, since the ring buffer of the publishing thread was
+   * full after the dispatcher stopped.
+   * <p>
+   *
+   * @return Number of the events dropped.
+   */
+  public long getDroppedEvents() {
+    return droppedEvents.sum();
+  }
 
-    requestForTermination();
+  private void drainLoop() {
+    while (running) {
+      if (drainAll() == 0) {
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+      }
+    }
 
-    var terminate = system.terminate();
+    // Drain the events published till the dispatcher is stopped.
+    var drained = drainAll();
+    while (drained > 0) {
+      drained = drainAll();
+    }
+  }
 
-    terminate.onComplete(new OnComplete<>() {
+  private int drainAll() {
+    var drained = 0;
+    for (var producerRing : ringBuffers) {
+      var ringBuffer = producerRing.ringBuffer;
+      drained += ringBuffer.drain(this::dispatch, DRAIN_BATCH_SIZE);
 
-      @Override
-      public void onComplete(final Throwable throwable, final Terminated terminated) {
-        system = null;
+      // A terminated thread publishes no more events, so its ring buffer is released once it is
+      // drained.
+      if (ringBuffer.size() == 0 && producerRing.isTerminated()) {
+        ringBuffers.remove(producerRing);
       }
+    }
+    return drained;
+  }
 
-    }, system.dispatcher());
+  private void dispatch(final EventSlot slot) {
+    for (var channel : channels) {
+      if (channel.accepts(slot)) {
+        channel.offer(slot);
+      }
+    }
   }
 
-  private void requestForTermination() {
-    var ask = Patterns.ask(metricCollector, new EndTestEvent(Instant.now()),
-        TERMINATION_REQUEST_TIMEOUT);
+  public void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+
     try {
-      Await.result(ask, FiniteDuration.Inf());
-    } catch (Exception e) {
-      LOG.debug(e); // expected exception is a Timeout. It is ok.
+      drainer.join(TERMINATION_REQUEST_TIMEOUT);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    for (var channel : channels) {
+      channel.stop(TERMINATION_REQUEST_TIMEOUT);
+    }
+
+    metricCollector.activateTermination(new EndTestEvent(Instant.now()));
+
+    for (var channel : channels) {
+      channel.close();
+    }
+
+    if (metricsEndpoint != null) {
+      metricsEndpoint.stop();
+    }
+
+    var dropped = getDroppedEvents();
+    if (dropped > 0) {
+      LOG.warn("{} events dropped, since they were published after the dispatcher stopped.",
+          dropped);
+    }
+  }
+
+  /**
+   * Ring buffer of a producer thread. The thread is weakly referenced, so that the registration
+   * does not keep a terminated thread reachable.
+   * <p>
+   */
+  private static final class ProducerRing {
+
+    private final WeakReference<Thread> owner;
+    private final EventRingBuffer ringBuffer;
+
+    ProducerRing(final Thread owner, final EventRingBuffer ringBuffer) {
+      this.owner = new WeakReference<>(owner);
+      this.ringBuffer = ringBuffer;
+    }
+
+    private boolean isTerminated() {
+      var thread = owner.get();
+      return thread == null || !thread.isAlive();
     }
   }
 }
@@ -9,6 +9,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Mono;
 
+/**
+ * Ramp-up delays the elements so as to increase the load in steps of one second.
+ * <p>
+ *
+ * @deprecated The runner injects the load through the {@link ArrivalRateInjector}, which emits
+ * the arrivals at exact inter-arrival times driven by a single clock.
+ */
+@Deprecated
 public class Rampup {
   private static Rampup INSTANCE;
 
@@ -27,7 +27,10 @@ import io.ryos.rhino.sdk.data.Context;
 import io.ryos.rhino.sdk.data.UserSession;
 import io.ryos.rhino.sdk.dsl.DslMethod;
 import io.ryos.rhino.sdk.dsl.impl.DslMethodImpl;
-import io.ryos.rhino.sdk.dsl.mat.DslMethodMaterializer;
+import io.ryos.rhino.sdk.io.PayloadStore;
+import io.ryos.rhino.sdk.monitoring.GeneratorHealthMonitor;
+import io.ryos.rhino.sdk.reporting.GeneratorHealth;
+import io.ryos.rhino.sdk.reporting.LiveMetrics;
 import io.ryos.rhino.sdk.users.repositories.CyclicUserSessionRepositoryImpl;
 import java.io.IOException;
 import java.lang.reflect.Method;
@@ -48,6 +51,7 @@ import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Hooks;
 import reactor.core.publisher.Mono;
+import reactor.util.concurrent.Queues;
 
 public class ReactiveHttpSimulationRunner extends AbstractSimulationRunner {
 
@@ -56,6 +60,7 @@ public class ReactiveHttpSimulationRunner extends AbstractSimulationRunner {
   private static final String ALL_REGIONS = "all";
   private CyclicIterator<DslMethod> dslIterator;
   private Disposable subscribe;
+  private GeneratorHealthMonitor healthMonitor;
 
   private volatile boolean shutdownInitiated;
   private volatile boolean isCleanupCompleted;
@@ -87,6 +92,7 @@ public class ReactiveHttpSimulationRunner extends AbstractSimulationRunner {
     var simulationMetadata = getSimulationMetadata();
 
     printStart(numberOfRepeats, simulationMetadata);
+    System.out.println(HttpClient.INSTANCE.getConfigurationReport());
 
     if (simulationMetadata.getGrafanaInfo() != null) {
       setUpGrafanaDashboard();
@@ -101,17 +107,25 @@ public class ReactiveHttpSimulationRunner extends AbstractSimulationRunner {
 
     prepare(userList);
 
-    var flux = Flux.fromStream(Stream.generate(userSessionProvider::take));
+    var flux = createUserSessionFlux(userSessionProvider);
 
     flux = appendTake(flux, getRepeats(numberOfRepeats));
     flux = flux.zipWith(Flux.fromStream(stream(dslIterator)))
         .doOnError(t -> LOG.error("Something unexpected happened", t))
-        .flatMap(tuple -> tuple.getT2().materializer().materialize(tuple.getT1()))
+        .flatMap(tuple -> tuple.getT2().materializer().materialize(tuple.getT1()),
+            getConcurrency())
         .onErrorResume(this::handleThrowable)
         .doOnError(t -> LOG.error("Something unexpected happened", t))
         .doOnTerminate(this::shutdown)
         .doOnComplete(() -> signalCompletion(() -> this.isPipelineCompleted = true));
 
+    this.healthMonitor = GeneratorHealthMonitor.start(HttpClient.INSTANCE.getEventLoopGroups(),
+        EventDispatcher.getInstance()::dispatchHealthSample);
+    for (var shard : HttpClient.INSTANCE.getShards()) {
+      healthMonitor.addGauge(GeneratorHealth.shardUtilisation(shard.getIndex()),
+          shard::getAndResetPeakUtilisation);
+    }
+    healthMonitor.addGauge(GeneratorHealth.DOWNLOAD_THROUGHPUT, LiveMetrics.downloadThroughput());
     this.subscribe = flux.subscribe();
     startTime = Instant.now();
 
@@ -125,6 +139,27 @@ public class ReactiveHttpSimulationRunner extends AbstractSimulationRunner {
     shutdown();
   }
 
+  private Flux<UserSession> createUserSessionFlux(
+      final CyclicUserSessionRepositoryImpl userSessionProvider) {
+    if (SimulationConfig.isLoadProfileDefined()) {
+      return ArrivalRateInjector.of(SimulationConfig.getLoadProfile())
+          .arrivals()
+          .map(arrival -> {
+            var session = userSessionProvider.take();
+            session.setLoadStage(arrival.getStage());
+            session.setIntendedStart(arrival.getIntendedTime());
+            return session;
+          });
+    }
+    return Flux.fromStream(Stream.generate(userSessionProvider::take));
+  }
+
+  private int getConcurrency() {
+    // In the open model, the arrivals must not wait for the sessions in-flight, otherwise the
+    // injected rate is capped by the response times.
+    return SimulationConfig.isLoadProfileDefined() ? Integer.MAX_VALUE : Queues.SMALL_BUFFER_SIZE;
+  }
+
   private void printStart(Integer numberOfRepeats, SimulationMetadata simulationMetadata) {
     if (null != numberOfRepeats && numberOfRepeats == 1) {
       System.out.println("Starting the verification tests.");
@@ -216,12 +251,16 @@ public class ReactiveHttpSimulationRunner extends AbstractSimulationRunner {
     System.out.println("Stopping the simulation...");
     subscribe.dispose();
     dslIterator.stop();
+    if (healthMonitor != null) {
+      healthMonitor.close();
+    }
     EventDispatcher.getInstance().stop();
     try {
-      HttpClient.INSTANCE.getClient().close();
+      HttpClient.INSTANCE.close();
     } catch (IOException e) {
       LOG.debug("Error shutting down http client", e);
     }
+    PayloadStore.releaseAll();
 
     System.out.println("Shutting down completed ...");
     System.out.println("Bye!");
@@ -252,12 +291,12 @@ public class ReactiveHttpSimulationRunner extends AbstractSimulationRunner {
   private void materializeMethod(final String callerName, final Method method,
       final List<UserSession> userSessionList, final Action action) {
     if (method != null) {
-      DslMethodImpl dslItem = new DslMethodImpl(callerName, executeMethod(method,
-          getSimulationMetadata().getTestInstance()));
+      var plan = new DslMethodImpl(callerName, executeMethod(method,
+          getSimulationMetadata().getTestInstance())).materializer();
 
       Flux.fromStream(userSessionList.stream())
           .onErrorResume(this::handleThrowable)
-          .flatMap(session -> new DslMethodMaterializer(dslItem).materialize(session))
+          .flatMap(plan::materialize)
           .doOnError(throwable -> LOG.error("Something unexpected happened", throwable))
           .doOnComplete(() -> signalCompletion(action))
           .blockLast();
@@ -0,0 +1,189 @@
+/*
+  Copyright 2018 Ryos.io.
+
+  Licensed under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License.
+  You may obtain a copy of the License at
+
+      http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing, software
+  distributed under the License is distributed on an "AS IS" BASIS,
+  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+  See the License for the specific language governing permissions and
+  limitations under the License.
+*/
+
+package io.ryos.rhino.sdk.runners;
+
+import io.ryos.rhino.sdk.reporting.EventRingBuffer;
+import io.ryos.rhino.sdk.reporting.EventSlot;
+import io.ryos.rhino.sdk.reporting.OverflowPolicy;
+import io.ryos.rhino.sdk.reporting.ResultSink;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Channel connects the drainer of the {@link EventDispatcher} with a single {@link ResultSink}.
+ * The drainer copies the events into the bounded queue of the channel, and the worker thread of
+ * the channel passes them to the sink in batches. If the queue is full, the {@link
+ * OverflowPolicy} of the sink either blocks the drainer or drops the event.
+ * <p>
+ *
+ * @author Erhan Bagdemir
+ * @since 2.3.3
+ */
+final class SinkChannel {
+
+  private static final Logger LOG = LogManager.getLogger(SinkChannel.class);
+  private static final String WORKER_THREAD_PREFIX = "rhino-sink-";
+  private static final int BATCH_SIZE = 1024;
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+  private static final long BACKOFF_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+  private final ResultSink sink;
+  private final OverflowPolicy overflowPolicy;
+  private final boolean acceptsHealthSamples;
+
+  /**
+   * Queue of the sink. The drainer is the single producer, and the worker the single consumer.
+   * <p>
+   */
+  private final EventRingBuffer queue;
+  private final List<EventSlot> batch = new ArrayList<>(BATCH_SIZE);
+  private final Thread worker;
+
+  /**
+   * Number of the events dropped. Written by the drainer only.
+   * <p>
+   */
+  private volatile long dropped;
+  private volatile boolean running = true;
+
+  SinkChannel(final ResultSink sink, final int queueCapacity,
+      final OverflowPolicy overflowPolicy) {
+    this.sink = Objects.requireNonNull(sink);
+    this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+    this.acceptsHealthSamples = sink.acceptsHealthSamples();
+    this.queue = new EventRingBuffer(queueCapacity);
+    this.worker = new Thread(this::workerLoop, WORKER_THREAD_PREFIX + getSinkName());
+    this.worker.setDaemon(true);
+  }
+
+  SinkChannel(final ResultSink sink) {
+    this(sink, sink.queueCapacity(), sink.overflowPolicy());
+  }
+
+  void start() {
+    worker.start();
+  }
+
+  /**
+   * Whether the event is to be offered to the sink. The health samples are offered only to the
+   * sinks, which opt in.
+   * <p>
+   *
+   * @param slot Event to test.
+   * @return {@code true} if the sink receives the event.
+   */
+  boolean accepts(final EventSlot slot) {
+    return slot.getKind() != EventSlot.Kind.HEALTH || acceptsHealthSamples;
+  }
+
+  /**
+   * Copies the event into the queue of the sink.
+   * <p>
+   *
+   * @param slot Event to enqueue.
+   * @return {@code true} if the event is enqueued, {@code false} if it is dropped.
+   */
+  boolean offer(final EventSlot slot) {
+    var target = queue.claim();
+    while (target == null) {
+      if (overflowPolicy == OverflowPolicy.DROP || !worker.isAlive()) {
+        dropped++;
+        return false;
+      }
+      LockSupport.parkNanos(BACKOFF_PARK_NANOS);
+      target = queue.claim();
+    }
+
+    target.copyFrom(slot);
+    queue.publish();
+    return true;
+  }
+
+  private void workerLoop() {
+    while (running) {
+      if (drain() == 0) {
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+      }
+    }
+
+    // Drain the events enqueued till the channel is stopped.
+    while (drain() > 0) {
+      // continue till the queue is empty.
+    }
+  }
+
+  private int drain() {
+    var drained = 0;
+    try {
+      drained = queue.drainBatch(batch, sink::onBatch, BATCH_SIZE);
+      if (drained > 0) {
+        sink.flush();
+      }
+    } catch (Exception e) {
+      LOG.error("Events cannot be processed by sink: " + getSinkName(), e);
+    }
+    return drained;
+  }
+
+  /**
+   * Stops the worker after the queue is drained. The sink is not closed.
+   * <p>
+   *
+   * @param timeoutMillis Time to wait for the worker in millis.
+   */
+  void stop(final long timeoutMillis) {
+    running = false;
+    try {
+      worker.join(timeoutMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Closes the sink, and reports the events dropped, if any.
+   * <p>
+   */
+  void close() {
+    try {
+      sink.close();
+    } catch (Exception e) {
+      LOG.error("Sink cannot be closed: " + getSinkName(), e);
+    }
+
+    if (dropped > 0) {
+      LOG.warn("{} events dropped by sink {}, since its queue was full.", dropped, getSinkName());
+    }
+  }
+
+  long getDropped() {
+    return dropped;
+  }
+
+  ResultSink getSink() {
+    return sink;
+  }
+
+  private String getSinkName() {
+    return sink.getClass().getSimpleName();
+  }
+}
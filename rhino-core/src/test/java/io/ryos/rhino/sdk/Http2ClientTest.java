@@ -0,0 +1,172 @@
+package io.ryos.rhino.sdk;
+
+import static org.asynchttpclient.Dsl.get;
+import static org.asynchttpclient.Dsl.post;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import io.netty.buffer.Unpooled;
+import io.ryos.rhino.sdk.io.PayloadStore;
+import io.ryos.rhino.sdk.io.RandomContent;
+import io.ryos.rhino.sdk.utils.Environment;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.asynchttpclient.AsyncCompletionHandlerBase;
+import org.asynchttpclient.Response;
+import org.asynchttpclient.request.body.generator.UnboundedQueueFeedableBodyGenerator;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class Http2ClientTest {
+
+  private static HttpServer server;
+  private static String baseUrl;
+
+  @BeforeClass
+  public static void setUp() throws IOException {
+    SimulationConfig.newInstance("classpath:///rhino.properties", Environment.DEV,
+        Http2ClientTest.class);
+
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/echo", exchange -> {
+      var body = exchange.getRequestBody().readAllBytes();
+      var response = (exchange.getRequestMethod() + ":" + new String(body, StandardCharsets.UTF_8))
+          .getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().add("X-Echo", "true");
+      exchange.sendResponseHeaders(200, response.length);
+      exchange.getResponseBody().write(response);
+      exchange.close();
+    });
+    server.start();
+    baseUrl = "http://localhost:" + server.getAddress().getPort();
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  public void testGet() throws Exception {
+    var response = execute(get(baseUrl + "/echo").build());
+
+    assertThat(response.getStatusCode(), equalTo(200));
+    assertThat(response.getHeader("X-Echo"), equalTo("true"));
+    assertThat(response.getResponseBody(), equalTo("GET:"));
+  }
+
+  @Test
+  public void testPostStringBody() throws Exception {
+    var response = execute(post(baseUrl + "/echo").setBody("payload").build());
+
+    assertThat(response.getResponseBody(), equalTo("POST:payload"));
+  }
+
+  @Test
+  public void testPostPayloads() throws Exception {
+    var content = "x".repeat(40_000);
+    var payload = PayloadStore.of("payload", content.getBytes(StandardCharsets.UTF_8));
+    var file = PayloadStore.file("classpath:///test.txt");
+
+    var bufferResponse = execute(post(baseUrl + "/echo").setBody(payload.asByteBuffer()).build());
+    var fileResponse = execute(post(baseUrl + "/echo").setBody(file.getFile()).build());
+
+    assertThat(bufferResponse.getResponseBody(), equalTo("POST:" + content));
+    assertThat(fileResponse.getResponseBody(), equalTo("POST:"
+        + new String(file.newInputStream().readAllBytes(), StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  public void testPostRandomContent() throws Exception {
+    var content = RandomContent.of(5L, 40_001L);
+
+    var response = execute(post(baseUrl + "/echo").setBody(content).build());
+
+    assertThat(response.getResponseBody(), equalTo("POST:"
+        + new String(content.newInputStream().readAllBytes(), StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  public void testPostFedBodyResumesOnFeed() throws Exception {
+    var generator = new UnboundedQueueFeedableBodyGenerator();
+
+    var future = Http2Client.INSTANCE.executeRequest(post(baseUrl + "/echo")
+        .setBody(generator).build(), new AsyncCompletionHandlerBase());
+    // The body is suspended till it is fed.
+    Thread.sleep(100L);
+    generator.feed(Unpooled.copiedBuffer("fed ", StandardCharsets.UTF_8), false);
+    generator.feed(Unpooled.copiedBuffer("body", StandardCharsets.UTF_8), true);
+
+    assertThat(future.get(10, TimeUnit.SECONDS).getResponseBody(), equalTo("POST:fed body"));
+  }
+
+  @Test
+  public void testRequestStartListenerIsNotified() throws Exception {
+    var started = new AtomicBoolean();
+    var handler = new StartListeningHandler(started);
+
+    Http2Client.INSTANCE.executeRequest(get(baseUrl + "/echo").build(), handler)
+        .get(10, TimeUnit.SECONDS);
+
+    assertTrue(started.get());
+  }
+
+  @Test
+  public void testPostFormParams() throws Exception {
+    var response = execute(post(baseUrl + "/echo").addFormParam("a", "1 2").build());
+
+    assertThat(response.getResponseBody(), equalTo("POST:a=1+2"));
+  }
+
+  @Test
+  public void testRequestsBeyondStreamLimitComplete() throws Exception {
+    var requests = SimulationConfig.getHttp2Connections()
+        * SimulationConfig.getHttp2MaxConcurrentStreams() * 2;
+    var futures = IntStream.range(0, requests)
+        .mapToObj(i -> Http2Client.INSTANCE.executeRequest(post(baseUrl + "/echo")
+            .setBody(String.valueOf(i)).build(), new AsyncCompletionHandlerBase()))
+        .collect(Collectors.toList());
+
+    for (int i = 0; i < requests; i++) {
+      assertThat(futures.get(i).get(10, TimeUnit.SECONDS).getResponseBody(),
+          equalTo("POST:" + i));
+    }
+  }
+
+  @Test(expected = ExecutionException.class)
+  public void testConnectionFailure() throws Exception {
+    CompletableFuture<Response> future = Http2Client.INSTANCE.executeRequest(
+        get("http://localhost:1/echo").build(), new AsyncCompletionHandlerBase());
+    future.get(10, TimeUnit.SECONDS);
+  }
+
+  private static class StartListeningHandler extends AsyncCompletionHandlerBase
+      implements Http2Client.RequestStartListener {
+
+    private final AtomicBoolean started;
+
+    private StartListeningHandler(final AtomicBoolean started) {
+      this.started = started;
+    }
+
+    @Override
+    public void onRequestStart() {
+      started.set(true);
+    }
+  }
+
+  private Response execute(final org.asynchttpclient.Request request) throws Exception {
+    return Http2Client.INSTANCE.executeRequest(request, new AsyncCompletionHandlerBase())
+        .get(10, TimeUnit.SECONDS);
+  }
+}
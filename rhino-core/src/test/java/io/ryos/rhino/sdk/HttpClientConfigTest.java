@@ -0,0 +1,50 @@
+package io.ryos.rhino.sdk;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.ryos.rhino.sdk.annotations.HttpClientConfig;
+import io.ryos.rhino.sdk.utils.Environment;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+@HttpClientConfig(ioThreads = 3, nativeTransport = false, pooledAllocator = false,
+    connectionTtl = 30000)
+public class HttpClientConfigTest {
+
+  @BeforeClass
+  public static void setUp() {
+    SimulationConfig.newInstance("classpath:///rhino.properties", Environment.DEV,
+        HttpClientConfigTest.class);
+  }
+
+  @Test
+  public void testOptionsOfAnnotation() {
+    assertThat(SimulationConfig.getHttpIoThreads(), equalTo(3));
+    assertThat(SimulationConfig.isHttpNativeTransport(), equalTo(false));
+    assertThat(SimulationConfig.getHttpConnectionTtl(), equalTo(30000));
+    assertThat(SimulationConfig.isHttpTcpNoDelay(), equalTo(true));
+    assertThat(SimulationConfig.getHttpPooledConnectionIdleTimeout(), equalTo(60000));
+  }
+
+  @Test
+  public void testSystemPropertyOverridesAnnotation() {
+    System.setProperty("http.ioThreads", "5");
+    try {
+      assertThat(SimulationConfig.getHttpIoThreads(), equalTo(5));
+    } finally {
+      System.clearProperty("http.ioThreads");
+    }
+  }
+
+  @Test
+  public void testConfigurationReport() throws Exception {
+    var report = HttpClient.INSTANCE.getConfigurationReport();
+
+    assertThat(report, containsString("> io threads per shard : 3"));
+    assertThat(report, containsString("> transport : nio"));
+    assertThat(report, containsString("> allocator : unpooled"));
+    assertThat(report, containsString("> connection ttl : 30000 ms"));
+  }
+}
@@ -0,0 +1,89 @@
+package io.ryos.rhino.sdk;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import org.asynchttpclient.AsyncHandler;
+import org.asynchttpclient.AsyncHttpClient;
+import org.asynchttpclient.ListenableFuture;
+import org.asynchttpclient.RequestBuilder;
+import org.asynchttpclient.Response;
+import org.junit.Test;
+
+public class HttpClientShardTest {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testPeakUtilisationOfShard() {
+    var client = mock(AsyncHttpClient.class);
+    var first = new CompletableFuture<Response>();
+    var second = new CompletableFuture<Response>();
+    var firstRequest = new RequestBuilder().setUrl("http://localhost/1");
+    var secondRequest = new RequestBuilder().setUrl("http://localhost/2");
+    var firstResponse = listenableFuture(first);
+    var secondResponse = listenableFuture(second);
+    when(client.executeRequest(eq(firstRequest), any(AsyncHandler.class)))
+        .thenReturn(firstResponse);
+    when(client.executeRequest(eq(secondRequest), any(AsyncHandler.class)))
+        .thenReturn(secondResponse);
+
+    var shard = new HttpClient.Shard(0, 4, client);
+    shard.executeRequest(firstRequest, mock(AsyncHandler.class));
+    shard.executeRequest(secondRequest, mock(AsyncHandler.class));
+    assertThat(shard.getInFlight(), equalTo(2));
+
+    first.complete(null);
+    assertThat(shard.getInFlight(), equalTo(1));
+    assertThat(shard.getAndResetPeakUtilisation(), equalTo(50L));
+    assertThat(shard.getAndResetPeakUtilisation(), equalTo(25L));
+
+    second.completeExceptionally(new IllegalStateException());
+    assertThat(shard.getInFlight(), equalTo(0));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testRequestsBeyondTheConnectionsAreQueued() {
+    var client = mock(AsyncHttpClient.class);
+    var first = new CompletableFuture<Response>();
+    var firstRequest = new RequestBuilder().setUrl("http://localhost/1");
+    var secondRequest = new RequestBuilder().setUrl("http://localhost/2");
+    var thirdRequest = new RequestBuilder().setUrl("http://localhost/3");
+    var firstResponse = listenableFuture(first);
+    var secondResponse = listenableFuture(new CompletableFuture<>());
+    when(client.executeRequest(eq(firstRequest), any(AsyncHandler.class)))
+        .thenReturn(firstResponse);
+    when(client.executeRequest(eq(secondRequest), any(AsyncHandler.class)))
+        .thenReturn(secondResponse);
+
+    var shard = new HttpClient.Shard(0, 1, client);
+    var firstResult = shard.executeRequest(firstRequest, mock(AsyncHandler.class));
+    shard.executeRequest(secondRequest, mock(AsyncHandler.class));
+    shard.executeRequest(thirdRequest, mock(AsyncHandler.class)).cancel(false);
+    assertThat(shard.getInFlight(), equalTo(1));
+    assertThat(shard.getPending(), equalTo(1));
+    verify(client, never()).executeRequest(eq(secondRequest), any(AsyncHandler.class));
+
+    first.complete(null);
+    assertThat(firstResult.isDone(), equalTo(true));
+    assertThat(shard.getInFlight(), equalTo(1));
+    assertThat(shard.getPending(), equalTo(0));
+    verify(client).executeRequest(eq(secondRequest), any(AsyncHandler.class));
+    verify(client, never()).executeRequest(eq(thirdRequest), any(AsyncHandler.class));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static ListenableFuture<Response> listenableFuture(
+      final CompletableFuture<Response> future) {
+    var listenableFuture = mock(ListenableFuture.class);
+    when(listenableFuture.toCompletableFuture()).thenReturn(future);
+    return listenableFuture;
+  }
+}
@@ -0,0 +1,21 @@
+package io.ryos.rhino.sdk;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Test;
+
+public class HttpProtocolTest {
+
+  @Test
+  public void testOf() {
+    assertThat(HttpProtocol.of("h2"), equalTo(HttpProtocol.HTTP_2));
+    assertThat(HttpProtocol.of("H2C"), equalTo(HttpProtocol.HTTP_2));
+    assertThat(HttpProtocol.of("http/1.1"), equalTo(HttpProtocol.HTTP_1_1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOfUnknown() {
+    HttpProtocol.of("spdy");
+  }
+}
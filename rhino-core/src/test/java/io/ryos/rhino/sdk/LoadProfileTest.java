@@ -0,0 +1,91 @@
+package io.ryos.rhino.sdk;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class LoadProfileTest {
+
+  private static final long SEC = TimeUnit.SECONDS.toNanos(1);
+
+  private final LoadProfile profile = LoadProfile.startingAt(0)
+      .ramp("warm-up", 100, Duration.ofSeconds(10))
+      .hold("steady", Duration.ofSeconds(10))
+      .spike("spike", 400, Duration.ofSeconds(5))
+      .hold("after-spike", Duration.ofSeconds(5))
+      .step("cool-down", 50, Duration.ofSeconds(5))
+      .build();
+
+  @Test
+  public void testStages() {
+    assertThat(profile.stageAt(0).getName(), equalTo("warm-up"));
+    assertThat(profile.stageAt(15 * SEC).getName(), equalTo("steady"));
+    assertThat(profile.stageAt(22 * SEC).getName(), equalTo("spike"));
+    assertThat(profile.stageAt(27 * SEC).getName(), equalTo("after-spike"));
+    assertThat(profile.stageAt(32 * SEC).getName(), equalTo("cool-down"));
+    assertThat(profile.stageAt(35 * SEC), nullValue());
+    assertTrue(profile.isCompleted(35 * SEC));
+  }
+
+  @Test
+  public void testRates() {
+    assertThat(Math.round(profile.rateAt(5 * SEC)), equalTo(50L));
+    assertThat(Math.round(profile.rateAt(15 * SEC)), equalTo(100L));
+    assertThat(Math.round(profile.rateAt(22 * SEC)), equalTo(400L));
+    // The spike returns to the rate before the spike.
+    assertThat(Math.round(profile.rateAt(27 * SEC)), equalTo(100L));
+    assertThat(Math.round(profile.rateAt(32 * SEC)), equalTo(50L));
+  }
+
+  @Test
+  public void testArrivalsPerStage() {
+    var arrival = 0L;
+    var warmUp = 0;
+    var spike = 0;
+    while (arrival < 35 * SEC) {
+      var stage = profile.stageAt(arrival);
+      if ("warm-up".equals(stage.getName())) {
+        warmUp++;
+      } else if ("spike".equals(stage.getName())) {
+        spike++;
+      }
+      arrival = profile.nextArrival(arrival);
+    }
+
+    // Ramp from zero to 100 RPS within 10 seconds: (0 + 100) / 2 * 10 = 500.
+    assertTrue(warmUp >= 495 && warmUp <= 505);
+    assertTrue(spike >= 1995 && spike <= 2005);
+  }
+
+  @Test
+  public void testPauseSkipsToTheNextStage() {
+    var paused = LoadProfile.startingAt(10)
+        .step("pause", 0, Duration.ofSeconds(5))
+        .step("resume", 10, Duration.ofSeconds(5))
+        .build();
+
+    assertThat(paused.nextArrival(0), equalTo(5 * SEC));
+    assertThat(paused.nextArrival(5 * SEC), equalTo(5 * SEC + SEC / 10));
+  }
+
+  @Test
+  public void testOfRampupInfo() {
+    var rampup = LoadProfile.of(RampupInfo.ofDefault(1, 100, Duration.ofMinutes(1)));
+
+    assertThat(rampup.getStages().size(), equalTo(2));
+    assertThat(Math.round(rampup.rateAt(TimeUnit.HOURS.toNanos(1))), equalTo(100L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnboundedStageMustBeLast() {
+    LoadProfile.startingAt(1)
+        .hold("forever")
+        .ramp("never", 10, Duration.ofSeconds(1))
+        .build();
+  }
+}
@@ -0,0 +1,110 @@
+package io.ryos.rhino.sdk.dsl.data;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.netty.buffer.Unpooled;
+import io.ryos.rhino.sdk.reporting.LiveMetrics;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.asynchttpclient.HttpResponseStatus;
+import org.asynchttpclient.Response;
+import org.asynchttpclient.netty.EagerResponseBodyPart;
+import org.asynchttpclient.util.StringUtils;
+import org.junit.Test;
+
+public class ResponseBodyConsumerTest {
+
+  private static final String BODY_PART_1 = "{\"items\": [1, 2, ";
+  private static final String BODY_PART_2 = "3], \"next\": null}";
+
+  @Test
+  public void testBufferedBody() {
+    var response = receive(ResponseMode.buffer());
+
+    assertThat(response.getResponseBodyAsString(), equalTo(BODY_PART_1 + BODY_PART_2));
+    assertThat(response.getBytesReceived(), equalTo(bodyLength()));
+    assertThat(response.getDigest(), nullValue());
+  }
+
+  @Test
+  public void testDiscardedBodyIsCounted() {
+    var before = LiveMetrics.getBytesReceived();
+
+    var response = receive(ResponseMode.discard());
+
+    assertThat(response.getStatusCode(), equalTo(200));
+    assertThat(response.getResponseBodyAsString(), equalTo(""));
+    assertThat(response.getBytesReceived(), equalTo(bodyLength()));
+    assertThat(LiveMetrics.getBytesReceived() - before, equalTo(bodyLength()));
+  }
+
+  @Test
+  public void testDigestOfBody() throws Exception {
+    var response = receive(ResponseMode.digest());
+
+    var expected = MessageDigest.getInstance("SHA-256")
+        .digest((BODY_PART_1 + BODY_PART_2).getBytes(StandardCharsets.UTF_8));
+    assertThat(response.getResponseBodyAsString(), equalTo(""));
+    assertThat(response.getDigest(), equalTo(StringUtils.toHexString(expected)));
+  }
+
+  @Test
+  public void testExtractionOfBody() {
+    var response = receive(ResponseMode.extract(CommaCounter::new));
+
+    assertThat(response.getResponseBodyAsString(), equalTo(""));
+    assertThat(response.<Integer>getExtracted(), equalTo(3));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownDigestAlgorithm() {
+    ResponseMode.digest("NO-SUCH-DIGEST");
+  }
+
+  private static HttpResponse receive(final ResponseMode responseMode) {
+    var builder = new Response.ResponseBuilder();
+    var consumer = new ResponseBodyConsumer(responseMode, builder);
+    var status = mock(HttpResponseStatus.class);
+    when(status.getStatusCode()).thenReturn(200);
+
+    builder.accumulate(status);
+    consumer.reset();
+    consumer.accept(bodyPart(BODY_PART_1, false));
+    consumer.accept(bodyPart(BODY_PART_2, true));
+    consumer.complete();
+    return consumer.toHttpResponse(builder.build());
+  }
+
+  private static EagerResponseBodyPart bodyPart(final String chunk, final boolean last) {
+    return new EagerResponseBodyPart(
+        Unpooled.wrappedBuffer(chunk.getBytes(StandardCharsets.UTF_8)), last);
+  }
+
+  private static long bodyLength() {
+    return (BODY_PART_1 + BODY_PART_2).length();
+  }
+
+  private static final class CommaCounter implements BodyParser<Integer> {
+
+    private int commas;
+
+    @Override
+    public void parse(final ByteBuffer chunk) {
+      while (chunk.hasRemaining()) {
+        if (chunk.get() == ',') {
+          commas++;
+        }
+      }
+    }
+
+    @Override
+    public Integer complete() {
+      return commas;
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package io.ryos.rhino.sdk.dsl.mat;
+
+import static io.ryos.rhino.sdk.dsl.DslBuilder.dsl;
+import static io.ryos.rhino.sdk.dsl.mat.TestSessions.newSession;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.ryos.rhino.sdk.data.UserSession;
+import io.ryos.rhino.sdk.dsl.DslItem;
+import io.ryos.rhino.sdk.dsl.impl.DslBuilderImpl;
+import io.ryos.rhino.sdk.dsl.impl.DslMethodImpl;
+import io.ryos.rhino.sdk.dsl.impl.ExpressionDslImpl;
+import io.ryos.rhino.sdk.exceptions.NoSpecDefinedException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+public class DslMethodMaterializerTest {
+
+  @Test
+  public void testPlanIsCompiledOnce() {
+    DslBuilderImpl.dslMethodName.set("test");
+    var executions = new AtomicInteger();
+    var child = new CountingExpressionDsl(s -> executions.incrementAndGet());
+    var method = new DslMethodImpl("test", dsl().run(child)).compile();
+
+    assertThat(child.getParent(), sameInstance(method));
+    assertThat(method.materializer(), sameInstance(method.materializer()));
+
+    for (int i = 0; i < 10; i++) {
+      method.materializer().materialize(newSession()).block();
+    }
+
+    assertThat(executions.get(), equalTo(10));
+    assertThat(child.parentWrites.get(), equalTo(2));
+    assertThat(child.compilations.get(), equalTo(1));
+  }
+
+  @Test
+  public void testNestedPlansAreCompiledOnce() {
+    DslBuilderImpl.dslMethodName.set("test");
+    var executions = new AtomicInteger();
+    var repeated = new CountingExpressionDsl(s -> executions.incrementAndGet());
+    var conditional = new CountingExpressionDsl(s -> executions.incrementAndGet());
+    var method = new DslMethodImpl("test", dsl()
+        .run(dsl().repeat(repeated, 2))
+        .runIf(s -> true, conditional))
+        .compile();
+
+    Flux.range(0, 100)
+        .flatMap(i -> method.materializer().materialize(newSession()), 8)
+        .blockLast();
+
+    assertThat(executions.get(), equalTo(300));
+    assertThat(repeated.compilations.get(), equalTo(1));
+    assertThat(conditional.compilations.get(), equalTo(1));
+  }
+
+  @Test(expected = NoSpecDefinedException.class)
+  public void testEmptyMethodIsRejectedAtCompilation() {
+    DslBuilderImpl.dslMethodName.set("test");
+    new DslMethodImpl("test", dsl()).compile();
+  }
+
+  @Test
+  public void testConditionalStepIsSkipped() {
+    DslBuilderImpl.dslMethodName.set("test");
+    var executions = new AtomicInteger();
+    var method = new DslMethodImpl("test", dsl()
+        .eval(s -> executions.incrementAndGet())
+        .runIf(s -> false, new ExpressionDslImpl(s -> executions.addAndGet(10))))
+        .compile();
+
+    var session = method.materializer().materialize(newSession()).block();
+
+    assertThat(session != null, is(true));
+    assertThat(executions.get(), equalTo(1));
+  }
+
+
+  private static final class CountingExpressionDsl extends ExpressionDslImpl {
+
+    private final AtomicInteger parentWrites = new AtomicInteger();
+    private final AtomicInteger compilations = new AtomicInteger();
+
+    private CountingExpressionDsl(final Consumer<UserSession> expression) {
+      super(expression);
+    }
+
+    @Override
+    public void setParent(final DslItem parent) {
+      parentWrites.incrementAndGet();
+      super.setParent(parent);
+    }
+
+    @Override
+    public DslMaterializer materializer() {
+      compilations.incrementAndGet();
+      return super.materializer();
+    }
+  }
+}
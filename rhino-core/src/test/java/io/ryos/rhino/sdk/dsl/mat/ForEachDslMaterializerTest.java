@@ -16,17 +16,34 @@
 
 package io.ryos.rhino.sdk.dsl.mat;
 
+import static io.ryos.rhino.sdk.dsl.DslBuilder.dsl;
+import static io.ryos.rhino.sdk.dsl.mat.TestSessions.newSession;
 import static io.ryos.rhino.sdk.dsl.utils.DslUtils.eval;
 import static io.ryos.rhino.sdk.dsl.utils.DslUtils.forEach;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import com.google.common.collect.ImmutableList;
+import io.ryos.rhino.sdk.data.UserSession;
 import io.ryos.rhino.sdk.data.UserSessionImpl;
+import io.ryos.rhino.sdk.dsl.MaterializableDslItem;
+import io.ryos.rhino.sdk.dsl.data.builder.ForEachBuilder;
+import io.ryos.rhino.sdk.dsl.data.builder.ForEachBuilderImpl;
 import io.ryos.rhino.sdk.dsl.impl.DslBuilderImpl;
+import io.ryos.rhino.sdk.dsl.impl.ExpressionDslImpl;
 import io.ryos.rhino.sdk.users.data.UserImpl;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.Test;
+import reactor.core.publisher.Mono;
 
 public class ForEachDslMaterializerTest {
 
@@ -43,4 +60,140 @@ public class ForEachDslMaterializerTest {
     assertEquals(1, (int) collectedNumbers.get(0));
     assertEquals(2, (int) collectedNumbers.get(1));
   }
+
+  @Test
+  public void testMaxConcurrency() {
+    DslBuilderImpl.dslMethodName.set("test");
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+    ForEachBuilder<Integer, List<Integer>, MaterializableDslItem> builder =
+        ForEachBuilderImpl.in(range(20));
+
+    dsl().forEach(builder
+        .exec(i -> delayed(s -> maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max),
+            s -> running.decrementAndGet()))
+        .concurrency(3))
+        .materializer()
+        .materialize(newSession())
+        .block();
+
+    assertEquals(3, maxRunning.get());
+    assertEquals(0, running.get());
+  }
+
+  @Test
+  public void testSequential() {
+    DslBuilderImpl.dslMethodName.set("test");
+    var collectedNumbers = new CopyOnWriteArrayList<Integer>();
+    ForEachBuilder<Integer, List<Integer>, MaterializableDslItem> builder =
+        ForEachBuilderImpl.in(range(10));
+
+    // the earlier elements take longer, so they would complete last if they were concurrent.
+    dsl().forEach(builder
+        .exec(i -> delayed(s -> {
+        }, s -> collectedNumbers.add(i), 50 - i * 5))
+        .sequential())
+        .materializer()
+        .materialize(newSession())
+        .block();
+
+    assertEquals(range(10), collectedNumbers);
+  }
+
+  @Test
+  public void testBatch() {
+    DslBuilderImpl.dslMethodName.set("test");
+    var chunks = new CopyOnWriteArrayList<List<Integer>>();
+    ForEachBuilder<Integer, List<Integer>, MaterializableDslItem> builder =
+        ForEachBuilderImpl.in(range(7));
+
+    dsl().forEach(builder.batch(3, chunk -> eval(s -> chunks.add(chunk))).sequential())
+        .materializer()
+        .materialize(newSession())
+        .block();
+
+    assertEquals(ImmutableList.of(ImmutableList.of(0, 1, 2), ImmutableList.of(3, 4, 5),
+        ImmutableList.of(6)), chunks);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testMapperRejectsConcurrency() {
+    ForEachBuilder<Integer, List<Integer>, MaterializableDslItem> builder =
+        ForEachBuilderImpl.in(range(3));
+
+    builder.concurrency(2).map(i -> i);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testOptionsRejectMapper() {
+    ForEachBuilder<Integer, List<Integer>, MaterializableDslItem> builder =
+        ForEachBuilderImpl.in(range(3));
+
+    builder.map(i -> i).collect("numbers").sequential();
+  }
+
+  @Test
+  public void testElementsArePulledLazily() {
+    DslBuilderImpl.dslMethodName.set("test");
+    var pulled = new AtomicInteger();
+    var maxAhead = new AtomicInteger();
+    var completed = new AtomicInteger();
+    Iterable<Integer> iterable = () -> new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return pulled.get() < 1000;
+      }
+
+      @Override
+      public Integer next() {
+        var next = pulled.incrementAndGet();
+        maxAhead.accumulateAndGet(next - completed.get(), Math::max);
+        return next;
+      }
+    };
+    ForEachBuilder<Integer, Iterable<Integer>, MaterializableDslItem> builder =
+        ForEachBuilderImpl.in(iterable);
+
+    dsl().forEach(builder.exec(i -> eval(s -> completed.incrementAndGet())).concurrency(4))
+        .materializer()
+        .materialize(newSession())
+        .block();
+
+    assertEquals(1000, completed.get());
+    assertTrue("max. elements ahead " + maxAhead.get(), maxAhead.get() <= 8);
+  }
+
+  private static List<Integer> range(final int size) {
+    return IntStream.range(0, size).boxed().collect(Collectors.toList());
+  }
+
+
+  private static MaterializableDslItem delayed(final Consumer<UserSession> onStart,
+      final Consumer<UserSession> onComplete) {
+    return delayed(onStart, onComplete, 20);
+  }
+
+  private static MaterializableDslItem delayed(final Consumer<UserSession> onStart,
+      final Consumer<UserSession> onComplete, final long millis) {
+    return new AsyncDsl(session -> Mono.fromRunnable(() -> onStart.accept(session))
+        .then(Mono.delay(Duration.ofMillis(millis)))
+        .doOnNext(t -> onComplete.accept(session))
+        .thenReturn(session));
+  }
+
+  private static final class AsyncDsl extends ExpressionDslImpl {
+
+    private final DslMaterializer materializer;
+
+    private AsyncDsl(final DslMaterializer materializer) {
+      super(s -> {
+      });
+      this.materializer = materializer;
+    }
+
+    @Override
+    public DslMaterializer materializer() {
+      return materializer;
+    }
+  }
 }
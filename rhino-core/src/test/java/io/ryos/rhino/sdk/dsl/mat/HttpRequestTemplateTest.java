@@ -0,0 +1,90 @@
+package io.ryos.rhino.sdk.dsl.mat;
+
+import static io.ryos.rhino.sdk.dsl.MaterializableDslItem.http;
+import static io.ryos.rhino.sdk.dsl.mat.TestSessions.newSession;
+import static io.ryos.rhino.sdk.dsl.utils.HeaderUtils.headerValue;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.ryos.rhino.sdk.SimulationConfig;
+import io.ryos.rhino.sdk.io.PayloadStore;
+import io.ryos.rhino.sdk.utils.Environment;
+import java.util.List;
+import java.util.Map;
+import org.asynchttpclient.Param;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class HttpRequestTemplateTest {
+
+  @BeforeClass
+  public static void setUp() {
+    SimulationConfig.newInstance("classpath:///rhino.properties", Environment.DEV,
+        HttpRequestTemplateTest.class);
+  }
+
+  @Test
+  public void testRequestOfTemplate() {
+    var session = newSession();
+    session.add("id", "42");
+    var dsl = http("Request")
+        .header("X-Api-Key", "key")
+        .header(s -> headerValue("X-Request-Id", s.<String>get("id").orElseThrow()))
+        .queryParam("q", "a b")
+        .queryParam(s -> Map.entry("id", List.of(s.<String>get("id").orElseThrow())))
+        .formParam("f", List.of("1", "2"))
+        .endpoint("http://localhost/resource")
+        .post();
+
+    var request = HttpRequestTemplate.compile(dsl).newRequest(session).build();
+
+    assertThat(request.getMethod(), equalTo("POST"));
+    assertThat(request.getUrl(), equalTo("http://localhost/resource?q=a%20b&id=42"));
+    assertThat(request.getHeaders().get("X-Api-Key"), equalTo("key"));
+    assertThat(request.getHeaders().get("X-Request-Id"), equalTo("42"));
+    assertThat(request.getFormParams(), equalTo(List.of(new Param("f", "1,2"))));
+  }
+
+  @Test
+  public void testDynamicEndpointKeepsItsQuery() {
+    var session = newSession();
+    var dsl = http("Request")
+        .queryParam("q", "1")
+        .endpoint(s -> "http://localhost/resource?page=2")
+        .get();
+
+    var request = HttpRequestTemplate.compile(dsl).newRequest(session).build();
+
+    assertThat(request.getUrl(), equalTo("http://localhost/resource?page=2&q=1"));
+  }
+
+  @Test
+  public void testConstantUrlIsEncodedOnce() {
+    var dsl = http("Request")
+        .queryParam("q", "a b")
+        .endpoint("http://localhost/my resource")
+        .get();
+
+    var request = HttpRequestTemplate.compile(dsl).newRequest(newSession()).build();
+
+    assertThat(request.getUrl(), equalTo("http://localhost/my%20resource?q=a%20b"));
+  }
+
+  @Test
+  public void testPayloadUploads() {
+    var filePayload = PayloadStore.file("classpath:///test.txt");
+    var bytesPayload = PayloadStore.of("bytes", new byte[] {1, 2, 3});
+
+    var fileRequest = HttpRequestTemplate.compile(http("Request")
+        .endpoint("http://localhost/resource")
+        .upload(filePayload)
+        .put()).newRequest(newSession()).build();
+    var bytesRequest = HttpRequestTemplate.compile(http("Request")
+        .endpoint("http://localhost/resource")
+        .upload(bytesPayload)
+        .post()).newRequest(newSession()).build();
+
+    assertThat(fileRequest.getFile(), equalTo(filePayload.getFile()));
+    assertThat(bytesRequest.getByteBufferData(), equalTo(bytesPayload.asByteBuffer()));
+  }
+}
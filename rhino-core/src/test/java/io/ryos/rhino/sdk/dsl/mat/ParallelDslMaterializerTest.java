@@ -0,0 +1,190 @@
+package io.ryos.rhino.sdk.dsl.mat;
+
+import static io.ryos.rhino.sdk.dsl.DslBuilder.dsl;
+import static io.ryos.rhino.sdk.dsl.mat.TestSessions.newSession;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.ryos.rhino.sdk.Simulation;
+import io.ryos.rhino.sdk.data.UserSession;
+import io.ryos.rhino.sdk.dsl.MaterializableDslItem;
+import io.ryos.rhino.sdk.dsl.data.JoinPolicy;
+import io.ryos.rhino.sdk.dsl.impl.DslBuilderImpl;
+import io.ryos.rhino.sdk.dsl.impl.DslMethodImpl;
+import io.ryos.rhino.sdk.dsl.impl.ExpressionDslImpl;
+import io.ryos.rhino.sdk.simulations.FilterSimulation;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+public class ParallelDslMaterializerTest {
+
+  @Before
+  public void setUp() {
+    Simulation.getInstance("classpath:///rhino.properties", FilterSimulation.class);
+    DslBuilderImpl.dslMethodName.set("test");
+  }
+
+  @Test
+  public void testChildrenRunConcurrently() {
+    var completed = ConcurrentHashMap.<String>newKeySet();
+    var method = compile(dsl().parallel("fan-out",
+        delayed("a", 300, completed),
+        delayed("b", 300, completed),
+        delayed("c", 300, completed)));
+
+    var start = System.currentTimeMillis();
+    var session = method.materializer().materialize(newSession()).block();
+    var elapsed = System.currentTimeMillis() - start;
+
+    assertThat(session, notNullValue());
+    assertThat(completed, equalTo(Set.of("a", "b", "c")));
+    assertThat("elapsed " + elapsed, elapsed < 800, is(true));
+  }
+
+  @Test
+  public void testMaxConcurrency() {
+    var running = new AtomicInteger();
+    var maxRunning = new AtomicInteger();
+    var children = new MaterializableDslItem[6];
+    for (int i = 0; i < children.length; i++) {
+      children[i] = counting(running, maxRunning);
+    }
+    var method = compile(dsl().parallel("fan-out", 2, JoinPolicy.all(), children));
+
+    method.materializer().materialize(newSession()).block();
+
+    assertThat(maxRunning.get(), equalTo(2));
+    assertThat(running.get(), equalTo(0));
+  }
+
+  @Test
+  public void testJoinFirst() {
+    var completed = ConcurrentHashMap.<String>newKeySet();
+    var method = compile(dsl().parallel("race", 2, JoinPolicy.first(),
+        delayed("slow", 2000, completed),
+        delayed("fast", 50, completed)));
+
+    var start = System.currentTimeMillis();
+    method.materializer().materialize(newSession()).block();
+    var elapsed = System.currentTimeMillis() - start;
+
+    assertThat(completed, equalTo(Set.of("fast")));
+    assertThat("elapsed " + elapsed, elapsed < 1500, is(true));
+  }
+
+  @Test
+  public void testJoinAny() {
+    var completed = ConcurrentHashMap.<String>newKeySet();
+    var executions = new AtomicInteger();
+    var method = compile(dsl()
+        .parallel("quorum", 3, JoinPolicy.any(2),
+            delayed("a", 50, completed),
+            delayed("b", 100, completed),
+            delayed("c", 2000, completed))
+        .eval(s -> executions.incrementAndGet()));
+
+    method.materializer().materialize(newSession()).block();
+
+    assertThat(completed, equalTo(Set.of("a", "b")));
+    assertThat(executions.get(), equalTo(1));
+  }
+
+  @Test
+  public void testFailedBranchDoesNotSatisfyJoinFirst() {
+    var completed = ConcurrentHashMap.<String>newKeySet();
+    var method = compile(dsl().parallel("race", 2, JoinPolicy.first(),
+        failing("empty", 50, Mono.empty()),
+        delayed("slow", 300, completed)));
+
+    var start = System.currentTimeMillis();
+    var session = method.materializer().materialize(newSession()).block();
+    var elapsed = System.currentTimeMillis() - start;
+
+    assertThat(session, notNullValue());
+    assertThat(completed, equalTo(Set.of("slow")));
+    assertThat("elapsed " + elapsed, elapsed >= 300, is(true));
+  }
+
+  @Test
+  public void testFailedBranchDoesNotSatisfyJoinAny() {
+    var completed = ConcurrentHashMap.<String>newKeySet();
+    var method = compile(dsl().parallel("quorum", 3, JoinPolicy.any(2),
+        delayed("a", 50, completed),
+        failing("error", 100, Mono.error(new IllegalStateException())),
+        delayed("c", 300, completed)));
+
+    var session = method.materializer().materialize(newSession()).block();
+
+    assertThat(session, notNullValue());
+    assertThat(completed, equalTo(Set.of("a", "c")));
+  }
+
+  @Test
+  public void testUserContinuesIfJoinIsNotSatisfied() {
+    var executions = new AtomicInteger();
+    var method = compile(dsl()
+        .parallel("quorum", 2, JoinPolicy.any(2),
+            delayed("a", 50, ConcurrentHashMap.newKeySet()),
+            failing("empty", 50, Mono.empty()))
+        .eval(s -> executions.incrementAndGet()));
+
+    method.materializer().materialize(newSession()).block();
+
+    assertThat(executions.get(), equalTo(1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMaxConcurrency() {
+    dsl().parallel("fan-out", 0, JoinPolicy.all(), delayed("a", 1, ConcurrentHashMap.newKeySet()));
+  }
+
+  private static DslMethodImpl compile(final MaterializableDslItem dsl) {
+    return new DslMethodImpl("test", dsl).compile();
+  }
+
+
+  private static MaterializableDslItem delayed(final String name, final long millis,
+      final Set<String> completed) {
+    return new AsyncDsl(name, s -> Mono.delay(Duration.ofMillis(millis))
+        .doOnNext(t -> completed.add(name))
+        .thenReturn(s));
+  }
+
+  private static MaterializableDslItem failing(final String name, final long millis,
+      final Mono<UserSession> outcome) {
+    return new AsyncDsl(name, s -> Mono.delay(Duration.ofMillis(millis)).then(outcome));
+  }
+
+  private static MaterializableDslItem counting(final AtomicInteger running,
+      final AtomicInteger maxRunning) {
+    return new AsyncDsl("", s -> Mono
+        .fromRunnable(() -> maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max))
+        .then(Mono.delay(Duration.ofMillis(50)))
+        .doOnNext(t -> running.decrementAndGet())
+        .thenReturn(s));
+  }
+
+  private static final class AsyncDsl extends ExpressionDslImpl {
+
+    private final DslMaterializer materializer;
+
+    private AsyncDsl(final String name, final DslMaterializer materializer) {
+      super(s -> {
+      });
+      setName(name);
+      this.materializer = materializer;
+    }
+
+    @Override
+    public DslMaterializer materializer() {
+      return materializer;
+    }
+  }
+}
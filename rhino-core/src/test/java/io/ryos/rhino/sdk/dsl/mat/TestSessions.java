@@ -0,0 +1,15 @@
+package io.ryos.rhino.sdk.dsl.mat;
+
+import io.ryos.rhino.sdk.data.UserSessionImpl;
+import io.ryos.rhino.sdk.users.data.UserImpl;
+import java.util.UUID;
+
+final class TestSessions {
+
+  private TestSessions() {
+  }
+
+  static UserSessionImpl newSession() {
+    return new UserSessionImpl(new UserImpl("user", UUID.randomUUID().toString(), "", ""));
+  }
+}
@@ -0,0 +1,161 @@
+package io.ryos.rhino.sdk.io;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import io.ryos.rhino.sdk.io.BinarySimulationLogConverter.Format;
+import io.ryos.rhino.sdk.reporting.ConnectionPhases;
+import io.ryos.rhino.sdk.reporting.ConnectionPhases.Phase;
+import io.ryos.rhino.sdk.reporting.EventSlot;
+import io.ryos.rhino.sdk.reporting.UserEvent.EventType;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BinarySimulationLogTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testEventsAreReadBackAcrossSegments() throws IOException {
+    var path = writeLog(1000);
+    assertTrue(Files.size(path) > 1024);
+
+    try (var reader = new BinarySimulationLogReader(path)) {
+      assertThat(reader.getSimulationClass(), equalTo("io.ryos.Simulation"));
+      assertThat(reader.getSimulationName(), equalTo("Binary Simulation"));
+
+      var slot = new EventSlot();
+      assertTrue(reader.next(slot));
+      assertThat(slot.getKind(), equalTo(EventSlot.Kind.USER));
+      assertThat(slot.getEventType(), equalTo(EventType.START));
+
+      for (int i = 0; i < 1000; i++) {
+        assertTrue(reader.next(slot));
+        assertThat(slot.getKind(), equalTo(EventSlot.Kind.DSL));
+        assertThat(slot.getUserId(), equalTo("user-" + i % 10));
+        assertThat(slot.getMeasurementPoint(), equalTo("step-" + i % 3));
+        assertThat(slot.getStatus(), equalTo("200"));
+        assertThat(slot.getLoadStage(), equalTo("steady"));
+        assertThat(slot.getStart(), equalTo(1000L + i));
+        assertThat(slot.getElapsed(), equalTo(5L));
+        assertThat(slot.getResponseTime(), equalTo(7L));
+      }
+
+      assertTrue(reader.next(slot));
+      assertThat(slot.getEventType(), equalTo(EventType.END));
+      assertFalse(reader.next(slot));
+    }
+  }
+
+  @Test
+  public void testConnectionPhasesAreReadBack() throws IOException {
+    var path = folder.getRoot().toPath().resolve("timed.bin");
+    var writer = new BinarySimulationLogWriter(path, "io.ryos.Simulation", "Binary Simulation",
+        256);
+    var phases = new ConnectionPhases();
+    phases.set(Phase.CONNECT, 1500L);
+    phases.set(Phase.TTFB, 2500L);
+    var slot = new EventSlot();
+    slot.setDslEvent("user-0", "scenario", "step", "200", "", 1000L, 1005L, 5L, 5L, null, phases);
+    writer.write(slot);
+    slot.setDslEvent("user-0", "scenario", "step", "200", "", 1005L, 1010L, 5L, 5L, null);
+    writer.write(slot);
+    writer.close();
+
+    try (var reader = new BinarySimulationLogReader(path)) {
+      assertTrue(reader.next(slot));
+      assertThat(slot.getConnectionPhases().get(Phase.DNS), equalTo(ConnectionPhases.NONE));
+      assertThat(slot.getConnectionPhases().get(Phase.CONNECT), equalTo(1500L));
+      assertThat(slot.getConnectionPhases().get(Phase.TTFB), equalTo(2500L));
+      assertTrue(reader.next(slot));
+      assertTrue(slot.getConnectionPhases().isEmpty());
+      assertFalse(reader.next(slot));
+    }
+
+    var output = folder.getRoot().toPath().resolve("timed.csv");
+    BinarySimulationLogConverter.convert(path, output, Format.CSV);
+    var lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+    assertThat(lines.get(1),
+        equalTo("REQUEST,user-0,scenario,step,200,,,1000,1005,5,5,,1500,,2500,"));
+  }
+
+  @Test
+  public void testConvertToCsv() throws IOException {
+    var path = writeLog(2);
+    var output = folder.getRoot().toPath().resolve("simulation.csv");
+
+    var converted = BinarySimulationLogConverter.convert(path, output, Format.CSV);
+
+    var lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+    assertThat(converted, equalTo(4L));
+    assertThat(lines.size(), equalTo(5));
+    assertThat(lines.get(2),
+        equalTo("REQUEST,user-0,scenario,step-0,200,steady,,1000,1005,5,7,,,,,"));
+  }
+
+  @Test
+  public void testConvertToGatling() throws IOException {
+    var path = writeLog(1);
+    var output = folder.getRoot().toPath().resolve("simulation.log");
+
+    BinarySimulationLogConverter.convert(path, output, Format.GATLING);
+
+    var lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+    assertThat(lines.get(0), startsWith("RUN\tio.ryos.Simulation\tBinary Simulation\t"));
+    assertThat(lines.get(2), equalTo("REQUEST\tuser-0\t\tstep-0\t1000\t1005\tOK\t "));
+  }
+
+  @Test
+  public void testUnknownUserEventTypeIsReportedAsCorrupt() throws IOException {
+    var path = writeLog(0);
+    var bytes = Files.readAllBytes(path);
+    // The type of the first user event follows the header, the dictionary records of the user and
+    // the scenario, the record type, and the user and scenario ids.
+    var offset = Integer.BYTES + Short.BYTES + Long.BYTES
+        + Integer.BYTES + "io.ryos.Simulation".length()
+        + Integer.BYTES + "Binary Simulation".length()
+        + 1 + 2 * Integer.BYTES + "user-0".length()
+        + 1 + 2 * Integer.BYTES + "scenario".length()
+        + 1 + 2 * Integer.BYTES;
+    assertThat(bytes[offset], equalTo((byte) EventType.START.ordinal()));
+    bytes[offset] = (byte) 0x7f;
+    Files.write(path, bytes);
+
+    try (var reader = new BinarySimulationLogReader(path)) {
+      reader.next(new EventSlot());
+      fail("Corrupt user event type is not detected.");
+    } catch (IOException e) {
+      assertThat(e.getMessage(),
+          equalTo("Corrupt binary simulation log, unknown user event type: 127"));
+    }
+  }
+
+  private Path writeLog(final int requests) {
+    var path = folder.getRoot().toPath().resolve("simulation.bin");
+    var writer = new BinarySimulationLogWriter(path, "io.ryos.Simulation", "Binary Simulation",
+        256);
+    var slot = new EventSlot();
+
+    slot.setUserEvent("user-0", "scenario", 900L, 900L, 0L, EventType.START, null);
+    writer.write(slot);
+    for (int i = 0; i < requests; i++) {
+      slot.setDslEvent("user-" + i % 10, "scenario", "step-" + i % 3, "200", "steady", 1000L + i,
+          1005L + i, 5L, 7L, null);
+      writer.write(slot);
+    }
+    slot.setUserEvent("user-0", "scenario", 900L, 2000L, 1100L, EventType.END, null);
+    writer.write(slot);
+    writer.close();
+    return path;
+  }
+}
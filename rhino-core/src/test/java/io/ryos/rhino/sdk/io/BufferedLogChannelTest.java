@@ -0,0 +1,119 @@
+package io.ryos.rhino.sdk.io;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.GZIPInputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BufferedLogChannelTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testLinesAreBufferedTillFlush() throws IOException {
+    var path = folder.getRoot().toPath().resolve("simulation.log");
+    var channel = new BufferedLogChannel(path,
+        LogWriterPolicy.buffered(1024, 60_000L, 0L, 0L, false));
+
+    channel.write("first\n");
+    channel.write("second\n");
+    assertThat(Files.size(path), equalTo(0L));
+
+    channel.flush();
+    assertThat(read(path), equalTo("first\nsecond\n"));
+    channel.close();
+  }
+
+  @Test
+  public void testLinesLargerThanTheBuffer() throws IOException {
+    var path = folder.getRoot().toPath().resolve("simulation.log");
+    var channel = new BufferedLogChannel(path,
+        LogWriterPolicy.buffered(16, 60_000L, 0L, 0L, false));
+
+    var line = "ä".repeat(100) + "\n";
+    channel.write(line);
+    channel.close();
+
+    assertThat(read(path), equalTo(line));
+  }
+
+  @Test
+  public void testRotationBySizeWithCompression() throws IOException {
+    var path = folder.getRoot().toPath().resolve("simulation.log");
+    var channel = new BufferedLogChannel(path,
+        LogWriterPolicy.buffered(64, 60_000L, 100L, 0L, true));
+
+    var expected = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      var line = "line-" + i + "\n";
+      expected.append(line);
+      channel.write(line);
+    }
+    channel.close();
+
+    var content = new StringBuilder();
+    var segment = 1;
+    for (; Files.exists(gzipOf(path, segment)); segment++) {
+      assertFalse(Files.exists(Paths.get(path + "." + segment)));
+      var rotated = gunzip(gzipOf(path, segment));
+      assertTrue("segment " + segment + " must end with a new line", rotated.endsWith("\n"));
+      assertTrue("segment " + segment + " exceeds the rotation size",
+          rotated.getBytes(StandardCharsets.UTF_8).length <= 100);
+      for (var record : rotated.split("\n")) {
+        assertTrue("segment " + segment + " holds a partial record: " + record,
+            record.matches("line-\\d+"));
+      }
+      content.append(rotated);
+    }
+    content.append(read(path));
+
+    assertTrue(segment > 2);
+    assertThat(content.toString(), equalTo(expected.toString()));
+  }
+
+  @Test
+  public void testRotationBySizeKeepsMultiByteLinesWhole() throws IOException {
+    var path = folder.getRoot().toPath().resolve("simulation.log");
+    var channel = new BufferedLogChannel(path,
+        LogWriterPolicy.buffered(16, 60_000L, 64L, 0L, false));
+
+    var line = "ä".repeat(20) + "\n";
+    for (int i = 0; i < 5; i++) {
+      channel.write(line);
+    }
+    channel.close();
+
+    for (int segment = 1; segment <= 4; segment++) {
+      assertThat(read(Paths.get(path + "." + segment)), equalTo(line));
+    }
+    assertThat(read(path), equalTo(line));
+  }
+
+  private static Path gzipOf(final Path path, final int segment) {
+    return Paths.get(path + "." + segment + ".gz");
+  }
+
+  private static String read(final Path path) throws IOException {
+    return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+  }
+
+  private static String gunzip(final Path path) throws IOException {
+    try (var in = new GZIPInputStream(Files.newInputStream(path))) {
+      var out = new ByteArrayOutputStream();
+      in.transferTo(out);
+      return out.toString(StandardCharsets.UTF_8);
+    }
+  }
+}
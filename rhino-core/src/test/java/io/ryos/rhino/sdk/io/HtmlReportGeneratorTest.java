@@ -0,0 +1,93 @@
+package io.ryos.rhino.sdk.io;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.ryos.rhino.sdk.reporting.CsvSimulationLogFormatter;
+import io.ryos.rhino.sdk.reporting.EventSlot;
+import io.ryos.rhino.sdk.reporting.UserEvent.EventType;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HtmlReportGeneratorTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testReportOfBinaryLog() throws IOException {
+    var input = folder.getRoot().toPath().resolve("simulation.bin");
+    var writer = new BinarySimulationLogWriter(input, "io.ryos.Simulation", "Binary Simulation",
+        256);
+    var slot = new EventSlot();
+    slot.setUserEvent("user-0", "scenario", 1000L, 1000L, 0L, EventType.START, null);
+    writer.write(slot);
+    for (int i = 0; i < 30; i++) {
+      slot.setDslEvent("user-0", "scenario", "step-" + i % 3, i == 0 ? "500" : "200", "steady",
+          1000L + i * 100, 1005L + i * 100, 5L, 5L, null);
+      writer.write(slot);
+    }
+    slot.setUserEvent("user-0", "scenario", 1000L, 4000L, 3000L, EventType.END, null);
+    writer.write(slot);
+    writer.close();
+
+    var html = generate(input);
+
+    assertThat(html, containsString("<h1>Report</h1>"));
+    assertThat(html, containsString("<svg"));
+    assertThat(html, containsString("step-2"));
+    assertThat(html, containsString("500"));
+    assertThat(html, containsString("Errors by status"));
+  }
+
+  @Test
+  public void testReportOfCsvLog() throws IOException {
+    var input = folder.getRoot().toPath().resolve("simulation.csv");
+    Files.write(input, List.of(CsvSimulationLogFormatter.CSV_HEADER.trim(),
+        "USER,user-0,scenario,,,,START,1000,1000,0,0",
+        "REQUEST,user-0,scenario,upload,201,steady,,1000,1010,10,12",
+        "REQUEST,user-0,scenario,\"get, file\",404,steady,,1100,1120,20,20",
+        "USER,user-0,scenario,,,,END,1000,1200,200,200"), StandardCharsets.UTF_8);
+
+    var output = folder.getRoot().toPath().resolve("report.html");
+    var events = HtmlReportGenerator.generate(input, output, "Report");
+    var html = Files.readString(output, StandardCharsets.UTF_8);
+
+    assertThat(events, equalTo(4L));
+    assertThat(html, containsString("upload"));
+    assertThat(html, containsString("get, file"));
+    assertThat(html, containsString("404"));
+  }
+
+  @Test
+  public void testReportOfGatlingLogWithErrorMessages() throws IOException {
+    var input = folder.getRoot().toPath().resolve("simulation.log");
+    Files.write(input, List.of("RUN\tio.ryos.Simulation\tGatling Simulation\t1000\trhino\t3.0",
+        "USER\tscenario\tuser-0\tSTART\t1000\t1000",
+        "REQUEST\tuser-0\t\tupload\t1000\t1010\tOK\t ",
+        "REQUEST\tuser-0\t\tdownload\t1100\t1130\tKO\tstatus.find.is(200), but actually "
+            + "found 503",
+        "USER\tscenario\tuser-0\tEND\t1000\t1200"), StandardCharsets.UTF_8);
+
+    var output = folder.getRoot().toPath().resolve("report.html");
+    var events = HtmlReportGenerator.generate(input, output, "Report");
+    var html = Files.readString(output, StandardCharsets.UTF_8);
+
+    assertThat(events, equalTo(4L));
+    assertThat(html, containsString("download"));
+    assertThat(html, containsString("KO"));
+  }
+
+  private String generate(final Path input) throws IOException {
+    var output = folder.getRoot().toPath().resolve("report.html");
+    HtmlReportGenerator.generate(input, output, "Report");
+    return Files.readString(output, StandardCharsets.UTF_8);
+  }
+}
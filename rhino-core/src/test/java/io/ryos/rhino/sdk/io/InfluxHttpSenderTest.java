@@ -0,0 +1,165 @@
+package io.ryos.rhino.sdk.io;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class InfluxHttpSenderTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final List<String> received = new CopyOnWriteArrayList<>();
+  private final AtomicInteger failures = new AtomicInteger();
+  private volatile int failureStatus = 503;
+  private HttpServer server;
+
+  @Before
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/write", exchange -> {
+      var status = 204;
+      if (failures.get() > 0) {
+        failures.decrementAndGet();
+        status = failureStatus;
+      } else {
+        assertThat(exchange.getRequestHeaders().getFirst("Content-Encoding"), equalTo("gzip"));
+        assertThat(exchange.getRequestURI().getQuery(), equalTo("db=rhino&precision=ns"));
+        try (var in = new GZIPInputStream(exchange.getRequestBody())) {
+          received.add(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+      }
+      exchange.sendResponseHeaders(status, -1);
+      exchange.close();
+    });
+    server.start();
+  }
+
+  @After
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  public void testBatchesArePosted() throws IOException {
+    var sender = newSender(null);
+    sender.submit(gzip("m f=1i 1\n"));
+    sender.submit(gzip("m f=2i 2\n"));
+    sender.close(5000L);
+
+    assertThat(received.toString(), equalTo("[m f=1i 1\n, m f=2i 2\n]"));
+    assertThat(sender.getSent(), equalTo(2L));
+  }
+
+  @Test
+  public void testFailedWritesAreRetried() throws IOException {
+    failures.set(2);
+    var sender = newSender(null);
+    sender.submit(gzip("m f=1i 1\n"));
+    sender.close(5000L);
+
+    assertThat(received.size(), equalTo(1));
+    assertThat(sender.getDropped(), equalTo(0L));
+  }
+
+  @Test
+  public void testRejectedBatchesAreNotRetried() throws IOException {
+    failures.set(1);
+    failureStatus = 400;
+    var sender = newSender(null);
+    sender.submit(gzip("m f=1i 1\n"));
+    sender.close(5000L);
+
+    assertThat(received.size(), equalTo(0));
+    assertThat(sender.getDropped(), equalTo(1L));
+    assertThat(sender.getSent(), equalTo(0L));
+  }
+
+  @Test
+  public void testBatchesAreSpilledAndReplayed() throws IOException {
+    var spillDirectory = folder.newFolder("spill").toPath();
+    failures.set(3);
+    var sender = newSender(spillDirectory);
+    sender.submit(gzip("m f=1i 1\n"));
+
+    // The first batch exhausts the retries and is spilled, the second one is sent and triggers
+    // the replay of the spilled batch.
+    waitFor(() -> sender.getSpilled() == 1);
+    sender.submit(gzip("m f=2i 2\n"));
+    waitFor(() -> received.size() == 2);
+    sender.close(5000L);
+
+    assertThat(received.toString(), equalTo("[m f=2i 2\n, m f=1i 1\n]"));
+    try (var files = Files.list(spillDirectory)) {
+      assertThat(files.count(), equalTo(0L));
+    }
+  }
+
+  @Test
+  public void testBatchesSpilledByPreviousRunAreReplayed() throws IOException {
+    var spillDirectory = folder.newFolder("spill").toPath();
+    failures.set(Integer.MAX_VALUE);
+    var first = newSender(spillDirectory);
+    first.submit(gzip("m f=1i 1\n"));
+    first.close(100L);
+    assertTrue(first.getSpilled() == 1);
+
+    failures.set(0);
+    var second = newSender(spillDirectory);
+    waitFor(() -> received.size() == 1);
+    second.close(5000L);
+
+    assertThat(received.toString(), equalTo("[m f=1i 1\n]"));
+  }
+
+  private InfluxHttpSender newSender(final Path spillDirectory) {
+    return InfluxHttpSender.builder()
+        .url("http://localhost:" + server.getAddress().getPort() + "/")
+        .database("rhino")
+        .retries(2, 10L, 20L)
+        .timeouts(Duration.ofSeconds(1), Duration.ofSeconds(1))
+        .spillDirectory(spillDirectory)
+        .build();
+  }
+
+  private static byte[] gzip(final String lines) throws IOException {
+    var out = new ByteArrayOutputStream();
+    try (var gzip = new GZIPOutputStream(out)) {
+      gzip.write(lines.getBytes(StandardCharsets.UTF_8));
+    }
+    return out.toByteArray();
+  }
+
+  private static void waitFor(final BooleanSupplier condition) {
+    var deadline = System.currentTimeMillis() + 5000L;
+    while (!condition.getAsBoolean()) {
+      assertTrue("Timed out", System.currentTimeMillis() < deadline);
+      try {
+        Thread.sleep(10L);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+}
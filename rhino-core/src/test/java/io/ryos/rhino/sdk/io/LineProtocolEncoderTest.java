@@ -0,0 +1,46 @@
+package io.ryos.rhino.sdk.io;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Test;
+
+public class LineProtocolEncoderTest {
+
+  @Test
+  public void testPointIsEncoded() {
+    var encoder = new LineProtocolEncoder(4);
+    encoder.measurement("simulation_1")
+        .tag("step", "get user")
+        .tag("status", "200")
+        .tag("stage", "")
+        .field("scenario", "Say \"hello\"")
+        .field("pt", 12L)
+        .field("mean", 1.5d)
+        .end(1000L);
+
+    assertThat(encoder.toString(), equalTo(
+        "simulation_1,step=get\\ user,status=200 scenario=\"Say \\\"hello\\\"\",pt=12i,mean=1.5 "
+            + "1000\n"));
+    assertThat(encoder.lines(), equalTo(1));
+  }
+
+  @Test
+  public void testSpecialCharactersAreEscaped() {
+    var encoder = new LineProtocolEncoder();
+    encoder.measurement("m,1").tag("k=1", "a,b=c").field("f", "ü").end(1L);
+
+    assertThat(encoder.toString(), equalTo("m\\,1,k\\=1=a\\,b\\=c f=\"ü\" 1\n"));
+  }
+
+  @Test
+  public void testResetKeepsTheBuffer() {
+    var encoder = new LineProtocolEncoder();
+    encoder.measurement("m").field("f", 1L).end(1L);
+    encoder.reset();
+    encoder.measurement("n").field("f", 2L).end(2L);
+
+    assertThat(encoder.toString(), equalTo("n f=2i 2\n"));
+    assertThat(encoder.lines(), equalTo(1));
+  }
+}
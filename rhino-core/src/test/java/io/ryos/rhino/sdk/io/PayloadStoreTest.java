@@ -0,0 +1,125 @@
+package io.ryos.rhino.sdk.io;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.ryos.rhino.sdk.exceptions.ConfigurationNotFoundException;
+import io.ryos.rhino.sdk.exceptions.RhinoIOException;
+import io.ryos.rhino.sdk.providers.RandomInMemoryFile;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.junit.Test;
+
+public class PayloadStoreTest {
+
+  @Test
+  public void testFileIsLoadedOnce() throws IOException {
+    var file = Files.createTempFile("payload", ".txt");
+    Files.writeString(file, "content");
+    try {
+      var payload = PayloadStore.file("file://" + file.toAbsolutePath());
+
+      assertThat(PayloadStore.file("file://" + file.toAbsolutePath()), sameInstance(payload));
+      assertThat(payload.isFile(), equalTo(true));
+      assertThat(payload.size(), equalTo(7L));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testLargeFileIsNotMapped() throws IOException {
+    var file = Files.createTempFile("payload", ".bin");
+    var size = Integer.MAX_VALUE + 2L;
+    try (var randomAccessFile = new RandomAccessFile(file.toFile(), "rw")) {
+      randomAccessFile.setLength(size);
+    }
+    try {
+      var payload = PayloadStore.file("file://" + file.toAbsolutePath());
+
+      assertThat(payload.size(), equalTo(size));
+      try (var stream = payload.newInputStream()) {
+        assertThat(stream.read(), equalTo(0));
+      }
+      try {
+        payload.asByteBuffer();
+        throw new AssertionError("Large payload must not be mapped.");
+      } catch (RhinoIOException e) {
+        assertThat(payload.getFile(), equalTo(file.toFile()));
+      }
+    } finally {
+      PayloadStore.release("file://" + file.toAbsolutePath());
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testReleasedPayloadIsLoadedAgain() throws IOException {
+    var file = Files.createTempFile("payload", ".txt");
+    Files.writeString(file, "content");
+    try {
+      var payload = PayloadStore.file("file://" + file.toAbsolutePath());
+      PayloadStore.release("file://" + file.toAbsolutePath());
+
+      assertThat(PayloadStore.file("file://" + file.toAbsolutePath()),
+          not(sameInstance(payload)));
+    } finally {
+      PayloadStore.release("file://" + file.toAbsolutePath());
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testViewsAreIndependent() throws IOException {
+    var payload = PayloadStore.file("classpath:///test.txt");
+    var expected = payload.newInputStream().readAllBytes();
+
+    var first = payload.newInputStream();
+    first.readAllBytes();
+
+    assertThat(payload.getFile(), notNullValue());
+    assertThat(payload.newInputStream().readAllBytes(), equalTo(expected));
+    assertThat(payload.asByteBuffer().remaining(), equalTo(expected.length));
+  }
+
+  @Test
+  public void testRandomPayloadOfSeed() throws IOException {
+    var payload = PayloadStore.random(1001, 42L);
+
+    assertThat(payload.newInputStream().readAllBytes(),
+        equalTo(PayloadStore.random(1001, 42L).newInputStream().readAllBytes()));
+    assertThat(payload.newInputStream().readAllBytes(),
+        not(equalTo(PayloadStore.random(1001, 43L).newInputStream().readAllBytes())));
+    assertThat(payload.asByteBuffer().isDirect(), equalTo(true));
+  }
+
+  @Test
+  public void testPayloadIsImmutable() throws IOException {
+    var content = "content".getBytes(StandardCharsets.UTF_8);
+    var payload = PayloadStore.of("bytes", content);
+    content[0] = 'X';
+
+    assertThat(payload.asByteBuffer().isReadOnly(), equalTo(true));
+    assertThat(new String(payload.newInputStream().readAllBytes(), StandardCharsets.UTF_8),
+        equalTo("content"));
+  }
+
+  @Test
+  public void testRandomInMemoryFileCanBeUploadedRepeatedly() throws IOException {
+    var file = new RandomInMemoryFile(64, "plain/text", 1L);
+
+    assertThat(file.asStream().readAllBytes().length, equalTo(64));
+    assertThat(file.asStream().readAllBytes(),
+        equalTo(file.getPayload().newInputStream().readAllBytes()));
+  }
+
+  @Test(expected = ConfigurationNotFoundException.class)
+  public void testMissingFile() {
+    PayloadStore.file("classpath:///no-such-payload.bin");
+  }
+}
@@ -0,0 +1,90 @@
+package io.ryos.rhino.sdk.io;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import com.sun.net.httpserver.HttpServer;
+import io.netty.buffer.Unpooled;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+import org.asynchttpclient.Dsl;
+import org.asynchttpclient.request.body.Body.BodyState;
+import org.asynchttpclient.util.StringUtils;
+import org.junit.Test;
+
+public class RandomContentTest {
+
+  @Test
+  public void testContentIsDeterministic() throws IOException {
+    var content = RandomContent.of(42L, 1001L);
+
+    assertThat(content.newInputStream().readAllBytes(),
+        equalTo(PayloadStore.random(1001, 42L).newInputStream().readAllBytes()));
+  }
+
+  @Test
+  public void testBodyDoesNotDependOnChunkSize() throws IOException {
+    var content = RandomContent.of(7L, 1001L);
+    var body = content.createBody();
+    var out = new ByteArrayOutputStream();
+    var state = BodyState.CONTINUE;
+    while (state != BodyState.STOP) {
+      var chunk = Unpooled.buffer(13, 13);
+      state = body.transferTo(chunk);
+      chunk.readBytes(out, chunk.readableBytes());
+    }
+
+    assertThat(body.getContentLength(), equalTo(1001L));
+    assertThat(out.toByteArray(), equalTo(content.newInputStream().readAllBytes()));
+  }
+
+  @Test
+  public void testDigestOfContent() throws Exception {
+    var content = RandomContent.of(1L, 100_003L);
+
+    var expected = MessageDigest.getInstance("SHA-256")
+        .digest(content.newInputStream().readAllBytes());
+    assertThat(content.digest("SHA-256"), equalTo(StringUtils.toHexString(expected)));
+  }
+
+  @Test
+  public void testUploadIsVerifiedByChecksum() throws Exception {
+    var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/upload", exchange -> {
+      try (var body = exchange.getRequestBody()) {
+        var digest = MessageDigest.getInstance("SHA-256");
+        var buffer = new byte[8192];
+        int read;
+        while ((read = body.read(buffer)) >= 0) {
+          digest.update(buffer, 0, read);
+        }
+        var response = StringUtils.toHexString(digest.digest())
+            .getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, response.length);
+        exchange.getResponseBody().write(response);
+      } catch (Exception e) {
+        exchange.sendResponseHeaders(500, -1);
+      } finally {
+        exchange.close();
+      }
+    });
+    server.start();
+
+    var content = RandomContent.of(3L, 8L * 1024 * 1024 + 5);
+    try (var client = Dsl.asyncHttpClient()) {
+      var response = client
+          .preparePut("http://localhost:" + server.getAddress().getPort() + "/upload")
+          .setBody(content)
+          .execute()
+          .get(30, TimeUnit.SECONDS);
+
+      assertThat(response.getResponseBody(), equalTo(content.digest("SHA-256")));
+    } finally {
+      server.stop(0);
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package io.ryos.rhino.sdk.monitoring;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.netty.channel.DefaultEventLoopGroup;
+import io.ryos.rhino.sdk.reporting.GeneratorHealth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class GeneratorHealthMonitorTest {
+
+  @Test
+  public void testBlockedEventLoopIsReportedAsLag() throws Exception {
+    var eventLoopGroup = new DefaultEventLoopGroup(1);
+    var samples = new HashMap<String, Long>();
+    var monitor = new GeneratorHealthMonitor(eventLoopGroup,
+        (metric, timestamp, value) -> samples.put(metric, value));
+    try {
+      var blocked = new CountDownLatch(1);
+      eventLoopGroup.execute(() -> {
+        blocked.countDown();
+        sleep(300L);
+      });
+      blocked.await(1, TimeUnit.SECONDS);
+
+      monitor.probe();
+      sleep(500L);
+      monitor.sample();
+
+      assertThat(samples.keySet(), hasItems(GeneratorHealth.EVENT_LOOP_LAG,
+          GeneratorHealth.GC_PAUSE, GeneratorHealth.HEAP_USED, GeneratorHealth.HEAP_USAGE));
+      assertThat(samples.get(GeneratorHealth.EVENT_LOOP_LAG) >= 200L, equalTo(true));
+
+      monitor.sample();
+      assertThat(samples.get(GeneratorHealth.EVENT_LOOP_LAG), equalTo(0L));
+    } finally {
+      monitor.close();
+      eventLoopGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void testGeneratorHealthWarnsOnceThresholdsAreExceeded() {
+    var health = new GeneratorHealth();
+    health.record(GeneratorHealth.CPU, 40L);
+    health.record(GeneratorHealth.EVENT_LOOP_LAG, 3L);
+    assertThat(health.getWarnings().isEmpty(), equalTo(true));
+
+    health.record(GeneratorHealth.CPU, 97L);
+    health.record(GeneratorHealth.EVENT_LOOP_LAG, 120L);
+    health.record(GeneratorHealth.CPU, 50L);
+    assertThat(health.getWarnings(), equalTo(List.of("Process CPU peaked at 97 %.",
+        "Event loops lagged up to 120 ms, callbacks are blocking them.")));
+
+    health.reset();
+    assertThat(health.hasSamples(), equalTo(false));
+    assertThat(health.getWarnings().isEmpty(), equalTo(true));
+  }
+
+  @Test
+  public void testGaugesAreSampledAsShardUtilisation() {
+    var samples = new HashMap<String, Long>();
+    var monitor = new GeneratorHealthMonitor(List.of(),
+        (metric, timestamp, value) -> samples.put(metric, value));
+    monitor.addGauge(GeneratorHealth.shardUtilisation(0), () -> 40L);
+    monitor.addGauge(GeneratorHealth.shardUtilisation(1), () -> 100L);
+    monitor.sample();
+    monitor.close();
+
+    var health = new GeneratorHealth();
+    samples.forEach((metric, value) -> {
+      if (metric.startsWith(GeneratorHealth.SHARD_UTILISATION)) {
+        health.record(metric, value);
+      }
+    });
+    assertThat(health.getShardSummary(), equalTo("shard 0 40 %, shard 1 100 %"));
+    assertThat(health.getWarnings(), equalTo(List.of("HTTP client shard 1 used all of its "
+        + "connections, requests are queued in the client.")));
+
+    health.reset();
+    assertThat(health.getWarnings().isEmpty(), equalTo(true));
+  }
+
+  private static void sleep(final long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package io.ryos.rhino.sdk.monitoring;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.ryos.rhino.sdk.reporting.EventSlot;
+import io.ryos.rhino.sdk.reporting.LiveMetrics;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import org.junit.Test;
+
+public class OpenMetricsEndpointTest {
+
+  @Test
+  public void testRenderCountersGaugesAndCumulativeHistogram() {
+    var liveMetrics = new LiveMetrics();
+    record(liveMetrics, "Upload \"large\"", "200", 10_200L, 3L);
+    record(liveMetrics, "Upload \"large\"", "200", 10_400L, 40L);
+    record(liveMetrics, "Upload \"large\"", "200", 10_600L, 20_000L);
+
+    var text = OpenMetricsEndpoint.render(liveMetrics, 11_100L);
+
+    var labels = "{scenario=\"scenario\",step=\"Upload \\\"large\\\"\",status=\"200\"";
+    assertThat(text, containsString("rhino_requests_total" + labels + "} 3\n"));
+    assertThat(text, containsString("rhino_achieved_rps 3\n"));
+    assertThat(text, containsString("rhino_service_time_milliseconds_bucket" + labels
+        + ",le=\"5.0\"} 1\n"));
+    assertThat(text, containsString("rhino_service_time_milliseconds_bucket" + labels
+        + ",le=\"50.0\"} 2\n"));
+    assertThat(text, containsString("rhino_service_time_milliseconds_bucket" + labels
+        + ",le=\"10000.0\"} 2\n"));
+    assertThat(text, containsString("rhino_service_time_milliseconds_bucket" + labels
+        + ",le=\"+Inf\"} 3\n"));
+    assertThat(text, containsString("rhino_service_time_milliseconds_sum" + labels + "} 20043\n"));
+    assertThat(text.endsWith("# EOF\n"), equalTo(true));
+  }
+
+  @Test
+  public void testScrapeEndpoint() throws Exception {
+    var liveMetrics = new LiveMetrics();
+    record(liveMetrics, "step", "500", System.currentTimeMillis(), 7L);
+
+    var endpoint = OpenMetricsEndpoint.start(liveMetrics, 0);
+    try {
+      var client = HttpClient.newHttpClient();
+      var response = client.send(HttpRequest.newBuilder(
+          URI.create("http://localhost:" + endpoint.getPort() + "/metrics")).build(),
+          BodyHandlers.ofString());
+
+      assertThat(response.statusCode(), equalTo(200));
+      assertThat(response.headers().firstValue("Content-Type").orElse(""),
+          startsWith("application/openmetrics-text"));
+      assertThat(response.body(), containsString(
+          "rhino_requests_total{scenario=\"scenario\",step=\"step\",status=\"500\"} 1\n"));
+    } finally {
+      endpoint.stop();
+    }
+  }
+
+  private static void record(final LiveMetrics liveMetrics, final String step,
+      final String status, final long end, final long elapsed) {
+    var slot = new EventSlot();
+    slot.setDslEvent("user", "scenario", step, status, "steady", end - elapsed, end, elapsed,
+        elapsed, null);
+    liveMetrics.record(slot);
+  }
+}
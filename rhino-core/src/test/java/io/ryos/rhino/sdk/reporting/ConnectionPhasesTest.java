@@ -0,0 +1,44 @@
+package io.ryos.rhino.sdk.reporting;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.ryos.rhino.sdk.reporting.ConnectionPhases.Phase;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class ConnectionPhasesTest {
+
+  @Test
+  public void testPhasesAreMeasuredBetweenBeginAndEnd() throws InterruptedException {
+    var phases = new ConnectionPhases();
+    assertTrue(phases.isEmpty());
+
+    phases.begin(Phase.TTFB);
+    TimeUnit.MILLISECONDS.sleep(5L);
+    phases.end(Phase.TTFB);
+    phases.end(Phase.DOWNLOAD);
+
+    assertFalse(phases.isEmpty());
+    assertTrue(phases.get(Phase.TTFB) >= TimeUnit.MILLISECONDS.toMicros(5L));
+    assertThat(phases.get(Phase.DOWNLOAD), equalTo(ConnectionPhases.NONE));
+  }
+
+  @Test
+  public void testSlotCopiesThePhases() {
+    var phases = new ConnectionPhases();
+    phases.set(Phase.DNS, 120L);
+    var slot = new EventSlot();
+    slot.setDslEvent("user", "scenario", "step", "200", "", 0L, 1L, 1L, 1L, null, phases);
+    phases.reset();
+
+    assertThat(slot.getConnectionPhases().get(Phase.DNS), equalTo(120L));
+    var event = (DslEvent) slot.toLogEvent();
+    assertThat(event.getConnectionPhases().get(Phase.DNS), equalTo(120L));
+
+    slot.setUserEvent("user", "scenario", 0L, 1L, 1L, UserEvent.EventType.END, null);
+    assertTrue(slot.getConnectionPhases().isEmpty());
+  }
+}
@@ -0,0 +1,80 @@
+package io.ryos.rhino.sdk.reporting;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.ryos.rhino.sdk.reporting.UserEvent.EventType;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class EventRingBufferTest {
+
+  @Test
+  public void testPublishAndDrainInOrder() {
+    var ringBuffer = new EventRingBuffer(4);
+    for (int i = 0; i < 3; i++) {
+      ringBuffer.claim().setDslEvent("user", "scenario", "step-" + i, "200", "", i, i + 1, 1, 1,
+          null);
+      ringBuffer.publish();
+    }
+
+    var steps = new ArrayList<String>();
+    var drained = ringBuffer.drain(slot -> steps.add(slot.getMeasurementPoint()), 2);
+
+    assertThat(drained, equalTo(2));
+    assertThat(steps.toString(), equalTo("[step-0, step-1]"));
+    assertThat(ringBuffer.size(), equalTo(1));
+  }
+
+  @Test
+  public void testClaimReturnsNullIfFull() {
+    var ringBuffer = new EventRingBuffer(2);
+    for (int i = 0; i < 2; i++) {
+      ringBuffer.claim().setUserEvent("user", "scenario", 0L, 0L, 0L, EventType.START, null);
+      ringBuffer.publish();
+    }
+
+    assertThat(ringBuffer.claim(), nullValue());
+
+    ringBuffer.drain(slot -> { }, 1);
+    assertThat(ringBuffer.claim() != null, equalTo(true));
+  }
+
+  @Test
+  public void testConcurrentProducerAndConsumer() throws InterruptedException {
+    var ringBuffer = new EventRingBuffer(64);
+    var events = 100_000;
+    var producer = new Thread(() -> {
+      for (int i = 0; i < events; i++) {
+        var slot = ringBuffer.claim();
+        while (slot == null) {
+          Thread.onSpinWait();
+          slot = ringBuffer.claim();
+        }
+        slot.setDslEvent("user", "scenario", "step", "200", "", i, i, i, i, null);
+        ringBuffer.publish();
+      }
+    });
+    producer.start();
+
+    var expected = new AtomicLong();
+    var mismatches = new AtomicLong();
+    while (expected.get() < events) {
+      ringBuffer.drain(slot -> {
+        if (slot.getStart() != expected.getAndIncrement()) {
+          mismatches.incrementAndGet();
+        }
+      }, 16);
+    }
+    producer.join();
+
+    assertThat(mismatches.get(), equalTo(0L));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCapacityMustBePowerOfTwo() {
+    new EventRingBuffer(3);
+  }
+}
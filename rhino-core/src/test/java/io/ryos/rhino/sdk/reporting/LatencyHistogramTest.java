@@ -0,0 +1,41 @@
+package io.ryos.rhino.sdk.reporting;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void testCumulativeAndIntervalPercentiles() {
+    var histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i);
+    }
+    histogram.roll();
+
+    assertThat(histogram.getCumulative().getTotalCount(), equalTo(1000L));
+    assertThat(histogram.getInterval().getTotalCount(), equalTo(1000L));
+    assertTrue(Math.abs(histogram.getCumulative().getValueAtPercentile(99.0) - 990) <= 1);
+
+    histogram.record(5000);
+    histogram.roll();
+
+    assertThat(histogram.getCumulative().getTotalCount(), equalTo(1001L));
+    assertThat(histogram.getInterval().getTotalCount(), equalTo(1L));
+    assertTrue(Math.abs(histogram.getCumulative().getMaxValue() - 5000) <= 5);
+  }
+
+  @Test
+  public void testValuesOutOfRangeAreClamped() {
+    var histogram = new LatencyHistogram();
+    histogram.record(-1);
+    histogram.record(Long.MAX_VALUE);
+    histogram.roll();
+
+    assertThat(histogram.getCumulative().getTotalCount(), equalTo(2L));
+    assertThat(histogram.getCumulative().getMinValue(), equalTo(0L));
+  }
+}
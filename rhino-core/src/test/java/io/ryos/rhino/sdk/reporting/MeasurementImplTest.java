@@ -3,16 +3,21 @@ package io.ryos.rhino.sdk.reporting;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsNull.notNullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 
+import io.ryos.rhino.sdk.reporting.UserEvent.EventType;
 import io.ryos.rhino.sdk.runners.EventDispatcher;
 import java.util.List;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -40,9 +45,43 @@ public class MeasurementImplTest {
     measurement.measure("test", "OK");
     measurement.finish();
 
+    verify(dispatcherMock, times(1)).dispatchUserEvent(eq(userId), eq(parentName), anyLong(),
+        anyLong(), anyLong(), eq(EventType.START), any());
+    verify(dispatcherMock, times(1)).dispatchDslEvent(eq(userId), eq(parentName), eq("test"),
+        eq("OK"), any(), anyLong(), anyLong(), anyLong(), anyLong(), any(), any());
+    verify(dispatcherMock, times(1)).dispatchUserEvent(eq(userId), eq(parentName), anyLong(),
+        anyLong(), anyLong(), eq(EventType.END), any());
+    verify(dispatcherMock, times(1)).dispatchEvents(measurement);
+  }
+
+  @Test
+  public void testRecordedEventsAreKeptTillDispatched() {
+    var dispatcherMock = mock(EventDispatcher.class);
+
+    final MeasurementImpl measurement = new MeasurementImpl(parentName,
+        userId, measurementName, false, measurementEnabled, dispatcherMock);
+    measurement.record(new UserEvent("", userId, parentName, 0L, 0L, 0L, EventType.START, "",
+        userId, null));
+
     final List<LogEvent> events = measurement.getEvents();
     assertThat(events, notNullValue());
-    assertThat(events.size(), equalTo(3));
-    verify(dispatcherMock, times(1)).dispatchEvents(measurement);
+    assertThat(events.size(), equalTo(1));
+  }
+
+  @Test
+  public void testResponseTimeFromIntendedStart() {
+    var dispatcherMock = mock(EventDispatcher.class);
+
+    final MeasurementImpl measurement = new MeasurementImpl(parentName,
+        userId, measurementName, false, measurementEnabled, dispatcherMock);
+    measurement.setIntendedStart(System.currentTimeMillis() - 1000L);
+    measurement.start();
+    measurement.measure("test", "OK");
+
+    var elapsed = ArgumentCaptor.forClass(Long.class);
+    var responseTime = ArgumentCaptor.forClass(Long.class);
+    verify(dispatcherMock).dispatchDslEvent(eq(userId), eq(parentName), eq("test"), eq("OK"),
+        any(), anyLong(), anyLong(), elapsed.capture(), responseTime.capture(), any(), any());
+    assertThat(responseTime.getValue() >= elapsed.getValue() + 1000L, equalTo(true));
   }
 }
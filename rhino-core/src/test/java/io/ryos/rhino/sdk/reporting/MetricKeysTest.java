@@ -0,0 +1,41 @@
+package io.ryos.rhino.sdk.reporting;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Test;
+
+public class MetricKeysTest {
+
+  @Test
+  public void testKeysAreInternedIntoDenseIds() {
+    var scenario = EventKeys.idOf("MetricKeysTest");
+    var step = EventKeys.idOf("upload");
+    var ok = EventKeys.idOf("200");
+    var error = EventKeys.idOf("500");
+
+    var id = MetricKeys.idOf(scenario, step, ok);
+    assertThat(MetricKeys.idOf(scenario, step, ok), equalTo(id));
+    assertThat(MetricKeys.idOf(scenario, step, error), not(equalTo(id)));
+
+    var key = MetricKeys.keyOf(id);
+    assertThat(key.getId(), equalTo(id));
+    assertThat(key.toString(), equalTo("MetricKeysTest/upload/200"));
+  }
+
+  @Test
+  public void testKeysSurviveTableGrowth() {
+    var scenario = EventKeys.idOf("MetricKeysTest-growth");
+    var ids = new int[1000];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = MetricKeys.idOf(scenario, EventKeys.idOf("step-" + i), 0);
+    }
+
+    for (int i = 0; i < ids.length; i++) {
+      assertThat(MetricKeys.idOf(scenario, EventKeys.idOf("step-" + i), 0), equalTo(ids[i]));
+      assertThat(MetricKeys.keyOf(ids[i]).getMeasurementPoint(), equalTo("step-" + i));
+      assertThat(ids[i] < MetricKeys.size(), equalTo(true));
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package io.ryos.rhino.sdk.reporting;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Test;
+
+public class MetricTableTest {
+
+  @Test
+  public void testEventsAreRecordedPerKey() {
+    var table = new MetricTable();
+    assertThat(table.isEmpty(), equalTo(true));
+
+    record(table, "Upload", "200", "", 10L, 12L);
+    record(table, "Upload", "200", "", 30L, 40L);
+    record(table, "Discovery", "404", "", 5L, 5L);
+    table.roll();
+
+    var rows = table.getRows();
+    assertThat(rows.size(), equalTo(2));
+    assertThat(rows.get(0).getKey().toString(), equalTo("MetricTableTest/Discovery/404"));
+    assertThat(rows.get(1).getKey().toString(), equalTo("MetricTableTest/Upload/200"));
+    assertThat(rows.get(1).getCount(), equalTo(2L));
+    assertThat(rows.get(1).getServiceTimeSum(), equalTo(40L));
+    assertThat(rows.get(1).getResponseTimeSum(), equalTo(52L));
+    assertThat(rows.get(1).getServiceTimes().getCumulative().getTotalCount(), equalTo(2L));
+    assertThat(rows.get(1).getVerification(), nullValue());
+    assertThat(table.getStageRows().isEmpty(), equalTo(true));
+  }
+
+  @Test
+  public void testStagesAndVerificationsAreRecorded() {
+    var table = new MetricTable();
+    var slot = new EventSlot();
+    slot.setDslEvent("user", "MetricTableTest", "Upload", "500", "ramp-up", 0L, 10L, 10L, 10L,
+        new VerificationInfo<>("200", "200"::equals));
+    table.record(slot);
+    table.roll();
+
+    assertThat(table.getRows().get(0).getVerification(),
+        equalTo("FAIL  Expected 200 but was 500"));
+    var stageRows = table.getStageRows();
+    assertThat(stageRows.size(), equalTo(1));
+    assertThat(stageRows.get(0).getKey().toString(), equalTo("ramp-up/Upload/500"));
+    assertThat(stageRows.get(0).getCount(), equalTo(1L));
+  }
+
+  @Test
+  public void testConnectionPhasesAreAggregatedPerMeasurementPoint() {
+    var table = new MetricTable();
+    var slot = new EventSlot();
+    var phases = new ConnectionPhases();
+
+    phases.set(ConnectionPhases.Phase.CONNECT, 800L);
+    phases.set(ConnectionPhases.Phase.TTFB, 2000L);
+    slot.setDslEvent("user", "MetricTableTest", "Upload", "200", "", 0L, 3L, 3L, 3L, null,
+        phases);
+    table.record(slot);
+
+    phases.reset();
+    phases.set(ConnectionPhases.Phase.TTFB, 4000L);
+    slot.setDslEvent("user", "MetricTableTest", "Upload", "503", "", 0L, 4L, 4L, 4L, null,
+        phases);
+    table.record(slot);
+    record(table, "Discovery", "200", "", 5L, 5L);
+
+    var phaseRows = table.getPhaseRows();
+    assertThat(phaseRows.size(), equalTo(1));
+    assertThat(phaseRows.get(0).getKey().toString(), equalTo("MetricTableTest/Upload/"));
+    assertThat(phaseRows.get(0).getCount(ConnectionPhases.Phase.CONNECT), equalTo(1L));
+    assertThat(phaseRows.get(0).getMean(ConnectionPhases.Phase.CONNECT), equalTo(800d));
+    assertThat(phaseRows.get(0).getCount(ConnectionPhases.Phase.TTFB), equalTo(2L));
+    assertThat(phaseRows.get(0).getMean(ConnectionPhases.Phase.TTFB), equalTo(3000d));
+    assertThat(phaseRows.get(0).getMean(ConnectionPhases.Phase.DNS), equalTo(-1d));
+  }
+
+  private static void record(final MetricTable table, final String step, final String status,
+      final String stage, final long elapsed, final long responseTime) {
+    var slot = new EventSlot();
+    slot.setDslEvent("user", "MetricTableTest", step, status, stage, 0L, elapsed, elapsed,
+        responseTime, null);
+    table.record(slot);
+  }
+}
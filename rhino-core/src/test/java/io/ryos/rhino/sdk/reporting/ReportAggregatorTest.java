@@ -0,0 +1,66 @@
+package io.ryos.rhino.sdk.reporting;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.ryos.rhino.sdk.reporting.UserEvent.EventType;
+import org.junit.Test;
+
+public class ReportAggregatorTest {
+
+  @Test
+  public void testStepsAndErrorsAreAggregated() {
+    var report = new ReportAggregator();
+    var slot = new EventSlot();
+
+    slot.setUserEvent("user-0", "scenario", 1000L, 1000L, 0L, EventType.START, null);
+    report.add(slot);
+    for (int i = 0; i < 100; i++) {
+      var status = i % 10 == 0 ? "503" : "200";
+      slot.setDslEvent("user-0", "scenario", "step-" + i % 2, status, "steady", 1000L + i,
+          1010L + i, 10L, 10L, null);
+      report.add(slot);
+    }
+
+    assertThat(report.getTotalCount(), equalTo(100L));
+    assertThat(report.getTotalErrors(), equalTo(10L));
+    assertThat(report.getPeakUsers(), equalTo(1L));
+    assertThat(report.getSteps().size(), equalTo(2));
+    assertThat(report.getSteps().get(0).getKey().getMeasurementPoint(), equalTo("step-0"));
+    assertThat(report.getSteps().get(0).getCount(), equalTo(50L));
+    assertThat(report.getSteps().get(0).getErrors(), equalTo(10L));
+    assertThat(report.getErrorBreakdown().size(), equalTo(1));
+    assertThat(report.getErrorBreakdown().get(0).getKey().getStatus(), equalTo("503"));
+    assertThat(report.getErrorBreakdown().get(0).getCount(), equalTo(10L));
+  }
+
+  @Test
+  public void testTimelineIsCompactedWhenTheRunIsLong() {
+    var report = new ReportAggregator();
+    var slot = new EventSlot();
+
+    for (int second = 0; second < 10_000; second++) {
+      var timestamp = 1_000_000L + second * 1000L;
+      slot.setDslEvent("user-0", "scenario", "step", "200", "steady", timestamp, timestamp, 1L,
+          1L, null);
+      report.add(slot);
+    }
+
+    assertTrue(report.getTimeline().size() <= ReportAggregator.MAX_TIME_BUCKETS);
+    assertThat(report.getBucketWidthSecs(), equalTo(32L));
+    assertThat(report.getTimeline().stream().mapToLong(ReportAggregator.TimeBucket::getCount)
+        .sum(), equalTo(10_000L));
+  }
+
+  @Test
+  public void testGatlingAndHttpStatuses() {
+    assertFalse(ReportAggregator.isError("OK"));
+    assertTrue(ReportAggregator.isError("KO"));
+    assertFalse(ReportAggregator.isError("204"));
+    assertFalse(ReportAggregator.isError("302"));
+    assertTrue(ReportAggregator.isError("404"));
+    assertTrue(ReportAggregator.isError("Exception"));
+  }
+}
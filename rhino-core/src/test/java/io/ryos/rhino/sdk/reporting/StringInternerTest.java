@@ -0,0 +1,37 @@
+package io.ryos.rhino.sdk.reporting;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.Test;
+
+public class StringInternerTest {
+
+  @Test
+  public void testNamesAreInternedIntoDenseIds() {
+    var interner = new StringInterner(8, "other");
+
+    assertThat(interner.idOf(null), equalTo(0));
+    assertThat(interner.idOf(""), equalTo(0));
+    assertThat(interner.idOf("other"), equalTo(1));
+    assertThat(interner.idOf("upload"), equalTo(2));
+    assertThat(interner.idOf("upload"), equalTo(2));
+    assertThat(interner.nameOf(2), equalTo("upload"));
+  }
+
+  @Test
+  public void testNamesBeyondTheCapAreMappedToFallback() {
+    var interner = new StringInterner(4, "other");
+    var first = interner.idOf("error: 1");
+    var second = interner.idOf("error: 2");
+
+    for (int i = 3; i < 100; i++) {
+      assertThat(interner.idOf("error: " + i), equalTo(1));
+    }
+
+    assertThat(interner.idOf("error: 1"), equalTo(first));
+    assertThat(interner.idOf("error: 2"), equalTo(second));
+    assertThat(interner.size(), equalTo(4));
+    assertThat(interner.nameOf(interner.idOf("error: 99")), equalTo("other"));
+  }
+}
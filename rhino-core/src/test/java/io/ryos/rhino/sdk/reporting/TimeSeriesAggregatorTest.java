@@ -0,0 +1,99 @@
+package io.ryos.rhino.sdk.reporting;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.ryos.rhino.sdk.reporting.UserEvent.EventType;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class TimeSeriesAggregatorTest {
+
+  @Test
+  public void testEventsAreFoldedIntoPerSecondBuckets() {
+    var aggregator = new TimeSeriesAggregator(2L);
+    for (int i = 0; i < 100; i++) {
+      add(aggregator, "step", "200", 10_000L + i * 10, i + 1);
+    }
+    add(aggregator, "step", "500", 10_500L, 1000L);
+    add(aggregator, "step", "200", 11_000L, 5L);
+
+    var buckets = new ArrayList<String>();
+    aggregator.flush(13_000L, bucket -> buckets.add(describe(bucket)));
+
+    buckets.sort(String::compareTo);
+    assertThat(buckets.toString(), equalTo(
+        "[10/step/200 count=100 errors=0 min=1 max=100, 10/step/500 count=1 errors=1 min=1000 "
+            + "max=1000]"));
+    assertThat(aggregator.size(), equalTo(1));
+  }
+
+  @Test
+  public void testLateEventsAreFoldedIntoTheOldestOpenBucket() {
+    var aggregator = new TimeSeriesAggregator(0L);
+    add(aggregator, "step", "200", 10_000L, 1L);
+
+    List<String> buckets = new ArrayList<>();
+    aggregator.flush(11_000L, bucket -> buckets.add(describe(bucket)));
+    add(aggregator, "step", "200", 10_500L, 2L);
+    aggregator.flushAll(bucket -> buckets.add(describe(bucket)));
+
+    assertThat(buckets.toString(), equalTo(
+        "[10/step/200 count=1 errors=0 min=1 max=1, 11/step/200 count=1 errors=0 min=2 max=2]"));
+  }
+
+  @Test
+  public void testLoadStagesAreBucketedSeparately() {
+    var aggregator = new TimeSeriesAggregator();
+    add(aggregator, "step", "200", "ramp-up", 10_000L, 1L);
+    add(aggregator, "step", "200", "steady", 10_100L, 2L);
+    add(aggregator, "step", "200", "steady", 10_200L, 3L);
+
+    var buckets = new ArrayList<String>();
+    aggregator.flushAll(bucket -> buckets.add(bucket.getLoadStage() + " count="
+        + bucket.getCount()));
+
+    buckets.sort(String::compareTo);
+    assertThat(buckets.toString(), equalTo("[ramp-up count=1, steady count=2]"));
+  }
+
+  @Test
+  public void testOnlyCompletedUsersAreCounted() {
+    var aggregator = new TimeSeriesAggregator();
+    var slot = new EventSlot();
+    slot.setUserEvent("user", "scenario", 10_000L, 10_000L, 0L, EventType.START, null);
+    aggregator.add(slot);
+    slot.setUserEvent("user", "scenario", 10_000L, 10_400L, 400L, EventType.END, null);
+    aggregator.add(slot);
+
+    var counts = new ArrayList<Long>();
+    aggregator.flushAll(bucket -> counts.add(bucket.getCount()));
+
+    assertThat(counts.toString(), equalTo("[1]"));
+  }
+
+  private static void add(final TimeSeriesAggregator aggregator, final String step,
+      final String status, final long end, final long elapsed) {
+    add(aggregator, step, status, "", end, elapsed);
+  }
+
+  private static void add(final TimeSeriesAggregator aggregator, final String step,
+      final String status, final String loadStage, final long end, final long elapsed) {
+    var slot = new EventSlot();
+    slot.setDslEvent("user", "scenario", step, status, loadStage, end - elapsed, end, elapsed,
+        elapsed, null);
+    aggregator.add(slot);
+  }
+
+  private static String describe(final TimeSeriesBucket bucket) {
+    return String.format("%d/%s/%s count=%d errors=%d min=%d max=%d",
+        bucket.getEpochSecond(),
+        bucket.getMeasurementPoint(),
+        bucket.getStatus(),
+        bucket.getCount(),
+        bucket.getErrors(),
+        bucket.getServiceTimes().getMinValue(),
+        bucket.getServiceTimes().getMaxValue());
+  }
+}
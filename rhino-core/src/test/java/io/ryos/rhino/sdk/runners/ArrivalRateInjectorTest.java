@@ -0,0 +1,63 @@
+package io.ryos.rhino.sdk.runners;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import io.ryos.rhino.sdk.RampupCurve;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class ArrivalRateInjectorTest {
+
+  private static final long SEC = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  public void testLinearRate() {
+    var injector = new ArrivalRateInjector(10, 110, Duration.ofSeconds(10), RampupCurve.LINEAR);
+
+    assertThat(Math.round(injector.rateAt(0)), equalTo(10L));
+    assertThat(Math.round(injector.rateAt(5 * SEC)), equalTo(60L));
+    assertThat(Math.round(injector.rateAt(10 * SEC)), equalTo(110L));
+    assertThat(Math.round(injector.rateAt(60 * SEC)), equalTo(110L));
+  }
+
+  @Test
+  public void testExponentialRate() {
+    var injector = new ArrivalRateInjector(10, 1000, Duration.ofSeconds(10),
+        RampupCurve.EXPONENTIAL);
+
+    assertThat(Math.round(injector.rateAt(0)), equalTo(10L));
+    assertThat(Math.round(injector.rateAt(5 * SEC)), equalTo(100L));
+    assertThat(Math.round(injector.rateAt(10 * SEC)), equalTo(1000L));
+  }
+
+  @Test
+  public void testArrivalsFollowTheRate() {
+    var injector = new ArrivalRateInjector(1, 100, Duration.ofSeconds(10), RampupCurve.LINEAR);
+
+    var arrival = 0L;
+    var count = 0;
+    while (arrival < 10 * SEC) {
+      arrival = injector.nextArrival(arrival);
+      count++;
+    }
+
+    // The integral of the linear rate over the ramp-up phase is (1 + 100) / 2 * 10 = 505.
+    assertTrue(count >= 495 && count <= 515);
+  }
+
+  @Test
+  public void testConstantRateEmitsExactIntervals() {
+    var injector = new ArrivalRateInjector(4, 4, Duration.ZERO, RampupCurve.LINEAR);
+
+    assertThat(injector.nextArrival(0), equalTo(SEC / 4));
+    assertThat(injector.nextArrival(SEC), equalTo(SEC + SEC / 4));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTargetBelowStart() {
+    new ArrivalRateInjector(10, 1, Duration.ofSeconds(10), RampupCurve.LINEAR);
+  }
+}
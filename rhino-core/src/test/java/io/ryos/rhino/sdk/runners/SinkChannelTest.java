@@ -0,0 +1,106 @@
+package io.ryos.rhino.sdk.runners;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.ryos.rhino.sdk.reporting.EventSlot;
+import io.ryos.rhino.sdk.reporting.OverflowPolicy;
+import io.ryos.rhino.sdk.reporting.ResultSink;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+
+public class SinkChannelTest {
+
+  @Test
+  public void testSinkReceivesEventsInBatches() {
+    var sink = new RecordingSink(null);
+    var channel = new SinkChannel(sink, 16, OverflowPolicy.BLOCK);
+    channel.start();
+
+    var slot = new EventSlot();
+    for (int i = 0; i < 100; i++) {
+      slot.setDslEvent("user", "scenario", "step-" + i, "200", "", i, i + 1, 1, 1, null);
+      assertTrue(channel.offer(slot));
+    }
+    channel.stop(5000L);
+    channel.close();
+
+    assertThat(sink.steps.size(), equalTo(100));
+    assertThat(sink.steps.get(99), equalTo("step-99"));
+    assertTrue(sink.closed);
+  }
+
+  @Test
+  public void testDropPolicyDropsIfQueueIsFull() throws InterruptedException {
+    var release = new CountDownLatch(1);
+    var sink = new RecordingSink(release);
+    var channel = new SinkChannel(sink, 4, OverflowPolicy.DROP);
+    channel.start();
+
+    var slot = new EventSlot();
+    var accepted = 0;
+    for (int i = 0; i < 100; i++) {
+      slot.setDslEvent("user", "scenario", "step-" + i, "200", "", i, i + 1, 1, 1, null);
+      accepted += channel.offer(slot) ? 1 : 0;
+    }
+    release.countDown();
+    channel.stop(5000L);
+    channel.close();
+
+    assertThat(accepted + channel.getDropped(), equalTo(100L));
+    assertTrue(channel.getDropped() > 0);
+    assertThat((long) sink.steps.size(), equalTo((long) accepted));
+  }
+
+  @Test
+  public void testHealthSamplesAreAcceptedOnlyIfSinkOptsIn() {
+    var slot = new EventSlot();
+    slot.setHealthSample("cpu", 1000L, 42L);
+
+    var channel = new SinkChannel(new RecordingSink(null));
+    var optedIn = new SinkChannel(new RecordingSink(null) {
+      @Override
+      public boolean acceptsHealthSamples() {
+        return true;
+      }
+    });
+
+    assertFalse(channel.accepts(slot));
+    assertTrue(optedIn.accepts(slot));
+
+    slot.setDslEvent("user", "scenario", "step", "200", "", 0, 1, 1, 1, null);
+    assertTrue(channel.accepts(slot));
+  }
+
+  private static class RecordingSink implements ResultSink {
+
+    private final List<String> steps = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release;
+    private volatile boolean closed;
+
+    private RecordingSink(final CountDownLatch release) {
+      this.release = release;
+    }
+
+    @Override
+    public void onBatch(final List<EventSlot> events) {
+      if (release != null) {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      events.forEach(slot -> steps.add(slot.getMeasurementPoint()));
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+}